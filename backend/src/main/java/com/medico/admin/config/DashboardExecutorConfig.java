@@ -0,0 +1,29 @@
+package com.medico.admin.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class DashboardExecutorConfig {
+
+    /**
+     * Fixed-size pool for dashboard metric queries. Its size caps how many database connections
+     * dashboards can hold at once, however many users load one concurrently, so keep it well
+     * below the connection pool size.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor(
+        @Value("${medico.dashboard.parallelism:4}") int parallelism,
+        @Value("${medico.dashboard.queue-capacity:200}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -2,14 +2,17 @@ package com.medico.admin.controller;
 
 import com.medico.admin.dto.DashboardStatsDto;
 import com.medico.admin.service.DashboardService;
+import com.medico.admin.service.DashboardStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/dashboard")
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardStreamService dashboardStreamService;
 
     @GetMapping("/stats")
     @Operation(summary = "Get dashboard statistics", description = "Get all dashboard statistics")
@@ -25,5 +29,12 @@ public class DashboardController {
     public ResponseEntity<DashboardStatsDto> getDashboardStats() {
         return ResponseEntity.ok(dashboardService.getDashboardStats());
     }
-}
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream dashboard statistics",
+        description = "Server-sent events: an initial 'snapshot' followed by 'delta' events with changed metrics only")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public SseEmitter streamDashboardStats() {
+        return dashboardStreamService.subscribe();
+    }
+}
@@ -0,0 +1,48 @@
+package com.medico.admin.controller;
+
+import com.medico.admin.dto.PartitionDto;
+import com.medico.admin.service.PartitionMaintenanceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/partitions")
+@RequiredArgsConstructor
+@Tag(name = "Partitions", description = "APIs for monthly table partitions and their archives")
+public class PartitionController {
+
+    private final PartitionMaintenanceService partitionMaintenanceService;
+
+    @GetMapping
+    @Operation(summary = "List partitions", description = "List attached and archived monthly partitions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PartitionDto>> getPartitions() {
+        return ResponseEntity.ok(partitionMaintenanceService.getPartitions());
+    }
+
+    @PostMapping("/{table}/{month}/archive")
+    @Operation(summary = "Archive a month",
+        description = "Copy a closed month to compressed cold storage, then detach and drop its partition")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PartitionDto> archivePartition(@PathVariable String table, @PathVariable YearMonth month) {
+        return ResponseEntity.ok(partitionMaintenanceService.archivePartition(table, month));
+    }
+
+    @PostMapping("/{table}/{month}/restore")
+    @Operation(summary = "Restore a month", description = "Reload an archived month and attach its partition again")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PartitionDto> restorePartition(@PathVariable String table, @PathVariable YearMonth month) {
+        return ResponseEntity.ok(partitionMaintenanceService.restorePartition(table, month));
+    }
+}
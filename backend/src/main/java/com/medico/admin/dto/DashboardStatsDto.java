@@ -1,6 +1,7 @@
 package com.medico.admin.dto;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public record DashboardStatsDto(
     // Patient stats
@@ -25,6 +26,9 @@ public record DashboardStatsDto(
     long overdueInvoices,
     
     // Prescription stats
-    long activePrescriptions
+    long activePrescriptions,
+
+    // Metrics that failed or timed out and carry their last known value
+    List<String> unavailableMetrics
 ) {}
 
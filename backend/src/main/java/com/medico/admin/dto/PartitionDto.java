@@ -0,0 +1,15 @@
+package com.medico.admin.dto;
+
+import java.time.YearMonth;
+
+public record PartitionDto(
+    String table,
+    String partition,
+    YearMonth month,
+    PartitionState state
+) {
+    public enum PartitionState {
+        ATTACHED,
+        ARCHIVED
+    }
+}
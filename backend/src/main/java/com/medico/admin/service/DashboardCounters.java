@@ -0,0 +1,185 @@
+package com.medico.admin.service;
+
+import com.medico.admin.dto.DashboardStatsDto;
+import com.medico.billing.domain.Invoice;
+import com.medico.billing.domain.Invoice.InvoiceStatus;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.event.StateChangedEvent.State;
+import com.medico.laboratory.domain.LabOrder;
+import com.medico.laboratory.domain.LabOrder.OrderStatus;
+import com.medico.laboratory.domain.LabResult;
+import com.medico.patient.domain.Appointment;
+import com.medico.patient.domain.Patient;
+import com.medico.patient.domain.Prescription;
+import com.medico.patient.domain.Prescription.PrescriptionStatus;
+import com.medico.pharmacy.domain.Medication;
+import com.medico.pharmacy.domain.PrescriptionDispensing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory dashboard counters. Entity-driven metrics are adjusted from committed
+ * {@link StateChangedEvent}s; every metric is periodically overwritten by a database
+ * reconciliation from {@link DashboardService}, which corrects drift from other instances,
+ * bulk SQL or lost events. Window and threshold metrics (stock levels, expiring stock and
+ * today's revenue) only move on reconciliation.
+ */
+@Slf4j
+@Component
+public class DashboardCounters {
+
+    private static final List<Rule> RULES = List.of(
+        new Rule("totalPatients", Patient.class, (state, today) -> isActive(state)),
+        new Rule("todayAppointments", Appointment.class, (state, today) -> today.equals(state.day())),
+        new Rule("totalMedications", Medication.class, (state, today) -> isActive(state)),
+        new Rule("todayDispensings", PrescriptionDispensing.class, (state, today) -> today.equals(state.day())),
+        new Rule("pendingLabOrders", LabOrder.class, (state, today) -> hasStatus(state, OrderStatus.PENDING)),
+        new Rule("todayLabOrders", LabOrder.class, (state, today) -> today.equals(state.day())),
+        new Rule("pendingVerifications", LabResult.class, (state, today) -> !Boolean.parseBoolean(state.status())),
+        new Rule("pendingInvoices", Invoice.class, (state, today) -> hasStatus(state, InvoiceStatus.PENDING)),
+        new Rule("overdueInvoices", Invoice.class, (state, today) -> hasStatus(state, InvoiceStatus.OVERDUE)),
+        new Rule("activePrescriptions", Prescription.class, (state, today) -> hasStatus(state, PrescriptionStatus.ACTIVE)));
+
+    private static final Map<String, ToLongFunction<DashboardStatsDto>> COUNTED = new LinkedHashMap<>();
+
+    static {
+        COUNTED.put("totalPatients", DashboardStatsDto::totalPatients);
+        COUNTED.put("todayAppointments", DashboardStatsDto::todayAppointments);
+        COUNTED.put("pendingAppointments", DashboardStatsDto::pendingAppointments);
+        COUNTED.put("totalMedications", DashboardStatsDto::totalMedications);
+        COUNTED.put("lowStockItems", DashboardStatsDto::lowStockItems);
+        COUNTED.put("expiringItems", DashboardStatsDto::expiringItems);
+        COUNTED.put("todayDispensings", DashboardStatsDto::todayDispensings);
+        COUNTED.put("pendingLabOrders", DashboardStatsDto::pendingLabOrders);
+        COUNTED.put("todayLabOrders", DashboardStatsDto::todayLabOrders);
+        COUNTED.put("pendingVerifications", DashboardStatsDto::pendingVerifications);
+        COUNTED.put("pendingInvoices", DashboardStatsDto::pendingInvoices);
+        COUNTED.put("overdueInvoices", DashboardStatsDto::overdueInvoices);
+        COUNTED.put("activePrescriptions", DashboardStatsDto::activePrescriptions);
+    }
+
+    private final Map<String, AtomicLong> counts = new LinkedHashMap<>();
+
+    private volatile BigDecimal todayRevenue = BigDecimal.ZERO;
+    private volatile List<String> unavailableMetrics = List.of();
+    private volatile Instant reconciledAt;
+    private volatile LocalDate reconciledDay;
+
+    public DashboardCounters() {
+        COUNTED.keySet().forEach(name -> counts.put(name, new AtomicLong()));
+    }
+
+    @TransactionalEventListener
+    public void onStateChanged(StateChangedEvent event) {
+        if (event.isNoOp()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (Rule rule : RULES) {
+            if (rule.entityType() == event.entityType()) {
+                int delta = rule.count(event.after(), today) - rule.count(event.before(), today);
+                if (delta != 0) {
+                    counts.get(rule.metric()).addAndGet(delta);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the counters with freshly computed values. Metrics that could not be computed keep
+     * their current in-memory value.
+     */
+    public void reconcile(DashboardStatsDto stats) {
+        COUNTED.forEach((name, value) -> {
+            if (!stats.unavailableMetrics().contains(name)) {
+                long fresh = value.applyAsLong(stats);
+                long previous = counts.get(name).getAndSet(fresh);
+                if (previous != fresh && isInitialized()) {
+                    log.debug("Dashboard counter {} drifted from {} to {}", name, previous, fresh);
+                }
+            }
+        });
+        if (!stats.unavailableMetrics().contains("todayRevenue")) {
+            todayRevenue = stats.todayRevenue();
+        }
+        unavailableMetrics = stats.unavailableMetrics();
+        reconciledDay = LocalDate.now();
+        reconciledAt = Instant.now();
+    }
+
+    public boolean isInitialized() {
+        return reconciledAt != null;
+    }
+
+    /**
+     * Stale once the TTL has passed or the day has rolled over, since the "today" metrics
+     * cannot be rolled forward from events alone.
+     */
+    public boolean isStale(Duration ttl) {
+        Instant lastReconciled = reconciledAt;
+        return lastReconciled == null
+            || lastReconciled.plus(ttl).isBefore(Instant.now())
+            || !LocalDate.now().equals(reconciledDay);
+    }
+
+    public DashboardStatsDto snapshot() {
+        return new DashboardStatsDto(
+            // Patient stats
+            count("totalPatients"),
+            count("todayAppointments"),
+            count("pendingAppointments"),
+
+            // Pharmacy stats
+            count("totalMedications"),
+            count("lowStockItems"),
+            count("expiringItems"),
+            count("todayDispensings"),
+
+            // Laboratory stats
+            count("pendingLabOrders"),
+            count("todayLabOrders"),
+            count("pendingVerifications"),
+
+            // Billing stats
+            todayRevenue,
+            count("pendingInvoices"),
+            count("overdueInvoices"),
+
+            // Prescription stats
+            count("activePrescriptions"),
+
+            unavailableMetrics
+        );
+    }
+
+    private long count(String metric) {
+        return Math.max(0, counts.get(metric).get());
+    }
+
+    private static boolean isActive(State state) {
+        return Boolean.parseBoolean(state.status());
+    }
+
+    private static boolean hasStatus(State state, Enum<?> status) {
+        return status.name().equals(state.status());
+    }
+
+    private record Rule(String metric, Class<?> entityType, BiPredicate<State, LocalDate> matches) {
+
+        int count(State state, LocalDate today) {
+            return state != null && matches.test(state, today) ? 1 : 0;
+        }
+    }
+}
@@ -11,15 +11,42 @@ import com.medico.patient.service.PrescriptionService;
 import com.medico.pharmacy.service.DispensingService;
 import com.medico.pharmacy.service.InventoryService;
 import com.medico.pharmacy.service.MedicationService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serves dashboard statistics from the in-memory {@link DashboardCounters}. The counters are
+ * reconciled against the database on a fixed schedule and, should that fall behind, on the
+ * first read after the TTL expires.
+ * <p>
+ * Reconciliation runs the independent aggregate queries concurrently on the bounded
+ * {@code dashboardExecutor}. Each metric has its own timeout; a metric that fails or
+ * times out falls back to its last successfully computed value (or zero) and is reported in
+ * {@link DashboardStatsDto#unavailableMetrics()}, so one slow query cannot stall the dashboard.
+ * Each query also runs in a read-only transaction with the same timeout, which Hibernate and
+ * JDBC apply as the statement timeout, so a timed-out query is cancelled in the database rather
+ * than left holding a connection and a pool thread.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class DashboardService {
 
     private final PatientService patientService;
@@ -32,33 +59,143 @@ public class DashboardService {
     private final LabResultService labResultService;
     private final InvoiceService invoiceService;
     private final PaymentService paymentService;
+    private final ThreadPoolTaskExecutor dashboardExecutor;
+    private final DashboardCounters counters;
+    private final TransactionTemplate metricTransaction;
+    private final Duration metricTimeout;
+
+    private final Map<String, Object> lastKnownValues = new ConcurrentHashMap<>();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    @Value("${medico.dashboard.counters.ttl:PT1M}")
+    private Duration countersTtl;
+
+    public DashboardService(PatientService patientService, AppointmentService appointmentService,
+                            PrescriptionService prescriptionService, MedicationService medicationService,
+                            InventoryService inventoryService, DispensingService dispensingService,
+                            LabOrderService labOrderService, LabResultService labResultService,
+                            InvoiceService invoiceService, PaymentService paymentService,
+                            ThreadPoolTaskExecutor dashboardExecutor, DashboardCounters counters,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${medico.dashboard.metric-timeout:PT2S}") Duration metricTimeout) {
+        this.patientService = patientService;
+        this.appointmentService = appointmentService;
+        this.prescriptionService = prescriptionService;
+        this.medicationService = medicationService;
+        this.inventoryService = inventoryService;
+        this.dispensingService = dispensingService;
+        this.labOrderService = labOrderService;
+        this.labResultService = labResultService;
+        this.invoiceService = invoiceService;
+        this.paymentService = paymentService;
+        this.dashboardExecutor = dashboardExecutor;
+        this.counters = counters;
+        this.metricTimeout = metricTimeout;
+        // The transaction timeout becomes the JDBC statement timeout, rounded up to whole seconds
+        this.metricTransaction = new TransactionTemplate(transactionManager);
+        this.metricTransaction.setReadOnly(true);
+        this.metricTransaction.setTimeout((int) Math.max(1, metricTimeout.plusMillis(999).toSeconds()));
+    }
 
     public DashboardStatsDto getDashboardStats() {
+        if (counters.isStale(countersTtl)) {
+            // Only the very first read has to wait; later ones serve the current counters
+            reconcile(!counters.isInitialized());
+        }
+        return counters.snapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${medico.dashboard.counters.reconcile-interval:PT30S}")
+    public void reconcileCounters() {
+        reconcile(false);
+    }
+
+    private void reconcile(boolean waitForRunning) {
+        if (waitForRunning) {
+            reconcileLock.lock();
+        } else if (!reconcileLock.tryLock()) {
+            return;
+        }
+        try {
+            if (waitForRunning && !counters.isStale(countersTtl)) {
+                return;
+            }
+            counters.reconcile(computeStats());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private DashboardStatsDto computeStats() {
+        Set<String> unavailable = ConcurrentHashMap.newKeySet();
+
+        CompletableFuture<Long> totalPatients = metric("totalPatients", patientService::getActivePatientCount, 0L, unavailable);
+        CompletableFuture<Long> todayAppointments = metric("todayAppointments", appointmentService::getTodayAppointmentCount, 0L, unavailable);
+        CompletableFuture<Long> totalMedications = metric("totalMedications", medicationService::getActiveMedicationCount, 0L, unavailable);
+        CompletableFuture<Long> lowStockItems = metric("lowStockItems", inventoryService::getLowStockCount, 0L, unavailable);
+        CompletableFuture<Long> expiringItems = metric("expiringItems", inventoryService::getExpiringItemsCount, 0L, unavailable);
+        CompletableFuture<Long> todayDispensings = metric("todayDispensings", dispensingService::getTodayDispensingCount, 0L, unavailable);
+        CompletableFuture<Long> pendingLabOrders = metric("pendingLabOrders", labOrderService::getPendingOrderCount, 0L, unavailable);
+        CompletableFuture<Long> todayLabOrders = metric("todayLabOrders", labOrderService::getTodayOrderCount, 0L, unavailable);
+        CompletableFuture<Long> pendingVerifications = metric("pendingVerifications", labResultService::getPendingVerificationCount, 0L, unavailable);
+        CompletableFuture<BigDecimal> todayRevenue = metric("todayRevenue", paymentService::getTodayTotalPayments, BigDecimal.ZERO, unavailable);
+        CompletableFuture<Long> pendingInvoices = metric("pendingInvoices", invoiceService::getPendingInvoiceCount, 0L, unavailable);
+        CompletableFuture<Long> overdueInvoices = metric("overdueInvoices", invoiceService::getOverdueInvoiceCount, 0L, unavailable);
+        CompletableFuture<Long> activePrescriptions = metric("activePrescriptions", prescriptionService::getActivePrescriptionCount, 0L, unavailable);
+
+        CompletableFuture.allOf(totalPatients, todayAppointments, totalMedications, lowStockItems, expiringItems,
+            todayDispensings, pendingLabOrders, todayLabOrders, pendingVerifications, todayRevenue, pendingInvoices,
+            overdueInvoices, activePrescriptions).join();
+
         return new DashboardStatsDto(
             // Patient stats
-            patientService.getActivePatientCount(),
-            appointmentService.getTodayAppointmentCount(),
+            totalPatients.join(),
+            todayAppointments.join(),
             0, // Can be implemented as needed
-            
+
             // Pharmacy stats
-            medicationService.getActiveMedicationCount(),
-            inventoryService.getLowStockCount(),
-            inventoryService.getExpiringItemsCount(),
-            dispensingService.getTodayDispensingCount(),
-            
+            totalMedications.join(),
+            lowStockItems.join(),
+            expiringItems.join(),
+            todayDispensings.join(),
+
             // Laboratory stats
-            labOrderService.getPendingOrderCount(),
-            labOrderService.getTodayOrderCount(),
-            labResultService.getPendingVerificationCount(),
-            
+            pendingLabOrders.join(),
+            todayLabOrders.join(),
+            pendingVerifications.join(),
+
             // Billing stats
-            paymentService.getTodayTotalPayments(),
-            invoiceService.getPendingInvoiceCount(),
-            invoiceService.getOverdueInvoiceCount(),
-            
+            todayRevenue.join(),
+            pendingInvoices.join(),
+            overdueInvoices.join(),
+
             // Prescription stats
-            prescriptionService.getActivePrescriptionCount()
+            activePrescriptions.join(),
+
+            List.copyOf(unavailable)
         );
     }
-}
 
+    private <T> CompletableFuture<T> metric(String name, Supplier<T> query, T defaultValue, Set<String> unavailable) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> metricTransaction.execute(status -> query.get()), dashboardExecutor);
+        } catch (RejectedExecutionException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future
+            .orTimeout(metricTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .handle((value, error) -> {
+                if (error == null) {
+                    lastKnownValues.put(name, value);
+                    return value;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                log.warn("Dashboard metric {} unavailable, using fallback: {}", name, cause.toString());
+                unavailable.add(name);
+                @SuppressWarnings("unchecked")
+                T fallback = (T) lastKnownValues.getOrDefault(name, defaultValue);
+                return fallback;
+            });
+    }
+}
@@ -0,0 +1,174 @@
+package com.medico.admin.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medico.admin.dto.DashboardStatsDto;
+import com.medico.common.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes dashboard statistics to server-sent event subscribers. A single scheduled tick reads
+ * the shared in-memory counters once and broadcasts only the metrics that changed since the
+ * previous tick, so bursts of updates coalesce into at most one event per interval regardless
+ * of the number of subscribers. Emitters are completed asynchronously by the servlet container;
+ * an idle subscriber holds a connection but no thread. Registering a subscriber and publishing a
+ * tick are serialized, so a new subscriber's snapshot is always the base of the next delta.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStreamService {
+
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {};
+
+    private final DashboardService dashboardService;
+    private final ObjectMapper objectMapper;
+
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+    // Guards lastPublished together with the events sent from it
+    private final Object publishLock = new Object();
+
+    private volatile Map<String, Object> lastPublished;
+    private volatile Instant lastSentAt = Instant.now();
+
+    @Value("${medico.dashboard.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${medico.dashboard.stream.heartbeat:PT15S}")
+    private Duration heartbeat;
+
+    @Value("${medico.dashboard.stream.max-subscribers:5000}")
+    private int maxSubscribers;
+
+    /**
+     * Registers a subscriber and sends it the full statistics as the initial {@code snapshot}
+     * event; subsequent {@code delta} events carry only the changed fields.
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new BusinessException("Dashboard stream is at capacity, poll the statistics endpoint instead");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+
+        // Read outside the lock; only used when nothing has been published yet
+        Map<String, Object> fresh = lastPublished == null ? fields(dashboardService.getDashboardStats()) : null;
+        synchronized (publishLock) {
+            Map<String, Object> current = lastPublished != null ? lastPublished : fresh;
+            if (current == null) {
+                // Published and reset to null since the check above
+                current = fields(dashboardService.getDashboardStats());
+            }
+            if (send(emitter, "snapshot", serialize(current))) {
+                subscribers.add(emitter);
+            }
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${medico.dashboard.stream.interval:PT2S}")
+    public void publishChanges() {
+        if (subscribers.isEmpty()) {
+            synchronized (publishLock) {
+                if (subscribers.isEmpty()) {
+                    lastPublished = null;
+                }
+            }
+            return;
+        }
+
+        Map<String, Object> current = fields(dashboardService.getDashboardStats());
+        synchronized (publishLock) {
+            Map<String, Object> previous = lastPublished;
+            lastPublished = current;
+
+            Map<String, Object> delta = previous == null ? current : delta(previous, current);
+            if (!delta.isEmpty()) {
+                broadcast("delta", serialize(delta));
+            } else if (lastSentAt.plus(heartbeat).isBefore(Instant.now())) {
+                // Comment frames keep idle connections open through proxies without waking clients
+                broadcast(null, null);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void broadcast(String name, String payload) {
+        lastSentAt = Instant.now();
+        int dropped = 0;
+        for (SseEmitter emitter : subscribers) {
+            boolean sent = name != null ? send(emitter, name, payload) : sendHeartbeat(emitter);
+            if (!sent) {
+                subscribers.remove(emitter);
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.debug("Dropped {} disconnected dashboard subscribers, {} remain", dropped, subscribers.size());
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String name, String payload) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(payload, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private boolean sendHeartbeat(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private Map<String, Object> fields(DashboardStatsDto stats) {
+        return objectMapper.convertValue(stats, FIELDS);
+    }
+
+    private static Map<String, Object> delta(Map<String, Object> previous, Map<String, Object> current) {
+        Map<String, Object> changed = new LinkedHashMap<>();
+        current.forEach((name, value) -> {
+            if (!Objects.equals(previous.get(name), value)) {
+                changed.put(name, value);
+            }
+        });
+        return changed;
+    }
+
+    private String serialize(Map<String, Object> fields) {
+        try {
+            // Serialized once per tick and shared by every subscriber
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize dashboard statistics", e);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.medico.admin.service;
+
+import com.medico.admin.dto.PartitionDto;
+import com.medico.admin.dto.PartitionDto.PartitionState;
+import com.medico.common.exception.BusinessException;
+import com.medico.common.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly partitions of the range-partitioned tables (see V8). Partitions are
+ * created {@code months-ahead} in advance at startup and nightly, so inserts never land in the
+ * DEFAULT partition. Closed months can be archived: the partition is copied to a gzip-compressed
+ * CSV file under {@code archive-dir}, then detached and dropped. Restoring recreates the
+ * partition from its archive and attaches it again.
+ */
+@Slf4j
+@Service
+public class PartitionMaintenanceService {
+
+    public static final Set<String> PARTITIONED_TABLES = Set.of("prescription_dispensing", "lab_results", "payments");
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String ARCHIVE_EXTENSION = ".csv.gz";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${medico.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${medico.partitions.archive-dir:./archive/partitions}")
+    private Path archiveDir;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                       PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${medico.partitions.maintenance-cron:0 30 2 * * *}")
+    public void createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (String table : PARTITIONED_TABLES) {
+            for (int i = 0; i <= monthsAhead; i++) {
+                jdbcTemplate.queryForObject("SELECT medico_create_monthly_partition(?, ?)", String.class,
+                    table, current.plusMonths(i).atDay(1));
+            }
+        }
+        log.debug("Ensured monthly partitions through {}", current.plusMonths(monthsAhead));
+    }
+
+    public List<PartitionDto> getPartitions() {
+        List<PartitionDto> partitions = new ArrayList<>(jdbcTemplate.query("""
+                SELECT parent.relname, child.relname
+                FROM pg_inherits i
+                JOIN pg_class parent ON parent.oid = i.inhparent
+                JOIN pg_class child ON child.oid = i.inhrelid
+                WHERE parent.relname = ANY (?)
+                """,
+            (rs, rowNum) -> toPartition(rs.getString(1), rs.getString(2), PartitionState.ATTACHED),
+            (Object) PARTITIONED_TABLES.toArray(String[]::new)));
+        partitions.removeIf(partition -> partition.month() == null);
+
+        if (Files.isDirectory(archiveDir)) {
+            try (Stream<Path> files = Files.list(archiveDir)) {
+                files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(ARCHIVE_EXTENSION))
+                    .map(name -> name.substring(0, name.length() - ARCHIVE_EXTENSION.length()))
+                    .forEach(name -> PARTITIONED_TABLES.stream()
+                        .filter(table -> name.startsWith(table + "_"))
+                        .map(table -> toPartition(table, name, PartitionState.ARCHIVED))
+                        .filter(partition -> partition.month() != null)
+                        .forEach(partitions::add));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        partitions.sort(Comparator.comparing(PartitionDto::table).thenComparing(PartitionDto::month));
+        return partitions;
+    }
+
+    /**
+     * Copies a closed month to its archive file, then detaches and drops the partition. Writes to
+     * the partition are blocked while it is being copied; reads continue until the detach.
+     */
+    public PartitionDto archivePartition(String table, YearMonth month) {
+        validateTable(table);
+        if (!month.isBefore(YearMonth.now())) {
+            throw new BusinessException("Only closed months can be archived");
+        }
+        String partition = partitionName(table, month);
+        if (!isAttached(table, partition)) {
+            throw new ResourceNotFoundException("Partition", "name", partition);
+        }
+
+        Path archive = archiveDir.resolve(partition + ARCHIVE_EXTENSION);
+        Long rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE " + partition + " IN SHARE MODE");
+            Path temp = archiveDir.resolve(partition + ARCHIVE_EXTENSION + ".tmp");
+            long copied;
+            try {
+                Files.createDirectories(archiveDir);
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    copied = pgConnection().getCopyAPI().copyOut("COPY " + partition + " TO STDOUT WITH (FORMAT csv)", out);
+                }
+                Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write archive " + archive, e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not copy partition " + partition, e);
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            return copied;
+        });
+
+        log.info("Archived partition {} ({} rows) to {}", partition, rows, archive);
+        return new PartitionDto(table, partition, month, PartitionState.ARCHIVED);
+    }
+
+    /**
+     * Recreates an archived month from its archive file and attaches it to its table again.
+     * The archive file is removed once the partition is back.
+     */
+    public PartitionDto restorePartition(String table, YearMonth month) {
+        validateTable(table);
+        String partition = partitionName(table, month);
+        Path archive = archiveDir.resolve(partition + ARCHIVE_EXTENSION);
+        if (!Files.exists(archive)) {
+            throw new ResourceNotFoundException("Partition archive", "name", partition);
+        }
+        if (isAttached(table, partition)) {
+            throw new BusinessException("Partition " + partition + " is already attached");
+        }
+
+        Long rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + table + " INCLUDING DEFAULTS)");
+            long copied;
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+                copied = pgConnection().getCopyAPI().copyIn("COPY " + partition + " FROM STDIN WITH (FORMAT csv)", in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read archive " + archive, e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not load partition " + partition, e);
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + partition + " FOR VALUES FROM ('"
+                + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            return copied;
+        });
+
+        try {
+            Files.delete(archive);
+        } catch (IOException e) {
+            log.warn("Restored partition {} but could not remove archive {}: {}", partition, archive, e.getMessage());
+        }
+        log.info("Restored partition {} ({} rows) from {}", partition, rows, archive);
+        return new PartitionDto(table, partition, month, PartitionState.ATTACHED);
+    }
+
+    private boolean isAttached(String table, String partition) {
+        Boolean attached = jdbcTemplate.queryForObject("""
+                SELECT EXISTS (
+                    SELECT 1 FROM pg_inherits i
+                    JOIN pg_class parent ON parent.oid = i.inhparent
+                    JOIN pg_class child ON child.oid = i.inhrelid
+                    WHERE parent.relname = ? AND child.relname = ?)
+                """, Boolean.class, table, partition);
+        return Boolean.TRUE.equals(attached);
+    }
+
+    // Must run inside the transaction so that COPY uses the transaction's connection
+    private PGConnection pgConnection() throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        return connection.unwrap(PGConnection.class);
+    }
+
+    private static void validateTable(String table) {
+        if (!PARTITIONED_TABLES.contains(table)) {
+            throw new BusinessException("Table " + table + " is not partitioned");
+        }
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return table + "_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static PartitionDto toPartition(String table, String partition, PartitionState state) {
+        String suffix = partition.substring(table.length() + 1);
+        try {
+            return new PartitionDto(table, partition, YearMonth.parse(suffix, PARTITION_SUFFIX), state);
+        } catch (RuntimeException e) {
+            // The DEFAULT partition and unrelated files carry no month
+            return new PartitionDto(table, partition, null, state);
+        }
+    }
+}
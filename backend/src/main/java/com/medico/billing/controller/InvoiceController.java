@@ -3,7 +3,9 @@ package com.medico.billing.controller;
 import com.medico.billing.domain.Invoice.InvoiceStatus;
 import com.medico.billing.dto.*;
 import com.medico.billing.service.InvoiceService;
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -30,15 +32,28 @@ public class InvoiceController {
     @GetMapping
     @Operation(summary = "Get all invoices", description = "Retrieve a paginated list of all invoices")
     @PreAuthorize("hasAnyRole('ADMIN', 'BILLING_STAFF')")
+    @QueryBudget(3)
     public ResponseEntity<PageResponse<InvoiceDto>> getAllInvoices(
         @PageableDefault(size = 20, sort = "invoiceDate", direction = Sort.Direction.DESC) Pageable pageable
     ) {
         return ResponseEntity.ok(invoiceService.getAllInvoices(pageable));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get invoices by cursor", description = "Keyset-paginated list of invoices, newest first; pass nextCursor to continue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'BILLING_STAFF')")
+    @QueryBudget(2)
+    public ResponseEntity<CursorPage<InvoiceDto>> getAllInvoicesByCursor(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(invoiceService.getAllInvoicesByCursor(cursor, size));
+    }
+
     @GetMapping("/patient/{patientId}")
     @Operation(summary = "Get patient invoices", description = "Get all invoices for a patient")
     @PreAuthorize("hasAnyRole('ADMIN', 'BILLING_STAFF', 'RECEPTIONIST')")
+    @QueryBudget(3)
     public ResponseEntity<PageResponse<InvoiceDto>> getPatientInvoices(
         @PathVariable UUID patientId,
         @PageableDefault(size = 20, sort = "invoiceDate", direction = Sort.Direction.DESC) Pageable pageable
@@ -49,6 +64,7 @@ public class InvoiceController {
     @GetMapping("/status/{status}")
     @Operation(summary = "Get invoices by status", description = "Get invoices filtered by status")
     @PreAuthorize("hasAnyRole('ADMIN', 'BILLING_STAFF')")
+    @QueryBudget(3)
     public ResponseEntity<PageResponse<InvoiceDto>> getInvoicesByStatus(
         @PathVariable InvoiceStatus status,
         @PageableDefault(size = 20, sort = "invoiceDate", direction = Sort.Direction.DESC) Pageable pageable
@@ -4,6 +4,7 @@ import com.medico.billing.domain.Payment.PaymentStatus;
 import com.medico.billing.dto.*;
 import com.medico.billing.service.PaymentService;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -38,6 +39,7 @@ public class PaymentController {
     @GetMapping("/status/{status}")
     @Operation(summary = "Get payments by status", description = "Get payments filtered by status")
     @PreAuthorize("hasAnyRole('ADMIN', 'BILLING_STAFF')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<PaymentDto>> getPaymentsByStatus(
         @PathVariable PaymentStatus status,
         @PageableDefault(size = 20, sort = "paymentDate", direction = Sort.Direction.DESC) Pageable pageable
@@ -29,5 +29,23 @@ public record InvoiceDto(
     List<BillingItemDto> items,
     LocalDateTime createdAt,
     LocalDateTime updatedAt
-) {}
+) {
+    /**
+     * Header-only constructor used by list projections; items are attached with {@link #withItems}.
+     */
+    public InvoiceDto(UUID id, String invoiceNumber, UUID patientId, String patientName, String patientMrn,
+                      LocalDateTime invoiceDate, LocalDate dueDate, InvoiceStatus status, BigDecimal subtotal,
+                      BigDecimal taxAmount, BigDecimal discountAmount, BigDecimal totalAmount, BigDecimal paidAmount,
+                      BigDecimal balanceDue, String notes, UUID createdById, String createdByName,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, invoiceNumber, patientId, patientName, patientMrn, invoiceDate, dueDate, status, subtotal,
+            taxAmount, discountAmount, totalAmount, paidAmount, balanceDue, notes, createdById, createdByName,
+            List.of(), createdAt, updatedAt);
+    }
 
+    public InvoiceDto withItems(List<BillingItemDto> items) {
+        return new InvoiceDto(id, invoiceNumber, patientId, patientName, patientMrn, invoiceDate, dueDate, status,
+            subtotal, taxAmount, discountAmount, totalAmount, paidAmount, balanceDue, notes, createdById,
+            createdByName, items, createdAt, updatedAt);
+    }
+}
@@ -2,6 +2,10 @@ package com.medico.billing.repository;
 
 import com.medico.billing.domain.Invoice;
 import com.medico.billing.domain.Invoice.InvoiceStatus;
+import com.medico.billing.dto.BillingItemDto;
+import com.medico.billing.dto.InvoiceDto;
+import com.medico.common.persistence.StreamingQuery;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,9 +16,11 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
@@ -23,10 +29,6 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
 
     boolean existsByInvoiceNumber(String invoiceNumber);
 
-    Page<Invoice> findByPatientIdOrderByInvoiceDateDesc(UUID patientId, Pageable pageable);
-
-    Page<Invoice> findByStatusOrderByInvoiceDateDesc(InvoiceStatus status, Pageable pageable);
-
     @Query("SELECT i FROM Invoice i WHERE i.status = 'PENDING' AND i.dueDate < :today")
     List<Invoice> findOverdueInvoices(@Param("today") LocalDate today);
 
@@ -50,5 +52,64 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
 
     @Query("SELECT COUNT(i) FROM Invoice i WHERE i.invoiceDate BETWEEN :start AND :end")
     long countInvoicesInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-}
 
+    String INVOICE_DTO =
+        "SELECT new com.medico.billing.dto.InvoiceDto(i.id, i.invoiceNumber, p.id, CONCAT(p.firstName, ' ', p.lastName), " +
+        "p.medicalRecordNumber, i.invoiceDate, i.dueDate, i.status, i.subtotal, i.taxAmount, i.discountAmount, " +
+        "i.totalAmount, i.paidAmount, i.balanceDue, i.notes, i.createdById, i.createdByName, i.createdAt, i.updatedAt) " +
+        "FROM Invoice i JOIN i.patient p ";
+
+    @Query(value = INVOICE_DTO,
+           countQuery = "SELECT COUNT(i) FROM Invoice i")
+    Page<InvoiceDto> findAllDtos(Pageable pageable);
+
+    @Query(value = INVOICE_DTO + "WHERE p.id = :patientId ORDER BY i.invoiceDate DESC",
+           countQuery = "SELECT COUNT(i) FROM Invoice i WHERE i.patient.id = :patientId")
+    Page<InvoiceDto> findDtosByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query(value = INVOICE_DTO + "WHERE i.status = :status ORDER BY i.invoiceDate DESC",
+           countQuery = "SELECT COUNT(i) FROM Invoice i WHERE i.status = :status")
+    Page<InvoiceDto> findDtosByStatus(@Param("status") InvoiceStatus status, Pageable pageable);
+
+    /**
+     * Rows: invoice id, {@link BillingItemDto}.
+     */
+    @Query("SELECT bi.invoice.id, new com.medico.billing.dto.BillingItemDto(bi.id, bi.itemType, bi.referenceId, " +
+           "bi.description, bi.quantity, bi.unitPrice, bi.discountPercent, bi.totalPrice, bi.notes) " +
+           "FROM BillingItem bi WHERE bi.invoice.id IN :invoiceIds ORDER BY bi.id")
+    List<Object[]> findItemDtosByInvoiceIds(@Param("invoiceIds") Collection<UUID> invoiceIds);
+
+    @Query(INVOICE_DTO + "ORDER BY i.invoiceDate DESC, i.id DESC")
+    List<InvoiceDto> findFirstDtos(Limit limit);
+
+    @Query(INVOICE_DTO + "WHERE (i.invoiceDate, i.id) < (:afterDate, :afterId) ORDER BY i.invoiceDate DESC, i.id DESC")
+    List<InvoiceDto> findDtosAfter(
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+
+    @Query(INVOICE_DTO + "WHERE p.id = :patientId ORDER BY i.invoiceDate DESC, i.id DESC")
+    List<InvoiceDto> findTimelineDtos(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(INVOICE_DTO + "WHERE p.id = :patientId AND (i.invoiceDate, i.id) < (:afterDate, :afterId) " +
+           "ORDER BY i.invoiceDate DESC, i.id DESC")
+    List<InvoiceDto> findTimelineDtosAfter(
+        @Param("patientId") UUID patientId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+
+    @StreamingQuery
+    @Query(INVOICE_DTO + "WHERE i.invoiceDate >= :start AND i.invoiceDate < :end ORDER BY i.invoiceDate, i.id")
+    Stream<InvoiceDto> streamDtosByDateRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Rows: day, invoice count, total invoiced, total paid; cancelled invoices are excluded.
+     */
+    @Query("SELECT CAST(i.invoiceDate AS LocalDate), COUNT(i), SUM(i.totalAmount), SUM(i.paidAmount) " +
+           "FROM Invoice i WHERE i.invoiceDate >= :start AND i.invoiceDate < :end AND i.status != 'CANCELLED' " +
+           "GROUP BY CAST(i.invoiceDate AS LocalDate)")
+    List<Object[]> getDailyRevenue(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -3,9 +3,11 @@ package com.medico.billing.repository;
 import com.medico.billing.domain.Payment;
 import com.medico.billing.domain.Payment.PaymentMethod;
 import com.medico.billing.domain.Payment.PaymentStatus;
+import com.medico.billing.dto.PaymentDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -23,9 +25,18 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
     boolean existsByPaymentNumber(String paymentNumber);
 
-    List<Payment> findByInvoiceIdOrderByPaymentDateDesc(UUID invoiceId);
+    /**
+     * Reserves a payment number in the unpartitioned payment_numbers table, which is what makes it
+     * unique across all monthly payment partitions.
+     *
+     * @return 1 if the number was reserved, 0 if it is already taken
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_numbers (payment_number) VALUES (:paymentNumber) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int reservePaymentNumber(@Param("paymentNumber") String paymentNumber);
 
-    Page<Payment> findByStatusOrderByPaymentDateDesc(PaymentStatus status, Pageable pageable);
+    List<Payment> findByInvoiceIdOrderByPaymentDateDesc(UUID invoiceId);
 
     @Query("SELECT p FROM Payment p WHERE p.paymentDate BETWEEN :start AND :end ORDER BY p.paymentDate DESC")
     List<Payment> findByDateRange(
@@ -45,5 +56,19 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
     @Query("SELECT COUNT(p) FROM Payment p WHERE p.paymentDate BETWEEN :start AND :end AND p.status = 'COMPLETED'")
     long countPaymentsInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-}
 
+    @Query(value = "SELECT new com.medico.billing.dto.PaymentDto(p.id, p.paymentNumber, i.id, i.invoiceNumber, p.amount, " +
+                   "p.paymentDate, p.paymentMethod, p.status, p.transactionReference, p.receivedById, p.receivedByName, " +
+                   "p.notes, p.createdAt) " +
+                   "FROM Payment p JOIN p.invoice i WHERE p.status = :status ORDER BY p.paymentDate DESC",
+           countQuery = "SELECT COUNT(p) FROM Payment p WHERE p.status = :status")
+    Page<PaymentDto> findDtosByStatus(@Param("status") PaymentStatus status, Pageable pageable);
+
+    /**
+     * Rows: day, payment count, total collected, for completed payments.
+     */
+    @Query("SELECT CAST(p.paymentDate AS LocalDate), COUNT(p), SUM(p.amount) " +
+           "FROM Payment p WHERE p.paymentDate >= :start AND p.paymentDate < :end AND p.status = 'COMPLETED' " +
+           "GROUP BY CAST(p.paymentDate AS LocalDate)")
+    List<Object[]> getDailyCollections(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,81 @@
+package com.medico.billing.service;
+
+import com.medico.billing.dto.InvoiceDto;
+import com.medico.billing.repository.InvoiceRepository;
+import com.medico.report.domain.ReportJob.ReportPriority;
+import com.medico.report.service.ReportDefinition;
+import com.medico.report.service.ReportParameters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Every invoice issued in a date range, oldest first, streamed from the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class InvoiceRegisterReport implements ReportDefinition {
+
+    private static final int MAX_DAYS = 1830;
+
+    private final InvoiceRepository invoiceRepository;
+
+    @Override
+    public String type() {
+        return "invoice-register";
+    }
+
+    @Override
+    public String description() {
+        return "Invoices issued in a period with amounts and status";
+    }
+
+    @Override
+    public Set<String> roles() {
+        return Set.of("ADMIN", "BILLING_STAFF");
+    }
+
+    @Override
+    public ReportPriority defaultPriority() {
+        return ReportPriority.LOW;
+    }
+
+    @Override
+    public List<String> parameters() {
+        return List.of(ReportParameters.FROM, ReportParameters.TO);
+    }
+
+    @Override
+    public List<String> columns() {
+        return List.of("invoice_number", "invoice_date", "due_date", "patient_mrn", "patient_name", "status",
+            "subtotal", "tax", "discount", "total", "paid", "balance_due");
+    }
+
+    @Override
+    public Map<String, String> normalize(Map<String, String> parameters) {
+        LocalDate[] range = ReportParameters.dateRange(parameters, MAX_DAYS);
+        return Map.of(ReportParameters.FROM, range[0].toString(), ReportParameters.TO, range[1].toString());
+    }
+
+    @Override
+    public void write(Map<String, String> parameters, Rows rows) throws IOException {
+        LocalDate from = ReportParameters.date(parameters, ReportParameters.FROM);
+        LocalDate to = ReportParameters.date(parameters, ReportParameters.TO);
+        try (Stream<InvoiceDto> invoices = invoiceRepository.streamDtosByDateRange(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            for (Iterator<InvoiceDto> it = invoices.iterator(); it.hasNext(); ) {
+                InvoiceDto invoice = it.next();
+                rows.add(invoice.invoiceNumber(), invoice.invoiceDate(), invoice.dueDate(), invoice.patientMrn(),
+                    invoice.patientName(), invoice.status(), invoice.subtotal(), invoice.taxAmount(),
+                    invoice.discountAmount(), invoice.totalAmount(), invoice.paidAmount(), invoice.balanceDue());
+            }
+        }
+    }
+}
@@ -5,13 +5,19 @@ import com.medico.billing.domain.Invoice.InvoiceStatus;
 import com.medico.billing.dto.*;
 import com.medico.billing.mapper.BillingMapper;
 import com.medico.billing.repository.InvoiceRepository;
+import com.medico.common.dto.Cursor;
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.event.StateChangedEvent.State;
 import com.medico.common.exception.BusinessException;
 import com.medico.common.exception.ResourceNotFoundException;
+import com.medico.common.web.SparseFields;
 import com.medico.patient.domain.Patient;
 import com.medico.patient.repository.PatientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -22,7 +28,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -35,27 +44,29 @@ public class InvoiceService {
     private final InvoiceRepository invoiceRepository;
     private final PatientRepository patientRepository;
     private final BillingMapper billingMapper;
+    private final ApplicationEventPublisher eventPublisher;
     private static final AtomicLong invoiceCounter = new AtomicLong(System.currentTimeMillis() % 100000);
 
     public PageResponse<InvoiceDto> getAllInvoices(Pageable pageable) {
-        Page<Invoice> invoices = invoiceRepository.findAll(pageable);
-        return PageResponse.from(invoices, invoices.getContent().stream()
-            .map(billingMapper::toDto)
-            .toList());
+        return withItems(invoiceRepository.findAllDtos(pageable));
+    }
+
+    public CursorPage<InvoiceDto> getAllInvoicesByCursor(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        Cursor position = Cursor.decode(cursor);
+        List<InvoiceDto> invoices = position == null
+            ? invoiceRepository.findFirstDtos(CursorPage.limitFor(pageSize))
+            : invoiceRepository.findDtosAfter(position.keyAsDateTime(), position.id(), CursorPage.limitFor(pageSize));
+        return CursorPage.of(attachItems(invoices), pageSize,
+            invoice -> Cursor.of(invoice.invoiceDate(), invoice.id()));
     }
 
     public PageResponse<InvoiceDto> getInvoicesByPatient(UUID patientId, Pageable pageable) {
-        Page<Invoice> invoices = invoiceRepository.findByPatientIdOrderByInvoiceDateDesc(patientId, pageable);
-        return PageResponse.from(invoices, invoices.getContent().stream()
-            .map(billingMapper::toDto)
-            .toList());
+        return withItems(invoiceRepository.findDtosByPatientId(patientId, pageable));
     }
 
     public PageResponse<InvoiceDto> getInvoicesByStatus(InvoiceStatus status, Pageable pageable) {
-        Page<Invoice> invoices = invoiceRepository.findByStatusOrderByInvoiceDateDesc(status, pageable);
-        return PageResponse.from(invoices, invoices.getContent().stream()
-            .map(billingMapper::toDto)
-            .toList());
+        return withItems(invoiceRepository.findDtosByStatus(status, pageable));
     }
 
     public InvoiceDto getInvoiceById(UUID id) {
@@ -97,6 +108,8 @@ public class InvoiceService {
         invoice.calculateTotals();
 
         Invoice savedInvoice = invoiceRepository.save(invoice);
+        eventPublisher.publishEvent(StateChangedEvent.created(Invoice.class, savedInvoice.getId(),
+            State.of(savedInvoice.getStatus(), savedInvoice.getInvoiceDate())));
         log.info("Created invoice {} for patient {}", savedInvoice.getInvoiceNumber(), patient.getMedicalRecordNumber());
 
         return billingMapper.toDto(savedInvoice);
@@ -110,8 +123,10 @@ public class InvoiceService {
             throw new BusinessException("Cannot update a cancelled invoice");
         }
 
+        InvoiceStatus previousStatus = invoice.getStatus();
         invoice.setStatus(status);
         Invoice updatedInvoice = invoiceRepository.save(invoice);
+        publishStatusChange(updatedInvoice, previousStatus);
         log.info("Updated invoice {} status to {}", invoice.getInvoiceNumber(), status);
 
         return billingMapper.toDto(updatedInvoice);
@@ -129,8 +144,10 @@ public class InvoiceService {
             throw new BusinessException("Cannot cancel an invoice with payments. Refund first.");
         }
 
+        InvoiceStatus previousStatus = invoice.getStatus();
         invoice.setStatus(InvoiceStatus.CANCELLED);
         invoiceRepository.save(invoice);
+        publishStatusChange(invoice, previousStatus);
         log.info("Cancelled invoice {}", invoice.getInvoiceNumber());
     }
 
@@ -138,12 +155,19 @@ public class InvoiceService {
     public void updateOverdueInvoices() {
         List<Invoice> overdueInvoices = invoiceRepository.findOverdueInvoices(LocalDate.now());
         for (Invoice invoice : overdueInvoices) {
+            InvoiceStatus previousStatus = invoice.getStatus();
             invoice.setStatus(InvoiceStatus.OVERDUE);
+            publishStatusChange(invoice, previousStatus);
         }
         invoiceRepository.saveAll(overdueInvoices);
         log.info("Marked {} invoices as overdue", overdueInvoices.size());
     }
 
+    void publishStatusChange(Invoice invoice, InvoiceStatus previousStatus) {
+        eventPublisher.publishEvent(StateChangedEvent.changed(Invoice.class, invoice.getId(),
+            State.of(previousStatus, invoice.getInvoiceDate()), State.of(invoice.getStatus(), invoice.getInvoiceDate())));
+    }
+
     public List<InvoiceDto> getOverdueInvoices() {
         List<Invoice> overdueInvoices = invoiceRepository.findOverdueInvoices(LocalDate.now());
         return billingMapper.toInvoiceDtoList(overdueInvoices);
@@ -180,5 +204,24 @@ public class InvoiceService {
 
         return invoiceNumber;
     }
-}
 
+    private PageResponse<InvoiceDto> withItems(Page<InvoiceDto> invoices) {
+        return PageResponse.from(invoices, attachItems(invoices.getContent()));
+    }
+
+    /**
+     * Attaches line items to a page of invoice projections with a single query for the whole page.
+     */
+    private List<InvoiceDto> attachItems(List<InvoiceDto> invoices) {
+        if (invoices.isEmpty() || !SparseFields.includes("items")) {
+            return invoices;
+        }
+        Map<UUID, List<BillingItemDto>> itemsByInvoice = new HashMap<>();
+        for (Object[] row : invoiceRepository.findItemDtosByInvoiceIds(invoices.stream().map(InvoiceDto::id).toList())) {
+            itemsByInvoice.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((BillingItemDto) row[1]);
+        }
+        return invoices.stream()
+            .map(invoice -> invoice.withItems(itemsByInvoice.getOrDefault(invoice.id(), List.of())))
+            .toList();
+    }
+}
@@ -12,7 +12,6 @@ import com.medico.common.exception.BusinessException;
 import com.medico.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -44,10 +43,7 @@ public class PaymentService {
     }
 
     public PageResponse<PaymentDto> getPaymentsByStatus(PaymentStatus status, Pageable pageable) {
-        Page<Payment> payments = paymentRepository.findByStatusOrderByPaymentDateDesc(status, pageable);
-        return PageResponse.from(payments, payments.getContent().stream()
-            .map(billingMapper::toDto)
-            .toList());
+        return PageResponse.from(paymentRepository.findDtosByStatus(status, pageable));
     }
 
     public PaymentDto getPaymentById(UUID id) {
@@ -98,6 +94,7 @@ public class PaymentService {
         invoice.setBalanceDue(invoice.getTotalAmount().subtract(invoice.getPaidAmount()));
 
         // Update invoice status
+        InvoiceStatus previousStatus = invoice.getStatus();
         if (invoice.getBalanceDue().compareTo(BigDecimal.ZERO) <= 0) {
             invoice.setStatus(InvoiceStatus.PAID);
         } else {
@@ -105,6 +102,7 @@ public class PaymentService {
         }
 
         invoiceRepository.save(invoice);
+        invoiceService.publishStatusChange(invoice, previousStatus);
 
         log.info("Created payment {} for invoice {}", savedPayment.getPaymentNumber(), invoice.getInvoiceNumber());
 
@@ -128,6 +126,7 @@ public class PaymentService {
         invoice.setPaidAmount(newPaidAmount.max(BigDecimal.ZERO));
         invoice.calculateTotals();
 
+        InvoiceStatus previousStatus = invoice.getStatus();
         if (invoice.getPaidAmount().compareTo(BigDecimal.ZERO) == 0) {
             invoice.setStatus(InvoiceStatus.PENDING);
         } else {
@@ -135,6 +134,7 @@ public class PaymentService {
         }
 
         invoiceRepository.save(invoice);
+        invoiceService.publishStatusChange(invoice, previousStatus);
         Payment refundedPayment = paymentRepository.save(payment);
 
         log.info("Refunded payment {}", payment.getPaymentNumber());
@@ -165,7 +165,9 @@ public class PaymentService {
         String sequencePart = String.format("%05d", paymentCounter.incrementAndGet() % 100000);
         String paymentNumber = "PAY-" + datePart + "-" + sequencePart;
 
-        while (paymentRepository.existsByPaymentNumber(paymentNumber)) {
+        // The counter restarts with the application and is per instance; reserving the number in
+        // the database is what makes it unique, a taken number just moves on to the next one.
+        while (paymentRepository.reservePaymentNumber(paymentNumber) == 0) {
             sequencePart = String.format("%05d", paymentCounter.incrementAndGet() % 100000);
             paymentNumber = "PAY-" + datePart + "-" + sequencePart;
         }
@@ -173,4 +175,3 @@ public class PaymentService {
         return paymentNumber;
     }
 }
-
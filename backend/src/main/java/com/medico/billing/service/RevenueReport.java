@@ -0,0 +1,102 @@
+package com.medico.billing.service;
+
+import com.medico.billing.repository.InvoiceRepository;
+import com.medico.billing.repository.PaymentRepository;
+import com.medico.report.domain.ReportJob.ReportPriority;
+import com.medico.report.service.ReportDefinition;
+import com.medico.report.service.ReportParameters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Daily revenue and collections over a date range, one row per day including days without
+ * activity. The background counterpart of the revenue and collections endpoints of
+ * {@link FinancialReportService}, for ranges too long to aggregate inside a request.
+ */
+@Component
+@RequiredArgsConstructor
+public class RevenueReport implements ReportDefinition {
+
+    private static final int MAX_DAYS = 3660;
+
+    private final InvoiceRepository invoiceRepository;
+    private final PaymentRepository paymentRepository;
+
+    @Override
+    public String type() {
+        return "revenue";
+    }
+
+    @Override
+    public String description() {
+        return "Daily invoiced revenue and collected payments";
+    }
+
+    @Override
+    public Set<String> roles() {
+        return Set.of("ADMIN", "BILLING_STAFF");
+    }
+
+    @Override
+    public ReportPriority defaultPriority() {
+        return ReportPriority.NORMAL;
+    }
+
+    @Override
+    public List<String> parameters() {
+        return List.of(ReportParameters.FROM, ReportParameters.TO);
+    }
+
+    @Override
+    public List<String> columns() {
+        return List.of("date", "invoices", "invoiced", "paid_on_invoices", "payments", "collected");
+    }
+
+    @Override
+    public Map<String, String> normalize(Map<String, String> parameters) {
+        LocalDate[] range = ReportParameters.dateRange(parameters, MAX_DAYS);
+        return Map.of(ReportParameters.FROM, range[0].toString(), ReportParameters.TO, range[1].toString());
+    }
+
+    @Override
+    public void write(Map<String, String> parameters, Rows rows) throws IOException {
+        LocalDate from = ReportParameters.date(parameters, ReportParameters.FROM);
+        LocalDate to = ReportParameters.date(parameters, ReportParameters.TO);
+
+        Map<LocalDate, Object[]> invoicedByDay = byDay(invoiceRepository.getDailyRevenue(from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+        Map<LocalDate, Object[]> collectedByDay = byDay(paymentRepository.getDailyCollections(from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Object[] invoiced = invoicedByDay.get(day);
+            Object[] collected = collectedByDay.get(day);
+            rows.add(
+                day,
+                invoiced != null ? invoiced[1] : 0L,
+                invoiced != null ? amount(invoiced[2]) : BigDecimal.ZERO,
+                invoiced != null ? amount(invoiced[3]) : BigDecimal.ZERO,
+                collected != null ? collected[1] : 0L,
+                collected != null ? amount(collected[2]) : BigDecimal.ZERO
+            );
+        }
+    }
+
+    private static Map<LocalDate, Object[]> byDay(List<Object[]> rows) {
+        Map<LocalDate, Object[]> byDay = new HashMap<>();
+        for (Object[] row : rows) {
+            byDay.put((LocalDate) row[0], row);
+        }
+        return byDay;
+    }
+
+    private static BigDecimal amount(Object value) {
+        return value != null ? (BigDecimal) value : BigDecimal.ZERO;
+    }
+}
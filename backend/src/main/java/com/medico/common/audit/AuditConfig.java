@@ -0,0 +1,80 @@
+package com.medico.common.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Wires the asynchronous audit trail: the {@link AuditTrail} with its configured sink, the
+ * Hibernate listener for entity changes and the aspect for {@link AuditedRead} methods. With
+ * {@code medico.audit.enabled=false} nothing is recorded.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "medico.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AuditConfig {
+
+    public enum SinkType {
+        DATABASE,
+        FILE
+    }
+
+    @Bean
+    public AuditTrail auditTrail(
+            @Value("${medico.audit.sink:DATABASE}") SinkType sinkType,
+            @Value("${medico.audit.durability:BEST_EFFORT}") AuditDurability durability,
+            @Value("${medico.audit.queue-capacity:100000}") int capacity,
+            @Value("${medico.audit.batch-size:500}") int batchSize,
+            @Value("${medico.audit.flush-interval:PT1S}") Duration flushInterval,
+            @Value("${medico.audit.max-block:PT1S}") Duration maxBlock,
+            @Value("${medico.audit.file.dir:./audit}") Path fileDir,
+            @Value("${medico.audit.file.segment-size:64MB}") DataSize segmentSize,
+            JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry registry) {
+        AuditSink sink = sinkType == SinkType.FILE
+            ? new SegmentFileAuditSink(fileDir, segmentSize.toBytes(), durability == AuditDurability.GUARANTEED, objectMapper)
+            : new JdbcAuditSink(jdbcTemplate);
+        return new AuditTrail(sink, durability, capacity, batchSize, flushInterval, maxBlock, registry);
+    }
+
+    @Bean
+    public AuditedReadAspect auditedReadAspect(AuditTrail auditTrail) {
+        return new AuditedReadAspect(auditTrail);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer auditEntityListenerCustomizer(AuditTrail auditTrail) {
+        AuditEntityListener listener = new AuditEntityListener(auditTrail);
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                                  SessionFactoryImplementor sessionFactory) {
+                EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_INSERT, listener);
+                registry.appendListeners(EventType.POST_UPDATE, listener);
+                registry.appendListeners(EventType.POST_DELETE, listener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return properties -> properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(integrator));
+    }
+}
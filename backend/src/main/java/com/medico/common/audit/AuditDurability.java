@@ -0,0 +1,17 @@
+package com.medico.common.audit;
+
+/**
+ * How hard the audit trail tries not to lose entries.
+ */
+public enum AuditDurability {
+    /**
+     * Entries are dropped (and counted) when the queue is full or a batch cannot be written.
+     */
+    BEST_EFFORT,
+    /**
+     * Callers wait for queue space and fail once it does not free up in time, failed batches are
+     * retried and file segments are fsynced after every batch. Entries still queued in memory are
+     * lost if the process dies.
+     */
+    GUARANTEED
+}
@@ -0,0 +1,90 @@
+package com.medico.common.audit;
+
+import com.medico.common.domain.BaseEntity;
+import com.medico.common.outbox.OutboxEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.StringJoiner;
+
+/**
+ * Hibernate listener that records inserts, updates and deletes of domain entities in the audit
+ * trail. The queue slot is reserved when the statement is flushed, inside the transaction, so a
+ * {@link com.medico.common.exception.AuditUnavailableException} rolls the change back; the entry
+ * is only queued once the transaction has committed, so rolled-back changes never appear. Updates
+ * list the names of the modified properties.
+ */
+public class AuditEntityListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final AuditTrail auditTrail;
+
+    public AuditEntityListener(AuditTrail auditTrail) {
+        this.auditTrail = auditTrail;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (audited(event.getEntity())) {
+            record(event.getSession(), "CREATE", event.getEntity(), null);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!audited(event.getEntity())) {
+            return;
+        }
+        String changed = null;
+        int[] dirty = event.getDirtyProperties();
+        if (dirty != null) {
+            String[] names = event.getPersister().getPropertyNames();
+            StringJoiner joiner = new StringJoiner(",");
+            for (int index : dirty) {
+                joiner.add(names[index]);
+            }
+            changed = joiner.toString();
+        }
+        record(event.getSession(), "UPDATE", event.getEntity(), changed);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (audited(event.getEntity())) {
+            record(event.getSession(), "DELETE", event.getEntity(), null);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, String action, Object entity, String changed) {
+        AuditTrail.Reservation reservation =
+            auditTrail.reserve(action, entityType(entity), ((BaseEntity) entity).getId(), null, changed);
+        if (reservation == null) {
+            return;
+        }
+        session.getActionQueue().registerProcess((success, completedSession) -> {
+            if (success) {
+                reservation.enqueue();
+            } else {
+                reservation.cancel();
+            }
+        });
+    }
+
+    private static boolean audited(Object entity) {
+        return entity instanceof BaseEntity && !(entity instanceof OutboxEvent);
+    }
+
+    private static String entityType(Object entity) {
+        return entity.getClass().getSimpleName();
+    }
+}
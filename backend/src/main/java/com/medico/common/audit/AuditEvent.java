@@ -0,0 +1,22 @@
+package com.medico.common.audit;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One audit trail entry, mirroring a row of {@code audit_logs}. For changes, {@code newValue}
+ * lists the names of the modified properties; property values are never copied into the trail.
+ */
+public record AuditEvent(
+    UUID id,
+    UUID userId,
+    String userName,
+    String action,
+    String entityType,
+    UUID entityId,
+    String oldValue,
+    String newValue,
+    String ipAddress,
+    String userAgent,
+    LocalDateTime createdAt
+) {}
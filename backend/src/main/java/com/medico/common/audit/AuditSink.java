@@ -0,0 +1,15 @@
+package com.medico.common.audit;
+
+import java.util.List;
+
+/**
+ * Destination of flushed audit batches. Called from the single flusher thread only.
+ */
+interface AuditSink extends AutoCloseable {
+
+    void write(List<AuditEvent> batch) throws Exception;
+
+    @Override
+    default void close() throws Exception {
+    }
+}
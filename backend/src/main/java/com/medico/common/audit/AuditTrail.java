@@ -0,0 +1,251 @@
+package com.medico.common.audit;
+
+import com.medico.common.domain.UuidV7;
+import com.medico.common.exception.AuditUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail. {@link #record} captures the acting user and request origin on the
+ * calling thread and appends the entry to a lock-free queue; a dedicated flusher thread drains
+ * the queue in batches of up to {@code batchSize} into the {@link AuditSink}, at least every
+ * {@code flushInterval}. The queue never holds more than {@code capacity} entries: with
+ * {@link AuditDurability#BEST_EFFORT} entries beyond it are dropped and counted, with
+ * {@link AuditDurability#GUARANTEED} callers are held back until the flusher catches up and, after
+ * {@code maxBlock}, fail with {@link AuditUnavailableException} so the operation is not carried out
+ * unrecorded. Writes that only become final at commit {@link #reserve} their slot beforehand, so a
+ * full queue rolls the transaction back instead of surfacing after it committed.
+ * <p>
+ * Entries live only in memory until the flusher has written them: if the process dies, whatever
+ * was still queued is lost in either mode.
+ */
+@Slf4j
+public class AuditTrail implements DisposableBean {
+
+    private static final long BACKPRESSURE_PARK_NANOS = 100_000;
+
+    private final AuditSink sink;
+    private final AuditDurability durability;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration maxBlock;
+
+    private final ConcurrentLinkedQueue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    // Entries reserved, queued or being written; the queue itself has no O(1) size
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final Counter dropped;
+    private final Counter rejected;
+    private final Timer flushTimer;
+
+    AuditTrail(AuditSink sink, AuditDurability durability, int capacity, int batchSize, Duration flushInterval,
+               Duration maxBlock, MeterRegistry registry) {
+        this.sink = sink;
+        this.durability = durability;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.maxBlock = maxBlock;
+        this.dropped = registry.counter("medico.audit.dropped");
+        this.rejected = registry.counter("medico.audit.rejected");
+        this.flushTimer = registry.timer("medico.audit.flush");
+        registry.gauge("medico.audit.pending", pending);
+        this.flusher = new Thread(this::run, "audit-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public void record(String action, String entityType, UUID entityId) {
+        record(action, entityType, entityId, null, null);
+    }
+
+    public void record(String action, String entityType, UUID entityId, String oldValue, String newValue) {
+        Reservation reservation = reserve(action, entityType, entityId, oldValue, newValue);
+        if (reservation != null) {
+            reservation.enqueue();
+        }
+    }
+
+    /**
+     * Claims a queue slot and captures the entry, to be {@linkplain Reservation#enqueue() enqueued}
+     * once the operation has taken effect or {@linkplain Reservation#cancel() cancelled} if it did
+     * not. The slot stays taken in between, so one transaction cannot reserve more than
+     * {@code capacity} entries.
+     *
+     * @return the reservation, or {@code null} if a best-effort entry has to be dropped
+     * @throws AuditUnavailableException if a guaranteed entry found no slot within {@code maxBlock}
+     */
+    Reservation reserve(String action, String entityType, UUID entityId, String oldValue, String newValue) {
+        int queued = reserveSlot();
+        if (queued < 0) {
+            dropped.increment();
+            return null;
+        }
+
+        UUID userId = null;
+        String userName = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwt) {
+            userId = parseUuid(jwt.getName());
+            userName = jwt.getToken().getClaimAsString("preferred_username");
+        } else if (authentication != null) {
+            userName = authentication.getName();
+        }
+
+        String ipAddress = null;
+        String userAgent = null;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            ipAddress = request.getRemoteAddr();
+            userAgent = request.getHeader("User-Agent");
+        }
+
+        return new Reservation(new AuditEvent(UuidV7.next(), userId, userName, action, entityType, entityId, oldValue,
+            newValue, ipAddress, userAgent, LocalDateTime.now()), queued);
+    }
+
+    /**
+     * Claims one of the {@code capacity} queue slots.
+     *
+     * @return the number of pending entries including the claimed one, or -1 if a best-effort
+     *         entry has to be dropped
+     * @throws AuditUnavailableException if a guaranteed entry found no slot within {@code maxBlock}
+     */
+    private int reserveSlot() {
+        long deadline = 0;
+        while (true) {
+            int current = pending.get();
+            if (current < capacity) {
+                if (pending.compareAndSet(current, current + 1)) {
+                    return current + 1;
+                }
+                continue;
+            }
+            if (durability == AuditDurability.BEST_EFFORT) {
+                return -1;
+            }
+            if (deadline == 0) {
+                deadline = System.nanoTime() + maxBlock.toNanos();
+            } else if (System.nanoTime() - deadline >= 0) {
+                rejected.increment();
+                throw new AuditUnavailableException("Audit queue is full, the operation cannot be recorded");
+            }
+            LockSupport.unpark(flusher);
+            LockSupport.parkNanos(BACKPRESSURE_PARK_NANOS);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            // Reserved slots count as pending before their entries are queued
+            if (pending.get() < batchSize || queue.isEmpty()) {
+                LockSupport.parkNanos(this, flushInterval.toNanos());
+            }
+            flushQueued();
+        }
+        flushQueued();
+    }
+
+    private void flushQueued() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        AuditEvent event;
+        while (true) {
+            while (batch.size() < batchSize && (event = queue.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            write(batch);
+            pending.addAndGet(-batch.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a batch, retrying in {@link AuditDurability#GUARANTEED} mode until it succeeds or the
+     * trail shuts down.
+     */
+    private void write(List<AuditEvent> batch) {
+        while (true) {
+            try {
+                long start = System.nanoTime();
+                sink.write(batch);
+                flushTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                return;
+            } catch (Exception e) {
+                if (durability == AuditDurability.BEST_EFFORT || !running) {
+                    log.error("Dropping {} audit entries that could not be written: {}", batch.size(), e.getMessage());
+                    dropped.increment(batch.size());
+                    return;
+                }
+                log.warn("Audit batch of {} entries could not be written, retrying: {}", batch.size(), e.getMessage());
+                LockSupport.parkNanos(this, flushInterval.toNanos());
+            }
+        }
+    }
+
+    /**
+     * An audit entry holding a queue slot; exactly one of its methods is called.
+     */
+    final class Reservation {
+
+        private final AuditEvent event;
+        private final int queued;
+
+        private Reservation(AuditEvent event, int queued) {
+            this.event = event;
+            this.queued = queued;
+        }
+
+        void enqueue() {
+            queue.offer(event);
+            if (queued == batchSize) {
+                LockSupport.unpark(flusher);
+            }
+        }
+
+        void cancel() {
+            pending.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(Duration.ofSeconds(10).toMillis());
+        sink.close();
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return value != null ? UUID.fromString(value) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.medico.common.audit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that discloses clinical data. Each successful call is recorded in the
+ * audit trail against the first {@code UUID} argument (the record, or the patient for
+ * patient-scoped listings) or, when there is none, the {@code id} of the returned record.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AuditedRead {
+
+    String entityType();
+
+    String action() default "READ";
+}
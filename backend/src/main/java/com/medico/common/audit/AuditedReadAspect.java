@@ -0,0 +1,58 @@
+package com.medico.common.audit;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.UUID;
+
+/**
+ * Records an audit entry after each successful {@link AuditedRead} method.
+ */
+@Aspect
+public class AuditedReadAspect {
+
+    private static final ClassValue<Method> ID_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Method computeValue(Class<?> type) {
+            if (type.isRecord()) {
+                for (RecordComponent component : type.getRecordComponents()) {
+                    if (component.getName().equals("id") && component.getType() == UUID.class) {
+                        return component.getAccessor();
+                    }
+                }
+            }
+            return null;
+        }
+    };
+
+    private final AuditTrail auditTrail;
+
+    public AuditedReadAspect(AuditTrail auditTrail) {
+        this.auditTrail = auditTrail;
+    }
+
+    @AfterReturning(pointcut = "@annotation(auditedRead)", returning = "result")
+    public void recordRead(JoinPoint joinPoint, AuditedRead auditedRead, Object result) {
+        auditTrail.record(auditedRead.action(), auditedRead.entityType(), entityId(joinPoint.getArgs(), result));
+    }
+
+    private static UUID entityId(Object[] args, Object result) {
+        for (Object arg : args) {
+            if (arg instanceof UUID id) {
+                return id;
+            }
+        }
+        Method accessor = result != null ? ID_ACCESSORS.get(result.getClass()) : null;
+        if (accessor == null) {
+            return null;
+        }
+        try {
+            return (UUID) accessor.invoke(result);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.medico.common.audit;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Appends batches to the {@code audit_logs} table with a single JDBC batch insert.
+ */
+class JdbcAuditSink implements AuditSink {
+
+    private static final String INSERT = """
+        INSERT INTO audit_logs (id, user_id, user_name, action, entity_type, entity_id, old_value, new_value,
+                                ip_address, user_agent, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    JdbcAuditSink(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AuditEvent event = batch.get(i);
+                ps.setObject(1, event.id());
+                ps.setObject(2, event.userId());
+                ps.setString(3, event.userName());
+                ps.setString(4, event.action());
+                ps.setString(5, event.entityType());
+                ps.setObject(6, event.entityId());
+                ps.setString(7, event.oldValue());
+                ps.setString(8, event.newValue());
+                ps.setString(9, event.ipAddress());
+                ps.setString(10, event.userAgent());
+                ps.setTimestamp(11, Timestamp.valueOf(event.createdAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.medico.common.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Appends batches as newline-delimited JSON to segment files under a local directory. A new
+ * segment is started once the current one reaches {@code segmentSize} bytes; segments are never
+ * rewritten, so they can be shipped or loaded into {@code audit_logs} later.
+ */
+class SegmentFileAuditSink implements AuditSink {
+
+    private static final DateTimeFormatter SEGMENT_NAME = DateTimeFormatter.ofPattern("'audit-'yyyyMMdd-HHmmss-SSS'.ndjson'");
+
+    private final Path directory;
+    private final long segmentSize;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper;
+    private FileChannel segment;
+
+    SegmentFileAuditSink(Path directory, long segmentSize, boolean fsync, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(batch.size() * 256);
+        for (AuditEvent event : batch) {
+            objectMapper.writeValue(buffer, event);
+            buffer.write('\n');
+        }
+
+        if (segment == null || segment.size() >= segmentSize) {
+            roll();
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            segment.write(bytes);
+        }
+        if (fsync) {
+            segment.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (segment != null) {
+            segment.force(false);
+            segment.close();
+        }
+    }
+
+    private void roll() throws IOException {
+        close();
+        Files.createDirectories(directory);
+        segment = FileChannel.open(directory.resolve(LocalDateTime.now().format(SEGMENT_NAME)),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+}
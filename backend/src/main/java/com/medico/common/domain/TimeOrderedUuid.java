@@ -0,0 +1,20 @@
+package com.medico.common.domain;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code UUID} identifier that is assigned by {@link TimeOrderedUuidGenerator} instead of
+ * the random (version 4) keys of {@code GenerationType.UUID}.
+ */
+@Documented
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TimeOrderedUuid {
+}
@@ -0,0 +1,63 @@
+package com.medico.common.dto;
+
+import com.medico.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row returned by a keyset-paginated listing: the value of the sort
+ * column and the row id as tie-breaker. Exchanged with clients as an opaque URL-safe token.
+ */
+public record Cursor(String key, UUID id) {
+
+    private static final char SEPARATOR = '|';
+    private static final int UUID_LENGTH = 36;
+
+    public static Cursor of(Object key, UUID id) {
+        return new Cursor(String.valueOf(key), id);
+    }
+
+    /**
+     * Returns {@code null} for a missing token, meaning the first page is requested.
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (raw.length() <= UUID_LENGTH || raw.charAt(UUID_LENGTH) != SEPARATOR) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new Cursor(raw.substring(UUID_LENGTH + 1), UUID.fromString(raw.substring(0, UUID_LENGTH)));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid pagination cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime keyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException("Invalid pagination cursor");
+        }
+    }
+
+    public LocalDate keyAsDate() {
+        try {
+            return LocalDate.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException("Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.medico.common.dto;
+
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset-paginated slice of a listing. There is no total count; {@code nextCursor} is
+ * {@code null} on the last page.
+ */
+public record CursorPage<T>(
+    List<T> content,
+    int size,
+    boolean hasNext,
+    String nextCursor
+) {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Query limit for a page of {@code size} rows: one extra row tells whether another page follows.
+     */
+    public static Limit limitFor(int size) {
+        return Limit.of(size + 1);
+    }
+
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> position) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, size, false, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new CursorPage<>(List.copyOf(content), size, true, position.apply(content.get(size - 1)).encode());
+    }
+}
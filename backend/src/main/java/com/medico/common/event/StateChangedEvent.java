@@ -0,0 +1,36 @@
+package com.medico.common.event;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published by services when an entity is created or moves between states that other modules
+ * keep derived data for. {@code before} is {@code null} for newly created entities. The event is
+ * raised inside the writing transaction; listeners that must only see committed changes should
+ * use {@code @TransactionalEventListener}.
+ */
+public record StateChangedEvent(Class<?> entityType, UUID entityId, State before, State after) {
+
+    /**
+     * The counted state of an entity: its status (or active flag) and the business day it falls on.
+     */
+    public record State(String status, LocalDate day) {
+
+        public static State of(Object status, LocalDateTime at) {
+            return new State(String.valueOf(status), at != null ? at.toLocalDate() : null);
+        }
+    }
+
+    public static StateChangedEvent created(Class<?> entityType, UUID entityId, State after) {
+        return new StateChangedEvent(entityType, entityId, null, after);
+    }
+
+    public static StateChangedEvent changed(Class<?> entityType, UUID entityId, State before, State after) {
+        return new StateChangedEvent(entityType, entityId, before, after);
+    }
+
+    public boolean isNoOp() {
+        return after.equals(before);
+    }
+}
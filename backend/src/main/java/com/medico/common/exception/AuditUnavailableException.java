@@ -0,0 +1,12 @@
+package com.medico.common.exception;
+
+/**
+ * Thrown when an operation cannot be audited with the configured guarantees, so that it fails
+ * instead of going through unrecorded.
+ */
+public class AuditUnavailableException extends RuntimeException {
+
+    public AuditUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.medico.common.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class DuplicateRecordException extends BusinessException {
+
+    private final List<?> candidates;
+
+    public DuplicateRecordException(String message, List<?> candidates) {
+        super(message);
+        this.candidates = List.copyOf(candidates);
+    }
+}
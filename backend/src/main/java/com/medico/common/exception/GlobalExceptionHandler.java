@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -55,6 +56,31 @@ public class GlobalExceptionHandler {
             ));
     }
 
+    @ExceptionHandler(DuplicateRecordException.class)
+    public ResponseEntity<DuplicateErrorResponse> handleDuplicateRecord(DuplicateRecordException ex) {
+        log.error("Duplicate record: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body(new DuplicateErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Probable duplicate",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                ex.getCandidates()
+            ));
+    }
+
+    @ExceptionHandler(AuditUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleAuditUnavailable(AuditUnavailableException ex) {
+        log.error("Audit unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body(new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Audit unavailable",
+                ex.getMessage(),
+                LocalDateTime.now()
+            ));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorResponse> handleAccessDenied(AccessDeniedException ex) {
         log.error("Access denied: {}", ex.getMessage());
@@ -124,5 +150,13 @@ public class GlobalExceptionHandler {
         LocalDateTime timestamp,
         Map<String, String> fieldErrors
     ) {}
+
+    public record DuplicateErrorResponse(
+        int status,
+        String error,
+        String message,
+        LocalDateTime timestamp,
+        List<?> candidates
+    ) {}
 }
 
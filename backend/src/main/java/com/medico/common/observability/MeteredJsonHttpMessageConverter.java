@@ -0,0 +1,114 @@
+package com.medico.common.observability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medico.common.web.SparseFields;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON converter that records, per endpoint, the JSON bytes written before compression
+ * ({@code medico.http.response.uncompressed.bytes}) and the CPU time spent serializing
+ * ({@code medico.http.serialization.cpu}). Both are tagged with whether the request asked for
+ * {@link SparseFields}, so the saving of {@code fields=} can be read off directly.
+ */
+public class MeteredJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final MeterRegistry registry;
+
+    public MeteredJsonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+        super(objectMapper);
+        this.registry = registry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        boolean cpuTimed = THREADS.isCurrentThreadCpuTimeSupported();
+        long cpuStart = cpuTimed ? THREADS.getCurrentThreadCpuTime() : 0;
+        CountingOutputMessage counting = new CountingOutputMessage(outputMessage);
+        try {
+            super.writeInternal(object, type, counting);
+        } finally {
+            String endpoint = endpoint();
+            String sparse = String.valueOf(!SparseFields.requested().isEmpty());
+            DistributionSummary.builder("medico.http.response.uncompressed.bytes")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .tag("sparse", sparse)
+                .register(registry)
+                .record(counting.bytes);
+            if (cpuTimed) {
+                Timer.builder("medico.http.serialization.cpu")
+                    .tag("endpoint", endpoint)
+                    .tag("sparse", sparse)
+                    .register(registry)
+                    .record(THREADS.getCurrentThreadCpuTime() - cpuStart, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static String endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object handler = attributes != null
+            ? attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+            : null;
+        return handler instanceof HandlerMethod method
+            ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+            : "unknown";
+    }
+
+    private static final class CountingOutputMessage implements HttpOutputMessage {
+
+        private final HttpOutputMessage delegate;
+        private OutputStream body;
+        private long bytes;
+
+        private CountingOutputMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterOutputStream(delegate.getBody()) {
+                    @Override
+                    public void write(int b) throws IOException {
+                        out.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                        bytes += len;
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.medico.common.observability;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Hot-path instrumentation: service method timers, per-statement and per-request SQL metrics,
+ * slow-query sampling, and JSON response size and serialization cost. Connection pool wait time
+ * is published by Spring Boot's Hikari binder as {@code hikaricp.connections.acquire}. With
+ * {@code medico.observability.enabled=false} none of these beans exist, so no proxies,
+ * interceptors or converters are installed.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "medico.observability", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ObservabilityConfig implements WebMvcConfigurer {
+
+    private static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ObservabilityConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public ServiceTimingAspect serviceTimingAspect(MeterRegistry registry) {
+        return new ServiceTimingAspect(registry);
+    }
+
+    @Bean
+    public SlowQueryLog slowQueryLog(
+            @Value("${medico.observability.slow-query.threshold:PT0.5S}") Duration threshold,
+            @Value("${medico.observability.slow-query.sample-rate:1.0}") double sampleRate,
+            @Value("${medico.observability.slow-query.capacity:100}") int capacity) {
+        return new SlowQueryLog(threshold, sampleRate, capacity);
+    }
+
+    /**
+     * Replaces Spring Boot's JSON converter so response size and serialization CPU are recorded.
+     */
+    @Bean
+    public MeteredJsonHttpMessageConverter meteredJsonHttpMessageConverter(ObjectMapper objectMapper,
+                                                                           MeterRegistry registry) {
+        return new MeteredJsonHttpMessageConverter(objectMapper, registry);
+    }
+
+    @Bean
+    public SqlMetricsListener sqlMetricsListener(MeterRegistry registry, SlowQueryLog slowQueryLog) {
+        return new SqlMetricsListener(registry, slowQueryLog);
+    }
+
+    /**
+     * Wraps the application {@code dataSource} so every JDBC execution passes through
+     * {@link SqlMetricsListener}. Only that bean is wrapped, so statements routed through nested
+     * data sources (such as read replicas) are counted once. The proxy unwraps to the underlying
+     * pool, which keeps Hikari's own metrics binding intact.
+     */
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourcePostProcessor(ObjectProvider<SqlMetricsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && APPLICATION_DATA_SOURCE.equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(listener.getObject())
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlRequestMetricsInterceptor(meterRegistry.getObject())).addPathPatterns("/api/**");
+    }
+}
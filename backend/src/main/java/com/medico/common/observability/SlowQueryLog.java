@@ -0,0 +1,70 @@
+package com.medico.common.observability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps a bounded sample of statements slower than the configured threshold and exposes it as
+ * the {@code slowqueries} actuator endpoint. Bound parameter values are never captured, and
+ * inline string and numeric literals are masked, so samples cannot leak patient data.
+ */
+@Slf4j
+@Endpoint(id = "slowqueries")
+public class SlowQueryLog {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.$])\\d+(?:\\.\\d+)?\\b");
+
+    private final Duration threshold;
+    private final double sampleRate;
+    private final int capacity;
+    private final Deque<SlowQuery> samples = new ArrayDeque<>();
+
+    public SlowQueryLog(Duration threshold, double sampleRate, int capacity) {
+        this.threshold = threshold;
+        this.sampleRate = sampleRate;
+        this.capacity = capacity;
+    }
+
+    public boolean isSlow(long elapsedMillis) {
+        return elapsedMillis >= threshold.toMillis();
+    }
+
+    public void record(String sql, int parameterCount, long elapsedMillis, String endpoint) {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        SlowQuery sample = new SlowQuery(Instant.now(), elapsedMillis, endpoint, redact(sql), parameterCount);
+        log.warn("Slow SQL ({} ms, {} parameters) in {}: {}", elapsedMillis, parameterCount, endpoint, sample.sql());
+
+        synchronized (samples) {
+            if (samples.size() >= capacity) {
+                samples.removeLast();
+            }
+            samples.addFirst(sample);
+        }
+    }
+
+    @ReadOperation
+    public List<SlowQuery> recent() {
+        synchronized (samples) {
+            return List.copyOf(samples);
+        }
+    }
+
+    static String redact(String sql) {
+        String masked = STRING_LITERAL.matcher(sql).replaceAll("'?'");
+        return NUMERIC_LITERAL.matcher(masked).replaceAll("?");
+    }
+
+    public record SlowQuery(Instant at, long elapsedMillis, String endpoint, String sql, int parameterCount) {}
+}
@@ -0,0 +1,108 @@
+package com.medico.common.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every JDBC execution through the proxied {@code DataSource}. Each execution is recorded
+ * as a {@code medico.sql.statement} timer tagged by statement type, added to the running totals
+ * of the current request when one is open, and handed to the {@link SlowQueryLog} when it
+ * exceeds the slow-query threshold.
+ */
+public class SqlMetricsListener implements QueryExecutionListener {
+
+    static final String STATEMENT_METRIC = "medico.sql.statement";
+
+    private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+    private final SlowQueryLog slowQueryLog;
+
+    public SqlMetricsListener(MeterRegistry registry, SlowQueryLog slowQueryLog) {
+        this.registry = registry;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    public static void open(String endpoint) {
+        CURRENT.set(new RequestStats(endpoint));
+    }
+
+    /**
+     * Closes the current request scope and returns what it recorded, or {@code null} if none was open.
+     */
+    public static RequestStats close() {
+        RequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        int statements = execInfo.isBatch() ? Math.max(execInfo.getBatchSize(), 1) : Math.max(queryInfoList.size(), 1);
+
+        Timer.builder(STATEMENT_METRIC)
+            .tag("type", statementType(sql))
+            .tag("outcome", execInfo.isSuccess() ? "success" : "error")
+            .register(registry)
+            .record(elapsed, TimeUnit.MILLISECONDS);
+
+        RequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements += statements;
+            stats.elapsedMillis += elapsed;
+        }
+
+        if (slowQueryLog.isSlow(elapsed)) {
+            int parameterCount = queryInfoList.isEmpty() || queryInfoList.get(0).getParametersList().isEmpty()
+                ? 0
+                : queryInfoList.get(0).getParametersList().get(0).size();
+            slowQueryLog.record(sql, parameterCount, elapsed, stats != null ? stats.endpoint : "background");
+        }
+    }
+
+    private static String statementType(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete" -> keyword;
+            default -> "other";
+        };
+    }
+
+    public static final class RequestStats {
+
+        private final String endpoint;
+        private int statements;
+        private long elapsedMillis;
+
+        private RequestStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        public long elapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.medico.common.observability;
+
+import com.medico.common.observability.SqlMetricsListener.RequestStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a per-request SQL scope for every handler method and records the number of statements
+ * ({@code medico.sql.request.statements}) and total SQL time ({@code medico.sql.request.time})
+ * per endpoint when the request completes.
+ */
+public class SqlRequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry registry;
+
+    public SqlRequestMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            SqlMetricsListener.open(endpoint(method));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The container thread is released for streaming responses; do not leak the scope to it
+        SqlMetricsListener.close();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        RequestStats stats = SqlMetricsListener.close();
+        if (stats == null) {
+            return;
+        }
+        String endpoint = endpoint(method);
+        DistributionSummary.builder("medico.sql.request.statements")
+            .tag("endpoint", endpoint)
+            .register(registry)
+            .record(stats.statements());
+        Timer.builder("medico.sql.request.time")
+            .tag("endpoint", endpoint)
+            .register(registry)
+            .record(stats.elapsedMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static String endpoint(HandlerMethod method) {
+        return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+    }
+}
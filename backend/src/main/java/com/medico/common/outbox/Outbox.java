@@ -0,0 +1,78 @@
+package com.medico.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medico.common.event.StateChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Appends domain events to the {@code outbox_events} table inside the caller's transaction, so
+ * an event exists if and only if the state change it describes was committed. Only event types
+ * that some {@link OutboxEventListener} subscribes to are written; others would never be
+ * delivered. {@link StateChangedEvent}s raised in a transaction are recorded as
+ * {@value #STATE_CHANGED} events on the same terms.
+ */
+@Component
+public class Outbox {
+
+    public static final String STATE_CHANGED = "StateChanged";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Set<String> subscribedTypes;
+
+    public Outbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                  List<OutboxEventListener> listeners) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.subscribedTypes = listeners.stream()
+            .flatMap(listener -> listener.eventTypes().stream())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isSubscribed(String eventType) {
+        return subscribedTypes.contains(eventType);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, UUID aggregateId, String eventType, Object payload) {
+        if (!isSubscribed(eventType)) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload for " + eventType + " is not serializable", e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+            .aggregateType(aggregateType)
+            .aggregateId(aggregateId)
+            .eventType(eventType)
+            .payload(json)
+            .build());
+    }
+
+    @EventListener
+    public void onStateChanged(StateChangedEvent event) {
+        if (!isSubscribed(STATE_CHANGED) || event.isNoOp()
+            || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("before", event.before());
+        payload.put("after", event.after());
+        append(event.entityType().getSimpleName(), event.entityId(), STATE_CHANGED, payload);
+    }
+}
@@ -0,0 +1,159 @@
+package com.medico.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers committed outbox events to {@link OutboxEventListener}s in batches. A batch is read in
+ * append order under a transaction-scoped advisory lock, so only one application instance
+ * dispatches at a time. Each event is handled in its own transaction; when it fails, it is retried
+ * after an exponential backoff starting at {@code retry-backoff} and capped at {@code max-backoff},
+ * up to {@code max-attempts}, after which it is left unpublished with its last error for
+ * inspection. Until the failed event is published, later events of its aggregate are held back,
+ * including after it has been given up on; resetting its {@code attempts} (or deleting it) is what
+ * releases them. Events are marked published only after their listeners committed, hence
+ * at-least-once.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final long DISPATCHER_LOCK = 0x4d4544_4f5554L;
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, List<OutboxEventListener>> listenersByType;
+    private final TransactionTemplate batchTransaction;
+    private final TransactionTemplate deliveryTransaction;
+
+    @Value("${medico.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${medico.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${medico.outbox.retry-backoff:PT2S}")
+    private Duration retryBackoff;
+
+    @Value("${medico.outbox.max-backoff:PT10M}")
+    private Duration maxBackoff;
+
+    @Value("${medico.outbox.retention:P7D}")
+    private Duration retention;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                            List<OutboxEventListener> listeners, PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.listenersByType = listeners.stream()
+            .flatMap(listener -> listener.eventTypes().stream().map(type -> Map.entry(type, listener)))
+            .collect(Collectors.groupingBy(Map.Entry::getKey,
+                Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.deliveryTransaction = new TransactionTemplate(transactionManager);
+        this.deliveryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Scheduled(fixedDelayString = "${medico.outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        Integer published;
+        do {
+            published = batchTransaction.execute(status -> dispatchBatch());
+        } while (published != null && published == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${medico.outbox.cleanup-interval:PT1H}")
+    public void purgePublished() {
+        Integer deleted = batchTransaction.execute(status ->
+            outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published outbox events", deleted);
+        }
+    }
+
+    private int dispatchBatch() {
+        if (!outboxEventRepository.tryLockDispatcher(DISPATCHER_LOCK)) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> pending = outboxEventRepository.findPending(maxAttempts, now, batchSize);
+        Set<UUID> heldBack = new HashSet<>();
+        List<UUID> published = new ArrayList<>();
+        for (OutboxEvent event : pending) {
+            if (heldBack.contains(event.getAggregateId())) {
+                continue;
+            }
+            try {
+                deliver(event);
+                published.add(event.getId());
+            } catch (RuntimeException e) {
+                heldBack.add(event.getAggregateId());
+                int attempts = event.getAttempts() + 1;
+                Duration delay = backoff(attempts);
+                outboxEventRepository.markFailed(event.getId(), abbreviate(e), now.plus(delay));
+                if (attempts >= maxAttempts) {
+                    log.error("Giving up on outbox event {} ({} {}) after {} attempts, holding its aggregate",
+                        event.getId(), event.getEventType(), event.getAggregateId(), maxAttempts, e);
+                } else {
+                    log.warn("Outbox event {} ({} {}) failed, will retry in {}: {}",
+                        event.getId(), event.getEventType(), event.getAggregateId(), delay, e.getMessage());
+                }
+            }
+        }
+        if (!published.isEmpty()) {
+            outboxEventRepository.markPublished(published, LocalDateTime.now());
+        }
+        return published.size();
+    }
+
+    /**
+     * Delay before the next attempt: {@code retry-backoff} doubled for every earlier failure,
+     * capped at {@code max-backoff}.
+     */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = retryBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void deliver(OutboxEvent event) {
+        List<OutboxEventListener> listeners = listenersByType.getOrDefault(event.getEventType(), List.of());
+        if (listeners.isEmpty()) {
+            return;
+        }
+        OutboxMessage message = toMessage(event);
+        deliveryTransaction.executeWithoutResult(status -> listeners.forEach(listener -> listener.onEvent(message)));
+    }
+
+    private OutboxMessage toMessage(OutboxEvent event) {
+        try {
+            return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), objectMapper.readTree(event.getPayload()), event.getCreatedAt());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload", e);
+        }
+    }
+
+    private static String abbreviate(Exception e) {
+        String error = e.getClass().getName() + ": " + e.getMessage();
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,20 @@
+package com.medico.common.outbox;
+
+import java.util.Set;
+
+/**
+ * In-process consumer of outbox events. Delivery is at-least-once and, per aggregate, in the
+ * order the events were appended: a message is redelivered until every listener for its type
+ * has handled it without throwing, and later events of the same aggregate wait for it, also once
+ * it has exhausted its attempts. Each call runs in its own transaction, after the transaction that
+ * appended the event committed. Only event types with at least one listener are recorded.
+ */
+public interface OutboxEventListener {
+
+    /**
+     * Event types this listener receives.
+     */
+    Set<String> eventTypes();
+
+    void onEvent(OutboxMessage message);
+}
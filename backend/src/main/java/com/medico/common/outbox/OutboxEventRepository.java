@@ -0,0 +1,49 @@
+package com.medico.common.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockDispatcher(@Param("key") long key);
+
+    /**
+     * Pending events that are due, in append order. An event is skipped while an earlier event of
+     * its aggregate is backing off or has exhausted its attempts, so an aggregate never skips ahead
+     * of a failed event; earlier events that are due themselves come first in the same batch.
+     */
+    @Query(value = "SELECT * FROM outbox_events e " +
+                   "WHERE e.published_at IS NULL AND e.attempts < :maxAttempts " +
+                   "AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= :now) " +
+                   "AND NOT EXISTS (SELECT 1 FROM outbox_events b " +
+                   "    WHERE b.aggregate_type = e.aggregate_type AND b.aggregate_id = e.aggregate_id " +
+                   "    AND b.published_at IS NULL AND b.id < e.id " +
+                   "    AND (b.attempts >= :maxAttempts OR b.next_attempt_at > :now)) " +
+                   "ORDER BY e.id LIMIT :limit",
+           nativeQuery = true)
+    List<OutboxEvent> findPending(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now,
+                                  @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt, e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<UUID> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, " +
+           "e.nextAttemptAt = :nextAttemptAt WHERE e.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("error") String error, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
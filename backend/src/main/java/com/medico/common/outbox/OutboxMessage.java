@@ -0,0 +1,19 @@
+package com.medico.common.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An outbox event as handed to {@link OutboxEventListener}s. {@code id} is stable across
+ * redeliveries and can be used to make handlers idempotent.
+ */
+public record OutboxMessage(
+    UUID id,
+    String aggregateType,
+    UUID aggregateId,
+    String eventType,
+    JsonNode payload,
+    LocalDateTime occurredAt
+) {}
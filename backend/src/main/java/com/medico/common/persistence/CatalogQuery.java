@@ -0,0 +1,27 @@
+package com.medico.common.persistence;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the results of a reference-catalog repository query in the Hibernate query cache.
+ * Hibernate invalidates cached results whenever a write touches one of the queried tables.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CatalogQuery.REGION)
+})
+public @interface CatalogQuery {
+
+    String REGION = "catalog.queries";
+}
@@ -0,0 +1,20 @@
+package com.medico.common.persistence;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the maximum number of SQL statements an endpoint may issue per request.
+ * Exceeding it is logged at runtime; {@code QueryBudgetTest} fails the build when an
+ * endpoint goes over, so N+1 regressions surface before they reach production.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value();
+}
@@ -0,0 +1,23 @@
+package com.medico.common.persistence;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class QueryBudgetConfig implements WebMvcConfigurer {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        QueryCounter counter = new QueryCounter();
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor()).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,43 @@
+package com.medico.common.persistence;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Slf4j
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+            if (budget != null) {
+                QueryCounter.open();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+        int executed = QueryCounter.close();
+        if (executed > budget.value()) {
+            log.warn("{} issued {} SQL statements, budget is {}", endpoint(method), executed, budget.value());
+        } else {
+            log.trace("{} issued {} SQL statements", endpoint(method), executed);
+        }
+    }
+
+    private static String endpoint(HandlerMethod method) {
+        return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+    }
+}
@@ -0,0 +1,54 @@
+package com.medico.common.persistence;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} that counts statements prepared on the current thread
+ * while a budget scope is open. Statements outside a scope are passed through untouched, and
+ * statements are never rejected: budgets are reported at runtime and enforced by tests.
+ * Scopes nest, and a closed scope adds its count to the enclosing one.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    public static void open() {
+        CURRENT.set(new Scope(CURRENT.get()));
+    }
+
+    /**
+     * Closes the current scope and returns the number of statements it recorded.
+     */
+    public static int close() {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return 0;
+        }
+        if (scope.parent != null) {
+            scope.parent.count += scope.count;
+            CURRENT.set(scope.parent);
+        } else {
+            CURRENT.remove();
+        }
+        return scope.count;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.count++;
+        }
+        return sql;
+    }
+
+    private static final class Scope {
+
+        private final Scope parent;
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+    }
+}
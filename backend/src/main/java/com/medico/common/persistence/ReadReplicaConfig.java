@@ -0,0 +1,99 @@
+package com.medico.common.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to PostgreSQL streaming replicas. The application
+ * {@code dataSource} is a {@link LazyConnectionDataSourceProxy} over the primary pool: the
+ * physical connection is only fetched at the first statement, after the transaction manager
+ * has marked it read-only, and read-only connections are then taken from the
+ * {@link ReplicaRoutingDataSource}. Writes, Flyway and read-write transactions always use the
+ * primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "medico.persistence.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${medico.persistence.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${medico.persistence.replicas.username:${spring.datasource.username}}")
+    private String username;
+
+    @Value("${medico.persistence.replicas.password:${spring.datasource.password}}")
+    private String password;
+
+    @Value("${medico.persistence.replicas.pool-size:10}")
+    private int poolSize;
+
+    @Value("${medico.persistence.replicas.connection-timeout:PT2S}")
+    private Duration connectionTimeout;
+
+    @Value("${medico.persistence.replicas.max-lag:PT5S}")
+    private Duration maxLag;
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${medico.persistence.replicas.sticky-window:PT5S}") Duration stickyWindow) {
+        return new ReadYourWritesTracker(stickyWindow);
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReadYourWritesTracker readYourWrites,
+                                                             DataSourceProperties properties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        List<String> urls = replicaUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("medico.persistence.replicas.urls must list at least one replica");
+        }
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            // Do not fail startup on an unreachable replica; the lag check enables it later
+            replica.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
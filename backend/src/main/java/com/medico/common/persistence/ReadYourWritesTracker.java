@@ -0,0 +1,60 @@
+package com.medico.common.persistence;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last committed a read-write transaction so that their reads can be
+ * pinned to the primary for a short window, until replicas have caught up with their own writes.
+ * Registered with the transaction manager as a {@link TransactionExecutionListener}.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final Duration window;
+    private final Map<String, Instant> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        String user = currentUser();
+        if (user != null) {
+            if (lastWrites.size() >= PURGE_THRESHOLD) {
+                Instant cutoff = Instant.now().minus(window);
+                lastWrites.values().removeIf(writtenAt -> writtenAt.isBefore(cutoff));
+            }
+            lastWrites.put(user, Instant.now());
+        }
+    }
+
+    /**
+     * Whether the current user wrote recently enough that a replica may not yet show the change.
+     */
+    public boolean isPinnedToPrimary() {
+        if (window.isZero()) {
+            return false;
+        }
+        String user = currentUser();
+        Instant writtenAt = user != null ? lastWrites.get(user) : null;
+        return writtenAt != null && writtenAt.plus(window).isAfter(Instant.now());
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,119 @@
+package com.medico.common.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only target of the routing {@code DataSource}. Connections are handed out round-robin
+ * from replicas whose last measured replication lag is within {@code max-lag}; unreachable or
+ * lagging replicas are skipped, and the primary is used when no replica qualifies or when the
+ * current user has just written and {@link ReadYourWritesTracker} pins them to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    // Zero when caught up (or idle with nothing left to replay), otherwise seconds behind the primary
+    private static final String LAG_QUERY = """
+        SELECT CASE
+                   WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                   ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+               END
+        """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    ReadYourWritesTracker readYourWrites, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.readYourWrites = readYourWrites;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!readYourWrites.isPinnedToPrimary()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.available) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.available = false;
+                    log.warn("Replica {} unreachable, routing reads elsewhere: {}", replica.name(), e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Replicas are configured with their own credentials, so explicit ones always mean the primary
+        return primary.getConnection(username, password);
+    }
+
+    @Scheduled(fixedDelayString = "${medico.persistence.replicas.lag-check-interval:PT5S}")
+    public void checkReplicationLag() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                Duration lag = Duration.ofMillis((long) (rs.getDouble(1) * 1000));
+                replica.available = lag.compareTo(maxLag) <= 0;
+                if (!replica.available && wasAvailable) {
+                    log.warn("Replica {} is {} ms behind the primary, reads fall back", replica.name(), lag.toMillis());
+                }
+            } catch (SQLException e) {
+                replica.available = false;
+                if (wasAvailable) {
+                    log.warn("Replica {} failed its lag check: {}", replica.name(), e.getMessage());
+                }
+            }
+            if (replica.available && !wasAvailable) {
+                log.info("Replica {} is serving reads", replica.name());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        // Not trusted with reads until the first lag check succeeds
+        private volatile boolean available;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private String name() {
+            return dataSource.getPoolName();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.medico.common.persistence;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * For repository queries returning a {@code Stream} over large results, such as report exports.
+ * The PostgreSQL driver then fetches rows in batches through a cursor instead of materializing the
+ * whole result, and loaded entities are not tracked for dirty checking. The stream must be
+ * consumed and closed inside the transaction.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQuery.FETCH_SIZE),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+})
+public @interface StreamingQuery {
+
+    String FETCH_SIZE = "500";
+}
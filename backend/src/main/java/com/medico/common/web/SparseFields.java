@@ -0,0 +1,82 @@
+package com.medico.common.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets: a {@code fields} request parameter such as
+ * {@code fields=id,invoiceNumber,status,items.description} limits the JSON written for each
+ * returned DTO (each element of a page) to the listed properties. A dotted path selects part of
+ * a nested object or of the elements of a nested list; naming the parent alone keeps it whole.
+ * Without the parameter every property is written.
+ * <p>
+ * Services can consult {@link #includes} to skip loading data that will not be written, such
+ * as line items.
+ */
+public final class SparseFields {
+
+    public static final String PARAMETER = "fields";
+    public static final String FILTER_ID = "sparseFields";
+
+    private static final String ATTRIBUTE = SparseFields.class.getName();
+    private static final int MAX_FIELDS = 100;
+
+    private SparseFields() {
+    }
+
+    /**
+     * Fields requested by the current request; empty when all fields are wanted or outside a request.
+     */
+    public static Set<String> requested() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return Set.of();
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        @SuppressWarnings("unchecked")
+        Set<String> fields = (Set<String>) request.getAttribute(ATTRIBUTE);
+        if (fields == null) {
+            fields = parse(request.getParameter(PARAMETER));
+            request.setAttribute(ATTRIBUTE, fields);
+        }
+        return fields;
+    }
+
+    /**
+     * Whether the property at {@code path} (relative to the returned DTO) will be written.
+     */
+    public static boolean includes(String path) {
+        Set<String> fields = requested();
+        return fields.isEmpty() || matches(fields, path);
+    }
+
+    static boolean matches(Set<String> fields, String path) {
+        for (String field : fields) {
+            if (field.equals(path)
+                    // A nested property of a selected object
+                    || path.startsWith(field) && path.charAt(field.length()) == '.'
+                    // The parent of a selected nested property
+                    || field.startsWith(path) && field.charAt(path.length()) == '.') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> parse(String parameter) {
+        if (parameter == null || parameter.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(parameter.split(","))
+            .map(String::trim)
+            .filter(field -> !field.isEmpty())
+            .limit(MAX_FIELDS)
+            .collect(Collectors.toUnmodifiableSet());
+    }
+}
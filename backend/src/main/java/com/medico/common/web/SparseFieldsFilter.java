@@ -0,0 +1,56 @@
+package com.medico.common.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+/**
+ * Jackson property filter that writes only the {@link SparseFields} requested. A property's
+ * path is taken from the generator's output context, so the decision follows the JSON being
+ * written rather than Java types. For a paged response the page envelope is always written and
+ * paths start below its {@code content} list.
+ */
+class SparseFieldsFilter extends SimpleBeanPropertyFilter {
+
+    private final Set<String> fields;
+    private final boolean paged;
+
+    SparseFieldsFilter(Set<String> fields, boolean paged) {
+        this.fields = fields;
+        this.paged = paged;
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                 PropertyWriter writer) throws Exception {
+        if (include(generator.getOutputContext(), writer.getName())) {
+            writer.serializeAsField(pojo, generator, provider);
+        } else if (!generator.canOmitFields()) {
+            writer.serializeAsOmittedField(pojo, generator, provider);
+        }
+    }
+
+    private boolean include(JsonStreamContext context, String name) {
+        // Names of the enclosing properties, outermost first; list levels have no name
+        Deque<String> path = new ArrayDeque<>();
+        for (JsonStreamContext parent = context.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent.inObject() && parent.getCurrentName() != null) {
+                path.addFirst(parent.getCurrentName());
+            }
+        }
+        if (paged) {
+            if (path.isEmpty()) {
+                return true;
+            }
+            path.removeFirst();
+        }
+        path.addLast(name);
+        return SparseFields.matches(fields, String.join(".", path));
+    }
+}
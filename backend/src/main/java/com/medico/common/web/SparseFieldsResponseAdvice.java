@@ -0,0 +1,45 @@
+package com.medico.common.web;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.medico.common.dto.CursorPage;
+import com.medico.common.dto.PageResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Set;
+
+/**
+ * Applies the {@link SparseFieldsFilter} to successful GET responses that carry a
+ * {@code fields} parameter. Error bodies are always written in full.
+ */
+@RestControllerAdvice
+public class SparseFieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request.getMethod() != HttpMethod.GET) {
+            return;
+        }
+        if (response instanceof ServletServerHttpResponse servletResponse
+                && servletResponse.getServletResponse().getStatus() >= 400) {
+            return;
+        }
+        Set<String> fields = SparseFields.requested();
+        if (fields.isEmpty()) {
+            return;
+        }
+        Object body = bodyContainer.getValue();
+        boolean paged = body instanceof PageResponse<?> || body instanceof CursorPage<?>;
+        bodyContainer.setFilters(new SimpleFilterProvider()
+            .addFilter(SparseFields.FILTER_ID, new SparseFieldsFilter(fields, paged)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.medico.common.web;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+
+/**
+ * Response payload settings: the Jackson hook for {@link SparseFields}, and ETags for the
+ * reference catalogs. Response compression is configured under {@code server.compression}.
+ */
+@Configuration
+public class WebPayloadConfig {
+
+    /**
+     * Catalog listings change rarely and are re-fetched by every ward tablet, so their GET
+     * responses carry an ETag and a conditional request with a matching {@code If-None-Match}
+     * is answered with 304 and no body. The ETag is a hash of the response, so the catalog is
+     * still read (mostly from the second-level cache) but not sent again. Servlet patterns ending
+     * in {@code /*} match the path itself and everything below it.
+     */
+    private static final String[] CATALOG_PATHS = {
+        "/api/v1/medications/*", "/api/v1/lab-tests/*", "/api/v1/suppliers/*"
+    };
+
+    /**
+     * Puts the {@link SparseFields#FILTER_ID} filter on every serialized class. No filter is
+     * registered on the mapper itself, so Jackson takes its unfiltered path unless a response
+     * supplies one.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder
+            .mixIn(Object.class, SparseFieldsMixin.class)
+            .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> catalogEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+            new FilterRegistrationBean<>(new CatalogEtagFilter());
+        registration.addUrlPatterns(CATALOG_PATHS);
+        return registration;
+    }
+
+    @JsonFilter(SparseFields.FILTER_ID)
+    private interface SparseFieldsMixin {
+    }
+
+    private static final class CatalogEtagFilter extends ShallowEtagHeaderFilter {
+
+        private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            if (!HttpMethod.GET.matches(request.getMethod())) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            // Allow clients to keep and revalidate the copy; otherwise the security defaults forbid storing it
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            super.doFilterInternal(request, response, filterChain);
+        }
+    }
+}
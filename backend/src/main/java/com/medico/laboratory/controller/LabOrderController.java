@@ -1,6 +1,8 @@
 package com.medico.laboratory.controller;
 
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.laboratory.domain.LabOrder.OrderStatus;
 import com.medico.laboratory.dto.*;
 import com.medico.laboratory.service.LabOrderService;
@@ -29,15 +31,28 @@ public class LabOrderController {
     @GetMapping
     @Operation(summary = "Get all lab orders", description = "Retrieve a paginated list of all lab orders")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'LAB_TECHNICIAN')")
+    @QueryBudget(5)
     public ResponseEntity<PageResponse<LabOrderDto>> getAllLabOrders(
         @PageableDefault(size = 20, sort = "orderDate", direction = Sort.Direction.DESC) Pageable pageable
     ) {
         return ResponseEntity.ok(labOrderService.getAllLabOrders(pageable));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get lab orders by cursor", description = "Keyset-paginated list of lab orders, newest first; pass nextCursor to continue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'LAB_TECHNICIAN')")
+    @QueryBudget(4)
+    public ResponseEntity<CursorPage<LabOrderDto>> getAllLabOrdersByCursor(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(labOrderService.getAllLabOrdersByCursor(cursor, size));
+    }
+
     @GetMapping("/patient/{patientId}")
     @Operation(summary = "Get patient lab orders", description = "Get all lab orders for a patient")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'LAB_TECHNICIAN')")
+    @QueryBudget(5)
     public ResponseEntity<PageResponse<LabOrderDto>> getPatientLabOrders(
         @PathVariable UUID patientId,
         @PageableDefault(size = 20, sort = "orderDate", direction = Sort.Direction.DESC) Pageable pageable
@@ -48,6 +63,7 @@ public class LabOrderController {
     @GetMapping("/status/{status}")
     @Operation(summary = "Get lab orders by status", description = "Get lab orders filtered by status")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'LAB_TECHNICIAN')")
+    @QueryBudget(5)
     public ResponseEntity<PageResponse<LabOrderDto>> getLabOrdersByStatus(
         @PathVariable OrderStatus status,
         @PageableDefault(size = 20) Pageable pageable
@@ -1,6 +1,7 @@
 package com.medico.laboratory.controller;
 
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.laboratory.dto.*;
 import com.medico.laboratory.service.LabResultService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,6 +30,7 @@ public class LabResultController {
     @GetMapping("/patient/{patientId}")
     @Operation(summary = "Get patient lab results", description = "Get all lab results for a patient")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'LAB_TECHNICIAN')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<LabResultDto>> getPatientResults(
         @PathVariable UUID patientId,
         @PageableDefault(size = 20, sort = "performedAt", direction = Sort.Direction.DESC) Pageable pageable
@@ -46,6 +48,7 @@ public class LabResultController {
     @GetMapping("/patient/{patientId}/abnormal")
     @Operation(summary = "Get abnormal results", description = "Get abnormal lab results for a patient")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<LabResultDto>> getAbnormalResults(
         @PathVariable UUID patientId,
         @PageableDefault(size = 20) Pageable pageable
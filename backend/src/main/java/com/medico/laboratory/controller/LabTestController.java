@@ -1,6 +1,7 @@
 package com.medico.laboratory.controller;
 
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.laboratory.domain.LabTest.LabTestCategory;
 import com.medico.laboratory.dto.*;
 import com.medico.laboratory.service.LabTestService;
@@ -29,6 +30,7 @@ public class LabTestController {
     @GetMapping
     @Operation(summary = "Get all lab tests", description = "Retrieve a paginated list of all active lab tests")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'LAB_TECHNICIAN')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<LabTestDto>> getAllLabTests(
         @PageableDefault(size = 20, sort = "name", direction = Sort.Direction.ASC) Pageable pageable
     ) {
@@ -38,6 +40,7 @@ public class LabTestController {
     @GetMapping("/category/{category}")
     @Operation(summary = "Get lab tests by category", description = "Get lab tests filtered by category")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'LAB_TECHNICIAN')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<LabTestDto>> getLabTestsByCategory(
         @PathVariable LabTestCategory category,
         @PageableDefault(size = 20, sort = "name", direction = Sort.Direction.ASC) Pageable pageable
@@ -48,6 +51,7 @@ public class LabTestController {
     @GetMapping("/search")
     @Operation(summary = "Search lab tests", description = "Search lab tests by name or code")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'LAB_TECHNICIAN')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<LabTestDto>> searchLabTests(
         @RequestParam String query,
         @PageableDefault(size = 20) Pageable pageable
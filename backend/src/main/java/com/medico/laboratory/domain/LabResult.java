@@ -37,7 +37,7 @@ public class LabResult extends BaseEntity {
     @Column(name = "interpretation", columnDefinition = "TEXT")
     private String interpretation;
 
-    @Column(name = "performed_at")
+    @Column(name = "performed_at", nullable = false)
     private LocalDateTime performedAt;
 
     @Column(name = "performed_by")
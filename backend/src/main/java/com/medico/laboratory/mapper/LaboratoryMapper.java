@@ -29,6 +29,16 @@ public interface LaboratoryMapper {
 
     List<LabOrderDto> toLabOrderDtoList(List<LabOrder> labOrders);
 
+    /**
+     * Order header without its items, for listings whose {@code fields} leave the items out.
+     */
+    @Named("summary")
+    @Mapping(target = "patientId", source = "patient.id")
+    @Mapping(target = "patientName", expression = "java(labOrder.getPatient().getFullName())")
+    @Mapping(target = "patientMrn", source = "patient.medicalRecordNumber")
+    @Mapping(target = "items", expression = "java(java.util.List.of())")
+    LabOrderDto toSummaryDto(LabOrder labOrder);
+
     @Mapping(target = "labTestId", source = "labTest.id")
     @Mapping(target = "labTestCode", source = "labTest.code")
     @Mapping(target = "labTestName", source = "labTest.name")
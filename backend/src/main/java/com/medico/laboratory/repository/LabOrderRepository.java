@@ -2,8 +2,10 @@ package com.medico.laboratory.repository;
 
 import com.medico.laboratory.domain.LabOrder;
 import com.medico.laboratory.domain.LabOrder.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,16 +19,24 @@ import java.util.UUID;
 @Repository
 public interface LabOrderRepository extends JpaRepository<LabOrder, UUID> {
 
+    @Override
+    @EntityGraph(attributePaths = "patient")
+    Page<LabOrder> findAll(Pageable pageable);
+
     Optional<LabOrder> findByOrderNumber(String orderNumber);
 
     boolean existsByOrderNumber(String orderNumber);
 
+    @EntityGraph(attributePaths = "patient")
     Page<LabOrder> findByPatientIdOrderByOrderDateDesc(UUID patientId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "patient")
     Page<LabOrder> findByOrderingDoctorIdOrderByOrderDateDesc(UUID doctorId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "patient")
     Page<LabOrder> findByStatusOrderByOrderDateDesc(OrderStatus status, Pageable pageable);
 
+    @EntityGraph(attributePaths = "patient")
     @Query("SELECT lo FROM LabOrder lo WHERE lo.status = :status ORDER BY " +
            "CASE lo.priority WHEN 'STAT' THEN 1 WHEN 'URGENT' THEN 2 ELSE 3 END, lo.orderDate ASC")
     Page<LabOrder> findByStatusOrderByPriority(@Param("status") OrderStatus status, Pageable pageable);
@@ -42,5 +52,17 @@ public interface LabOrderRepository extends JpaRepository<LabOrder, UUID> {
 
     @Query("SELECT COUNT(lo) FROM LabOrder lo WHERE lo.orderDate BETWEEN :start AND :end")
     long countOrdersInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-}
 
+    @EntityGraph(attributePaths = "patient")
+    @Query("SELECT lo FROM LabOrder lo ORDER BY lo.orderDate DESC, lo.id DESC")
+    List<LabOrder> findFirstOrders(Limit limit);
+
+    @EntityGraph(attributePaths = "patient")
+    @Query("SELECT lo FROM LabOrder lo WHERE (lo.orderDate, lo.id) < (:afterDate, :afterId) " +
+           "ORDER BY lo.orderDate DESC, lo.id DESC")
+    List<LabOrder> findOrdersAfter(
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+}
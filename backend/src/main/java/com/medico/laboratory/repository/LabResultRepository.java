@@ -1,9 +1,13 @@
 package com.medico.laboratory.repository;
 
+import com.medico.common.persistence.StreamingQuery;
 import com.medico.laboratory.domain.LabResult;
+import com.medico.laboratory.dto.LabResultDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,19 +15,25 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface LabResultRepository extends JpaRepository<LabResult, UUID> {
 
-    @Query("SELECT lr FROM LabResult lr WHERE lr.labOrderItem.labOrder.patient.id = :patientId ORDER BY lr.performedAt DESC")
-    Page<LabResult> findByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+    /**
+     * Claims the single result slot of a lab order item in the unpartitioned lab_result_items
+     * table, which is what keeps an item to one result across all monthly result partitions.
+     *
+     * @return 1 if the slot was claimed, 0 if the item already has a result
+     */
+    @Modifying
+    @Query(value = "INSERT INTO lab_result_items (lab_order_item_id) VALUES (:itemId) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int reserveResultItem(@Param("itemId") UUID itemId);
 
     @Query("SELECT lr FROM LabResult lr WHERE lr.labOrderItem.labOrder.id = :orderId")
     List<LabResult> findByOrderId(@Param("orderId") UUID orderId);
 
-    @Query("SELECT lr FROM LabResult lr WHERE lr.abnormal = true AND lr.labOrderItem.labOrder.patient.id = :patientId ORDER BY lr.performedAt DESC")
-    Page<LabResult> findAbnormalResultsByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
-
     @Query("SELECT lr FROM LabResult lr WHERE lr.critical = true AND lr.verifiedAt IS NULL")
     List<LabResult> findUnverifiedCriticalResults();
 
@@ -38,5 +48,40 @@ public interface LabResultRepository extends JpaRepository<LabResult, UUID> {
 
     @Query("SELECT COUNT(lr) FROM LabResult lr WHERE lr.verifiedAt IS NULL")
     long countPendingVerification();
-}
 
+    String LAB_RESULT_DTO =
+        "SELECT new com.medico.laboratory.dto.LabResultDto(lr.id, item.id, t.name, t.code, lr.resultValue, lr.unit, " +
+        "lr.referenceRange, lr.flag, lr.interpretation, lr.performedAt, lr.performedBy, lr.technicianName, " +
+        "lr.verifiedAt, lr.verifiedBy, lr.verifierName, lr.notes, lr.abnormal, lr.critical, lr.createdAt) " +
+        "FROM LabResult lr JOIN lr.labOrderItem item JOIN item.labTest t JOIN item.labOrder o ";
+
+    @Query(value = LAB_RESULT_DTO + "WHERE o.patient.id = :patientId ORDER BY lr.performedAt DESC",
+           countQuery = "SELECT COUNT(lr) FROM LabResult lr WHERE lr.labOrderItem.labOrder.patient.id = :patientId")
+    Page<LabResultDto> findDtosByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query(value = LAB_RESULT_DTO + "WHERE lr.abnormal = true AND o.patient.id = :patientId ORDER BY lr.performedAt DESC",
+           countQuery = "SELECT COUNT(lr) FROM LabResult lr " +
+                        "WHERE lr.abnormal = true AND lr.labOrderItem.labOrder.patient.id = :patientId")
+    Page<LabResultDto> findAbnormalDtosByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query(LAB_RESULT_DTO + "WHERE o.patient.id = :patientId ORDER BY lr.performedAt DESC, lr.id DESC")
+    List<LabResultDto> findTimelineDtos(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(LAB_RESULT_DTO + "WHERE o.patient.id = :patientId AND (lr.performedAt, lr.id) < (:afterDate, :afterId) " +
+           "ORDER BY lr.performedAt DESC, lr.id DESC")
+    List<LabResultDto> findTimelineDtosAfter(
+        @Param("patientId") UUID patientId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+
+    @StreamingQuery
+    @Query(LAB_RESULT_DTO + "WHERE lr.performedAt >= :start AND lr.performedAt < :end " +
+           "AND (:abnormalOnly = false OR lr.abnormal = true) ORDER BY lr.performedAt, lr.id")
+    Stream<LabResultDto> streamDtosByDateRange(
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end,
+        @Param("abnormalOnly") boolean abnormalOnly
+    );
+}
@@ -1,5 +1,6 @@
 package com.medico.laboratory.repository;
 
+import com.medico.common.persistence.CatalogQuery;
 import com.medico.laboratory.domain.LabTest;
 import com.medico.laboratory.domain.LabTest.LabTestCategory;
 import org.springframework.data.domain.Page;
@@ -15,12 +16,15 @@ import java.util.UUID;
 @Repository
 public interface LabTestRepository extends JpaRepository<LabTest, UUID> {
 
+    @CatalogQuery
     Optional<LabTest> findByCode(String code);
 
     boolean existsByCode(String code);
 
+    @CatalogQuery
     Page<LabTest> findByActiveTrue(Pageable pageable);
 
+    @CatalogQuery
     Page<LabTest> findByCategoryAndActiveTrue(LabTestCategory category, Pageable pageable);
 
     @Query("SELECT lt FROM LabTest lt WHERE lt.active = true AND " +
@@ -1,8 +1,13 @@
 package com.medico.laboratory.service;
 
+import com.medico.common.dto.Cursor;
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.event.StateChangedEvent.State;
 import com.medico.common.exception.BusinessException;
 import com.medico.common.exception.ResourceNotFoundException;
+import com.medico.common.web.SparseFields;
 import com.medico.laboratory.domain.*;
 import com.medico.laboratory.domain.LabOrder.OrderStatus;
 import com.medico.laboratory.domain.LabOrderItem.ItemStatus;
@@ -14,6 +19,7 @@ import com.medico.patient.domain.Patient;
 import com.medico.patient.repository.PatientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,6 +29,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -36,27 +43,32 @@ public class LabOrderService {
     private final LabTestRepository labTestRepository;
     private final PatientRepository patientRepository;
     private final LaboratoryMapper laboratoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
     private static final AtomicLong orderCounter = new AtomicLong(System.currentTimeMillis() % 100000);
 
     public PageResponse<LabOrderDto> getAllLabOrders(Pageable pageable) {
         Page<LabOrder> labOrders = labOrderRepository.findAll(pageable);
-        return PageResponse.from(labOrders, labOrders.getContent().stream()
-            .map(laboratoryMapper::toDto)
-            .toList());
+        return PageResponse.from(labOrders, toListDtos(labOrders.getContent()));
+    }
+
+    public CursorPage<LabOrderDto> getAllLabOrdersByCursor(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        Cursor position = Cursor.decode(cursor);
+        List<LabOrder> labOrders = position == null
+            ? labOrderRepository.findFirstOrders(CursorPage.limitFor(pageSize))
+            : labOrderRepository.findOrdersAfter(position.keyAsDateTime(), position.id(), CursorPage.limitFor(pageSize));
+        return CursorPage.of(toListDtos(labOrders), pageSize,
+            labOrder -> Cursor.of(labOrder.orderDate(), labOrder.id()));
     }
 
     public PageResponse<LabOrderDto> getLabOrdersByPatient(UUID patientId, Pageable pageable) {
         Page<LabOrder> labOrders = labOrderRepository.findByPatientIdOrderByOrderDateDesc(patientId, pageable);
-        return PageResponse.from(labOrders, labOrders.getContent().stream()
-            .map(laboratoryMapper::toDto)
-            .toList());
+        return PageResponse.from(labOrders, toListDtos(labOrders.getContent()));
     }
 
     public PageResponse<LabOrderDto> getLabOrdersByStatus(OrderStatus status, Pageable pageable) {
         Page<LabOrder> labOrders = labOrderRepository.findByStatusOrderByPriority(status, pageable);
-        return PageResponse.from(labOrders, labOrders.getContent().stream()
-            .map(laboratoryMapper::toDto)
-            .toList());
+        return PageResponse.from(labOrders, toListDtos(labOrders.getContent()));
     }
 
     public LabOrderDto getLabOrderById(UUID id) {
@@ -101,6 +113,8 @@ public class LabOrderService {
         }
 
         LabOrder savedLabOrder = labOrderRepository.save(labOrder);
+        eventPublisher.publishEvent(StateChangedEvent.created(LabOrder.class, savedLabOrder.getId(),
+            State.of(savedLabOrder.getStatus(), savedLabOrder.getOrderDate())));
         log.info("Created lab order {} for patient {}", savedLabOrder.getOrderNumber(), patient.getMedicalRecordNumber());
 
         return laboratoryMapper.toDto(savedLabOrder);
@@ -114,8 +128,10 @@ public class LabOrderService {
             throw new BusinessException("Cannot update a cancelled order");
         }
 
+        OrderStatus previousStatus = labOrder.getStatus();
         labOrder.setStatus(status);
         LabOrder updatedLabOrder = labOrderRepository.save(labOrder);
+        publishStatusChange(updatedLabOrder, previousStatus);
         log.info("Updated lab order {} status to {}", labOrder.getOrderNumber(), status);
 
         return laboratoryMapper.toDto(updatedLabOrder);
@@ -129,11 +145,13 @@ public class LabOrderService {
             throw new BusinessException("Sample can only be collected for pending orders");
         }
 
+        OrderStatus previousStatus = labOrder.getStatus();
         labOrder.setStatus(OrderStatus.SAMPLE_COLLECTED);
         labOrder.setSampleCollectedAt(LocalDateTime.now());
         labOrder.setSampleCollectedBy(collectedBy);
 
         LabOrder updatedLabOrder = labOrderRepository.save(labOrder);
+        publishStatusChange(updatedLabOrder, previousStatus);
         log.info("Sample collected for lab order {}", labOrder.getOrderNumber());
 
         return laboratoryMapper.toDto(updatedLabOrder);
@@ -147,13 +165,20 @@ public class LabOrderService {
             throw new BusinessException("Cannot cancel a completed order");
         }
 
+        OrderStatus previousStatus = labOrder.getStatus();
         labOrder.setStatus(OrderStatus.CANCELLED);
         labOrder.getItems().forEach(item -> item.setStatus(ItemStatus.CANCELLED));
 
         labOrderRepository.save(labOrder);
+        publishStatusChange(labOrder, previousStatus);
         log.info("Cancelled lab order {}", labOrder.getOrderNumber());
     }
 
+    private void publishStatusChange(LabOrder labOrder, OrderStatus previousStatus) {
+        eventPublisher.publishEvent(StateChangedEvent.changed(LabOrder.class, labOrder.getId(),
+            State.of(previousStatus, labOrder.getOrderDate()), State.of(labOrder.getStatus(), labOrder.getOrderDate())));
+    }
+
     public long getPendingOrderCount() {
         return labOrderRepository.countByStatus(OrderStatus.PENDING);
     }
@@ -164,6 +189,16 @@ public class LabOrderService {
         return labOrderRepository.countOrdersInRange(startOfDay, endOfDay);
     }
 
+    /**
+     * Maps a listing, leaving out the lazily loaded items when the request's fields exclude them.
+     */
+    private List<LabOrderDto> toListDtos(List<LabOrder> labOrders) {
+        if (SparseFields.includes("items")) {
+            return laboratoryMapper.toLabOrderDtoList(labOrders);
+        }
+        return labOrders.stream().map(laboratoryMapper::toSummaryDto).toList();
+    }
+
     private LabOrder findLabOrderById(UUID id) {
         return labOrderRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("LabOrder", "id", id));
@@ -1,6 +1,9 @@
 package com.medico.laboratory.service;
 
+import com.medico.common.audit.AuditedRead;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.event.StateChangedEvent.State;
 import com.medico.common.exception.BusinessException;
 import com.medico.common.exception.ResourceNotFoundException;
 import com.medico.laboratory.domain.*;
@@ -12,7 +15,7 @@ import com.medico.laboratory.repository.LabOrderRepository;
 import com.medico.laboratory.repository.LabResultRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,12 +35,11 @@ public class LabResultService {
     private final LabResultRepository labResultRepository;
     private final LabOrderRepository labOrderRepository;
     private final LaboratoryMapper laboratoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @AuditedRead(entityType = "Patient", action = "READ_LAB_RESULTS")
     public PageResponse<LabResultDto> getPatientResults(UUID patientId, Pageable pageable) {
-        Page<LabResult> results = labResultRepository.findByPatientId(patientId, pageable);
-        return PageResponse.from(results, results.getContent().stream()
-            .map(laboratoryMapper::toDto)
-            .toList());
+        return PageResponse.from(labResultRepository.findDtosByPatientId(patientId, pageable));
     }
 
     public List<LabResultDto> getResultsByOrder(UUID orderId) {
@@ -45,13 +47,12 @@ public class LabResultService {
         return laboratoryMapper.toLabResultDtoList(results);
     }
 
+    @AuditedRead(entityType = "Patient", action = "READ_LAB_RESULTS")
     public PageResponse<LabResultDto> getAbnormalResults(UUID patientId, Pageable pageable) {
-        Page<LabResult> results = labResultRepository.findAbnormalResultsByPatientId(patientId, pageable);
-        return PageResponse.from(results, results.getContent().stream()
-            .map(laboratoryMapper::toDto)
-            .toList());
+        return PageResponse.from(labResultRepository.findAbnormalDtosByPatientId(patientId, pageable));
     }
 
+    @AuditedRead(entityType = "LabResult")
     public LabResultDto getResultById(UUID id) {
         LabResult result = findResultById(id);
         return laboratoryMapper.toDto(result);
@@ -78,6 +79,12 @@ public class LabResultService {
             throw new BusinessException("Cannot add result to a cancelled order item");
         }
 
+        // The check above misses a concurrent request and lab_results is only unique per
+        // partition; the reservation is rolled back with the rest if anything below fails.
+        if (labResultRepository.reserveResultItem(labOrderItem.getId()) == 0) {
+            throw new BusinessException("Result already exists for this order item");
+        }
+
         LabResult result = LabResult.builder()
             .labOrderItem(labOrderItem)
             .resultValue(request.resultValue())
@@ -97,9 +104,14 @@ public class LabResultService {
         labOrderItem.setStatus(ItemStatus.COMPLETED);
 
         // Update order status if all items are completed
+        OrderStatus previousOrderStatus = labOrder.getStatus();
         updateOrderStatus(labOrder);
 
         LabResult savedResult = labResultRepository.save(result);
+        eventPublisher.publishEvent(StateChangedEvent.created(LabResult.class, savedResult.getId(),
+            State.of(false, savedResult.getPerformedAt())));
+        eventPublisher.publishEvent(StateChangedEvent.changed(LabOrder.class, labOrder.getId(),
+            State.of(previousOrderStatus, labOrder.getOrderDate()), State.of(labOrder.getStatus(), labOrder.getOrderDate())));
         log.info("Created result for order {} item {}", labOrder.getOrderNumber(), labOrderItem.getId());
 
         return laboratoryMapper.toDto(savedResult);
@@ -113,11 +125,15 @@ public class LabResultService {
             throw new BusinessException("Result is already verified");
         }
 
+        boolean wasVerified = result.getVerifiedAt() != null;
         result.setVerifiedAt(LocalDateTime.now());
         result.setVerifiedBy(verifiedBy);
         result.setVerifierName(verifierName);
 
         LabResult verifiedResult = labResultRepository.save(result);
+        eventPublisher.publishEvent(StateChangedEvent.changed(LabResult.class, id,
+            State.of(wasVerified, result.getPerformedAt()),
+            State.of(verifiedResult.getVerifiedAt() != null, verifiedResult.getPerformedAt())));
         log.info("Verified result {}", id);
 
         return laboratoryMapper.toDto(verifiedResult);
@@ -162,4 +178,3 @@ public class LabResultService {
         labOrderRepository.save(labOrder);
     }
 }
-
@@ -0,0 +1,86 @@
+package com.medico.laboratory.service;
+
+import com.medico.laboratory.dto.LabResultDto;
+import com.medico.laboratory.repository.LabResultRepository;
+import com.medico.report.domain.ReportJob.ReportPriority;
+import com.medico.report.service.ReportDefinition;
+import com.medico.report.service.ReportParameters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Lab results performed in a date range, optionally only abnormal ones, with verification times.
+ */
+@Component
+@RequiredArgsConstructor
+public class LabResultsReport implements ReportDefinition {
+
+    private static final String ABNORMAL_ONLY = "abnormalOnly";
+    private static final int MAX_DAYS = 366;
+
+    private final LabResultRepository labResultRepository;
+
+    @Override
+    public String type() {
+        return "lab-results";
+    }
+
+    @Override
+    public String description() {
+        return "Lab results performed in a period with flags and verification";
+    }
+
+    @Override
+    public Set<String> roles() {
+        return Set.of("ADMIN", "DOCTOR", "LAB_TECHNICIAN");
+    }
+
+    @Override
+    public ReportPriority defaultPriority() {
+        return ReportPriority.LOW;
+    }
+
+    @Override
+    public List<String> parameters() {
+        return List.of(ReportParameters.FROM, ReportParameters.TO, ABNORMAL_ONLY);
+    }
+
+    @Override
+    public List<String> columns() {
+        return List.of("performed_at", "test_code", "test_name", "result", "unit", "reference_range", "flag",
+            "abnormal", "critical", "technician", "verified_at", "verifier");
+    }
+
+    @Override
+    public Map<String, String> normalize(Map<String, String> parameters) {
+        LocalDate[] range = ReportParameters.dateRange(parameters, MAX_DAYS);
+        return Map.of(
+            ReportParameters.FROM, range[0].toString(),
+            ReportParameters.TO, range[1].toString(),
+            ABNORMAL_ONLY, String.valueOf(ReportParameters.flag(parameters, ABNORMAL_ONLY))
+        );
+    }
+
+    @Override
+    public void write(Map<String, String> parameters, Rows rows) throws IOException {
+        LocalDate from = ReportParameters.date(parameters, ReportParameters.FROM);
+        LocalDate to = ReportParameters.date(parameters, ReportParameters.TO);
+        try (Stream<LabResultDto> results = labResultRepository.streamDtosByDateRange(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay(), ReportParameters.flag(parameters, ABNORMAL_ONLY))) {
+            for (Iterator<LabResultDto> it = results.iterator(); it.hasNext(); ) {
+                LabResultDto result = it.next();
+                rows.add(result.performedAt(), result.testCode(), result.testName(), result.resultValue(),
+                    result.unit(), result.referenceRange(), result.flag(), result.abnormal(), result.critical(),
+                    result.technicianName(), result.verifiedAt(), result.verifierName());
+            }
+        }
+    }
+}
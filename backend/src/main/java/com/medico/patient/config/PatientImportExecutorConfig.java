@@ -0,0 +1,44 @@
+package com.medico.patient.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class PatientImportExecutorConfig {
+
+    /**
+     * Runs bulk import jobs, one thread per job. Each job reads its file and commits chunks in
+     * order on this thread, so the pool size caps concurrent imports and their write connections.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor patientImportExecutor(
+        @Value("${medico.patients.import.max-concurrent-jobs:2}") int maxConcurrentJobs
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs);
+        executor.setMaxPoolSize(maxConcurrentJobs);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("patient-import-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * CPU-bound parsing and validation of import chunks, shared by all running jobs. Jobs keep a
+     * bounded number of chunks in flight, so the queue never grows past a few chunks per job.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor patientImportValidationExecutor(
+        @Value("${medico.patients.import.parallelism:4}") int parallelism
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("patient-import-validation-");
+        executor.initialize();
+        return executor;
+    }
+}
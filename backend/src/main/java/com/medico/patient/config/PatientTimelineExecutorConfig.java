@@ -0,0 +1,35 @@
+package com.medico.patient.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class PatientTimelineExecutorConfig {
+
+    /**
+     * Pool for the per-source range reads of a patient timeline. Like the dashboard pool, its
+     * size caps the connections timelines hold at once. When it is saturated the reads run on
+     * the request thread instead of failing, so timelines degrade to sequential loading. Tasks
+     * carry the caller's security context, which read-replica routing relies on.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor patientTimelineExecutor(
+        @Value("${medico.patients.timeline.parallelism:8}") int parallelism,
+        @Value("${medico.patients.timeline.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("patient-timeline-");
+        executor.setTaskDecorator(task -> DelegatingSecurityContextRunnable.create(task, null));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
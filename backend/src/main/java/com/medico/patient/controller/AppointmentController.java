@@ -1,9 +1,12 @@
 package com.medico.patient.controller;
 
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.patient.domain.Appointment.AppointmentStatus;
 import com.medico.patient.dto.*;
 import com.medico.patient.service.AppointmentService;
+import com.medico.patient.service.AvailabilityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -28,19 +31,33 @@ import java.util.UUID;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AvailabilityService availabilityService;
 
     @GetMapping
     @Operation(summary = "Get all appointments", description = "Retrieve a paginated list of all appointments")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<AppointmentDto>> getAllAppointments(
         @PageableDefault(size = 20, sort = "appointmentDateTime", direction = Sort.Direction.DESC) Pageable pageable
     ) {
         return ResponseEntity.ok(appointmentService.getAllAppointments(pageable));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get appointments by cursor", description = "Keyset-paginated list of appointments, newest first; pass nextCursor to continue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    @QueryBudget(1)
+    public ResponseEntity<CursorPage<AppointmentDto>> getAllAppointmentsByCursor(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(appointmentService.getAllAppointmentsByCursor(cursor, size));
+    }
+
     @GetMapping("/patient/{patientId}")
     @Operation(summary = "Get patient appointments", description = "Get all appointments for a specific patient")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<AppointmentDto>> getPatientAppointments(
         @PathVariable UUID patientId,
         @PageableDefault(size = 20, sort = "appointmentDateTime", direction = Sort.Direction.DESC) Pageable pageable
@@ -51,6 +68,7 @@ public class AppointmentController {
     @GetMapping("/doctor/{doctorId}")
     @Operation(summary = "Get doctor appointments", description = "Get all appointments for a specific doctor")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<AppointmentDto>> getDoctorAppointments(
         @PathVariable UUID doctorId,
         @PageableDefault(size = 20, sort = "appointmentDateTime", direction = Sort.Direction.DESC) Pageable pageable
@@ -68,6 +86,13 @@ public class AppointmentController {
         return ResponseEntity.ok(appointmentService.getAppointmentsByDateRange(startDate, endDate));
     }
 
+    @PostMapping("/availability")
+    @Operation(summary = "Search free slots", description = "Find free windows of at least the given duration for several doctors within a date range")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public ResponseEntity<List<DoctorAvailabilityDto>> findAvailability(@Valid @RequestBody AvailabilityRequest request) {
+        return ResponseEntity.ok(availabilityService.findAvailability(request));
+    }
+
     @GetMapping("/doctor/{doctorId}/date-range")
     @Operation(summary = "Get doctor appointments by date range", description = "Get a doctor's appointments within a date range")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
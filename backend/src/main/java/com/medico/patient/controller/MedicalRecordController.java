@@ -1,6 +1,7 @@
 package com.medico.patient.controller;
 
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.patient.dto.*;
 import com.medico.patient.service.MedicalRecordService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,6 +29,7 @@ public class MedicalRecordController {
     @GetMapping("/patient/{patientId}")
     @Operation(summary = "Get patient medical records", description = "Get all medical records for a patient")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<MedicalRecordDto>> getPatientRecords(
         @PathVariable UUID patientId,
         @PageableDefault(size = 20, sort = "visitDate", direction = Sort.Direction.DESC) Pageable pageable
@@ -36,8 +38,11 @@ public class MedicalRecordController {
     }
 
     @GetMapping("/patient/{patientId}/search")
-    @Operation(summary = "Search patient records", description = "Search medical records by diagnosis, complaint, or notes")
+    @Operation(summary = "Search patient records",
+        description = "Full-text search over a patient's diagnoses, complaints, symptoms and notes. " +
+            "Supports quoted phrases, OR and -exclusion; records are returned in rank order")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @QueryBudget(3)
     public ResponseEntity<PageResponse<MedicalRecordDto>> searchPatientRecords(
         @PathVariable UUID patientId,
         @RequestParam String query,
@@ -46,6 +51,32 @@ public class MedicalRecordController {
         return ResponseEntity.ok(medicalRecordService.searchPatientRecords(patientId, query, pageable));
     }
 
+    @GetMapping("/patient/{patientId}/search/hits")
+    @Operation(summary = "Search patient records with snippets",
+        description = "Same search as /patient/{patientId}/search, returning rank and HTML-escaped snippets " +
+            "with matches wrapped in <mark>")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @QueryBudget(2)
+    public ResponseEntity<PageResponse<MedicalRecordSearchHitDto>> searchPatientRecordHits(
+        @PathVariable UUID patientId,
+        @RequestParam String query,
+        @PageableDefault(size = 20) Pageable pageable
+    ) {
+        return ResponseEntity.ok(medicalRecordService.searchPatientRecordHits(patientId, query, pageable));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search records across all patients",
+        description = "Cohort-wide full-text search over medical record narratives, ranked with HTML-escaped, highlighted snippets")
+    @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(2)
+    public ResponseEntity<PageResponse<MedicalRecordSearchHitDto>> searchAllRecords(
+        @RequestParam String query,
+        @PageableDefault(size = 20) Pageable pageable
+    ) {
+        return ResponseEntity.ok(medicalRecordService.searchAllRecords(query, pageable));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get medical record by ID", description = "Retrieve a specific medical record")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
@@ -1,8 +1,12 @@
 package com.medico.patient.controller;
 
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.patient.dto.*;
+import com.medico.patient.service.PatientMatchService;
 import com.medico.patient.service.PatientService;
+import com.medico.patient.service.PatientTimelineService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -24,19 +29,34 @@ import java.util.UUID;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientMatchService patientMatchService;
+    private final PatientTimelineService patientTimelineService;
 
     @GetMapping
     @Operation(summary = "Get all patients", description = "Retrieve a paginated list of all active patients")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<PatientDto>> getAllPatients(
         @PageableDefault(size = 20, sort = "lastName", direction = Sort.Direction.ASC) Pageable pageable
     ) {
         return ResponseEntity.ok(patientService.getAllPatients(pageable));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get patients by cursor", description = "Keyset-paginated list of active patients ordered by last name; pass nextCursor to continue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    @QueryBudget(1)
+    public ResponseEntity<CursorPage<PatientDto>> getAllPatientsByCursor(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(patientService.getAllPatientsByCursor(cursor, size));
+    }
+
     @GetMapping("/search")
-    @Operation(summary = "Search patients", description = "Search patients by name, MRN, phone, or email")
+    @Operation(summary = "Search patients", description = "Ranked search by name, MRN prefix, phone number prefix, or email")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<PatientDto>> searchPatients(
         @RequestParam String query,
         @PageableDefault(size = 20) Pageable pageable
@@ -44,6 +64,27 @@ public class PatientController {
         return ResponseEntity.ok(patientService.searchPatients(query, pageable));
     }
 
+    @PostMapping("/duplicates/check")
+    @Operation(summary = "Check for duplicates", description = "Score existing patients that may match a registration")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<List<DuplicateCandidateDto>> checkDuplicates(@Valid @RequestBody CreatePatientRequest request) {
+        return ResponseEntity.ok(patientMatchService.findCandidates(request));
+    }
+
+    @GetMapping("/duplicates")
+    @Operation(summary = "Find duplicate patients", description = "Run a deduplication pass over all active patients")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DuplicatePairDto>> findDuplicates() {
+        return ResponseEntity.ok(patientMatchService.findDuplicatePairs());
+    }
+
+    @PostMapping("/duplicates/rebuild-keys")
+    @Operation(summary = "Rebuild match keys", description = "Recompute duplicate detection keys for all active patients")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Long> rebuildMatchKeys() {
+        return ResponseEntity.ok(patientMatchService.rebuildMatchKeys());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get patient by ID", description = "Retrieve a specific patient by their ID")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST', 'PHARMACIST', 'LAB_TECHNICIAN')")
@@ -51,6 +92,19 @@ public class PatientController {
         return ResponseEntity.ok(patientService.getPatientById(id));
     }
 
+    @GetMapping("/{id}/timeline")
+    @Operation(summary = "Get patient timeline",
+        description = "Medical records, prescriptions, appointments, lab results and invoices in one feed, newest first; " +
+            "pass nextCursor to continue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<CursorPage<TimelineEntryDto>> getPatientTimeline(
+        @PathVariable UUID id,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(patientTimelineService.getPatientTimeline(id, cursor, size));
+    }
+
     @GetMapping("/mrn/{mrn}")
     @Operation(summary = "Get patient by MRN", description = "Retrieve a specific patient by their Medical Record Number")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST', 'PHARMACIST', 'LAB_TECHNICIAN')")
@@ -59,7 +113,8 @@ public class PatientController {
     }
 
     @PostMapping
-    @Operation(summary = "Create patient", description = "Register a new patient")
+    @Operation(summary = "Create patient",
+        description = "Register a new patient; probable duplicates are returned with 409 unless overrideDuplicates is set")
     @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
     public ResponseEntity<PatientDto> createPatient(@Valid @RequestBody CreatePatientRequest request) {
         PatientDto patient = patientService.createPatient(request);
@@ -0,0 +1,68 @@
+package com.medico.patient.controller;
+
+import com.medico.common.dto.PageResponse;
+import com.medico.patient.domain.PatientImportJob.ImportFormat;
+import com.medico.patient.dto.PatientImportJobDto;
+import com.medico.patient.service.PatientImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/patients/imports")
+@RequiredArgsConstructor
+@Tag(name = "Patient Import", description = "APIs for bulk patient imports")
+public class PatientImportController {
+
+    private final PatientImportService patientImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Start an import",
+        description = "Upload a CSV (with header row) or NDJSON file of patients; the import runs in the background")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PatientImportJobDto> startImport(
+        @RequestPart("file") MultipartFile file,
+        @RequestParam(required = false) ImportFormat format
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(patientImportService.startImport(file, format));
+    }
+
+    @GetMapping
+    @Operation(summary = "List imports", description = "Retrieve import jobs, newest first")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<PatientImportJobDto>> getImportJobs(
+        @PageableDefault(size = 20) Pageable pageable
+    ) {
+        return ResponseEntity.ok(patientImportService.getImportJobs(pageable));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get import progress", description = "Counters, throughput and a sample of rejected records")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PatientImportJobDto> getImportJob(@PathVariable UUID id) {
+        return ResponseEntity.ok(patientImportService.getImportJob(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    @Operation(summary = "Resume an import", description = "Continue a failed or interrupted import after its last committed chunk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PatientImportJobDto> resumeImport(@PathVariable UUID id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(patientImportService.resumeImport(id));
+    }
+}
@@ -1,9 +1,11 @@
 package com.medico.patient.controller;
 
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.patient.domain.Prescription.PrescriptionStatus;
 import com.medico.patient.dto.*;
 import com.medico.patient.service.PrescriptionService;
+import com.medico.pharmacy.dto.ScreeningAlertDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -30,6 +32,7 @@ public class PrescriptionController {
     @GetMapping("/patient/{patientId}")
     @Operation(summary = "Get patient prescriptions", description = "Get all prescriptions for a patient")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST')")
+    @QueryBudget(3)
     public ResponseEntity<PageResponse<PrescriptionDto>> getPatientPrescriptions(
         @PathVariable UUID patientId,
         @PageableDefault(size = 20, sort = "prescriptionDate", direction = Sort.Direction.DESC) Pageable pageable
@@ -47,6 +50,7 @@ public class PrescriptionController {
     @GetMapping("/status/{status}")
     @Operation(summary = "Get prescriptions by status", description = "Get all prescriptions with a specific status")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    @QueryBudget(3)
     public ResponseEntity<PageResponse<PrescriptionDto>> getPrescriptionsByStatus(
         @PathVariable PrescriptionStatus status,
         @PageableDefault(size = 20, sort = "prescriptionDate", direction = Sort.Direction.DESC) Pageable pageable
@@ -68,8 +72,17 @@ public class PrescriptionController {
         return ResponseEntity.ok(prescriptionService.getPrescriptionByNumber(prescriptionNumber));
     }
 
+    @PostMapping("/screen")
+    @Operation(summary = "Screen prescription",
+        description = "Check a draft prescription for drug interactions and allergies without saving it")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST')")
+    public ResponseEntity<List<ScreeningAlertDto>> screenPrescription(@Valid @RequestBody CreatePrescriptionRequest request) {
+        return ResponseEntity.ok(prescriptionService.screenPrescription(request));
+    }
+
     @PostMapping
-    @Operation(summary = "Create prescription", description = "Create a new prescription")
+    @Operation(summary = "Create prescription",
+        description = "Create a new prescription; severe screening alerts must be overridden with overrideAlerts")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
     public ResponseEntity<PrescriptionDto> createPrescription(@Valid @RequestBody CreatePrescriptionRequest request) {
         PrescriptionDto prescription = prescriptionService.createPrescription(request);
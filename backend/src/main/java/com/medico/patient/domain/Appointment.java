@@ -33,7 +33,7 @@ public class Appointment extends BaseEntity {
     @Column(name = "appointment_date_time", nullable = false)
     private LocalDateTime appointmentDateTime;
 
-    @Column(name = "end_date_time")
+    @Column(name = "end_date_time", nullable = false)
     private LocalDateTime endDateTime;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,75 @@
+package com.medico.patient.domain;
+
+import com.medico.common.domain.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "patient_import_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class PatientImportJob extends BaseEntity {
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportStatus status;
+
+    // Input records handled and committed; a resumed job skips this many
+    @Column(name = "processed_rows", nullable = false)
+    private long processedRows;
+
+    @Column(name = "imported_rows", nullable = false)
+    private long importedRows;
+
+    @Column(name = "duplicate_rows", nullable = false)
+    private long duplicateRows;
+
+    @Column(name = "invalid_rows", nullable = false)
+    private long invalidRows;
+
+    @Column(name = "error_sample", columnDefinition = "TEXT")
+    private String errorSample;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // Run currently executing the job; only its progress writes are accepted
+    @Column(name = "lease_owner")
+    private UUID leaseOwner;
+
+    // Refreshed with every committed chunk; a RUNNING job with a stale heartbeat was interrupted
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    public enum ImportFormat {
+        CSV,
+        NDJSON
+    }
+
+    public enum ImportStatus {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
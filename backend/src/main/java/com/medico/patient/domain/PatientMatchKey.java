@@ -0,0 +1,35 @@
+package com.medico.patient.domain;
+
+import com.medico.common.domain.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "patient_match_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class PatientMatchKey extends BaseEntity {
+
+    @Column(name = "patient_id", nullable = false)
+    private UUID patientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "key_type", nullable = false)
+    private KeyType keyType;
+
+    @Column(name = "key_value", nullable = false, length = 300)
+    private String keyValue;
+
+    public enum KeyType {
+        SURNAME_SOUNDEX_DOB,
+        GIVEN_NAME_SOUNDEX_DOB,
+        PHONE_SUFFIX,
+        EMAIL
+    }
+}
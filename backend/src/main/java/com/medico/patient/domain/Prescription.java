@@ -43,12 +43,27 @@ public class Prescription extends BaseEntity {
     @Column(nullable = false)
     private PrescriptionStatus status;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private PrescriptionPriority priority = PrescriptionPriority.ROUTINE;
+
     @Column(name = "diagnosis", columnDefinition = "TEXT")
     private String diagnosis;
 
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    // Dispensing queue claim; only written by the conditional updates in PrescriptionRepository
+    @Column(name = "claimed_by", insertable = false, updatable = false)
+    private String claimedBy;
+
+    @Column(name = "claimed_by_name", insertable = false, updatable = false)
+    private String claimedByName;
+
+    @Column(name = "lease_expires_at", insertable = false, updatable = false)
+    private LocalDateTime leaseExpiresAt;
+
     @OneToMany(mappedBy = "prescription", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<PrescriptionItem> items = new ArrayList<>();
@@ -67,6 +82,15 @@ public class Prescription extends BaseEntity {
         item.setPrescription(null);
     }
 
+    /**
+     * Dispensing urgency, most urgent first.
+     */
+    public enum PrescriptionPriority {
+        STAT,
+        URGENT,
+        ROUTINE
+    }
+
     public enum PrescriptionStatus {
         ACTIVE,
         DISPENSED,
@@ -0,0 +1,24 @@
+package com.medico.patient.dto;
+
+import jakarta.validation.constraints.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+public record AvailabilityRequest(
+    @NotEmpty(message = "At least one doctor is required")
+    @Size(max = 100, message = "At most 100 doctors can be searched at once")
+    Set<UUID> doctorIds,
+
+    @NotNull(message = "Start date is required")
+    LocalDate startDate,
+
+    @NotNull(message = "End date is required")
+    LocalDate endDate,
+
+    @NotNull(message = "Duration is required")
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 480, message = "Duration must be at most 480 minutes")
+    Integer durationMinutes
+) {}
@@ -26,6 +26,7 @@ public record CreatePatientRequest(
     String phoneNumber,
 
     @Email(message = "Invalid email format")
+    @Size(max = 255, message = "Email must be less than 255 characters")
     String email,
 
     @Size(max = 500, message = "Address must be less than 500 characters")
@@ -53,6 +54,8 @@ public record CreatePatientRequest(
 
     String allergies,
 
-    String medicalNotes
+    String medicalNotes,
+
+    boolean overrideDuplicates
 ) {}
 
@@ -1,5 +1,6 @@
 package com.medico.patient.dto;
 
+import com.medico.patient.domain.Prescription.PrescriptionPriority;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 
@@ -24,8 +25,14 @@ public record CreatePrescriptionRequest(
     String notes,
     UUID appointmentId,
 
+    // Defaults to ROUTINE
+    PrescriptionPriority priority,
+
     @NotEmpty(message = "At least one prescription item is required")
     @Valid
-    List<CreatePrescriptionItemRequest> items
+    List<CreatePrescriptionItemRequest> items,
+
+    // Set once the prescriber has reviewed the screening alerts and decided to proceed
+    boolean overrideAlerts
 ) {}
 
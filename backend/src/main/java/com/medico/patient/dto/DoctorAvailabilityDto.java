@@ -0,0 +1,10 @@
+package com.medico.patient.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record DoctorAvailabilityDto(
+    UUID doctorId,
+    int durationMinutes,
+    List<FreeSlotDto> freeSlots
+) {}
@@ -0,0 +1,16 @@
+package com.medico.patient.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public record DuplicateCandidateDto(
+    UUID patientId,
+    String medicalRecordNumber,
+    String fullName,
+    LocalDate dateOfBirth,
+    String phoneNumber,
+    String email,
+    double score,
+    List<String> matchedOn
+) {}
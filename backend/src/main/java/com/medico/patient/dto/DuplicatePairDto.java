@@ -0,0 +1,13 @@
+package com.medico.patient.dto;
+
+import java.util.UUID;
+
+public record DuplicatePairDto(
+    UUID firstPatientId,
+    String firstMedicalRecordNumber,
+    String firstFullName,
+    UUID secondPatientId,
+    String secondMedicalRecordNumber,
+    String secondFullName,
+    double score
+) {}
@@ -0,0 +1,8 @@
+package com.medico.patient.dto;
+
+import java.time.LocalDateTime;
+
+public record FreeSlotDto(
+    LocalDateTime start,
+    LocalDateTime end
+) {}
@@ -0,0 +1,19 @@
+package com.medico.patient.dto;
+
+import com.medico.patient.domain.MedicalRecord.RecordType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record MedicalRecordSearchHitDto(
+    UUID id,
+    UUID patientId,
+    String patientName,
+    String medicalRecordNumber,
+    String doctorName,
+    LocalDateTime visitDate,
+    RecordType recordType,
+    String diagnosis,
+    double rank,
+    String snippet
+) {}
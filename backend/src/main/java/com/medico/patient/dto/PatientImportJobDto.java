@@ -0,0 +1,25 @@
+package com.medico.patient.dto;
+
+import com.medico.patient.domain.PatientImportJob.ImportFormat;
+import com.medico.patient.domain.PatientImportJob.ImportStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record PatientImportJobDto(
+    UUID id,
+    String fileName,
+    ImportFormat format,
+    ImportStatus status,
+    long processedRows,
+    long importedRows,
+    long duplicateRows,
+    long invalidRows,
+    double rowsPerSecond,
+    List<String> errors,
+    String lastError,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    LocalDateTime createdAt
+) {}
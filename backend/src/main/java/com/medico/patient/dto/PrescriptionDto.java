@@ -1,5 +1,6 @@
 package com.medico.patient.dto;
 
+import com.medico.patient.domain.Prescription.PrescriptionPriority;
 import com.medico.patient.domain.Prescription.PrescriptionStatus;
 
 import java.time.LocalDate;
@@ -17,11 +18,27 @@ public record PrescriptionDto(
     LocalDateTime prescriptionDate,
     LocalDate validUntil,
     PrescriptionStatus status,
+    PrescriptionPriority priority,
     String diagnosis,
     String notes,
     List<PrescriptionItemDto> items,
     UUID appointmentId,
     LocalDateTime createdAt,
     LocalDateTime updatedAt
-) {}
+) {
+    /**
+     * Header-only constructor used by list projections; items are attached with {@link #withItems}.
+     */
+    public PrescriptionDto(UUID id, String prescriptionNumber, UUID patientId, String patientName, UUID doctorId,
+                           String doctorName, LocalDateTime prescriptionDate, LocalDate validUntil,
+                           PrescriptionStatus status, PrescriptionPriority priority, String diagnosis, String notes,
+                           UUID appointmentId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, prescriptionNumber, patientId, patientName, doctorId, doctorName, prescriptionDate, validUntil,
+            status, priority, diagnosis, notes, List.of(), appointmentId, createdAt, updatedAt);
+    }
 
+    public PrescriptionDto withItems(List<PrescriptionItemDto> items) {
+        return new PrescriptionDto(id, prescriptionNumber, patientId, patientName, doctorId, doctorName,
+            prescriptionDate, validUntil, status, priority, diagnosis, notes, items, appointmentId, createdAt, updatedAt);
+    }
+}
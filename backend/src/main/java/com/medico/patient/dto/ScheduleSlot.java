@@ -0,0 +1,15 @@
+package com.medico.patient.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ScheduleSlot(
+    UUID appointmentId,
+    UUID doctorId,
+    LocalDateTime start,
+    LocalDateTime end
+) {
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && end.isAfter(otherStart);
+    }
+}
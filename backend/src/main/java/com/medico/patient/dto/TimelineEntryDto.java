@@ -0,0 +1,51 @@
+package com.medico.patient.dto;
+
+import com.medico.billing.dto.InvoiceDto;
+import com.medico.laboratory.dto.LabResultDto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One event in a patient's chart timeline. Exactly one of the detail fields, the one matching
+ * {@code type}, is set.
+ */
+public record TimelineEntryDto(
+    EntryType type,
+    UUID id,
+    LocalDateTime occurredAt,
+    MedicalRecordDto medicalRecord,
+    PrescriptionDto prescription,
+    AppointmentDto appointment,
+    LabResultDto labResult,
+    InvoiceDto invoice
+) {
+    public enum EntryType {
+        MEDICAL_RECORD, PRESCRIPTION, APPOINTMENT, LAB_RESULT, INVOICE
+    }
+
+    public static TimelineEntryDto of(MedicalRecordDto record) {
+        return new TimelineEntryDto(EntryType.MEDICAL_RECORD, record.id(), record.visitDate(),
+            record, null, null, null, null);
+    }
+
+    public static TimelineEntryDto of(PrescriptionDto prescription) {
+        return new TimelineEntryDto(EntryType.PRESCRIPTION, prescription.id(), prescription.prescriptionDate(),
+            null, prescription, null, null, null);
+    }
+
+    public static TimelineEntryDto of(AppointmentDto appointment) {
+        return new TimelineEntryDto(EntryType.APPOINTMENT, appointment.id(), appointment.appointmentDateTime(),
+            null, null, appointment, null, null);
+    }
+
+    public static TimelineEntryDto of(LabResultDto result) {
+        return new TimelineEntryDto(EntryType.LAB_RESULT, result.id(), result.performedAt(),
+            null, null, null, result, null);
+    }
+
+    public static TimelineEntryDto of(InvoiceDto invoice) {
+        return new TimelineEntryDto(EntryType.INVOICE, invoice.id(), invoice.invoiceDate(),
+            null, null, null, null, invoice);
+    }
+}
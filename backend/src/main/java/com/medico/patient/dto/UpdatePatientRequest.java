@@ -22,6 +22,7 @@ public record UpdatePatientRequest(
     String phoneNumber,
 
     @Email(message = "Invalid email format")
+    @Size(max = 255, message = "Email must be less than 255 characters")
     String email,
 
     @Size(max = 500, message = "Address must be less than 500 characters")
@@ -2,24 +2,26 @@ package com.medico.patient.repository;
 
 import com.medico.patient.domain.Appointment;
 import com.medico.patient.domain.Appointment.AppointmentStatus;
+import com.medico.patient.dto.AppointmentDto;
+import com.medico.patient.dto.ScheduleSlot;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
 
-    Page<Appointment> findByPatientId(UUID patientId, Pageable pageable);
-
-    Page<Appointment> findByDoctorId(UUID doctorId, Pageable pageable);
-
+    @EntityGraph(attributePaths = "patient")
     @Query("SELECT a FROM Appointment a WHERE a.doctorId = :doctorId AND a.appointmentDateTime BETWEEN :start AND :end")
     List<Appointment> findByDoctorIdAndDateRange(
         @Param("doctorId") UUID doctorId,
@@ -33,6 +35,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
         @Param("end") LocalDateTime end
     );
 
+    @EntityGraph(attributePaths = "patient")
     @Query("SELECT a FROM Appointment a WHERE a.status = :status AND a.appointmentDateTime >= :from")
     Page<Appointment> findByStatusAndDateAfter(
         @Param("status") AppointmentStatus status,
@@ -40,6 +43,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
         Pageable pageable
     );
 
+    @EntityGraph(attributePaths = "patient")
     @Query("SELECT a FROM Appointment a WHERE a.appointmentDateTime BETWEEN :start AND :end AND a.status NOT IN ('CANCELLED', 'NO_SHOW')")
     List<Appointment> findActiveAppointmentsByDateRange(
         @Param("start") LocalDateTime start,
@@ -52,11 +56,62 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.appointmentDateTime >= :start AND a.appointmentDateTime < :end")
     long countAppointmentsInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-    boolean existsByDoctorIdAndAppointmentDateTimeBetweenAndStatusNot(
-        UUID doctorId,
-        LocalDateTime start,
-        LocalDateTime end,
-        AppointmentStatus excludeStatus
+    @Query("SELECT new com.medico.patient.dto.ScheduleSlot(a.id, a.doctorId, a.appointmentDateTime, a.endDateTime) " +
+           "FROM Appointment a WHERE a.doctorId = :doctorId AND a.appointmentDateTime < :end AND a.endDateTime > :start " +
+           "AND a.status NOT IN ('CANCELLED', 'NO_SHOW')")
+    List<ScheduleSlot> findActiveSlotsByDoctorId(
+        @Param("doctorId") UUID doctorId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+    );
+
+    @Query("SELECT new com.medico.patient.dto.ScheduleSlot(a.id, a.doctorId, a.appointmentDateTime, a.endDateTime) " +
+           "FROM Appointment a WHERE a.doctorId IN :doctorIds AND a.appointmentDateTime < :end AND a.endDateTime > :start " +
+           "AND a.status NOT IN ('CANCELLED', 'NO_SHOW')")
+    List<ScheduleSlot> findActiveSlotsByDoctorIds(
+        @Param("doctorIds") Collection<UUID> doctorIds,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
     );
-}
 
+    String APPOINTMENT_DTO =
+        "SELECT new com.medico.patient.dto.AppointmentDto(a.id, p.id, CONCAT(p.firstName, ' ', p.lastName), " +
+        "p.medicalRecordNumber, a.doctorId, a.doctorName, a.department, a.appointmentDateTime, a.endDateTime, " +
+        "a.status, a.type, a.reason, a.notes, a.roomNumber, a.cancelledReason, a.cancelledAt, a.createdAt, a.updatedAt) " +
+        "FROM Appointment a JOIN a.patient p ";
+
+    @Query(value = APPOINTMENT_DTO,
+           countQuery = "SELECT COUNT(a) FROM Appointment a")
+    Page<AppointmentDto> findAllDtos(Pageable pageable);
+
+    @Query(value = APPOINTMENT_DTO + "WHERE p.id = :patientId",
+           countQuery = "SELECT COUNT(a) FROM Appointment a WHERE a.patient.id = :patientId")
+    Page<AppointmentDto> findDtosByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query(value = APPOINTMENT_DTO + "WHERE a.doctorId = :doctorId",
+           countQuery = "SELECT COUNT(a) FROM Appointment a WHERE a.doctorId = :doctorId")
+    Page<AppointmentDto> findDtosByDoctorId(@Param("doctorId") UUID doctorId, Pageable pageable);
+
+    @Query(APPOINTMENT_DTO + "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentDto> findFirstDtos(Limit limit);
+
+    @Query(APPOINTMENT_DTO + "WHERE (a.appointmentDateTime, a.id) < (:afterDate, :afterId) " +
+           "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentDto> findDtosAfter(
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+
+    @Query(APPOINTMENT_DTO + "WHERE p.id = :patientId ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentDto> findTimelineDtos(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(APPOINTMENT_DTO + "WHERE p.id = :patientId AND (a.appointmentDateTime, a.id) < (:afterDate, :afterId) " +
+           "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentDto> findTimelineDtosAfter(
+        @Param("patientId") UUID patientId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+}
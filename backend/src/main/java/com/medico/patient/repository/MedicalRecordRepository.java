@@ -2,8 +2,11 @@ package com.medico.patient.repository;
 
 import com.medico.patient.domain.MedicalRecord;
 import com.medico.patient.domain.MedicalRecord.RecordType;
+import com.medico.patient.dto.MedicalRecordDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,31 +19,122 @@ import java.util.UUID;
 @Repository
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, UUID> {
 
-    Page<MedicalRecord> findByPatientIdOrderByVisitDateDesc(UUID patientId, Pageable pageable);
-
+    @EntityGraph(attributePaths = "patient")
     Page<MedicalRecord> findByPatientIdAndRecordTypeOrderByVisitDateDesc(
         UUID patientId,
         RecordType recordType,
         Pageable pageable
     );
 
+    @EntityGraph(attributePaths = "patient")
     List<MedicalRecord> findByPatientIdAndVisitDateBetweenOrderByVisitDateDesc(
         UUID patientId,
         LocalDateTime start,
         LocalDateTime end
     );
 
+    @EntityGraph(attributePaths = "patient")
     @Query("SELECT mr FROM MedicalRecord mr WHERE mr.doctorId = :doctorId ORDER BY mr.visitDate DESC")
     Page<MedicalRecord> findByDoctorId(@Param("doctorId") UUID doctorId, Pageable pageable);
 
-    @Query("SELECT mr FROM MedicalRecord mr WHERE mr.patient.id = :patientId AND " +
-           "(LOWER(mr.diagnosis) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(mr.chiefComplaint) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(mr.notes) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<MedicalRecord> searchPatientRecords(
+    /**
+     * Ids of the requested page of a patient's records, ranked on the trigger-maintained
+     * {@code search_vector}.
+     */
+    @Query(value = "SELECT mr.id " +
+           "FROM medical_records mr, websearch_to_tsquery('english', :query) q " +
+           "WHERE mr.patient_id = :patientId AND mr.search_vector @@ q " +
+           "ORDER BY ts_rank_cd(mr.search_vector, q) DESC, mr.visit_date DESC LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<UUID> searchPatientRecordIds(
         @Param("patientId") UUID patientId,
-        @Param("search") String search,
-        Pageable pageable
+        @Param("query") String query,
+        @Param("limit") int limit,
+        @Param("offset") long offset
     );
-}
 
+    /**
+     * Ranks matches on the trigger-maintained {@code search_vector} and builds highlighted
+     * snippets for the requested page only, since {@code ts_headline} re-parses the source text.
+     * The source text is HTML-escaped before highlighting, so {@code <mark>} is the only markup
+     * in a snippet. Rows: id, patient_id, patient_name, medical_record_number, doctor_name,
+     * visit_date, record_type, diagnosis, rank, snippet.
+     */
+    @Query(value = SEARCH_SELECT +
+           "FROM (SELECT mr.id, ts_rank_cd(mr.search_vector, q) AS rank " +
+           "      FROM medical_records mr, websearch_to_tsquery('english', :query) q " +
+           "      WHERE mr.patient_id = :patientId AND mr.search_vector @@ q " +
+           "      ORDER BY rank DESC, mr.visit_date DESC LIMIT :limit OFFSET :offset) hit " +
+           SEARCH_JOIN,
+           nativeQuery = true)
+    List<Object[]> searchPatientRecords(
+        @Param("patientId") UUID patientId,
+        @Param("query") String query,
+        @Param("limit") int limit,
+        @Param("offset") long offset
+    );
+
+    @Query(value = "SELECT COUNT(*) FROM medical_records mr " +
+                   "WHERE mr.patient_id = :patientId AND mr.search_vector @@ websearch_to_tsquery('english', :query)",
+           nativeQuery = true)
+    long countPatientRecordMatches(@Param("patientId") UUID patientId, @Param("query") String query);
+
+    @Query(value = SEARCH_SELECT +
+           "FROM (SELECT mr.id, ts_rank_cd(mr.search_vector, q) AS rank " +
+           "      FROM medical_records mr, websearch_to_tsquery('english', :query) q " +
+           "      WHERE mr.search_vector @@ q " +
+           "      ORDER BY rank DESC, mr.visit_date DESC LIMIT :limit OFFSET :offset) hit " +
+           SEARCH_JOIN,
+           nativeQuery = true)
+    List<Object[]> searchAllRecords(
+        @Param("query") String query,
+        @Param("limit") int limit,
+        @Param("offset") long offset
+    );
+
+    @Query(value = "SELECT COUNT(*) FROM medical_records mr " +
+                   "WHERE mr.search_vector @@ websearch_to_tsquery('english', :query)",
+           nativeQuery = true)
+    long countAllRecordMatches(@Param("query") String query);
+
+    String SEARCH_SELECT =
+        "SELECT r.id, r.patient_id, p.first_name || ' ' || p.last_name, p.medical_record_number, " +
+        "r.doctor_name, r.visit_date, r.record_type, r.diagnosis, hit.rank, " +
+        "ts_headline('english', " +
+        "replace(replace(replace(replace(replace(" +
+        "concat_ws(' ... ', r.diagnosis, r.chief_complaint, r.symptoms, r.notes), " +
+        "'&', '&amp;'), '<', '&lt;'), '>', '&gt;'), '\"', '&quot;'), '''', '&#39;'), " +
+        "websearch_to_tsquery('english', :query), " +
+        "'StartSel=<mark>, StopSel=</mark>, MaxWords=25, MinWords=8, MaxFragments=2, FragmentDelimiter=\" ... \"') ";
+
+    String SEARCH_JOIN =
+        "JOIN medical_records r ON r.id = hit.id " +
+        "JOIN patients p ON p.id = r.patient_id " +
+        "ORDER BY hit.rank DESC, r.visit_date DESC";
+
+    String MEDICAL_RECORD_DTO =
+        "SELECT new com.medico.patient.dto.MedicalRecordDto(mr.id, p.id, CONCAT(p.firstName, ' ', p.lastName), " +
+        "mr.doctorId, mr.doctorName, mr.visitDate, mr.recordType, mr.chiefComplaint, mr.symptoms, mr.diagnosis, " +
+        "mr.treatmentPlan, mr.vitalSigns, mr.physicalExamination, mr.notes, mr.followUpDate, ap.id, " +
+        "mr.createdAt, mr.updatedAt) " +
+        "FROM MedicalRecord mr JOIN mr.patient p LEFT JOIN mr.appointment ap ";
+
+    @Query(value = MEDICAL_RECORD_DTO + "WHERE p.id = :patientId ORDER BY mr.visitDate DESC",
+           countQuery = "SELECT COUNT(mr) FROM MedicalRecord mr WHERE mr.patient.id = :patientId")
+    Page<MedicalRecordDto> findDtosByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query(MEDICAL_RECORD_DTO + "WHERE mr.id IN :ids")
+    List<MedicalRecordDto> findDtosByIds(@Param("ids") List<UUID> ids);
+
+    @Query(MEDICAL_RECORD_DTO + "WHERE p.id = :patientId ORDER BY mr.visitDate DESC, mr.id DESC")
+    List<MedicalRecordDto> findTimelineDtos(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(MEDICAL_RECORD_DTO + "WHERE p.id = :patientId AND (mr.visitDate, mr.id) < (:afterDate, :afterId) " +
+           "ORDER BY mr.visitDate DESC, mr.id DESC")
+    List<MedicalRecordDto> findTimelineDtosAfter(
+        @Param("patientId") UUID patientId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+}
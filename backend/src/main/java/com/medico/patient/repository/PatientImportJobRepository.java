@@ -0,0 +1,58 @@
+package com.medico.patient.repository;
+
+import com.medico.patient.domain.PatientImportJob;
+import com.medico.patient.domain.PatientImportJob.ImportStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface PatientImportJobRepository extends JpaRepository<PatientImportJob, UUID> {
+
+    Page<PatientImportJob> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    /**
+     * Puts a failed or interrupted job back to PENDING so that it can be claimed again. A job
+     * counts as interrupted when it is PENDING or RUNNING without a heartbeat since
+     * {@code staleBefore}, i.e. its node stopped working on it.
+     *
+     * @return 1 if the job was requeued, 0 if it is completed or still being worked on
+     */
+    @Modifying
+    @Query("UPDATE PatientImportJob j SET j.status = 'PENDING', j.leaseOwner = NULL, j.heartbeatAt = :now " +
+           "WHERE j.id = :id AND (j.status = 'FAILED' OR (j.status IN ('PENDING', 'RUNNING') " +
+           "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)))")
+    int requeue(@Param("id") UUID id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Claims a PENDING job for one run; of several runs started for the same job only one gets it.
+     *
+     * @return 1 if the run now owns the job, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE PatientImportJob j SET j.status = 'RUNNING', j.leaseOwner = :owner, j.startedAt = :now, " +
+           "j.heartbeatAt = :now, j.finishedAt = NULL, j.lastError = NULL WHERE j.id = :id AND j.status = 'PENDING'")
+    int claim(@Param("id") UUID id, @Param("owner") UUID owner, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PatientImportJob j SET j.processedRows = :processed, j.importedRows = :imported, " +
+           "j.duplicateRows = :duplicates, j.invalidRows = :invalid, j.errorSample = :errorSample, " +
+           "j.heartbeatAt = :now WHERE j.id = :id AND j.leaseOwner = :owner")
+    int updateProgress(@Param("id") UUID id, @Param("owner") UUID owner, @Param("processed") long processed,
+                       @Param("imported") long imported, @Param("duplicates") long duplicates,
+                       @Param("invalid") long invalid, @Param("errorSample") String errorSample,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PatientImportJob j SET j.status = :status, j.finishedAt = :finishedAt, j.lastError = :lastError, " +
+           "j.leaseOwner = NULL WHERE j.id = :id AND j.leaseOwner = :owner")
+    int markFinished(@Param("id") UUID id, @Param("owner") UUID owner, @Param("status") ImportStatus status,
+                     @Param("finishedAt") LocalDateTime finishedAt, @Param("lastError") String lastError);
+}
@@ -0,0 +1,33 @@
+package com.medico.patient.repository;
+
+import com.medico.patient.domain.PatientMatchKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PatientMatchKeyRepository extends JpaRepository<PatientMatchKey, UUID> {
+
+    @Query("SELECT DISTINCT k.patientId FROM PatientMatchKey k WHERE k.keyValue IN :keyValues")
+    List<UUID> findPatientIdsByKeyValues(@Param("keyValues") Collection<String> keyValues);
+
+    @Modifying
+    @Query("DELETE FROM PatientMatchKey k WHERE k.patientId = :patientId")
+    void deleteByPatientId(@Param("patientId") UUID patientId);
+
+    @Modifying
+    @Query("DELETE FROM PatientMatchKey k")
+    void deleteAllKeys();
+
+    @Query(value = "SELECT k.key_value, k.patient_id FROM patient_match_keys k WHERE k.key_value IN (" +
+                   "SELECT key_value FROM patient_match_keys GROUP BY key_value " +
+                   "HAVING COUNT(*) BETWEEN 2 AND :maxBlockSize)",
+           nativeQuery = true)
+    List<Object[]> findSharedBlocks(@Param("maxBlockSize") int maxBlockSize);
+}
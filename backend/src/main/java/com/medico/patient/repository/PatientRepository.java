@@ -1,6 +1,7 @@
 package com.medico.patient.repository;
 
 import com.medico.patient.domain.Patient;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,7 +9,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -20,13 +24,36 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
 
     boolean existsByEmail(String email);
 
-    @Query("SELECT p FROM Patient p WHERE p.active = true AND " +
-           "(LOWER(p.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.medicalRecordNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.phoneNumber) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.email) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Patient> searchPatients(@Param("search") String search, Pageable pageable);
+    @Query("SELECT p.email FROM Patient p WHERE p.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query(value = "SELECT p.* FROM patients p WHERE p.active = true AND (" +
+           "lower(p.first_name || ' ' || p.last_name) LIKE '%' || :pattern || '%' OR " +
+           "lower(p.first_name || ' ' || p.last_name) % :term OR " +
+           "lower(p.medical_record_number) LIKE :pattern || '%' OR " +
+           "lower(p.email) LIKE :pattern || '%' OR " +
+           "(:digits <> '' AND regexp_replace(p.phone_number, '[^0-9]', '', 'g') LIKE :digits || '%')) " +
+           "ORDER BY " +
+           "CASE WHEN lower(p.medical_record_number) = :term THEN 0 " +
+           "WHEN lower(p.medical_record_number) LIKE :pattern || '%' THEN 1 " +
+           "WHEN lower(p.email) = :term THEN 2 " +
+           "WHEN :digits <> '' AND regexp_replace(p.phone_number, '[^0-9]', '', 'g') LIKE :digits || '%' THEN 2 " +
+           "ELSE 3 END, " +
+           "similarity(lower(p.first_name || ' ' || p.last_name), :term) DESC, " +
+           "p.last_name, p.first_name",
+           countQuery = "SELECT COUNT(*) FROM patients p WHERE p.active = true AND (" +
+           "lower(p.first_name || ' ' || p.last_name) LIKE '%' || :pattern || '%' OR " +
+           "lower(p.first_name || ' ' || p.last_name) % :term OR " +
+           "lower(p.medical_record_number) LIKE :pattern || '%' OR " +
+           "lower(p.email) LIKE :pattern || '%' OR " +
+           "(:digits <> '' AND regexp_replace(p.phone_number, '[^0-9]', '', 'g') LIKE :digits || '%'))",
+           nativeQuery = true)
+    Page<Patient> searchPatients(
+        @Param("term") String term,
+        @Param("pattern") String pattern,
+        @Param("digits") String digits,
+        Pageable pageable
+    );
 
     Page<Patient> findByActiveTrue(Pageable pageable);
 
@@ -35,5 +62,15 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
 
     @Query("SELECT COUNT(p) FROM Patient p WHERE p.active = true")
     long countActivePatients();
-}
 
+    @Query("SELECT p FROM Patient p WHERE p.active = true ORDER BY p.lastName ASC, p.id ASC")
+    List<Patient> findFirstActive(Limit limit);
+
+    @Query("SELECT p FROM Patient p WHERE p.active = true AND (p.lastName, p.id) > (:afterName, :afterId) " +
+           "ORDER BY p.lastName ASC, p.id ASC")
+    List<Patient> findActiveAfter(
+        @Param("afterName") String afterName,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+}
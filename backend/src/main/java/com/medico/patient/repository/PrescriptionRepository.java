@@ -2,15 +2,22 @@ package com.medico.patient.repository;
 
 import com.medico.patient.domain.Prescription;
 import com.medico.patient.domain.Prescription.PrescriptionStatus;
+import com.medico.patient.dto.PrescriptionDto;
+import com.medico.patient.dto.PrescriptionItemDto;
+import com.medico.pharmacy.dto.DispensingQueueEntryDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,12 +27,9 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, UUID
 
     Optional<Prescription> findByPrescriptionNumber(String prescriptionNumber);
 
-    Page<Prescription> findByPatientIdOrderByPrescriptionDateDesc(UUID patientId, Pageable pageable);
-
+    @EntityGraph(attributePaths = "patient")
     Page<Prescription> findByDoctorIdOrderByPrescriptionDateDesc(UUID doctorId, Pageable pageable);
 
-    Page<Prescription> findByStatusOrderByPrescriptionDateDesc(PrescriptionStatus status, Pageable pageable);
-
     @Query("SELECT p FROM Prescription p WHERE p.status = 'ACTIVE' AND p.validUntil < :today")
     List<Prescription> findExpiredPrescriptions(@Param("today") LocalDate today);
 
@@ -35,6 +39,12 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, UUID
         @Param("status") PrescriptionStatus status
     );
 
+    @Query("SELECT p FROM Prescription p WHERE p.patient.id = :patientId AND p.status IN :statuses")
+    List<Prescription> findByPatientIdAndStatusIn(
+        @Param("patientId") UUID patientId,
+        @Param("statuses") Collection<PrescriptionStatus> statuses
+    );
+
     @Query("SELECT COUNT(p) FROM Prescription p WHERE p.status = :status")
     long countByStatus(@Param("status") PrescriptionStatus status);
 
@@ -45,5 +55,82 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, UUID
     );
 
     boolean existsByPrescriptionNumber(String prescriptionNumber);
-}
 
+    String PRESCRIPTION_DTO =
+        "SELECT new com.medico.patient.dto.PrescriptionDto(rx.id, rx.prescriptionNumber, p.id, " +
+        "CONCAT(p.firstName, ' ', p.lastName), rx.doctorId, rx.doctorName, rx.prescriptionDate, rx.validUntil, " +
+        "rx.status, rx.priority, rx.diagnosis, rx.notes, ap.id, rx.createdAt, rx.updatedAt) " +
+        "FROM Prescription rx JOIN rx.patient p LEFT JOIN rx.appointment ap ";
+
+    @Query(value = PRESCRIPTION_DTO + "WHERE p.id = :patientId ORDER BY rx.prescriptionDate DESC",
+           countQuery = "SELECT COUNT(rx) FROM Prescription rx WHERE rx.patient.id = :patientId")
+    Page<PrescriptionDto> findDtosByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query(value = PRESCRIPTION_DTO + "WHERE rx.status = :status ORDER BY rx.prescriptionDate DESC",
+           countQuery = "SELECT COUNT(rx) FROM Prescription rx WHERE rx.status = :status")
+    Page<PrescriptionDto> findDtosByStatus(@Param("status") PrescriptionStatus status, Pageable pageable);
+
+    /**
+     * Rows: prescription id, {@link PrescriptionItemDto}.
+     */
+    @Query("SELECT pi.prescription.id, new com.medico.patient.dto.PrescriptionItemDto(pi.id, pi.medicationId, " +
+           "pi.medicationName, pi.dosage, pi.frequency, pi.duration, pi.quantity, pi.instructions, " +
+           "pi.dispensedQuantity, pi.refillsAllowed, pi.refillsRemaining) " +
+           "FROM PrescriptionItem pi WHERE pi.prescription.id IN :prescriptionIds ORDER BY pi.id")
+    List<Object[]> findItemDtosByPrescriptionIds(@Param("prescriptionIds") Collection<UUID> prescriptionIds);
+
+    @Query(PRESCRIPTION_DTO + "WHERE p.id = :patientId ORDER BY rx.prescriptionDate DESC, rx.id DESC")
+    List<PrescriptionDto> findTimelineDtos(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(PRESCRIPTION_DTO + "WHERE p.id = :patientId AND (rx.prescriptionDate, rx.id) < (:afterDate, :afterId) " +
+           "ORDER BY rx.prescriptionDate DESC, rx.id DESC")
+    List<PrescriptionDto> findTimelineDtosAfter(
+        @Param("patientId") UUID patientId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+
+    String QUEUE_ENTRY_DTO =
+        "SELECT new com.medico.pharmacy.dto.DispensingQueueEntryDto(rx.id, rx.prescriptionNumber, p.id, " +
+        "CONCAT(p.firstName, ' ', p.lastName), rx.doctorName, rx.priority, rx.status, rx.prescriptionDate, " +
+        "SIZE(rx.items), rx.claimedBy, rx.claimedByName, rx.leaseExpiresAt) FROM Prescription rx JOIN rx.patient p " +
+        "WHERE rx.status IN ('ACTIVE', 'PARTIALLY_DISPENSED') AND (rx.validUntil IS NULL OR rx.validUntil >= :today) ";
+
+    /**
+     * Prescriptions still waiting to be dispensed, the contents of the dispensing queue.
+     */
+    @Query(QUEUE_ENTRY_DTO)
+    List<DispensingQueueEntryDto> findDispensingQueueEntries(@Param("today") LocalDate today);
+
+    @Query(QUEUE_ENTRY_DTO + "AND rx.id = :id")
+    Optional<DispensingQueueEntryDto> findDispensingQueueEntry(@Param("id") UUID id, @Param("today") LocalDate today);
+
+    /**
+     * Claims a waiting prescription for a pharmacist unless someone else holds an unexpired lease
+     * on it; renews the lease when the pharmacist already holds it.
+     *
+     * @return 1 if the pharmacist now holds the prescription, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Prescription rx SET rx.claimedBy = :pharmacist, rx.claimedByName = :pharmacistName, " +
+           "rx.leaseExpiresAt = :leaseExpiresAt WHERE rx.id = :id AND rx.status IN ('ACTIVE', 'PARTIALLY_DISPENSED') " +
+           "AND (rx.claimedBy IS NULL OR rx.claimedBy = :pharmacist OR rx.leaseExpiresAt <= :now)")
+    int claimForDispensing(@Param("id") UUID id, @Param("pharmacist") String pharmacist,
+                           @Param("pharmacistName") String pharmacistName, @Param("now") LocalDateTime now,
+                           @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    @Modifying
+    @Query("UPDATE Prescription rx SET rx.leaseExpiresAt = :leaseExpiresAt WHERE rx.id = :id AND rx.claimedBy = :pharmacist")
+    int renewDispensingClaim(@Param("id") UUID id, @Param("pharmacist") String pharmacist,
+                             @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Clears the claim when the pharmacist holds it or its lease has expired.
+     */
+    @Modifying
+    @Query("UPDATE Prescription rx SET rx.claimedBy = NULL, rx.claimedByName = NULL, rx.leaseExpiresAt = NULL " +
+           "WHERE rx.id = :id AND (rx.claimedBy = :pharmacist OR rx.leaseExpiresAt <= :now)")
+    int releaseDispensingClaim(@Param("id") UUID id, @Param("pharmacist") String pharmacist,
+                               @Param("now") LocalDateTime now);
+}
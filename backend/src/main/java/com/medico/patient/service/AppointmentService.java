@@ -1,6 +1,10 @@
 package com.medico.patient.service;
 
+import com.medico.common.dto.Cursor;
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.event.StateChangedEvent.State;
 import com.medico.common.exception.BusinessException;
 import com.medico.common.exception.ResourceNotFoundException;
 import com.medico.patient.domain.Appointment;
@@ -12,11 +16,13 @@ import com.medico.patient.repository.AppointmentRepository;
 import com.medico.patient.repository.PatientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -29,29 +35,36 @@ import java.util.UUID;
 @Transactional(readOnly = true)
 public class AppointmentService {
 
+    private static final Duration DEFAULT_DURATION = Duration.ofMinutes(30);
+    private static final String OVERLAP_CONSTRAINT = "appointments_no_doctor_overlap";
+    private static final String CONFLICT_MESSAGE = "Doctor has a conflicting appointment at this time";
+
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final PatientMapper patientMapper;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PageResponse<AppointmentDto> getAllAppointments(Pageable pageable) {
-        Page<Appointment> appointments = appointmentRepository.findAll(pageable);
-        return PageResponse.from(appointments, appointments.getContent().stream()
-            .map(patientMapper::toDto)
-            .toList());
+        return PageResponse.from(appointmentRepository.findAllDtos(pageable));
+    }
+
+    public CursorPage<AppointmentDto> getAllAppointmentsByCursor(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        Cursor position = Cursor.decode(cursor);
+        List<AppointmentDto> appointments = position == null
+            ? appointmentRepository.findFirstDtos(CursorPage.limitFor(pageSize))
+            : appointmentRepository.findDtosAfter(position.keyAsDateTime(), position.id(), CursorPage.limitFor(pageSize));
+        return CursorPage.of(appointments, pageSize,
+            appointment -> Cursor.of(appointment.appointmentDateTime(), appointment.id()));
     }
 
     public PageResponse<AppointmentDto> getAppointmentsByPatient(UUID patientId, Pageable pageable) {
-        Page<Appointment> appointments = appointmentRepository.findByPatientId(patientId, pageable);
-        return PageResponse.from(appointments, appointments.getContent().stream()
-            .map(patientMapper::toDto)
-            .toList());
+        return PageResponse.from(appointmentRepository.findDtosByPatientId(patientId, pageable));
     }
 
     public PageResponse<AppointmentDto> getAppointmentsByDoctor(UUID doctorId, Pageable pageable) {
-        Page<Appointment> appointments = appointmentRepository.findByDoctorId(doctorId, pageable);
-        return PageResponse.from(appointments, appointments.getContent().stream()
-            .map(patientMapper::toDto)
-            .toList());
+        return PageResponse.from(appointmentRepository.findDtosByDoctorId(doctorId, pageable));
     }
 
     public List<AppointmentDto> getAppointmentsByDateRange(LocalDate startDate, LocalDate endDate) {
@@ -78,20 +91,16 @@ public class AppointmentService {
         Patient patient = patientRepository.findById(request.patientId())
             .orElseThrow(() -> new ResourceNotFoundException("Patient", "id", request.patientId()));
 
-        // Check for conflicting appointments
         LocalDateTime endTime = request.endDateTime() != null
             ? request.endDateTime()
-            : request.appointmentDateTime().plusMinutes(30);
-
-        if (hasConflictingAppointment(request.doctorId(), request.appointmentDateTime(), endTime)) {
-            throw new BusinessException("Doctor has a conflicting appointment at this time");
-        }
+            : request.appointmentDateTime().plus(DEFAULT_DURATION);
+        ensureSlotAvailable(request.doctorId(), request.appointmentDateTime(), endTime, null);
 
         Appointment appointment = patientMapper.toEntity(request);
         appointment.setPatient(patient);
         appointment.setEndDateTime(endTime);
 
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        Appointment savedAppointment = saveChecked(appointment, null);
         log.info("Created appointment {} for patient {}", savedAppointment.getId(), patient.getMedicalRecordNumber());
 
         return patientMapper.toDto(savedAppointment);
@@ -101,27 +110,34 @@ public class AppointmentService {
     public AppointmentDto updateAppointment(UUID id, UpdateAppointmentRequest request) {
         Appointment appointment = findAppointmentById(id);
 
-        if (request.appointmentDateTime() != null || request.doctorId() != null) {
-            UUID doctorId = request.doctorId() != null ? request.doctorId() : appointment.getDoctorId();
-            LocalDateTime startTime = request.appointmentDateTime() != null
-                ? request.appointmentDateTime()
-                : appointment.getAppointmentDateTime();
-            LocalDateTime endTime = request.endDateTime() != null
-                ? request.endDateTime()
-                : appointment.getEndDateTime();
-
-            if (hasConflictingAppointmentExcluding(doctorId, startTime, endTime, id)) {
-                throw new BusinessException("Doctor has a conflicting appointment at this time");
-            }
+        UUID doctorId = request.doctorId() != null ? request.doctorId() : appointment.getDoctorId();
+        LocalDateTime startTime = request.appointmentDateTime() != null
+            ? request.appointmentDateTime()
+            : appointment.getAppointmentDateTime();
+        // Moving only the start keeps the booked duration
+        LocalDateTime endTime = request.endDateTime() != null
+            ? request.endDateTime()
+            : startTime.plus(Duration.between(appointment.getAppointmentDateTime(), appointment.getEndDateTime()));
+        AppointmentStatus status = request.status() != null ? request.status() : appointment.getStatus();
+        State before = countedState(appointment);
+
+        boolean rescheduled = !doctorId.equals(appointment.getDoctorId())
+            || !startTime.equals(appointment.getAppointmentDateTime())
+            || !endTime.equals(appointment.getEndDateTime());
+        boolean reactivated = !DoctorScheduleIndex.isBlocking(appointment.getStatus())
+            && DoctorScheduleIndex.isBlocking(status);
+        if ((rescheduled || reactivated) && DoctorScheduleIndex.isBlocking(status)) {
+            ensureSlotAvailable(doctorId, startTime, endTime, id);
         }
 
         patientMapper.updateAppointment(request, appointment);
+        appointment.setEndDateTime(endTime);
 
         if (request.status() == AppointmentStatus.CANCELLED && request.cancelledReason() != null) {
             appointment.setCancelledAt(LocalDateTime.now());
         }
 
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        Appointment updatedAppointment = saveChecked(appointment, before);
         log.info("Updated appointment {}", id);
 
         return patientMapper.toDto(updatedAppointment);
@@ -130,13 +146,19 @@ public class AppointmentService {
     @Transactional
     public AppointmentDto updateAppointmentStatus(UUID id, AppointmentStatus status) {
         Appointment appointment = findAppointmentById(id);
+
+        if (!DoctorScheduleIndex.isBlocking(appointment.getStatus()) && DoctorScheduleIndex.isBlocking(status)) {
+            ensureSlotAvailable(appointment.getDoctorId(), appointment.getAppointmentDateTime(),
+                appointment.getEndDateTime(), id);
+        }
+        State before = countedState(appointment);
         appointment.setStatus(status);
 
         if (status == AppointmentStatus.CANCELLED) {
             appointment.setCancelledAt(LocalDateTime.now());
         }
 
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        Appointment updatedAppointment = saveChecked(appointment, before);
         log.info("Updated appointment {} status to {}", id, status);
 
         return patientMapper.toDto(updatedAppointment);
@@ -145,11 +167,12 @@ public class AppointmentService {
     @Transactional
     public void cancelAppointment(UUID id, String reason) {
         Appointment appointment = findAppointmentById(id);
+        State before = countedState(appointment);
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointment.setCancelledReason(reason);
         appointment.setCancelledAt(LocalDateTime.now());
 
-        appointmentRepository.save(appointment);
+        saveChecked(appointment, before);
         log.info("Cancelled appointment {}", id);
     }
 
@@ -164,15 +187,37 @@ public class AppointmentService {
             .orElseThrow(() -> new ResourceNotFoundException("Appointment", "id", id));
     }
 
-    private boolean hasConflictingAppointment(UUID doctorId, LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.existsByDoctorIdAndAppointmentDateTimeBetweenAndStatusNot(
-            doctorId, start.minusMinutes(1), end.plusMinutes(1), AppointmentStatus.CANCELLED);
+    private void ensureSlotAvailable(UUID doctorId, LocalDateTime start, LocalDateTime end, UUID excludeId) {
+        if (!end.isAfter(start)) {
+            throw new BusinessException("Appointment end time must be after its start time");
+        }
+        if (scheduleIndex.hasOverlap(doctorId, start, end, excludeId)) {
+            throw new BusinessException(CONFLICT_MESSAGE);
+        }
     }
 
-    private boolean hasConflictingAppointmentExcluding(UUID doctorId, LocalDateTime start, LocalDateTime end, UUID excludeId) {
-        List<Appointment> conflicts = appointmentRepository.findByDoctorIdAndDateRange(doctorId, start.minusMinutes(1), end.plusMinutes(1));
-        return conflicts.stream()
-            .anyMatch(a -> !a.getId().equals(excludeId) && a.getStatus() != AppointmentStatus.CANCELLED);
+    /**
+     * Flushes immediately so a booking that slipped past the in-memory check (another
+     * instance, concurrent request) surfaces as a business error from the exclusion constraint.
+     * {@code before} is the counted state prior to the change, or {@code null} for new bookings.
+     */
+    private Appointment saveChecked(Appointment appointment, State before) {
+        Appointment saved;
+        try {
+            saved = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (cause.contains(OVERLAP_CONSTRAINT)) {
+                throw new BusinessException(CONFLICT_MESSAGE);
+            }
+            throw e;
+        }
+        scheduleIndex.syncAfterCommit(saved);
+        eventPublisher.publishEvent(new StateChangedEvent(Appointment.class, saved.getId(), before, countedState(saved)));
+        return saved;
     }
-}
 
+    private static State countedState(Appointment appointment) {
+        return State.of(appointment.getStatus(), appointment.getAppointmentDateTime());
+    }
+}
@@ -0,0 +1,150 @@
+package com.medico.patient.service;
+
+import com.medico.common.exception.BusinessException;
+import com.medico.patient.dto.AvailabilityRequest;
+import com.medico.patient.dto.DoctorAvailabilityDto;
+import com.medico.patient.dto.FreeSlotDto;
+import com.medico.patient.dto.ScheduleSlot;
+import com.medico.patient.repository.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Computes free appointment windows for several doctors at once. Bookings for all requested
+ * doctors are read with a single projection query, then each doctor's working hours are laid
+ * out as a bitset of fixed-size granules (one bit per granule, set when occupied) and scanned
+ * for clear runs at least as long as the requested duration. Doctors are processed in parallel.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AvailabilityService {
+
+    private static final int GRANULE_MINUTES = 5;
+    private static final long GRANULE_SECONDS = GRANULE_MINUTES * 60L;
+
+    private final AppointmentRepository appointmentRepository;
+
+    @Value("#{T(java.time.LocalTime).parse('${medico.scheduling.working-hours.start:08:00}')}")
+    private LocalTime workdayStart;
+
+    @Value("#{T(java.time.LocalTime).parse('${medico.scheduling.working-hours.end:18:00}')}")
+    private LocalTime workdayEnd;
+
+    @Value("${medico.scheduling.availability.max-range-days:31}")
+    private int maxRangeDays;
+
+    public List<DoctorAvailabilityDto> findAvailability(AvailabilityRequest request) {
+        if (request.endDate().isBefore(request.startDate())) {
+            throw new BusinessException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(request.startDate(), request.endDate()) >= maxRangeDays) {
+            throw new BusinessException("Availability can be searched for at most " + maxRangeDays + " days");
+        }
+
+        LocalDateTime rangeStart = request.startDate().atStartOfDay();
+        LocalDateTime rangeEnd = request.endDate().plusDays(1).atStartOfDay();
+        Map<UUID, List<ScheduleSlot>> bookings = appointmentRepository
+            .findActiveSlotsByDoctorIds(request.doctorIds(), rangeStart, rangeEnd)
+            .stream()
+            .collect(Collectors.groupingBy(ScheduleSlot::doctorId));
+
+        int granulesNeeded = (request.durationMinutes() + GRANULE_MINUTES - 1) / GRANULE_MINUTES;
+        LocalDateTime notBefore = LocalDateTime.now();
+
+        List<DoctorAvailabilityDto> result = request.doctorIds().parallelStream()
+            .map(doctorId -> new DoctorAvailabilityDto(
+                doctorId,
+                request.durationMinutes(),
+                freeSlots(bookings.getOrDefault(doctorId, List.of()), request.startDate(), request.endDate(),
+                    granulesNeeded, notBefore)))
+            .sorted(Comparator.comparing(DoctorAvailabilityDto::doctorId))
+            .toList();
+
+        log.debug("Computed availability for {} doctors over {} - {}", result.size(),
+            request.startDate(), request.endDate());
+        return result;
+    }
+
+    private List<FreeSlotDto> freeSlots(List<ScheduleSlot> bookings, LocalDate from, LocalDate to,
+                                        int granulesNeeded, LocalDateTime notBefore) {
+        int granulesPerDay = (int) Duration.between(workdayStart, workdayEnd).toMinutes() / GRANULE_MINUTES;
+        if (granulesPerDay <= 0) {
+            return List.of();
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        int total = days * granulesPerDay;
+        BitSet occupied = new BitSet(total);
+
+        for (ScheduleSlot booking : bookings) {
+            markOccupied(occupied, booking, from, days, granulesPerDay);
+        }
+
+        // Block everything that has already started so past openings are not offered
+        for (int day = 0; day < days; day++) {
+            LocalDateTime dayOpen = from.plusDays(day).atTime(workdayStart);
+            if (!notBefore.isAfter(dayOpen)) {
+                break;
+            }
+            int elapsed = granulesCeil(Duration.between(dayOpen, notBefore));
+            occupied.set(day * granulesPerDay, day * granulesPerDay + Math.min(elapsed, granulesPerDay));
+        }
+
+        List<FreeSlotDto> slots = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            int dayBase = day * granulesPerDay;
+            int dayLimit = dayBase + granulesPerDay;
+            LocalDateTime dayOpen = from.plusDays(day).atTime(workdayStart);
+
+            int freeStart = occupied.nextClearBit(dayBase);
+            while (freeStart < dayLimit) {
+                int nextBooked = occupied.nextSetBit(freeStart);
+                int freeEnd = nextBooked < 0 ? dayLimit : Math.min(nextBooked, dayLimit);
+                if (freeEnd - freeStart >= granulesNeeded) {
+                    slots.add(new FreeSlotDto(
+                        dayOpen.plusMinutes((long) (freeStart - dayBase) * GRANULE_MINUTES),
+                        dayOpen.plusMinutes((long) (freeEnd - dayBase) * GRANULE_MINUTES)));
+                }
+                freeStart = occupied.nextClearBit(freeEnd);
+            }
+        }
+        return slots;
+    }
+
+    private void markOccupied(BitSet occupied, ScheduleSlot booking, LocalDate from, int days, int granulesPerDay) {
+        int firstDay = (int) Math.max(0, ChronoUnit.DAYS.between(from, booking.start().toLocalDate()));
+        int lastDay = (int) Math.min(days - 1, ChronoUnit.DAYS.between(from, booking.end().toLocalDate()));
+
+        for (int day = firstDay; day <= lastDay; day++) {
+            LocalDateTime dayOpen = from.plusDays(day).atTime(workdayStart);
+            LocalDateTime dayClose = from.plusDays(day).atTime(workdayEnd);
+            if (!booking.overlaps(dayOpen, dayClose)) {
+                continue;
+            }
+            LocalDateTime start = booking.start().isBefore(dayOpen) ? dayOpen : booking.start();
+            LocalDateTime end = booking.end().isAfter(dayClose) ? dayClose : booking.end();
+
+            // Partially covered granules count as occupied
+            int first = (int) (Duration.between(dayOpen, start).toSeconds() / GRANULE_SECONDS);
+            int last = Math.min(granulesCeil(Duration.between(dayOpen, end)), granulesPerDay);
+            occupied.set(day * granulesPerDay + first, day * granulesPerDay + last);
+        }
+    }
+
+    private static int granulesCeil(Duration duration) {
+        return (int) -Math.floorDiv(-duration.toSeconds(), GRANULE_SECONDS);
+    }
+}
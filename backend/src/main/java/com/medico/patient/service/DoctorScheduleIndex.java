@@ -0,0 +1,197 @@
+package com.medico.patient.service;
+
+import com.medico.patient.domain.Appointment;
+import com.medico.patient.domain.Appointment.AppointmentStatus;
+import com.medico.patient.dto.ScheduleSlot;
+import com.medico.patient.repository.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory per-doctor, per-day index of booked intervals used to reject overlapping
+ * appointments without a range query on every booking. Days are loaded lazily from the
+ * database, refreshed after a TTL and patched after each committed write. Past and expired
+ * days are evicted every TTL, and only slots that fall on a cached day are tracked by
+ * appointment, so the index stays bounded by the days actually in use. The
+ * {@code appointments_no_doctor_overlap} exclusion constraint remains the final guard
+ * for writes from other instances or races between concurrent bookings.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DoctorScheduleIndex {
+
+    private static final Comparator<ScheduleSlot> BY_START = Comparator
+        .comparing(ScheduleSlot::start)
+        .thenComparing(ScheduleSlot::appointmentId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final AppointmentRepository appointmentRepository;
+
+    private final Map<DayKey, DaySchedule> days = new ConcurrentHashMap<>();
+    private final Map<UUID, ScheduleSlot> slotsByAppointment = new ConcurrentHashMap<>();
+
+    @Value("${medico.scheduling.index-ttl:PT5M}")
+    private Duration ttl;
+
+    @Value("${medico.scheduling.index-max-days:20000}")
+    private int maxDays;
+
+    public boolean hasOverlap(UUID doctorId, LocalDateTime start, LocalDateTime end, UUID excludeAppointmentId) {
+        for (LocalDate day = start.toLocalDate(); !day.isAfter(end.toLocalDate()); day = day.plusDays(1)) {
+            if (schedule(doctorId, day).overlaps(start, end, excludeAppointmentId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<ScheduleSlot> getSlots(UUID doctorId, LocalDate day) {
+        return schedule(doctorId, day).snapshot();
+    }
+
+    /**
+     * Patches the cached schedule once the surrounding transaction commits, so rolled-back
+     * bookings never become visible to other requests.
+     */
+    public void syncAfterCommit(Appointment appointment) {
+        UUID appointmentId = appointment.getId();
+        ScheduleSlot slot = isBlocking(appointment.getStatus())
+            ? new ScheduleSlot(appointmentId, appointment.getDoctorId(),
+                appointment.getAppointmentDateTime(), appointment.getEndDateTime())
+            : null;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(appointmentId, slot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(appointmentId, slot);
+            }
+        });
+    }
+
+    public static boolean isBlocking(AppointmentStatus status) {
+        return status != AppointmentStatus.CANCELLED && status != AppointmentStatus.NO_SHOW;
+    }
+
+    private void apply(UUID appointmentId, ScheduleSlot slot) {
+        // Slots on days that are not cached are loaded with the day when it is next requested
+        ScheduleSlot previous = slot != null && isOnCachedDay(slot)
+            ? slotsByAppointment.put(appointmentId, slot)
+            : slotsByAppointment.remove(appointmentId);
+
+        if (previous != null) {
+            forEachCachedDay(previous, schedule -> schedule.remove(appointmentId));
+        }
+        if (slot != null) {
+            forEachCachedDay(slot, schedule -> schedule.add(slot));
+        }
+    }
+
+    private boolean isOnCachedDay(ScheduleSlot slot) {
+        for (LocalDate day = slot.start().toLocalDate(); !day.isAfter(slot.end().toLocalDate()); day = day.plusDays(1)) {
+            if (days.containsKey(new DayKey(slot.doctorId(), day))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void forEachCachedDay(ScheduleSlot slot, Consumer<DaySchedule> action) {
+        for (LocalDate day = slot.start().toLocalDate(); !day.isAfter(slot.end().toLocalDate()); day = day.plusDays(1)) {
+            DaySchedule schedule = days.get(new DayKey(slot.doctorId(), day));
+            if (schedule != null) {
+                action.accept(schedule);
+            }
+        }
+    }
+
+    private DaySchedule schedule(UUID doctorId, LocalDate day) {
+        DayKey key = new DayKey(doctorId, day);
+        DaySchedule cached = days.get(key);
+        if (cached != null && !cached.isExpired(ttl)) {
+            return cached;
+        }
+
+        List<ScheduleSlot> slots = appointmentRepository.findActiveSlotsByDoctorId(
+            doctorId, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        DaySchedule loaded = new DaySchedule(slots);
+        slots.forEach(slot -> slotsByAppointment.put(slot.appointmentId(), slot));
+
+        if (days.size() >= maxDays) {
+            evictStaleDays();
+        }
+        days.put(key, loaded);
+        return loaded;
+    }
+
+    @Scheduled(fixedDelayString = "${medico.scheduling.index-ttl:PT5M}")
+    public void evictStaleDays() {
+        LocalDate today = LocalDate.now();
+        days.entrySet().removeIf(entry -> entry.getKey().day().isBefore(today) || entry.getValue().isExpired(ttl));
+        slotsByAppointment.values().removeIf(slot -> !isOnCachedDay(slot));
+        log.debug("Evicted stale schedule days, {} days and {} slots remain cached", days.size(), slotsByAppointment.size());
+    }
+
+    private record DayKey(UUID doctorId, LocalDate day) {}
+
+    private static final class DaySchedule {
+
+        private final Instant loadedAt = Instant.now();
+        private final NavigableSet<ScheduleSlot> slots = new TreeSet<>(BY_START);
+        private Duration longest = Duration.ZERO;
+
+        DaySchedule(Collection<ScheduleSlot> initial) {
+            initial.forEach(this::add);
+        }
+
+        boolean isExpired(Duration ttl) {
+            return loadedAt.plus(ttl).isBefore(Instant.now());
+        }
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end, UUID excludeAppointmentId) {
+            // Only slots starting after (start - longest duration) can still be running at start
+            ScheduleSlot probe = new ScheduleSlot(null, null, start.minus(longest), null);
+            for (ScheduleSlot slot : slots.tailSet(probe, true)) {
+                if (!slot.start().isBefore(end)) {
+                    break;
+                }
+                if (slot.overlaps(start, end) && !slot.appointmentId().equals(excludeAppointmentId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void add(ScheduleSlot slot) {
+            slots.add(slot);
+            Duration duration = Duration.between(slot.start(), slot.end());
+            if (duration.compareTo(longest) > 0) {
+                longest = duration;
+            }
+        }
+
+        synchronized void remove(UUID appointmentId) {
+            slots.removeIf(slot -> slot.appointmentId().equals(appointmentId));
+        }
+
+        synchronized List<ScheduleSlot> snapshot() {
+            return List.copyOf(slots);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.medico.patient.service;
 
+import com.medico.common.audit.AuditedRead;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.exception.BusinessException;
 import com.medico.common.exception.ResourceNotFoundException;
 import com.medico.patient.domain.Appointment;
 import com.medico.patient.domain.MedicalRecord;
+import com.medico.patient.domain.MedicalRecord.RecordType;
 import com.medico.patient.domain.Patient;
 import com.medico.patient.dto.*;
 import com.medico.patient.mapper.PatientMapper;
@@ -12,12 +15,14 @@ import com.medico.patient.repository.MedicalRecordRepository;
 import com.medico.patient.repository.PatientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.UUID;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Slf4j
 @Service
@@ -30,20 +35,66 @@ public class MedicalRecordService {
     private final AppointmentRepository appointmentRepository;
     private final PatientMapper patientMapper;
 
+    @AuditedRead(entityType = "Patient", action = "READ_MEDICAL_RECORDS")
     public PageResponse<MedicalRecordDto> getPatientRecords(UUID patientId, Pageable pageable) {
-        Page<MedicalRecord> records = medicalRecordRepository.findByPatientIdOrderByVisitDateDesc(patientId, pageable);
-        return PageResponse.from(records, records.getContent().stream()
-            .map(patientMapper::toDto)
-            .toList());
+        return PageResponse.from(medicalRecordRepository.findDtosByPatientId(patientId, pageable));
     }
 
-    public PageResponse<MedicalRecordDto> searchPatientRecords(UUID patientId, String search, Pageable pageable) {
-        Page<MedicalRecord> records = medicalRecordRepository.searchPatientRecords(patientId, search, pageable);
-        return PageResponse.from(records, records.getContent().stream()
-            .map(patientMapper::toDto)
-            .toList());
+    @AuditedRead(entityType = "Patient", action = "SEARCH_MEDICAL_RECORDS")
+    public PageResponse<MedicalRecordDto> searchPatientRecords(UUID patientId, String query, Pageable pageable) {
+        String terms = requireSearchTerms(query);
+        List<UUID> ids = medicalRecordRepository.searchPatientRecordIds(
+            patientId, terms, pageable.getPageSize(), pageable.getOffset());
+        long total = isCompleteFirstPage(ids, pageable)
+            ? ids.size()
+            : medicalRecordRepository.countPatientRecordMatches(patientId, terms);
+        if (ids.isEmpty()) {
+            return PageResponse.from(new PageImpl<>(List.<MedicalRecordDto>of(), pageable, total));
+        }
+
+        Map<UUID, MedicalRecordDto> records = new HashMap<>();
+        medicalRecordRepository.findDtosByIds(ids).forEach(record -> records.put(record.id(), record));
+        List<MedicalRecordDto> ranked = ids.stream()
+            .map(records::get)
+            .filter(Objects::nonNull)
+            .toList();
+        return PageResponse.from(new PageImpl<>(ranked, pageable, total));
+    }
+
+    /**
+     * Same search as {@link #searchPatientRecords} with rank and highlighted snippets instead of full records.
+     */
+    @AuditedRead(entityType = "Patient", action = "SEARCH_MEDICAL_RECORDS")
+    public PageResponse<MedicalRecordSearchHitDto> searchPatientRecordHits(UUID patientId, String query, Pageable pageable) {
+        String terms = requireSearchTerms(query);
+        long started = System.nanoTime();
+        List<Object[]> rows = medicalRecordRepository.searchPatientRecords(
+            patientId, terms, pageable.getPageSize(), pageable.getOffset());
+        long total = isCompleteFirstPage(rows, pageable)
+            ? rows.size()
+            : medicalRecordRepository.countPatientRecordMatches(patientId, terms);
+        log.debug("Record search for patient {} returned {} of {} hits in {} ms",
+            patientId, rows.size(), total, (System.nanoTime() - started) / 1_000_000);
+        return toSearchPage(rows, pageable, total);
     }
 
+    /**
+     * Cohort-wide search across every patient's records. Access is restricted at the controller.
+     */
+    public PageResponse<MedicalRecordSearchHitDto> searchAllRecords(String query, Pageable pageable) {
+        String terms = requireSearchTerms(query);
+        long started = System.nanoTime();
+        List<Object[]> rows = medicalRecordRepository.searchAllRecords(
+            terms, pageable.getPageSize(), pageable.getOffset());
+        long total = isCompleteFirstPage(rows, pageable)
+            ? rows.size()
+            : medicalRecordRepository.countAllRecordMatches(terms);
+        log.debug("Cohort record search returned {} of {} hits in {} ms",
+            rows.size(), total, (System.nanoTime() - started) / 1_000_000);
+        return toSearchPage(rows, pageable, total);
+    }
+
+    @AuditedRead(entityType = "MedicalRecord")
     public MedicalRecordDto getRecordById(UUID id) {
         MedicalRecord record = findRecordById(id);
         return patientMapper.toDto(record);
@@ -96,5 +147,37 @@ public class MedicalRecordService {
         return medicalRecordRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("MedicalRecord", "id", id));
     }
-}
 
+    private String requireSearchTerms(String query) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("Search query must not be empty");
+        }
+        return query.trim();
+    }
+
+    // A short first page already holds every match, so the count query can be skipped
+    private static boolean isCompleteFirstPage(List<?> rows, Pageable pageable) {
+        return pageable.getOffset() == 0 && rows.size() < pageable.getPageSize();
+    }
+
+    private PageResponse<MedicalRecordSearchHitDto> toSearchPage(List<Object[]> rows, Pageable pageable, long total) {
+        List<MedicalRecordSearchHitDto> hits = rows.stream()
+            .map(row -> new MedicalRecordSearchHitDto(
+                (UUID) row[0],
+                (UUID) row[1],
+                (String) row[2],
+                (String) row[3],
+                (String) row[4],
+                toLocalDateTime(row[5]),
+                RecordType.valueOf((String) row[6]),
+                (String) row[7],
+                ((Number) row[8]).doubleValue(),
+                (String) row[9]))
+            .toList();
+        return PageResponse.from(new PageImpl<>(hits, pageable, total));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,46 @@
+package com.medico.patient.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands out medical record numbers from blocks reserved on {@code patient_mrn_seq}. Each
+ * sequence value reserves {@value #BLOCK_SIZE} numbers (the sequence increments by the same
+ * amount), so numbers are unique across instances without probing for collisions; a block left
+ * unused at shutdown only leaves a gap. The seven-digit number cannot collide with the
+ * five-digit numbers issued before the sequence existed.
+ */
+@Component
+@RequiredArgsConstructor
+public class MrnAllocator {
+
+    static final int BLOCK_SIZE = 100;
+    private static final DateTimeFormatter DATE_PART = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private long next;
+    private long limit;
+
+    public String allocate() {
+        return allocate(1).get(0);
+    }
+
+    public synchronized List<String> allocate(int count) {
+        String datePart = LocalDate.now().format(DATE_PART);
+        List<String> mrns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (next == limit) {
+                next = jdbcTemplate.queryForObject("SELECT nextval('patient_mrn_seq')", Long.class);
+                limit = next + BLOCK_SIZE;
+            }
+            mrns.add("MRN-" + datePart + "-" + String.format("%07d", next++));
+        }
+        return mrns;
+    }
+}
@@ -0,0 +1,434 @@
+package com.medico.patient.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.medico.common.audit.AuditTrail;
+import com.medico.common.domain.UuidV7;
+import com.medico.common.dto.PageResponse;
+import com.medico.common.exception.BusinessException;
+import com.medico.common.exception.ResourceNotFoundException;
+import com.medico.patient.domain.PatientImportJob;
+import com.medico.patient.domain.PatientImportJob.ImportFormat;
+import com.medico.patient.domain.PatientImportJob.ImportStatus;
+import com.medico.patient.domain.PatientMatchKey.KeyType;
+import com.medico.patient.dto.CreatePatientRequest;
+import com.medico.patient.dto.PatientImportJobDto;
+import com.medico.patient.repository.PatientImportJobRepository;
+import com.medico.patient.repository.PatientRepository;
+import com.medico.patient.service.PatientImportWriter.NewPatient;
+import com.medico.patient.service.PatientImportWriter.Progress;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk patient import. An uploaded CSV (with a header row) or NDJSON file is stored under
+ * {@code import-dir} and streamed record by record; fields use the names of
+ * {@link CreatePatientRequest}. Chunks of {@code chunk-size} records are converted and validated
+ * in parallel on the validation pool, then committed strictly in file order on the job thread:
+ * <ul>
+ *   <li>duplicates within the file (same email, or same name and date of birth) and records whose
+ *   email already exists are skipped;</li>
+ *   <li>MRNs come from {@link MrnAllocator} blocks;</li>
+ *   <li>patients and their match keys are written with JDBC batches by {@link PatientImportWriter},
+ *   one transaction per chunk together with the job's progress.</li>
+ * </ul>
+ * A job is run by the node that claims it in the database. A failed job, or one whose node stopped
+ * sending heartbeats for longer than {@code lease}, can be resumed from any node: it skips the
+ * records already committed, validating them again only to rebuild the in-file duplicate check.
+ * Unlike {@link PatientService#createPatient}, imports do not run the fuzzy duplicate check per
+ * record; the match keys are written, so candidates show up in the duplicate review.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class PatientImportService {
+
+    private static final int MAX_ERROR_SAMPLE = 50;
+
+    private final PatientImportJobRepository jobRepository;
+    private final PatientRepository patientRepository;
+    private final PatientImportWriter writer;
+    private final PatientMatchService patientMatchService;
+    private final MrnAllocator mrnAllocator;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ThreadPoolTaskExecutor patientImportExecutor;
+    private final ThreadPoolTaskExecutor patientImportValidationExecutor;
+    private final ObjectProvider<AuditTrail> auditTrail;
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Value("${medico.patients.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${medico.patients.import.parallelism:4}")
+    private int parallelism;
+
+    @Value("${medico.patients.import.dir:./imports}")
+    private Path importDir;
+
+    @Value("${medico.patients.import.lease:PT5M}")
+    private Duration lease;
+
+    public PageResponse<PatientImportJobDto> getImportJobs(Pageable pageable) {
+        Page<PatientImportJob> jobs = jobRepository.findAllByOrderByCreatedAtDesc(pageable);
+        return PageResponse.from(jobs, jobs.getContent().stream().map(this::toDto).toList());
+    }
+
+    public PatientImportJobDto getImportJob(UUID id) {
+        return toDto(findJobById(id));
+    }
+
+    @Transactional
+    public PatientImportJobDto startImport(MultipartFile file, ImportFormat format) {
+        if (file.isEmpty()) {
+            throw new BusinessException("Import file is empty");
+        }
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "patients";
+        PatientImportJob job = jobRepository.save(PatientImportJob.builder()
+            .fileName(fileName)
+            .format(format != null ? format : detectFormat(fileName))
+            .status(ImportStatus.PENDING)
+            .heartbeatAt(LocalDateTime.now())
+            .build());
+
+        try {
+            Files.createDirectories(importDir);
+            file.transferTo(storedFile(job.getId()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store import file", e);
+        }
+
+        runAfterCommit(job.getId());
+        log.info("Queued patient import {} from {}", job.getId(), fileName);
+        return toDto(job);
+    }
+
+    @Transactional
+    public PatientImportJobDto resumeImport(UUID id) {
+        PatientImportJob job = findJobById(id);
+        LocalDateTime now = LocalDateTime.now();
+        if (jobRepository.requeue(id, now, now.minus(lease)) == 0) {
+            throw new BusinessException("Only failed or interrupted imports can be resumed");
+        }
+        if (!Files.exists(storedFile(id))) {
+            throw new BusinessException("The import file is no longer available");
+        }
+        runAfterCommit(id);
+        log.info("Resuming patient import {} after {} records", id, job.getProcessedRows());
+        return toDto(job);
+    }
+
+    private void runAfterCommit(UUID jobId) {
+        String importedBy = currentUser();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                patientImportExecutor.execute(() -> runImport(jobId, importedBy));
+            }
+        });
+    }
+
+    private void runImport(UUID jobId, String importedBy) {
+        UUID runId = UuidV7.next();
+        if (!writer.claim(jobId, runId)) {
+            log.info("Patient import {} is already being run", jobId);
+            return;
+        }
+        try {
+            PatientImportJob job = findJobById(jobId);
+            ImportRun run = new ImportRun(job, runId, importedBy);
+            run.execute();
+            writer.markFinished(jobId, runId, ImportStatus.COMPLETED, null);
+            auditTrail.ifAvailable(trail -> trail.record("IMPORT", "PatientImportJob", jobId));
+            log.info("Patient import {} completed: {} imported, {} duplicates, {} invalid",
+                jobId, run.imported, run.duplicates, run.invalid);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Patient import {} failed", jobId, e);
+            writer.markFinished(jobId, runId, ImportStatus.FAILED, String.valueOf(e.getMessage()));
+        }
+    }
+
+    /**
+     * State of one execution of a job. Counters start from the job's committed progress.
+     */
+    private final class ImportRun {
+
+        private final UUID jobId;
+        private final UUID runId;
+        private final ImportFormat format;
+        private final String importedBy;
+        private final long resumeAfter;
+        private final List<String> errors;
+        // Identities seen so far in the file
+        private final Set<String> seen = new HashSet<>();
+        private long processed;
+        private long imported;
+        private long duplicates;
+        private long invalid;
+
+        private ImportRun(PatientImportJob job, UUID runId, String importedBy) {
+            this.jobId = job.getId();
+            this.runId = runId;
+            this.format = job.getFormat();
+            this.importedBy = importedBy;
+            this.resumeAfter = job.getProcessedRows();
+            this.errors = job.getErrorSample() != null
+                ? new ArrayList<>(Arrays.asList(job.getErrorSample().split("\n")))
+                : new ArrayList<>();
+            this.processed = job.getProcessedRows();
+            this.imported = job.getImportedRows();
+            this.duplicates = job.getDuplicateRows();
+            this.invalid = job.getInvalidRows();
+        }
+
+        private void execute() throws IOException, InterruptedException, ExecutionException {
+            Deque<Future<List<ImportRow>>> inFlight = new ArrayDeque<>();
+            int maxInFlight = parallelism * 2;
+            try (InputStream in = Files.newInputStream(storedFile(jobId));
+                 MappingIterator<Map<String, Object>> records = reader(format).readValues(in)) {
+                long line = 0;
+                List<RawRow> chunk = new ArrayList<>(chunkSize);
+                while (records.hasNextValue()) {
+                    Map<String, Object> values = records.nextValue();
+                    line++;
+                    chunk.add(new RawRow(line, values));
+                    if (chunk.size() == chunkSize) {
+                        List<RawRow> submitted = chunk;
+                        inFlight.add(patientImportValidationExecutor.submit(() -> validate(submitted, resumeAfter)));
+                        chunk = new ArrayList<>(chunkSize);
+                        if (inFlight.size() >= maxInFlight) {
+                            commit(inFlight.poll().get());
+                        }
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    List<RawRow> submitted = chunk;
+                    inFlight.add(patientImportValidationExecutor.submit(() -> validate(submitted, resumeAfter)));
+                }
+                while (!inFlight.isEmpty()) {
+                    commit(inFlight.poll().get());
+                }
+            } finally {
+                inFlight.forEach(future -> future.cancel(true));
+            }
+        }
+
+        private void commit(List<ImportRow> rows) {
+            List<ImportRow> unique = new ArrayList<>(rows.size());
+            int fresh = 0;
+            for (ImportRow row : rows) {
+                if (row.line() <= resumeAfter) {
+                    // Committed by an earlier run, which only deduplicated against valid records
+                    if (row.error() == null) {
+                        seen.add(row.identity());
+                    }
+                    continue;
+                }
+                fresh++;
+                if (row.error() != null) {
+                    invalid++;
+                    if (errors.size() < MAX_ERROR_SAMPLE) {
+                        errors.add("Record " + row.line() + ": " + row.error());
+                    }
+                } else if (!seen.add(row.identity())) {
+                    duplicates++;
+                } else {
+                    unique.add(row);
+                }
+            }
+            if (fresh == 0) {
+                return;
+            }
+
+            Set<String> emails = unique.stream()
+                .map(row -> row.request().email())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+            Set<String> existingEmails = emails.isEmpty() ? Set.of() : patientRepository.findExistingEmails(emails);
+            List<ImportRow> accepted = unique.stream()
+                .filter(row -> row.request().email() == null || !existingEmails.contains(row.request().email()))
+                .toList();
+            duplicates += unique.size() - accepted.size();
+
+            List<String> mrns = mrnAllocator.allocate(accepted.size());
+            List<NewPatient> patients = new ArrayList<>(accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                ImportRow row = accepted.get(i);
+                patients.add(new NewPatient(UuidV7.next(), mrns.get(i), row.request(), row.matchKeys()));
+            }
+
+            processed += fresh;
+            imported += patients.size();
+            writer.writeChunk(jobId, runId, importedBy, patients,
+                new Progress(processed, imported, duplicates, invalid, errors.isEmpty() ? null : String.join("\n", errors)));
+        }
+    }
+
+    /**
+     * Converts and validates a chunk. Records up to {@code committedUpTo} were imported by an
+     * earlier run and are validated only to rebuild the in-file identities, without match keys.
+     */
+    private List<ImportRow> validate(List<RawRow> chunk, long committedUpTo) {
+        List<ImportRow> rows = new ArrayList<>(chunk.size());
+        for (RawRow raw : chunk) {
+            String identity = identity(raw.values());
+            CreatePatientRequest request;
+            try {
+                request = objectMapper.convertValue(raw.values(), CreatePatientRequest.class);
+            } catch (IllegalArgumentException e) {
+                rows.add(ImportRow.invalid(raw.line(), identity, "unreadable field: " + e.getMessage().split("\n")[0]));
+                continue;
+            }
+            Set<ConstraintViolation<CreatePatientRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                rows.add(ImportRow.invalid(raw.line(), identity, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "))));
+                continue;
+            }
+            Map<KeyType, String> matchKeys = raw.line() > committedUpTo ? patientMatchService.matchKeys(request) : null;
+            rows.add(new ImportRow(raw.line(), identity, request, matchKeys, null));
+        }
+        return rows;
+    }
+
+    private ObjectReader reader(ImportFormat format) {
+        if (format == ImportFormat.CSV) {
+            return csvMapper.readerFor(Map.class).with(CsvSchema.emptySchema().withHeader());
+        }
+        return objectMapper.readerFor(Map.class);
+    }
+
+    /**
+     * In-file identity of a record: its email when present, otherwise name and date of birth.
+     * The full normalized key is kept rather than a hash, so distinct records never collide.
+     */
+    static String identity(Map<String, Object> values) {
+        String email = normalize(values.get("email"));
+        return email != null
+            ? "E|" + email
+            : "N|" + normalize(values.get("firstName")) + "|" + normalize(values.get("lastName"))
+                + "|" + normalize(values.get("dateOfBirth"));
+    }
+
+    private static String normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim().toLowerCase(Locale.ROOT);
+        return text.isEmpty() ? null : text;
+    }
+
+    private record RawRow(long line, Map<String, Object> values) {
+
+        private RawRow {
+            // CSV has no nulls: empty cells would fail enum and date conversion
+            Map<String, Object> cleaned = new LinkedHashMap<>(values);
+            cleaned.replaceAll((field, value) -> value instanceof String text && text.isBlank() ? null : value);
+            values = cleaned;
+        }
+    }
+
+    private record ImportRow(long line, String identity, CreatePatientRequest request, Map<KeyType, String> matchKeys,
+                             String error) {
+
+        static ImportRow invalid(long line, String identity, String error) {
+            return new ImportRow(line, identity, null, null, error);
+        }
+    }
+
+    private PatientImportJob findJobById(UUID id) {
+        return jobRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("PatientImportJob", "id", id));
+    }
+
+    private Path storedFile(UUID jobId) {
+        return importDir.resolve(jobId + ".import");
+    }
+
+    private static ImportFormat detectFormat(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return ImportFormat.NDJSON;
+        }
+        if (lower.endsWith(".csv")) {
+            return ImportFormat.CSV;
+        }
+        throw new BusinessException("Cannot tell the import format from " + fileName + "; pass format=CSV or NDJSON");
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private PatientImportJobDto toDto(PatientImportJob job) {
+        double rowsPerSecond = 0;
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            long millis = Duration.between(job.getStartedAt(), end).toMillis();
+            rowsPerSecond = millis > 0 ? job.getProcessedRows() * 1000.0 / millis : 0;
+        }
+        return new PatientImportJobDto(
+            job.getId(),
+            job.getFileName(),
+            job.getFormat(),
+            job.getStatus(),
+            job.getProcessedRows(),
+            job.getImportedRows(),
+            job.getDuplicateRows(),
+            job.getInvalidRows(),
+            rowsPerSecond,
+            job.getErrorSample() != null ? List.of(job.getErrorSample().split("\n")) : List.of(),
+            job.getLastError(),
+            job.getStartedAt(),
+            job.getFinishedAt(),
+            job.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,91 @@
+package com.medico.patient.service;
+
+import com.medico.common.domain.UuidV7;
+import com.medico.patient.domain.PatientImportJob.ImportStatus;
+import com.medico.patient.domain.PatientMatchKey.KeyType;
+import com.medico.patient.dto.CreatePatientRequest;
+import com.medico.patient.repository.PatientImportJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Transactional side of the bulk import: writes one chunk of patients and their duplicate-match
+ * keys with JDBC batch inserts and records the job's progress in the same transaction, so the
+ * committed progress always matches the committed rows. Every write is made on behalf of the run
+ * that claimed the job; once another run has taken the job over, the chunk is rolled back.
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientImportWriter {
+
+    private static final String INSERT_PATIENT = """
+        INSERT INTO patients (id, medical_record_number, first_name, last_name, date_of_birth, gender, phone_number,
+                              email, address, city, state, postal_code, country, emergency_contact_name,
+                              emergency_contact_phone, blood_type, allergies, medical_notes, active, created_at,
+                              created_by, version)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, ?, ?, 0)
+        """;
+
+    private static final String INSERT_MATCH_KEY = """
+        INSERT INTO patient_match_keys (id, patient_id, key_type, key_value, created_at, created_by, version)
+        VALUES (?, ?, ?, ?, ?, ?, 0)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PatientImportJobRepository jobRepository;
+
+    record NewPatient(UUID id, String medicalRecordNumber, CreatePatientRequest request, Map<KeyType, String> matchKeys) {}
+
+    record Progress(long processed, long imported, long duplicates, long invalid, String errorSample) {}
+
+    @Transactional
+    public void writeChunk(UUID jobId, UUID runId, String importedBy, List<NewPatient> patients, Progress progress) {
+        LocalDateTime now = LocalDateTime.now();
+        if (jobRepository.updateProgress(jobId, runId, progress.processed(), progress.imported(), progress.duplicates(),
+                progress.invalid(), progress.errorSample(), now) == 0) {
+            throw new IllegalStateException("Import " + jobId + " was taken over by another run");
+        }
+        if (!patients.isEmpty()) {
+            Timestamp createdAt = Timestamp.valueOf(now);
+            List<Object[]> patientRows = new ArrayList<>(patients.size());
+            List<Object[]> keyRows = new ArrayList<>(patients.size() * KeyType.values().length);
+            for (NewPatient patient : patients) {
+                CreatePatientRequest request = patient.request();
+                patientRows.add(new Object[] {
+                    patient.id(), patient.medicalRecordNumber(), request.firstName(), request.lastName(),
+                    request.dateOfBirth(), request.gender().name(), request.phoneNumber(), request.email(),
+                    request.address(), request.city(), request.state(), request.postalCode(), request.country(),
+                    request.emergencyContactName(), request.emergencyContactPhone(),
+                    request.bloodType() != null ? request.bloodType().name() : null,
+                    request.allergies(), request.medicalNotes(), createdAt, importedBy
+                });
+                patient.matchKeys().forEach((type, value) ->
+                    keyRows.add(new Object[] {UuidV7.next(), patient.id(), type.name(), value, createdAt, importedBy}));
+            }
+            jdbcTemplate.batchUpdate(INSERT_PATIENT, patientRows);
+            jdbcTemplate.batchUpdate(INSERT_MATCH_KEY, keyRows);
+        }
+    }
+
+    /**
+     * @return whether {@code runId} now owns the job; false if another run claimed it first
+     */
+    @Transactional
+    public boolean claim(UUID jobId, UUID runId) {
+        return jobRepository.claim(jobId, runId, LocalDateTime.now()) == 1;
+    }
+
+    @Transactional
+    public void markFinished(UUID jobId, UUID runId, ImportStatus status, String lastError) {
+        jobRepository.markFinished(jobId, runId, status, LocalDateTime.now(), lastError);
+    }
+}
@@ -0,0 +1,413 @@
+package com.medico.patient.service;
+
+import com.medico.patient.domain.Patient;
+import com.medico.patient.domain.PatientMatchKey;
+import com.medico.patient.domain.PatientMatchKey.KeyType;
+import com.medico.patient.dto.CreatePatientRequest;
+import com.medico.patient.dto.DuplicateCandidateDto;
+import com.medico.patient.dto.DuplicatePairDto;
+import com.medico.patient.repository.PatientMatchKeyRepository;
+import com.medico.patient.repository.PatientRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class PatientMatchService {
+
+    private final PatientMatchKeyRepository matchKeyRepository;
+    private final PatientRepository patientRepository;
+    private final EntityManager entityManager;
+
+    private static final Pattern NON_LETTERS = Pattern.compile("[^a-z]");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}");
+    private static final int PHONE_SUFFIX_LENGTH = 7;
+    private static final int MAX_CANDIDATES = 10;
+    private static final int BATCH_SIZE = 1000;
+
+    @Value("${medico.patients.duplicates.review-threshold:0.6}")
+    private double reviewThreshold;
+
+    @Value("${medico.patients.duplicates.block-threshold:0.9}")
+    private double blockThreshold;
+
+    @Value("${medico.patients.duplicates.max-block-size:50}")
+    private int maxBlockSize;
+
+    public List<DuplicateCandidateDto> findCandidates(CreatePatientRequest request) {
+        MatchProfile profile = MatchProfile.from(request);
+        List<UUID> candidateIds = matchKeyRepository.findPatientIdsByKeyValues(blockingKeys(profile).values());
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+
+        return patientRepository.findAllById(candidateIds).stream()
+            .filter(Patient::isActive)
+            .map(patient -> toCandidate(patient, profile))
+            .filter(candidate -> candidate.score() >= reviewThreshold)
+            .sorted(Comparator.comparingDouble(DuplicateCandidateDto::score).reversed())
+            .limit(MAX_CANDIDATES)
+            .toList();
+    }
+
+    public List<DuplicateCandidateDto> findProbableDuplicates(CreatePatientRequest request) {
+        return findCandidates(request).stream()
+            .filter(candidate -> candidate.score() >= blockThreshold)
+            .toList();
+    }
+
+    /**
+     * Blocking keys for a patient that is inserted without going through JPA, as in bulk import.
+     */
+    public Map<KeyType, String> matchKeys(CreatePatientRequest request) {
+        return blockingKeys(MatchProfile.from(request));
+    }
+
+    @Transactional
+    public void indexPatient(Patient patient) {
+        matchKeyRepository.deleteByPatientId(patient.getId());
+        matchKeyRepository.saveAll(toMatchKeys(patient));
+    }
+
+    @Transactional
+    public long rebuildMatchKeys() {
+        matchKeyRepository.deleteAllKeys();
+
+        long indexed = 0;
+        PageRequest pageRequest = PageRequest.of(0, BATCH_SIZE, Sort.by("id"));
+        Slice<Patient> slice;
+        do {
+            slice = patientRepository.findByActiveTrue(pageRequest);
+            List<PatientMatchKey> keys = new ArrayList<>();
+            slice.getContent().forEach(patient -> keys.addAll(toMatchKeys(patient)));
+            matchKeyRepository.saveAll(keys);
+            indexed += slice.getNumberOfElements();
+
+            entityManager.flush();
+            entityManager.clear();
+            pageRequest = pageRequest.next();
+        } while (slice.hasNext());
+
+        log.info("Rebuilt duplicate match keys for {} patients", indexed);
+        return indexed;
+    }
+
+    public List<DuplicatePairDto> findDuplicatePairs() {
+        Map<String, List<UUID>> blocks = new HashMap<>();
+        for (Object[] row : matchKeyRepository.findSharedBlocks(maxBlockSize)) {
+            blocks.computeIfAbsent((String) row[0], key -> new ArrayList<>()).add((UUID) row[1]);
+        }
+        if (blocks.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, MatchProfile> profiles = loadProfiles(blocks.values().stream()
+            .flatMap(List::stream)
+            .distinct()
+            .toList());
+
+        Map<String, DuplicatePairDto> pairs = new ConcurrentHashMap<>();
+        blocks.values().parallelStream().forEach(members -> {
+            for (int i = 0; i < members.size(); i++) {
+                for (int j = i + 1; j < members.size(); j++) {
+                    MatchProfile first = profiles.get(members.get(i));
+                    MatchProfile second = profiles.get(members.get(j));
+                    if (first == null || second == null) {
+                        continue;
+                    }
+                    String pairKey = pairKey(first.id(), second.id());
+                    if (pairs.containsKey(pairKey)) {
+                        continue;
+                    }
+                    double score = score(first, second, null);
+                    if (score >= reviewThreshold) {
+                        pairs.putIfAbsent(pairKey, new DuplicatePairDto(
+                            first.id(), first.medicalRecordNumber(), first.fullName(),
+                            second.id(), second.medicalRecordNumber(), second.fullName(),
+                            score
+                        ));
+                    }
+                }
+            }
+        });
+
+        log.info("Duplicate pass scored {} blocks and found {} candidate pairs", blocks.size(), pairs.size());
+        return pairs.values().stream()
+            .sorted(Comparator.comparingDouble(DuplicatePairDto::score).reversed())
+            .toList();
+    }
+
+    private Map<UUID, MatchProfile> loadProfiles(List<UUID> patientIds) {
+        Map<UUID, MatchProfile> profiles = new HashMap<>();
+        for (int from = 0; from < patientIds.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = patientIds.subList(from, Math.min(from + BATCH_SIZE, patientIds.size()));
+            patientRepository.findAllById(chunk).stream()
+                .filter(Patient::isActive)
+                .forEach(patient -> profiles.put(patient.getId(), MatchProfile.from(patient)));
+            entityManager.clear();
+        }
+        return profiles;
+    }
+
+    private List<PatientMatchKey> toMatchKeys(Patient patient) {
+        return blockingKeys(MatchProfile.from(patient)).entrySet().stream()
+            .<PatientMatchKey>map(entry -> PatientMatchKey.builder()
+                .patientId(patient.getId())
+                .keyType(entry.getKey())
+                .keyValue(entry.getValue())
+                .build())
+            .toList();
+    }
+
+    private DuplicateCandidateDto toCandidate(Patient patient, MatchProfile profile) {
+        List<String> matchedOn = new ArrayList<>();
+        double score = score(profile, MatchProfile.from(patient), matchedOn);
+        return new DuplicateCandidateDto(
+            patient.getId(),
+            patient.getMedicalRecordNumber(),
+            patient.getFullName(),
+            patient.getDateOfBirth(),
+            patient.getPhoneNumber(),
+            patient.getEmail(),
+            score,
+            matchedOn
+        );
+    }
+
+    private static Map<KeyType, String> blockingKeys(MatchProfile profile) {
+        Map<KeyType, String> keys = new EnumMap<>(KeyType.class);
+        if (profile.dateOfBirth() != null) {
+            if (!profile.lastName().isEmpty()) {
+                keys.put(KeyType.SURNAME_SOUNDEX_DOB, "SN:" + soundex(profile.lastName()) + "|" + profile.dateOfBirth());
+            }
+            if (!profile.firstName().isEmpty()) {
+                keys.put(KeyType.GIVEN_NAME_SOUNDEX_DOB, "GN:" + soundex(profile.firstName()) + "|" + profile.dateOfBirth());
+            }
+        }
+        if (profile.phoneDigits().length() >= PHONE_SUFFIX_LENGTH) {
+            keys.put(KeyType.PHONE_SUFFIX, "PH:" + phoneSuffix(profile.phoneDigits()));
+        }
+        if (profile.email() != null) {
+            keys.put(KeyType.EMAIL, "EM:" + profile.email());
+        }
+        return keys;
+    }
+
+    private static double score(MatchProfile a, MatchProfile b, List<String> matchedOn) {
+        double score = 0;
+
+        if (a.dateOfBirth() != null && b.dateOfBirth() != null) {
+            if (a.dateOfBirth().equals(b.dateOfBirth())) {
+                score += 0.30;
+                note(matchedOn, "dateOfBirth");
+            } else if (isDayMonthTransposed(a.dateOfBirth(), b.dateOfBirth())) {
+                score += 0.15;
+                note(matchedOn, "dateOfBirth (day/month transposed)");
+            }
+        }
+
+        double lastName = jaroWinkler(a.lastName(), b.lastName());
+        double firstName = jaroWinkler(a.firstName(), b.firstName());
+        double swapped = Math.min(jaroWinkler(a.firstName(), b.lastName()), jaroWinkler(a.lastName(), b.firstName()));
+        if (swapped > Math.min(lastName, firstName)) {
+            lastName = swapped;
+            firstName = swapped;
+        }
+        if (lastName >= 0.85) {
+            score += 0.25 * lastName;
+            note(matchedOn, "lastName");
+        }
+        if (firstName >= 0.85) {
+            score += 0.20 * firstName;
+            note(matchedOn, "firstName");
+        }
+
+        if (a.phoneDigits().length() >= PHONE_SUFFIX_LENGTH && b.phoneDigits().length() >= PHONE_SUFFIX_LENGTH
+            && phoneSuffix(a.phoneDigits()).equals(phoneSuffix(b.phoneDigits()))) {
+            score += 0.15;
+            note(matchedOn, "phoneNumber");
+        }
+
+        if (a.email() != null && a.email().equals(b.email())) {
+            score += 0.10;
+            note(matchedOn, "email");
+        }
+
+        return Math.round(score * 1000) / 1000.0;
+    }
+
+    private static void note(List<String> matchedOn, String field) {
+        if (matchedOn != null) {
+            matchedOn.add(field);
+        }
+    }
+
+    private static boolean isDayMonthTransposed(LocalDate a, LocalDate b) {
+        return a.getYear() == b.getYear()
+            && a.getMonthValue() == b.getDayOfMonth()
+            && a.getDayOfMonth() == b.getMonthValue();
+    }
+
+    private static String phoneSuffix(String digits) {
+        return digits.substring(digits.length() - PHONE_SUFFIX_LENGTH);
+    }
+
+    private static String pairKey(UUID a, UUID b) {
+        return a.compareTo(b) < 0 ? a + ":" + b : b + ":" + a;
+    }
+
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return NON_LETTERS.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    static String soundex(String normalizedName) {
+        if (normalizedName.isEmpty()) {
+            return "";
+        }
+        StringBuilder code = new StringBuilder(4).append(Character.toUpperCase(normalizedName.charAt(0)));
+        char previous = soundexDigit(normalizedName.charAt(0));
+        for (int i = 1; i < normalizedName.length() && code.length() < 4; i++) {
+            char c = normalizedName.charAt(i);
+            char digit = soundexDigit(c);
+            if (digit != '0' && digit != previous) {
+                code.append(digit);
+            }
+            // 'h' and 'w' do not separate letters with the same code; vowels do
+            if (c != 'h' && c != 'w') {
+                previous = digit;
+            }
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+
+    private static char soundexDigit(char c) {
+        return switch (c) {
+            case 'b', 'f', 'p', 'v' -> '1';
+            case 'c', 'g', 'j', 'k', 'q', 's', 'x', 'z' -> '2';
+            case 'd', 't' -> '3';
+            case 'l' -> '4';
+            case 'm', 'n' -> '5';
+            case 'r' -> '6';
+            default -> '0';
+        };
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        if (a.equals(b)) {
+            return 1;
+        }
+
+        int matchWindow = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] aMatched = new boolean[a.length()];
+        boolean[] bMatched = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int start = Math.max(0, i - matchWindow);
+            int end = Math.min(b.length(), i + matchWindow + 1);
+            for (int j = start; j < end; j++) {
+                if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+                    aMatched[i] = true;
+                    bMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (aMatched[i]) {
+                while (!bMatched[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+
+    private record MatchProfile(
+        UUID id,
+        String medicalRecordNumber,
+        String fullName,
+        String firstName,
+        String lastName,
+        LocalDate dateOfBirth,
+        String phoneDigits,
+        String email
+    ) {
+        static MatchProfile from(Patient patient) {
+            return new MatchProfile(
+                patient.getId(),
+                patient.getMedicalRecordNumber(),
+                patient.getFullName(),
+                normalizeName(patient.getFirstName()),
+                normalizeName(patient.getLastName()),
+                patient.getDateOfBirth(),
+                digits(patient.getPhoneNumber()),
+                normalizeEmail(patient.getEmail())
+            );
+        }
+
+        static MatchProfile from(CreatePatientRequest request) {
+            return new MatchProfile(
+                null,
+                null,
+                request.firstName() + " " + request.lastName(),
+                normalizeName(request.firstName()),
+                normalizeName(request.lastName()),
+                request.dateOfBirth(),
+                digits(request.phoneNumber()),
+                normalizeEmail(request.email())
+            );
+        }
+
+        private static String digits(String phoneNumber) {
+            return phoneNumber == null ? "" : NON_DIGITS.matcher(phoneNumber).replaceAll("");
+        }
+
+        private static String normalizeEmail(String email) {
+            return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.medico.patient.service;
 
+import com.medico.common.audit.AuditedRead;
+import com.medico.common.dto.Cursor;
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.event.StateChangedEvent.State;
 import com.medico.common.exception.BusinessException;
+import com.medico.common.exception.DuplicateRecordException;
 import com.medico.common.exception.ResourceNotFoundException;
 import com.medico.patient.domain.Patient;
 import com.medico.patient.dto.*;
@@ -9,15 +15,17 @@ import com.medico.patient.mapper.PatientMapper;
 import com.medico.patient.repository.PatientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
@@ -27,7 +35,13 @@ public class PatientService {
 
     private final PatientRepository patientRepository;
     private final PatientMapper patientMapper;
-    private static final AtomicLong mrnCounter = new AtomicLong(System.currentTimeMillis() % 100000);
+    private final PatientMatchService patientMatchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MrnAllocator mrnAllocator;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PHONE_LIKE = Pattern.compile("^[+\\d\\s().-]+$");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+    private static final int MIN_PHONE_PREFIX_DIGITS = 3;
 
     public PageResponse<PatientDto> getAllPatients(Pageable pageable) {
         Page<Patient> patients = patientRepository.findAllActive(pageable);
@@ -36,18 +50,41 @@ public class PatientService {
             .toList());
     }
 
+    public CursorPage<PatientDto> getAllPatientsByCursor(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        Cursor position = Cursor.decode(cursor);
+        List<Patient> patients = position == null
+            ? patientRepository.findFirstActive(CursorPage.limitFor(pageSize))
+            : patientRepository.findActiveAfter(position.key(), position.id(), CursorPage.limitFor(pageSize));
+        return CursorPage.of(patientMapper.toDtoList(patients), pageSize,
+            patient -> Cursor.of(patient.lastName(), patient.id()));
+    }
+
     public PageResponse<PatientDto> searchPatients(String search, Pageable pageable) {
-        Page<Patient> patients = patientRepository.searchPatients(search, pageable);
+        String term = normalizeSearchTerm(search);
+        if (term.isEmpty()) {
+            return getAllPatients(pageable);
+        }
+
+        // Results are ranked by the query itself, so any client-supplied sort is dropped
+        Page<Patient> patients = patientRepository.searchPatients(
+            term,
+            escapeLikePattern(term),
+            normalizePhoneDigits(term),
+            PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+        );
         return PageResponse.from(patients, patients.getContent().stream()
             .map(patientMapper::toDto)
             .toList());
     }
 
+    @AuditedRead(entityType = "Patient")
     public PatientDto getPatientById(UUID id) {
         Patient patient = findPatientById(id);
         return patientMapper.toDto(patient);
     }
 
+    @AuditedRead(entityType = "Patient")
     public PatientDto getPatientByMrn(String mrn) {
         Patient patient = patientRepository.findByMedicalRecordNumber(mrn)
             .orElseThrow(() -> new ResourceNotFoundException("Patient", "MRN", mrn));
@@ -60,10 +97,24 @@ public class PatientService {
             throw new BusinessException("A patient with this email already exists");
         }
 
+        if (!request.overrideDuplicates()) {
+            List<DuplicateCandidateDto> duplicates = patientMatchService.findProbableDuplicates(request);
+            if (!duplicates.isEmpty()) {
+                throw new DuplicateRecordException(
+                    "Probable duplicate of existing patient " + duplicates.get(0).medicalRecordNumber(), duplicates);
+            }
+        }
+
         Patient patient = patientMapper.toEntity(request);
-        patient.setMedicalRecordNumber(generateMRN());
+        patient.setMedicalRecordNumber(mrnAllocator.allocate());
 
         Patient savedPatient = patientRepository.save(patient);
+        patientMatchService.indexPatient(savedPatient);
+        if (request.overrideDuplicates()) {
+            log.warn("Created patient {} with duplicate check overridden", savedPatient.getMedicalRecordNumber());
+        }
+        eventPublisher.publishEvent(StateChangedEvent.created(Patient.class, savedPatient.getId(),
+            State.of(savedPatient.isActive(), null)));
         log.info("Created new patient with MRN: {}", savedPatient.getMedicalRecordNumber());
 
         return patientMapper.toDto(savedPatient);
@@ -80,6 +131,7 @@ public class PatientService {
 
         patientMapper.updatePatient(request, patient);
         Patient updatedPatient = patientRepository.save(patient);
+        patientMatchService.indexPatient(updatedPatient);
         log.info("Updated patient with ID: {}", id);
 
         return patientMapper.toDto(updatedPatient);
@@ -88,8 +140,10 @@ public class PatientService {
     @Transactional
     public void deactivatePatient(UUID id) {
         Patient patient = findPatientById(id);
+        boolean wasActive = patient.isActive();
         patient.setActive(false);
         patientRepository.save(patient);
+        publishActiveChange(patient, wasActive);
         log.info("Deactivated patient with ID: {}", id);
     }
 
@@ -97,11 +151,20 @@ public class PatientService {
     public void activatePatient(UUID id) {
         Patient patient = patientRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Patient", "id", id));
+        boolean wasActive = patient.isActive();
         patient.setActive(true);
         patientRepository.save(patient);
+        publishActiveChange(patient, wasActive);
         log.info("Activated patient with ID: {}", id);
     }
 
+    private void publishActiveChange(Patient patient, boolean wasActive) {
+        if (wasActive != patient.isActive()) {
+            eventPublisher.publishEvent(StateChangedEvent.changed(Patient.class, patient.getId(),
+                State.of(wasActive, null), State.of(patient.isActive(), null)));
+        }
+    }
+
     public long getActivePatientCount() {
         return patientRepository.countActivePatients();
     }
@@ -112,17 +175,25 @@ public class PatientService {
             .orElseThrow(() -> new ResourceNotFoundException("Patient", "id", id));
     }
 
-    private String generateMRN() {
-        String datePart = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String sequencePart = String.format("%05d", mrnCounter.incrementAndGet() % 100000);
-        String mrn = "MRN-" + datePart + "-" + sequencePart;
-
-        while (patientRepository.existsByMedicalRecordNumber(mrn)) {
-            sequencePart = String.format("%05d", mrnCounter.incrementAndGet() % 100000);
-            mrn = "MRN-" + datePart + "-" + sequencePart;
+    private String normalizeSearchTerm(String search) {
+        if (search == null) {
+            return "";
         }
+        return WHITESPACE.matcher(search.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
 
-        return mrn;
+    private String escapeLikePattern(String term) {
+        return term.replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+    }
+
+    private String normalizePhoneDigits(String term) {
+        if (!PHONE_LIKE.matcher(term).matches()) {
+            return "";
+        }
+        String digits = NON_DIGITS.matcher(term).replaceAll("");
+        return digits.length() >= MIN_PHONE_PREFIX_DIGITS ? digits : "";
     }
 }
 
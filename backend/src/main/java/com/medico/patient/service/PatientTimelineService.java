@@ -0,0 +1,179 @@
+package com.medico.patient.service;
+
+import com.medico.billing.dto.BillingItemDto;
+import com.medico.billing.repository.InvoiceRepository;
+import com.medico.common.audit.AuditedRead;
+import com.medico.common.dto.Cursor;
+import com.medico.common.dto.CursorPage;
+import com.medico.common.web.SparseFields;
+import com.medico.laboratory.repository.LabResultRepository;
+import com.medico.patient.dto.PrescriptionItemDto;
+import com.medico.patient.dto.TimelineEntryDto;
+import com.medico.patient.dto.TimelineEntryDto.EntryType;
+import com.medico.patient.repository.AppointmentRepository;
+import com.medico.patient.repository.MedicalRecordRepository;
+import com.medico.patient.repository.PrescriptionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A patient's chart as one feed: medical records, prescriptions, appointments, lab results and
+ * invoices, newest first, keyset-paginated on (occurred at, id).
+ * <p>
+ * A page of {@code size} is built from one bounded range read of {@code size + 1} rows per
+ * source, all issued concurrently on {@code patientTimelineExecutor}, and a k-way merge of the
+ * five already-ordered lists. Because ids are unique across sources, the same (date, id) cursor
+ * positions every source. Prescription and invoice items are then attached for the page only.
+ * Each read runs in its own read-only transaction, so the sources are not one snapshot; an event
+ * committed between reads appears on the next load.
+ */
+@Service
+@RequiredArgsConstructor
+public class PatientTimelineService {
+
+    // Matches PostgreSQL's ordering: timestamps, then UUIDs compared as unsigned bytes
+    private static final Comparator<TimelineEntryDto> NEWEST_FIRST = Comparator
+        .comparing(TimelineEntryDto::occurredAt)
+        .thenComparing(TimelineEntryDto::id, (a, b) -> {
+            int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+            return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+        })
+        .reversed();
+
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final LabResultRepository labResultRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final ThreadPoolTaskExecutor patientTimelineExecutor;
+
+    @AuditedRead(entityType = "Patient", action = "READ_TIMELINE")
+    public CursorPage<TimelineEntryDto> getPatientTimeline(UUID patientId, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        Cursor position = Cursor.decode(cursor);
+        LocalDateTime afterDate = position != null ? position.keyAsDateTime() : null;
+        UUID afterId = position != null ? position.id() : null;
+        Limit limit = CursorPage.limitFor(pageSize);
+
+        List<CompletableFuture<List<TimelineEntryDto>>> sources = List.of(
+            read(() -> position == null
+                ? medicalRecordRepository.findTimelineDtos(patientId, limit)
+                : medicalRecordRepository.findTimelineDtosAfter(patientId, afterDate, afterId, limit), TimelineEntryDto::of),
+            read(() -> position == null
+                ? prescriptionRepository.findTimelineDtos(patientId, limit)
+                : prescriptionRepository.findTimelineDtosAfter(patientId, afterDate, afterId, limit), TimelineEntryDto::of),
+            read(() -> position == null
+                ? appointmentRepository.findTimelineDtos(patientId, limit)
+                : appointmentRepository.findTimelineDtosAfter(patientId, afterDate, afterId, limit), TimelineEntryDto::of),
+            read(() -> position == null
+                ? labResultRepository.findTimelineDtos(patientId, limit)
+                : labResultRepository.findTimelineDtosAfter(patientId, afterDate, afterId, limit), TimelineEntryDto::of),
+            read(() -> position == null
+                ? invoiceRepository.findTimelineDtos(patientId, limit)
+                : invoiceRepository.findTimelineDtosAfter(patientId, afterDate, afterId, limit), TimelineEntryDto::of)
+        );
+
+        List<TimelineEntryDto> merged = merge(sources.stream().map(PatientTimelineService::join).toList(), pageSize + 1);
+        return CursorPage.of(attachItems(merged), pageSize, entry -> Cursor.of(entry.occurredAt(), entry.id()));
+    }
+
+    private <T> CompletableFuture<List<TimelineEntryDto>> read(Supplier<List<T>> query,
+                                                                Function<T, TimelineEntryDto> toEntry) {
+        return CompletableFuture.supplyAsync(() -> query.get().stream().map(toEntry).toList(), patientTimelineExecutor);
+    }
+
+    /**
+     * Merges lists that are each sorted newest first into the first {@code limit} entries overall.
+     */
+    static List<TimelineEntryDto> merge(List<List<TimelineEntryDto>> sources, int limit) {
+        record Head(TimelineEntryDto entry, Iterator<TimelineEntryDto> rest) {}
+
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+            Comparator.comparing(Head::entry, NEWEST_FIRST));
+        for (List<TimelineEntryDto> source : sources) {
+            Iterator<TimelineEntryDto> iterator = source.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        List<TimelineEntryDto> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.entry());
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Loads prescription and invoice items for the page with one query per type, concurrently.
+     */
+    private List<TimelineEntryDto> attachItems(List<TimelineEntryDto> entries) {
+        List<UUID> prescriptionIds = SparseFields.includes("prescription.items")
+            ? idsOf(entries, EntryType.PRESCRIPTION) : List.of();
+        List<UUID> invoiceIds = SparseFields.includes("invoice.items") ? idsOf(entries, EntryType.INVOICE) : List.of();
+        CompletableFuture<Map<UUID, List<PrescriptionItemDto>>> prescriptionItems = prescriptionIds.isEmpty()
+            ? CompletableFuture.completedFuture(Map.of())
+            : CompletableFuture.supplyAsync(() -> groupByParent(
+                prescriptionRepository.findItemDtosByPrescriptionIds(prescriptionIds), PrescriptionItemDto.class),
+                patientTimelineExecutor);
+        CompletableFuture<Map<UUID, List<BillingItemDto>>> invoiceItems = invoiceIds.isEmpty()
+            ? CompletableFuture.completedFuture(Map.of())
+            : CompletableFuture.supplyAsync(() -> groupByParent(
+                invoiceRepository.findItemDtosByInvoiceIds(invoiceIds), BillingItemDto.class),
+                patientTimelineExecutor);
+
+        Map<UUID, List<PrescriptionItemDto>> itemsByPrescription = join(prescriptionItems);
+        Map<UUID, List<BillingItemDto>> itemsByInvoice = join(invoiceItems);
+        return entries.stream()
+            .map(entry -> switch (entry.type()) {
+                case PRESCRIPTION -> TimelineEntryDto.of(
+                    entry.prescription().withItems(itemsByPrescription.getOrDefault(entry.id(), List.of())));
+                case INVOICE -> TimelineEntryDto.of(
+                    entry.invoice().withItems(itemsByInvoice.getOrDefault(entry.id(), List.of())));
+                default -> entry;
+            })
+            .toList();
+    }
+
+    private static List<UUID> idsOf(List<TimelineEntryDto> entries, EntryType type) {
+        return entries.stream().filter(entry -> entry.type() == type).map(TimelineEntryDto::id).toList();
+    }
+
+    private static <T> Map<UUID, List<T>> groupByParent(List<Object[]> rows, Class<T> itemType) {
+        Map<UUID, List<T>> itemsByParent = new HashMap<>();
+        for (Object[] row : rows) {
+            itemsByParent.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add(itemType.cast(row[1]));
+        }
+        return itemsByParent;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.medico.patient.service;
 
+import com.medico.common.audit.AuditTrail;
+import com.medico.common.audit.AuditedRead;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.event.StateChangedEvent.State;
 import com.medico.common.exception.BusinessException;
 import com.medico.common.exception.ResourceNotFoundException;
+import com.medico.common.web.SparseFields;
 import com.medico.patient.domain.*;
+import com.medico.patient.domain.Prescription.PrescriptionPriority;
 import com.medico.patient.domain.Prescription.PrescriptionStatus;
 import com.medico.patient.dto.*;
 import com.medico.patient.mapper.PatientMapper;
 import com.medico.patient.repository.AppointmentRepository;
 import com.medico.patient.repository.PatientRepository;
 import com.medico.patient.repository.PrescriptionRepository;
+import com.medico.pharmacy.dto.ScreeningAlertDto;
+import com.medico.pharmacy.service.MedicationScreeningService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -20,7 +30,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -34,22 +47,21 @@ public class PrescriptionService {
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
     private final PatientMapper patientMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MedicationScreeningService medicationScreeningService;
+    private final ObjectProvider<AuditTrail> auditTrail;
     private static final AtomicLong rxCounter = new AtomicLong(System.currentTimeMillis() % 100000);
 
+    @AuditedRead(entityType = "Patient", action = "READ_PRESCRIPTIONS")
     public PageResponse<PrescriptionDto> getPatientPrescriptions(UUID patientId, Pageable pageable) {
-        Page<Prescription> prescriptions = prescriptionRepository.findByPatientIdOrderByPrescriptionDateDesc(patientId, pageable);
-        return PageResponse.from(prescriptions, prescriptions.getContent().stream()
-            .map(patientMapper::toDto)
-            .toList());
+        return withItems(prescriptionRepository.findDtosByPatientId(patientId, pageable));
     }
 
     public PageResponse<PrescriptionDto> getPrescriptionsByStatus(PrescriptionStatus status, Pageable pageable) {
-        Page<Prescription> prescriptions = prescriptionRepository.findByStatusOrderByPrescriptionDateDesc(status, pageable);
-        return PageResponse.from(prescriptions, prescriptions.getContent().stream()
-            .map(patientMapper::toDto)
-            .toList());
+        return withItems(prescriptionRepository.findDtosByStatus(status, pageable));
     }
 
+    @AuditedRead(entityType = "Prescription")
     public PrescriptionDto getPrescriptionById(UUID id) {
         Prescription prescription = findPrescriptionById(id);
         return patientMapper.toDto(prescription);
@@ -61,11 +73,25 @@ public class PrescriptionService {
         return patientMapper.toDto(prescription);
     }
 
+    /**
+     * Screens a draft prescription for interactions with itself and the patient's active
+     * prescriptions, and against the patient's allergies, without saving it.
+     */
+    public List<ScreeningAlertDto> screenPrescription(CreatePrescriptionRequest request) {
+        Patient patient = patientRepository.findById(request.patientId())
+            .orElseThrow(() -> new ResourceNotFoundException("Patient", "id", request.patientId()));
+        return medicationScreeningService.screen(patient, request.items());
+    }
+
     @Transactional
     public PrescriptionDto createPrescription(CreatePrescriptionRequest request) {
         Patient patient = patientRepository.findById(request.patientId())
             .orElseThrow(() -> new ResourceNotFoundException("Patient", "id", request.patientId()));
 
+        boolean screened = medicationScreeningService.hasRules();
+        List<ScreeningAlertDto> alerts = medicationScreeningService.screen(patient, request.items());
+        medicationScreeningService.checkPrescribable(alerts, request.overrideAlerts());
+
         Prescription prescription = Prescription.builder()
             .prescriptionNumber(generatePrescriptionNumber())
             .patient(patient)
@@ -74,6 +100,7 @@ public class PrescriptionService {
             .prescriptionDate(LocalDateTime.now())
             .validUntil(request.validUntil() != null ? request.validUntil() : LocalDate.now().plusMonths(1))
             .status(PrescriptionStatus.ACTIVE)
+            .priority(request.priority() != null ? request.priority() : PrescriptionPriority.ROUTINE)
             .diagnosis(request.diagnosis())
             .notes(request.notes())
             .build();
@@ -90,6 +117,19 @@ public class PrescriptionService {
         }
 
         Prescription savedPrescription = prescriptionRepository.save(prescription);
+        String alertSummary = String.join("; ", alerts.stream().map(alert -> alert.severity() + " " + alert.message()).toList());
+        if (!alerts.isEmpty()) {
+            log.warn("Prescription {} created with {} screening alerts{}: {}", savedPrescription.getPrescriptionNumber(),
+                alerts.size(), request.overrideAlerts() ? " (overridden)" : "", alertSummary);
+        }
+        if (request.overrideAlerts()) {
+            // Every override is recorded: without rules nothing was screened, so the override is all there is
+            String overridden = !screened ? "no interaction rules loaded" : alerts.isEmpty() ? "no alerts" : alertSummary;
+            auditTrail.ifAvailable(trail -> trail.record("OVERRIDE_SCREENING", "Prescription",
+                savedPrescription.getId(), null, overridden));
+        }
+        eventPublisher.publishEvent(StateChangedEvent.created(Prescription.class, savedPrescription.getId(),
+            State.of(savedPrescription.getStatus(), null)));
         log.info("Created prescription {} for patient {}", savedPrescription.getPrescriptionNumber(), patient.getMedicalRecordNumber());
 
         return patientMapper.toDto(savedPrescription);
@@ -103,8 +143,10 @@ public class PrescriptionService {
             throw new BusinessException("Cannot update a cancelled prescription");
         }
 
+        PrescriptionStatus previousStatus = prescription.getStatus();
         prescription.setStatus(status);
         Prescription updatedPrescription = prescriptionRepository.save(prescription);
+        publishStatusChange(updatedPrescription, previousStatus);
         log.info("Updated prescription {} status to {}", prescription.getPrescriptionNumber(), status);
 
         return patientMapper.toDto(updatedPrescription);
@@ -118,11 +160,19 @@ public class PrescriptionService {
             throw new BusinessException("Cannot cancel a fully dispensed prescription");
         }
 
+        PrescriptionStatus previousStatus = prescription.getStatus();
         prescription.setStatus(PrescriptionStatus.CANCELLED);
         prescriptionRepository.save(prescription);
+        publishStatusChange(prescription, previousStatus);
         log.info("Cancelled prescription {}", prescription.getPrescriptionNumber());
     }
 
+    private void publishStatusChange(Prescription prescription, PrescriptionStatus previousStatus) {
+        eventPublisher.publishEvent(StateChangedEvent.changed(Prescription.class, prescription.getId(),
+            State.of(previousStatus, null), State.of(prescription.getStatus(), null)));
+    }
+
+    @AuditedRead(entityType = "Patient", action = "READ_PRESCRIPTIONS")
     public List<PrescriptionDto> getActivePrescriptionsForPatient(UUID patientId) {
         List<Prescription> prescriptions = prescriptionRepository.findByPatientIdAndStatus(patientId, PrescriptionStatus.ACTIVE);
         return patientMapper.toPrescriptionDtoList(prescriptions);
@@ -149,5 +199,21 @@ public class PrescriptionService {
 
         return rxNumber;
     }
-}
 
+    /**
+     * Attaches items to a page of prescription projections with a single query for the whole page.
+     */
+    private PageResponse<PrescriptionDto> withItems(Page<PrescriptionDto> prescriptions) {
+        if (prescriptions.isEmpty() || !SparseFields.includes("items")) {
+            return PageResponse.from(prescriptions);
+        }
+        Map<UUID, List<PrescriptionItemDto>> itemsByPrescription = new HashMap<>();
+        for (Object[] row : prescriptionRepository.findItemDtosByPrescriptionIds(
+                prescriptions.getContent().stream().map(PrescriptionDto::id).toList())) {
+            itemsByPrescription.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((PrescriptionItemDto) row[1]);
+        }
+        return PageResponse.from(prescriptions, prescriptions.getContent().stream()
+            .map(prescription -> prescription.withItems(itemsByPrescription.getOrDefault(prescription.id(), List.of())))
+            .toList());
+    }
+}
@@ -1,6 +1,8 @@
 package com.medico.pharmacy.controller;
 
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.pharmacy.dto.*;
 import com.medico.pharmacy.service.DispensingService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,6 +38,7 @@ public class DispensingController {
     @GetMapping("/pharmacist/{pharmacistId}")
     @Operation(summary = "Get dispensings by pharmacist", description = "Get all dispensing records by a pharmacist")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<DispensingDto>> getDispensingsByPharmacist(
         @PathVariable UUID pharmacistId,
         @PageableDefault(size = 20, sort = "dispensedAt", direction = Sort.Direction.DESC) Pageable pageable
@@ -43,6 +46,18 @@ public class DispensingController {
         return ResponseEntity.ok(dispensingService.getDispensingsByPharmacist(pharmacistId, pageable));
     }
 
+    @GetMapping("/pharmacist/{pharmacistId}/cursor")
+    @Operation(summary = "Get dispensings by pharmacist by cursor", description = "Keyset-paginated dispensing records of a pharmacist, newest first; pass nextCursor to continue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    @QueryBudget(1)
+    public ResponseEntity<CursorPage<DispensingDto>> getDispensingsByPharmacistByCursor(
+        @PathVariable UUID pharmacistId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(dispensingService.getDispensingsByPharmacistByCursor(pharmacistId, cursor, size));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get dispensing by ID", description = "Retrieve a specific dispensing record")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
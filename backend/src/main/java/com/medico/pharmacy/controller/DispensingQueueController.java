@@ -0,0 +1,66 @@
+package com.medico.pharmacy.controller;
+
+import com.medico.pharmacy.dto.DispensingQueueEntryDto;
+import com.medico.pharmacy.service.DispensingQueueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/dispensing/queue")
+@RequiredArgsConstructor
+@Tag(name = "Dispensing Queue", description = "APIs for the pharmacist work queue")
+public class DispensingQueueController {
+
+    private final DispensingQueueService dispensingQueueService;
+
+    @GetMapping
+    @Operation(summary = "Get dispensing queue",
+        description = "Prescriptions waiting to be dispensed, most urgent and longest waiting first, with their claims")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<List<DispensingQueueEntryDto>> getQueue(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(dispensingQueueService.getQueue(Math.max(1, limit)));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream dispensing queue",
+        description = "Server-sent events: an initial 'snapshot' of the queue followed by batched 'changes' events")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public SseEmitter streamQueue() {
+        return dispensingQueueService.subscribe();
+    }
+
+    @PostMapping("/next")
+    @Operation(summary = "Claim next prescription",
+        description = "Claim the most urgent prescription nobody is working on; 204 when there is none")
+    @PreAuthorize("hasRole('PHARMACIST')")
+    public ResponseEntity<DispensingQueueEntryDto> claimNext() {
+        return dispensingQueueService.claimNext()
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/{prescriptionId}/claim")
+    @Operation(summary = "Claim prescription",
+        description = "Claim a prescription for dispensing, or renew the lease on one already claimed")
+    @PreAuthorize("hasRole('PHARMACIST')")
+    public ResponseEntity<DispensingQueueEntryDto> claim(@PathVariable UUID prescriptionId) {
+        return ResponseEntity.ok(dispensingQueueService.claim(prescriptionId));
+    }
+
+    @DeleteMapping("/{prescriptionId}/claim")
+    @Operation(summary = "Release prescription", description = "Return a claimed prescription to the queue")
+    @PreAuthorize("hasRole('PHARMACIST')")
+    public ResponseEntity<Void> release(@PathVariable UUID prescriptionId) {
+        dispensingQueueService.release(prescriptionId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,6 +1,8 @@
 package com.medico.pharmacy.controller;
 
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.pharmacy.domain.Inventory.InventoryStatus;
 import com.medico.pharmacy.dto.*;
 import com.medico.pharmacy.service.InventoryService;
@@ -30,15 +32,28 @@ public class InventoryController {
     @GetMapping
     @Operation(summary = "Get all inventory", description = "Retrieve a paginated list of all inventory items")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<InventoryDto>> getAllInventory(
         @PageableDefault(size = 20, sort = "expiryDate", direction = Sort.Direction.ASC) Pageable pageable
     ) {
         return ResponseEntity.ok(inventoryService.getAllInventory(pageable));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get inventory by cursor", description = "Keyset-paginated list of inventory ordered by expiry date; pass nextCursor to continue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    @QueryBudget(1)
+    public ResponseEntity<CursorPage<InventoryDto>> getAllInventoryByCursor(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(inventoryService.getAllInventoryByCursor(cursor, size));
+    }
+
     @GetMapping("/medication/{medicationId}")
     @Operation(summary = "Get inventory by medication", description = "Get inventory for a specific medication")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<InventoryDto>> getInventoryByMedication(
         @PathVariable UUID medicationId,
         @PageableDefault(size = 20) Pageable pageable
@@ -49,6 +64,7 @@ public class InventoryController {
     @GetMapping("/status/{status}")
     @Operation(summary = "Get inventory by status", description = "Get inventory filtered by status")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<InventoryDto>> getInventoryByStatus(
         @PathVariable InventoryStatus status,
         @PageableDefault(size = 20) Pageable pageable
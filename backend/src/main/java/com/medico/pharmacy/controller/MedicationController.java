@@ -1,8 +1,10 @@
 package com.medico.pharmacy.controller;
 
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.pharmacy.domain.Medication.MedicationCategory;
 import com.medico.pharmacy.dto.*;
+import com.medico.pharmacy.service.MedicationScreeningService;
 import com.medico.pharmacy.service.MedicationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -25,10 +27,12 @@ import java.util.UUID;
 public class MedicationController {
 
     private final MedicationService medicationService;
+    private final MedicationScreeningService medicationScreeningService;
 
     @GetMapping
     @Operation(summary = "Get all medications", description = "Retrieve a paginated list of all active medications")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<MedicationDto>> getAllMedications(
         @PageableDefault(size = 20, sort = "name", direction = Sort.Direction.ASC) Pageable pageable
     ) {
@@ -38,6 +42,7 @@ public class MedicationController {
     @GetMapping("/category/{category}")
     @Operation(summary = "Get medications by category", description = "Get medications filtered by category")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<MedicationDto>> getMedicationsByCategory(
         @PathVariable MedicationCategory category,
         @PageableDefault(size = 20, sort = "name", direction = Sort.Direction.ASC) Pageable pageable
@@ -48,6 +53,7 @@ public class MedicationController {
     @GetMapping("/search")
     @Operation(summary = "Search medications", description = "Search medications by name or code")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<MedicationDto>> searchMedications(
         @RequestParam String query,
         @PageableDefault(size = 20) Pageable pageable
@@ -101,5 +107,19 @@ public class MedicationController {
     public ResponseEntity<Long> getMedicationCount() {
         return ResponseEntity.ok(medicationService.getActiveMedicationCount());
     }
-}
 
+    @GetMapping("/screening-rules")
+    @Operation(summary = "Get screening rules", description = "Source and size of the loaded interaction and allergy rules")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<ScreeningRulesDto> getScreeningRules() {
+        return ResponseEntity.ok(medicationScreeningService.getRules());
+    }
+
+    @PostMapping("/screening-rules/reload")
+    @Operation(summary = "Reload screening rules",
+        description = "Reload the interaction and allergy rule file now; an invalid file keeps the current rules")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScreeningRulesDto> reloadScreeningRules() {
+        return ResponseEntity.ok(medicationScreeningService.reloadRules());
+    }
+}
@@ -1,6 +1,7 @@
 package com.medico.pharmacy.controller;
 
 import com.medico.common.dto.PageResponse;
+import com.medico.common.persistence.QueryBudget;
 import com.medico.pharmacy.dto.*;
 import com.medico.pharmacy.service.SupplierService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,6 +29,7 @@ public class SupplierController {
     @GetMapping
     @Operation(summary = "Get all suppliers", description = "Retrieve a paginated list of all active suppliers")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<SupplierDto>> getAllSuppliers(
         @PageableDefault(size = 20, sort = "name", direction = Sort.Direction.ASC) Pageable pageable
     ) {
@@ -37,6 +39,7 @@ public class SupplierController {
     @GetMapping("/search")
     @Operation(summary = "Search suppliers", description = "Search suppliers by name or code")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    @QueryBudget(2)
     public ResponseEntity<PageResponse<SupplierDto>> searchSuppliers(
         @RequestParam String query,
         @PageableDefault(size = 20) Pageable pageable
@@ -0,0 +1,15 @@
+package com.medico.pharmacy.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record DispensingQueueChangesDto(
+    // Entries added to the queue or changed, including claims taken, renewed or released
+    List<DispensingQueueEntryDto> updated,
+    // Prescriptions that left the queue: dispensed, cancelled or expired
+    List<UUID> removed
+) {
+    public boolean isEmpty() {
+        return updated.isEmpty() && removed.isEmpty();
+    }
+}
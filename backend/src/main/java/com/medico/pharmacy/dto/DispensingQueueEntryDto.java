@@ -0,0 +1,28 @@
+package com.medico.pharmacy.dto;
+
+import com.medico.patient.domain.Prescription.PrescriptionPriority;
+import com.medico.patient.domain.Prescription.PrescriptionStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record DispensingQueueEntryDto(
+    UUID prescriptionId,
+    String prescriptionNumber,
+    UUID patientId,
+    String patientName,
+    String doctorName,
+    PrescriptionPriority priority,
+    PrescriptionStatus status,
+    LocalDateTime prescriptionDate,
+    Integer itemCount,
+    // The pharmacist working on the prescription, until the lease expires
+    String claimedBy,
+    String claimedByName,
+    LocalDateTime leaseExpiresAt
+) {
+    public DispensingQueueEntryDto withClaim(String claimedBy, String claimedByName, LocalDateTime leaseExpiresAt) {
+        return new DispensingQueueEntryDto(prescriptionId, prescriptionNumber, patientId, patientName, doctorName,
+            priority, status, prescriptionDate, itemCount, claimedBy, claimedByName, leaseExpiresAt);
+    }
+}
@@ -0,0 +1,24 @@
+package com.medico.pharmacy.dto;
+
+public record ScreeningAlertDto(
+    AlertType alertType,
+    Severity severity,
+    String medicationName,
+    // The other medication, or the allergy, the prescribed medication conflicts with
+    String conflictsWith,
+    // Set when the other medication is on one of the patient's current prescriptions
+    String prescriptionNumber,
+    String message
+) {
+    public enum AlertType {
+        INTERACTION,
+        ALLERGY
+    }
+
+    public enum Severity {
+        MINOR,
+        MODERATE,
+        MAJOR,
+        CONTRAINDICATED
+    }
+}
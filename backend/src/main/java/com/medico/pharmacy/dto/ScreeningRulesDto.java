@@ -0,0 +1,11 @@
+package com.medico.pharmacy.dto;
+
+import java.time.LocalDateTime;
+
+public record ScreeningRulesDto(
+    String source,
+    LocalDateTime loadedAt,
+    int classMemberships,
+    int interactionRules,
+    int allergyRules
+) {}
@@ -0,0 +1,19 @@
+package com.medico.pharmacy.event;
+
+import com.medico.pharmacy.domain.Inventory.InventoryStatus;
+
+import java.util.UUID;
+
+/**
+ * Outbox payload recorded for every dispensing, with the inventory batch state it left behind.
+ */
+public record MedicationDispensed(
+    UUID prescriptionId,
+    UUID inventoryId,
+    String medicationCode,
+    int quantity,
+    int availableQuantity,
+    InventoryStatus inventoryStatus
+) {
+    public static final String TYPE = "MedicationDispensed";
+}
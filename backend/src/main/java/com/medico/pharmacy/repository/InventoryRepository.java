@@ -1,7 +1,10 @@
 package com.medico.pharmacy.repository;
 
+import com.medico.common.persistence.StreamingQuery;
 import com.medico.pharmacy.domain.Inventory;
 import com.medico.pharmacy.domain.Inventory.InventoryStatus;
+import com.medico.pharmacy.dto.InventoryDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,12 +15,11 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
 
-    Page<Inventory> findByMedicationId(UUID medicationId, Pageable pageable);
-
     List<Inventory> findByMedicationIdAndStatusNot(UUID medicationId, InventoryStatus excludeStatus);
 
     @Query("SELECT i FROM Inventory i WHERE i.medication.id = :medicationId AND i.status = 'AVAILABLE' AND i.expiryDate > :today ORDER BY i.expiryDate ASC")
@@ -29,8 +31,6 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
     @Query("SELECT i FROM Inventory i WHERE i.quantity - COALESCE(i.reservedQuantity, 0) <= i.medication.reorderLevel AND i.status NOT IN ('EXPIRED', 'OUT_OF_STOCK')")
     List<Inventory> findLowStockItems();
 
-    Page<Inventory> findByStatus(InventoryStatus status, Pageable pageable);
-
     @Query("SELECT SUM(i.quantity - COALESCE(i.reservedQuantity, 0)) FROM Inventory i WHERE i.medication.id = :medicationId AND i.status = 'AVAILABLE' AND i.expiryDate > :today")
     Integer getTotalAvailableQuantity(@Param("medicationId") UUID medicationId, @Param("today") LocalDate today);
 
@@ -39,5 +39,59 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
 
     @Query("SELECT COUNT(i) FROM Inventory i WHERE i.expiryDate <= :expiryDate AND i.status != 'EXPIRED'")
     long countExpiringItems(@Param("expiryDate") LocalDate expiryDate);
-}
 
+    String INVENTORY_DTO =
+        "SELECT new com.medico.pharmacy.dto.InventoryDto(i.id, m.id, m.name, m.code, i.batchNumber, i.quantity, " +
+        "i.reservedQuantity, i.quantity - COALESCE(i.reservedQuantity, 0), i.expiryDate, i.manufactureDate, " +
+        "i.location, i.status, s.id, s.name, i.notes, " +
+        "CASE WHEN i.expiryDate < :today THEN true ELSE false END, " +
+        "CASE WHEN i.expiryDate < :expiringBefore THEN true ELSE false END, " +
+        "i.createdAt, i.updatedAt) " +
+        "FROM Inventory i JOIN i.medication m LEFT JOIN i.supplier s ";
+
+    @Query(value = INVENTORY_DTO,
+           countQuery = "SELECT COUNT(i) FROM Inventory i")
+    Page<InventoryDto> findAllDtos(
+        @Param("today") LocalDate today,
+        @Param("expiringBefore") LocalDate expiringBefore,
+        Pageable pageable
+    );
+
+    @Query(value = INVENTORY_DTO + "WHERE m.id = :medicationId",
+           countQuery = "SELECT COUNT(i) FROM Inventory i WHERE i.medication.id = :medicationId")
+    Page<InventoryDto> findDtosByMedicationId(
+        @Param("medicationId") UUID medicationId,
+        @Param("today") LocalDate today,
+        @Param("expiringBefore") LocalDate expiringBefore,
+        Pageable pageable
+    );
+
+    @Query(value = INVENTORY_DTO + "WHERE i.status = :status",
+           countQuery = "SELECT COUNT(i) FROM Inventory i WHERE i.status = :status")
+    Page<InventoryDto> findDtosByStatus(
+        @Param("status") InventoryStatus status,
+        @Param("today") LocalDate today,
+        @Param("expiringBefore") LocalDate expiringBefore,
+        Pageable pageable
+    );
+
+    @Query(INVENTORY_DTO + "ORDER BY i.expiryDate ASC, i.id ASC")
+    List<InventoryDto> findFirstDtos(
+        @Param("today") LocalDate today,
+        @Param("expiringBefore") LocalDate expiringBefore,
+        Limit limit
+    );
+
+    @Query(INVENTORY_DTO + "WHERE (i.expiryDate, i.id) > (:afterDate, :afterId) ORDER BY i.expiryDate ASC, i.id ASC")
+    List<InventoryDto> findDtosAfter(
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterId") UUID afterId,
+        @Param("today") LocalDate today,
+        @Param("expiringBefore") LocalDate expiringBefore,
+        Limit limit
+    );
+
+    @StreamingQuery
+    @Query(INVENTORY_DTO + "ORDER BY m.name, i.expiryDate, i.id")
+    Stream<InventoryDto> streamAllDtos(@Param("today") LocalDate today, @Param("expiringBefore") LocalDate expiringBefore);
+}
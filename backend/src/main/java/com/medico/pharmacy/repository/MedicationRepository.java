@@ -1,5 +1,6 @@
 package com.medico.pharmacy.repository;
 
+import com.medico.common.persistence.CatalogQuery;
 import com.medico.pharmacy.domain.Medication;
 import com.medico.pharmacy.domain.Medication.MedicationCategory;
 import org.springframework.data.domain.Page;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,12 +18,15 @@ import java.util.UUID;
 @Repository
 public interface MedicationRepository extends JpaRepository<Medication, UUID> {
 
+    @CatalogQuery
     Optional<Medication> findByCode(String code);
 
     boolean existsByCode(String code);
 
+    @CatalogQuery
     Page<Medication> findByActiveTrue(Pageable pageable);
 
+    @CatalogQuery
     Page<Medication> findByCategoryAndActiveTrue(MedicationCategory category, Pageable pageable);
 
     @Query("SELECT m FROM Medication m WHERE m.active = true AND " +
@@ -35,5 +40,11 @@ public interface MedicationRepository extends JpaRepository<Medication, UUID> {
 
     @Query("SELECT COUNT(m) FROM Medication m WHERE m.active = true")
     long countActiveMedications();
+
+    /**
+     * Code and generic name of each medication, the terms interaction rules refer to.
+     */
+    @Query("SELECT m.id, m.code, m.genericName FROM Medication m WHERE m.id IN :ids")
+    List<Object[]> findScreeningTermsByIds(@Param("ids") Collection<UUID> ids);
 }
 
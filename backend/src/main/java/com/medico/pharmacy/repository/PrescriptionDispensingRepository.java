@@ -2,8 +2,11 @@ package com.medico.pharmacy.repository;
 
 import com.medico.pharmacy.domain.PrescriptionDispensing;
 import com.medico.pharmacy.domain.PrescriptionDispensing.DispensingStatus;
+import com.medico.pharmacy.dto.DispensingDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,11 +23,9 @@ public interface PrescriptionDispensingRepository extends JpaRepository<Prescrip
 
     List<PrescriptionDispensing> findByPrescriptionItemId(UUID prescriptionItemId);
 
+    @EntityGraph(attributePaths = {"prescription", "prescriptionItem", "inventory"})
     Page<PrescriptionDispensing> findByStatus(DispensingStatus status, Pageable pageable);
 
-    @Query("SELECT pd FROM PrescriptionDispensing pd WHERE pd.dispensedBy = :pharmacistId ORDER BY pd.dispensedAt DESC")
-    Page<PrescriptionDispensing> findByPharmacist(@Param("pharmacistId") UUID pharmacistId, Pageable pageable);
-
     @Query("SELECT pd FROM PrescriptionDispensing pd WHERE pd.dispensedAt BETWEEN :start AND :end")
     List<PrescriptionDispensing> findByDateRange(
         @Param("start") LocalDateTime start,
@@ -40,5 +41,27 @@ public interface PrescriptionDispensingRepository extends JpaRepository<Prescrip
 
     @Query("SELECT COUNT(pd) FROM PrescriptionDispensing pd WHERE pd.dispensedAt BETWEEN :start AND :end")
     long countDispensingsInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-}
 
+    String DISPENSING_DTO =
+        "SELECT new com.medico.pharmacy.dto.DispensingDto(pd.id, rx.id, rx.prescriptionNumber, item.id, " +
+        "item.medicationName, inv.id, inv.batchNumber, pd.dispensedQuantity, pd.dispensedAt, pd.dispensedBy, " +
+        "pd.pharmacistName, pd.status, pd.notes, pd.createdAt) " +
+        "FROM PrescriptionDispensing pd LEFT JOIN pd.prescription rx LEFT JOIN pd.prescriptionItem item " +
+        "LEFT JOIN pd.inventory inv ";
+
+    @Query(value = DISPENSING_DTO + "WHERE pd.dispensedBy = :pharmacistId ORDER BY pd.dispensedAt DESC",
+           countQuery = "SELECT COUNT(pd) FROM PrescriptionDispensing pd WHERE pd.dispensedBy = :pharmacistId")
+    Page<DispensingDto> findDtosByPharmacist(@Param("pharmacistId") UUID pharmacistId, Pageable pageable);
+
+    @Query(DISPENSING_DTO + "WHERE pd.dispensedBy = :pharmacistId ORDER BY pd.dispensedAt DESC, pd.id DESC")
+    List<DispensingDto> findFirstDtosByPharmacist(@Param("pharmacistId") UUID pharmacistId, Limit limit);
+
+    @Query(DISPENSING_DTO + "WHERE pd.dispensedBy = :pharmacistId AND (pd.dispensedAt, pd.id) < (:afterDate, :afterId) " +
+           "ORDER BY pd.dispensedAt DESC, pd.id DESC")
+    List<DispensingDto> findDtosByPharmacistAfter(
+        @Param("pharmacistId") UUID pharmacistId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+}
@@ -1,5 +1,6 @@
 package com.medico.pharmacy.repository;
 
+import com.medico.common.persistence.CatalogQuery;
 import com.medico.pharmacy.domain.Supplier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,10 +15,12 @@ import java.util.UUID;
 @Repository
 public interface SupplierRepository extends JpaRepository<Supplier, UUID> {
 
+    @CatalogQuery
     Optional<Supplier> findByCode(String code);
 
     boolean existsByCode(String code);
 
+    @CatalogQuery
     Page<Supplier> findByActiveTrue(Pageable pageable);
 
     @Query("SELECT s FROM Supplier s WHERE s.active = true AND " +
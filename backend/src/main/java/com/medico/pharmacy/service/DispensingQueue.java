@@ -0,0 +1,170 @@
+package com.medico.pharmacy.service;
+
+import com.medico.common.exception.BusinessException;
+import com.medico.pharmacy.dto.DispensingQueueChangesDto;
+import com.medico.pharmacy.dto.DispensingQueueEntryDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * In-memory copy of the dispensing queue: the prescriptions waiting to be dispensed, kept sorted
+ * by priority and then by how long they have been waiting, with the pharmacist claims last read
+ * from the database. The database decides who holds a claim; this copy orders the queue and
+ * feeds the terminals. Every change is also recorded until {@link #drainChanges()} hands it to
+ * subscribers. All methods are synchronized; each is a map lookup or an ordered set update on a
+ * queue of at most a few thousand entries.
+ * <p>
+ * Single-entry updates are numbered, so that a full refresh read before one of them does not
+ * undo it: {@link #replaceAll} leaves alone the entries updated after the {@link #sequence()}
+ * taken before its read.
+ */
+final class DispensingQueue {
+
+    static final Comparator<DispensingQueueEntryDto> ORDER = Comparator
+        .comparing(DispensingQueueEntryDto::priority)
+        .thenComparing(DispensingQueueEntryDto::prescriptionDate)
+        .thenComparing(DispensingQueueEntryDto::prescriptionId);
+
+    private final Map<UUID, DispensingQueueEntryDto> entries = new HashMap<>();
+    private final NavigableSet<DispensingQueueEntryDto> ordered = new TreeSet<>(ORDER);
+    private final Map<UUID, DispensingQueueEntryDto> updated = new LinkedHashMap<>();
+    private final Set<UUID> removed = new LinkedHashSet<>();
+    // Sequence number of the last single-entry update per prescription, until a refresh covers it
+    private final Map<UUID, Long> updatedAt = new HashMap<>();
+    private long sequence;
+
+    /**
+     * Number of the last single-entry update; pass it to {@link #replaceAll} for a read started now.
+     */
+    synchronized long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Adds or refreshes an entry read from the database.
+     */
+    synchronized void put(DispensingQueueEntryDto entry) {
+        updatedAt.put(entry.prescriptionId(), ++sequence);
+        apply(entry, LocalDateTime.now());
+    }
+
+    synchronized void remove(UUID prescriptionId) {
+        updatedAt.put(prescriptionId, ++sequence);
+        drop(prescriptionId);
+    }
+
+    /**
+     * Replaces the contents with a fresh read of the waiting prescriptions, except for the entries
+     * put or removed since {@code readFrom}, which are newer than the read. Only the differences
+     * are recorded as changes.
+     */
+    synchronized void replaceAll(Collection<DispensingQueueEntryDto> fresh, long readFrom) {
+        Map<UUID, DispensingQueueEntryDto> byId = new HashMap<>();
+        fresh.forEach(entry -> byId.put(entry.prescriptionId(), entry));
+        for (UUID id : List.copyOf(entries.keySet())) {
+            if (!byId.containsKey(id) && !isNewer(id, readFrom)) {
+                drop(id);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        byId.values().stream()
+            .filter(entry -> !isNewer(entry.prescriptionId(), readFrom))
+            .forEach(entry -> apply(entry, now));
+        updatedAt.values().removeIf(updateSequence -> updateSequence <= readFrom);
+    }
+
+    /**
+     * Up to {@code limit} entries in queue order that nobody holds, the candidates for the next claim.
+     */
+    synchronized List<DispensingQueueEntryDto> unclaimed(LocalDateTime now, int limit) {
+        return ordered.stream()
+            .filter(entry -> !isHeld(entry, now))
+            .limit(limit)
+            .toList();
+    }
+
+    /**
+     * Clears the claims whose lease has run out and returns how many there were.
+     */
+    synchronized int expireLeases(LocalDateTime now) {
+        List<DispensingQueueEntryDto> expired = entries.values().stream()
+            .filter(entry -> entry.claimedBy() != null && !isHeld(entry, now))
+            .toList();
+        expired.forEach(entry -> replace(entry, entry.withClaim(null, null, null)));
+        return expired.size();
+    }
+
+    synchronized List<DispensingQueueEntryDto> snapshot(int limit) {
+        return ordered.stream().limit(limit).toList();
+    }
+
+    synchronized DispensingQueueChangesDto drainChanges() {
+        DispensingQueueChangesDto changes = new DispensingQueueChangesDto(
+            updated.values().stream().sorted(ORDER).toList(), new ArrayList<>(removed));
+        updated.clear();
+        removed.clear();
+        return changes;
+    }
+
+    /**
+     * Fails when another pharmacist holds a current lease on the prescription.
+     */
+    static void checkNotHeldByOther(DispensingQueueEntryDto entry, String pharmacist, LocalDateTime now) {
+        if (isHeld(entry, now) && !Objects.equals(entry.claimedBy(), pharmacist)) {
+            throw new BusinessException("Prescription " + entry.prescriptionNumber() + " is being dispensed by "
+                + (entry.claimedByName() != null ? entry.claimedByName() : entry.claimedBy()));
+        }
+    }
+
+    private boolean isNewer(UUID prescriptionId, long readFrom) {
+        return updatedAt.getOrDefault(prescriptionId, Long.MIN_VALUE) > readFrom;
+    }
+
+    private void apply(DispensingQueueEntryDto entry, LocalDateTime now) {
+        if (entry.claimedBy() != null && !isHeld(entry, now)) {
+            // Expired claims stay in the database until the next claim overwrites them
+            entry = entry.withClaim(null, null, null);
+        }
+        DispensingQueueEntryDto existing = entries.get(entry.prescriptionId());
+        if (!entry.equals(existing)) {
+            replace(existing, entry);
+        }
+    }
+
+    private void drop(UUID prescriptionId) {
+        DispensingQueueEntryDto existing = entries.remove(prescriptionId);
+        if (existing != null) {
+            ordered.remove(existing);
+            updated.remove(prescriptionId);
+            removed.add(prescriptionId);
+        }
+    }
+
+    private DispensingQueueEntryDto replace(DispensingQueueEntryDto existing, DispensingQueueEntryDto entry) {
+        if (existing != null) {
+            ordered.remove(existing);
+        }
+        entries.put(entry.prescriptionId(), entry);
+        ordered.add(entry);
+        removed.remove(entry.prescriptionId());
+        updated.put(entry.prescriptionId(), entry);
+        return entry;
+    }
+
+    private static boolean isHeld(DispensingQueueEntryDto entry, LocalDateTime now) {
+        return entry.claimedBy() != null && entry.leaseExpiresAt().isAfter(now);
+    }
+}
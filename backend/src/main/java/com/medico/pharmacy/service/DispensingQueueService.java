@@ -0,0 +1,317 @@
+package com.medico.pharmacy.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.exception.BusinessException;
+import com.medico.patient.domain.Prescription;
+import com.medico.patient.domain.Prescription.PrescriptionStatus;
+import com.medico.patient.repository.PrescriptionRepository;
+import com.medico.pharmacy.dto.DispensingQueueChangesDto;
+import com.medico.pharmacy.dto.DispensingQueueEntryDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pharmacist work queue. Prescriptions waiting to be dispensed are held in a
+ * {@link DispensingQueue}, kept current from the prescription state changes published when
+ * prescriptions are created, dispensed or cancelled, and reconciled with the database every
+ * {@code reconcile-interval} to pick up anything else, such as expiry or claims taken through
+ * another instance. Pharmacists claim prescriptions for a {@code lease} that they renew while
+ * working; dispensing a prescription someone else holds is refused. Claims are stored on the
+ * prescription and taken with conditional updates, so they hold across instances; the in-memory
+ * queue only orders the candidates. Terminals subscribe to server-sent events: a
+ * {@code snapshot} of the queue, then {@code changes} batched every {@code push-interval}.
+ */
+@Slf4j
+@Service
+public class DispensingQueueService {
+
+    private static final Set<String> WAITING =
+        Set.of(PrescriptionStatus.ACTIVE.name(), PrescriptionStatus.PARTIALLY_DISPENSED.name());
+    // Queue entries tried by claimNext before giving up, in case other instances took the first ones
+    private static final int CLAIM_NEXT_CANDIDATES = 10;
+    // Claim updates tried by claim while the holder keeps changing under it
+    private static final int CLAIM_ATTEMPTS = 2;
+
+    private final PrescriptionRepository prescriptionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransaction;
+    private final DispensingQueue queue = new DispensingQueue();
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loaded;
+    private volatile Instant lastSentAt = Instant.now();
+
+    @Value("${medico.pharmacy.queue.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${medico.pharmacy.queue.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${medico.pharmacy.queue.stream.heartbeat:PT15S}")
+    private Duration heartbeat;
+
+    @Value("${medico.pharmacy.queue.stream.max-subscribers:500}")
+    private int maxSubscribers;
+
+    public DispensingQueueService(PrescriptionRepository prescriptionRepository, ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.objectMapper = objectMapper;
+        // Reads after commit need their own transaction, and must see the primary's committed state
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public List<DispensingQueueEntryDto> getQueue(int limit) {
+        ensureLoaded();
+        return queue.snapshot(limit);
+    }
+
+    /**
+     * Claims a prescription for the current pharmacist, or renews their claim. Fails if someone
+     * else holds it; a claim that changed hands between the update and the read is tried once more.
+     */
+    @Transactional
+    public DispensingQueueEntryDto claim(UUID prescriptionId) {
+        ensureLoaded();
+        String pharmacist = currentUser();
+        String pharmacistName = currentUserName();
+        for (int attempt = 1; ; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            boolean claimed = prescriptionRepository.claimForDispensing(prescriptionId, pharmacist, pharmacistName, now,
+                now.plus(lease)) == 1;
+            DispensingQueueEntryDto entry = refresh(prescriptionId)
+                .orElseThrow(() -> new BusinessException("Prescription is not waiting to be dispensed"));
+            if (claimed) {
+                log.debug("Prescription {} claimed by {}", entry.prescriptionNumber(), entry.claimedByName());
+                return entry;
+            }
+            DispensingQueue.checkNotHeldByOther(entry, pharmacist, now);
+            if (attempt == CLAIM_ATTEMPTS) {
+                throw new BusinessException("Prescription " + entry.prescriptionNumber()
+                    + " could not be claimed, please try again");
+            }
+        }
+    }
+
+    /**
+     * Claims the most urgent prescription nobody is working on, if any.
+     */
+    @Transactional
+    public Optional<DispensingQueueEntryDto> claimNext() {
+        ensureLoaded();
+        String pharmacist = currentUser();
+        String pharmacistName = currentUserName();
+        LocalDateTime now = LocalDateTime.now();
+        for (DispensingQueueEntryDto candidate : queue.unclaimed(now, CLAIM_NEXT_CANDIDATES)) {
+            // A candidate taken through another instance is refreshed with its claim and skipped
+            boolean claimed = prescriptionRepository.claimForDispensing(candidate.prescriptionId(), pharmacist,
+                pharmacistName, now, now.plus(lease)) == 1;
+            Optional<DispensingQueueEntryDto> entry = refresh(candidate.prescriptionId());
+            if (claimed && entry.isPresent()) {
+                return entry;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Transactional
+    public void release(UUID prescriptionId) {
+        String pharmacist = currentUser();
+        LocalDateTime now = LocalDateTime.now();
+        boolean released = prescriptionRepository.releaseDispensingClaim(prescriptionId, pharmacist, now) == 1;
+        Optional<DispensingQueueEntryDto> entry = refresh(prescriptionId);
+        if (!released) {
+            entry.ifPresent(current -> DispensingQueue.checkNotHeldByOther(current, pharmacist, now));
+        }
+    }
+
+    /**
+     * Called before dispensing: fails if another pharmacist holds the prescription, and renews the
+     * current user's lease if they do. Prescriptions that are not claimed pass; whether they can
+     * be dispensed is not the queue's decision.
+     */
+    @Transactional
+    public void checkClaim(UUID prescriptionId) {
+        String pharmacist = currentUser();
+        LocalDateTime now = LocalDateTime.now();
+        boolean renewed = prescriptionRepository.renewDispensingClaim(prescriptionId, pharmacist, now.plus(lease)) == 1;
+        Optional<DispensingQueueEntryDto> entry = refresh(prescriptionId);
+        if (!renewed) {
+            entry.ifPresent(current -> DispensingQueue.checkNotHeldByOther(current, pharmacist, now));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onStateChanged(StateChangedEvent event) {
+        if (event.entityType() != Prescription.class || event.isNoOp() || !loaded) {
+            return;
+        }
+        UUID prescriptionId = event.entityId();
+        if (WAITING.contains(event.after().status())) {
+            Optional<DispensingQueueEntryDto> entry = readTransaction.execute(status ->
+                prescriptionRepository.findDispensingQueueEntry(prescriptionId, LocalDate.now()));
+            entry.ifPresentOrElse(queue::put, () -> queue.remove(prescriptionId));
+        } else {
+            queue.remove(prescriptionId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${medico.pharmacy.queue.reconcile-interval:PT1M}")
+    public void reconcile() {
+        // Entries updated by events or claims while the read runs are newer than the read
+        long readFrom = queue.sequence();
+        List<DispensingQueueEntryDto> waiting = readTransaction.execute(status ->
+            prescriptionRepository.findDispensingQueueEntries(LocalDate.now()));
+        queue.replaceAll(waiting, readFrom);
+        if (!loaded) {
+            loaded = true;
+            log.info("Dispensing queue loaded with {} prescriptions", waiting.size());
+        }
+    }
+
+    /**
+     * Registers a terminal and sends it the whole queue as the initial {@code snapshot} event.
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new BusinessException("Dispensing queue stream is at capacity, poll the queue instead");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+
+        if (send(emitter, "snapshot", serialize(getQueue(Integer.MAX_VALUE)))) {
+            subscribers.add(emitter);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${medico.pharmacy.queue.push-interval:PT1S}")
+    public void publishChanges() {
+        int expired = queue.expireLeases(LocalDateTime.now());
+        if (expired > 0) {
+            log.debug("Released {} expired dispensing queue claims", expired);
+        }
+        DispensingQueueChangesDto changes = queue.drainChanges();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (!changes.isEmpty()) {
+            broadcast("changes", serialize(changes));
+        } else if (lastSentAt.plus(heartbeat).isBefore(Instant.now())) {
+            broadcast(null, null);
+        }
+    }
+
+    /**
+     * Reads one prescription's queue entry, claim included. Like the state change events, the
+     * entry reaches the queue only once the transaction has committed, so a claim that is rolled
+     * back never shows.
+     */
+    private Optional<DispensingQueueEntryDto> refresh(UUID prescriptionId) {
+        Optional<DispensingQueueEntryDto> entry =
+            prescriptionRepository.findDispensingQueueEntry(prescriptionId, LocalDate.now());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (loaded) {
+                    entry.ifPresentOrElse(queue::put, () -> queue.remove(prescriptionId));
+                }
+            }
+        });
+        return entry;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reconcile();
+        }
+    }
+
+    private void broadcast(String name, String payload) {
+        lastSentAt = Instant.now();
+        for (SseEmitter emitter : subscribers) {
+            boolean sent = name != null ? send(emitter, name, payload) : sendHeartbeat(emitter);
+            if (!sent) {
+                subscribers.remove(emitter);
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String name, String payload) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(payload, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private boolean sendHeartbeat(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private String serialize(Object payload) {
+        try {
+            // Serialized once and shared by every subscriber
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize dispensing queue", e);
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new BusinessException("Claiming prescriptions requires an authenticated pharmacist");
+        }
+        return authentication.getName();
+    }
+
+    private static String currentUserName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwt) {
+            String username = jwt.getToken().getClaimAsString("preferred_username");
+            if (username != null) {
+                return username;
+            }
+        }
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -1,8 +1,13 @@
 package com.medico.pharmacy.service;
 
+import com.medico.common.dto.Cursor;
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.event.StateChangedEvent.State;
 import com.medico.common.exception.BusinessException;
 import com.medico.common.exception.ResourceNotFoundException;
+import com.medico.common.outbox.Outbox;
 import com.medico.patient.domain.Prescription;
 import com.medico.patient.domain.Prescription.PrescriptionStatus;
 import com.medico.patient.domain.PrescriptionItem;
@@ -11,12 +16,13 @@ import com.medico.pharmacy.domain.Inventory;
 import com.medico.pharmacy.domain.PrescriptionDispensing;
 import com.medico.pharmacy.domain.PrescriptionDispensing.DispensingStatus;
 import com.medico.pharmacy.dto.*;
+import com.medico.pharmacy.event.MedicationDispensed;
 import com.medico.pharmacy.mapper.PharmacyMapper;
 import com.medico.pharmacy.repository.InventoryRepository;
 import com.medico.pharmacy.repository.PrescriptionDispensingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,6 +44,9 @@ public class DispensingService {
     private final InventoryRepository inventoryRepository;
     private final InventoryService inventoryService;
     private final PharmacyMapper pharmacyMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Outbox outbox;
+    private final DispensingQueueService dispensingQueueService;
 
     public List<DispensingDto> getDispensingsByPrescription(UUID prescriptionId) {
         List<PrescriptionDispensing> dispensings = dispensingRepository.findByPrescriptionId(prescriptionId);
@@ -45,10 +54,17 @@ public class DispensingService {
     }
 
     public PageResponse<DispensingDto> getDispensingsByPharmacist(UUID pharmacistId, Pageable pageable) {
-        Page<PrescriptionDispensing> dispensings = dispensingRepository.findByPharmacist(pharmacistId, pageable);
-        return PageResponse.from(dispensings, dispensings.getContent().stream()
-            .map(pharmacyMapper::toDto)
-            .toList());
+        return PageResponse.from(dispensingRepository.findDtosByPharmacist(pharmacistId, pageable));
+    }
+
+    public CursorPage<DispensingDto> getDispensingsByPharmacistByCursor(UUID pharmacistId, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        Cursor position = Cursor.decode(cursor);
+        List<DispensingDto> dispensings = position == null
+            ? dispensingRepository.findFirstDtosByPharmacist(pharmacistId, CursorPage.limitFor(pageSize))
+            : dispensingRepository.findDtosByPharmacistAfter(pharmacistId, position.keyAsDateTime(), position.id(),
+                CursorPage.limitFor(pageSize));
+        return CursorPage.of(dispensings, pageSize, dispensing -> Cursor.of(dispensing.dispensedAt(), dispensing.id()));
     }
 
     public DispensingDto getDispensingById(UUID id) {
@@ -58,6 +74,8 @@ public class DispensingService {
 
     @Transactional
     public DispensingDto dispensePrescriptionItem(DispenseRequest request) {
+        dispensingQueueService.checkClaim(request.prescriptionId());
+
         Prescription prescription = prescriptionRepository.findById(request.prescriptionId())
             .orElseThrow(() -> new ResourceNotFoundException("Prescription", "id", request.prescriptionId()));
 
@@ -109,11 +127,20 @@ public class DispensingService {
         prescriptionItem.setDispensedQuantity(alreadyDispensed + request.quantity());
 
         // Update prescription status
+        PrescriptionStatus previousStatus = prescription.getStatus();
         updatePrescriptionStatus(prescription);
 
         PrescriptionDispensing savedDispensing = dispensingRepository.save(dispensing);
         prescriptionRepository.save(prescription);
 
+        eventPublisher.publishEvent(StateChangedEvent.created(PrescriptionDispensing.class, savedDispensing.getId(),
+            State.of(savedDispensing.getStatus(), savedDispensing.getDispensedAt())));
+        eventPublisher.publishEvent(StateChangedEvent.changed(Prescription.class, prescription.getId(),
+            State.of(previousStatus, null), State.of(prescription.getStatus(), null)));
+        outbox.append(PrescriptionDispensing.class.getSimpleName(), savedDispensing.getId(), MedicationDispensed.TYPE,
+            new MedicationDispensed(prescription.getId(), inventory.getId(), inventory.getMedication().getCode(),
+                request.quantity(), inventory.getAvailableQuantity(), inventory.getStatus()));
+
         log.info("Dispensed {} units of {} for prescription {}",
             request.quantity(), prescriptionItem.getMedicationName(), prescription.getPrescriptionNumber());
 
@@ -151,4 +178,3 @@ public class DispensingService {
         }
     }
 }
-
@@ -0,0 +1,195 @@
+package com.medico.pharmacy.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.medico.pharmacy.dto.ScreeningAlertDto.Severity;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, indexed set of drug interaction and allergy rules. Rules refer to terms: medication
+ * codes, generic names, drug classes and allergens, compared case-insensitively. The source is a
+ * CSV file with the header {@code kind,term,related,severity,description} and {@code #} comments:
+ * <ul>
+ *   <li>{@code class,<medication code or generic name>,<class>} puts a medication in a class;</li>
+ *   <li>{@code interaction,<term>,<term>,<severity>,<description>} flags two medications taken
+ *   together, where either term may be a medication or a class;</li>
+ *   <li>{@code allergy,<allergen>,<term>,<severity>,<description>} flags a medication or class for
+ *   patients with that allergy.</li>
+ * </ul>
+ * Every term is interned to an int and rules are kept in hash maps keyed by the pair of ints, so
+ * checking a pair of medications is a handful of map lookups regardless of the rule count.
+ */
+public final class InteractionKnowledgeBase {
+
+    static final InteractionKnowledgeBase EMPTY =
+        new InteractionKnowledgeBase("none", Map.of(), Map.of(), Map.of(), Map.of(), 0);
+
+    private static final int[] NO_CONCEPTS = new int[0];
+
+    private final String source;
+    private final LocalDateTime loadedAt = LocalDateTime.now();
+    private final Map<String, Integer> termIds;
+    private final Map<Integer, int[]> classesByTerm;
+    // Keyed by the unordered pair of term ids
+    private final Map<Long, Rule> interactions;
+    // Keyed by (allergen id, term id)
+    private final Map<Long, Rule> allergies;
+    private final int classMemberships;
+
+    private InteractionKnowledgeBase(String source, Map<String, Integer> termIds, Map<Integer, int[]> classesByTerm,
+                                     Map<Long, Rule> interactions, Map<Long, Rule> allergies, int classMemberships) {
+        this.source = source;
+        this.termIds = termIds;
+        this.classesByTerm = classesByTerm;
+        this.interactions = interactions;
+        this.allergies = allergies;
+        this.classMemberships = classMemberships;
+    }
+
+    record Rule(Severity severity, String description) {}
+
+    /**
+     * Parses a rule file. Any invalid line fails the whole load, so a broken edit never replaces a
+     * working rule set with a partial one.
+     */
+    static InteractionKnowledgeBase load(String source, Reader reader) throws IOException {
+        Map<String, Integer> termIds = new HashMap<>();
+        Map<Integer, Set<Integer>> classes = new HashMap<>();
+        Map<Long, Rule> interactions = new HashMap<>();
+        Map<Long, Rule> allergies = new HashMap<>();
+        int classMemberships = 0;
+
+        CsvSchema schema = CsvSchema.emptySchema().withHeader().withComments();
+        try (MappingIterator<Map<String, String>> rows = new CsvMapper().readerForMapOf(String.class)
+                .with(schema).readValues(reader)) {
+            while (rows.hasNextValue()) {
+                int line = rows.getCurrentLocation().getLineNr();
+                Map<String, String> row = rows.nextValue();
+                String kind = normalize(row.get("kind"));
+                int term = intern(termIds, required(row, "term", line));
+                int related = intern(termIds, required(row, "related", line));
+                switch (kind) {
+                    case "CLASS" -> {
+                        if (classes.computeIfAbsent(term, id -> new LinkedHashSet<>()).add(related)) {
+                            classMemberships++;
+                        }
+                    }
+                    case "INTERACTION" -> interactions.merge(pair(term, related), rule(row, line), InteractionKnowledgeBase::stronger);
+                    case "ALLERGY" -> allergies.merge(ordered(term, related), rule(row, line), InteractionKnowledgeBase::stronger);
+                    default -> throw new IllegalArgumentException("Unknown rule kind '" + row.get("kind") + "' on line " + line);
+                }
+            }
+        }
+
+        Map<Integer, int[]> classesByTerm = new HashMap<>();
+        classes.forEach((term, members) -> classesByTerm.put(term, members.stream().mapToInt(Integer::intValue).toArray()));
+        return new InteractionKnowledgeBase(source, Map.copyOf(termIds), Map.copyOf(classesByTerm),
+            Map.copyOf(interactions), Map.copyOf(allergies), classMemberships);
+    }
+
+    /**
+     * Ids of the given terms that appear in the rules, together with the ids of their classes.
+     */
+    int[] concepts(List<String> terms) {
+        List<Integer> concepts = new ArrayList<>(4);
+        for (String term : terms) {
+            Integer id = termIds.get(term);
+            if (id == null) {
+                continue;
+            }
+            concepts.add(id);
+            for (int classId : classesByTerm.getOrDefault(id, NO_CONCEPTS)) {
+                concepts.add(classId);
+            }
+        }
+        return concepts.isEmpty() ? NO_CONCEPTS : concepts.stream().mapToInt(Integer::intValue).distinct().toArray();
+    }
+
+    /**
+     * Id of a term, or -1 when no rule mentions it.
+     */
+    int termId(String term) {
+        return termIds.getOrDefault(term, -1);
+    }
+
+    Rule interaction(int concept, int other) {
+        return interactions.get(pair(concept, other));
+    }
+
+    Rule allergy(int allergen, int concept) {
+        return allergies.get(ordered(allergen, concept));
+    }
+
+    String source() {
+        return source;
+    }
+
+    LocalDateTime loadedAt() {
+        return loadedAt;
+    }
+
+    int classMemberships() {
+        return classMemberships;
+    }
+
+    int interactionRules() {
+        return interactions.size();
+    }
+
+    int allergyRules() {
+        return allergies.size();
+    }
+
+    /**
+     * Canonical form of a term: trimmed, upper case, single spaces.
+     */
+    static String normalize(String term) {
+        return term == null ? "" : term.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    private static int intern(Map<String, Integer> termIds, String term) {
+        return termIds.computeIfAbsent(term, key -> termIds.size());
+    }
+
+    private static String required(Map<String, String> row, String column, int line) {
+        String value = normalize(row.get(column));
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + column + " on line " + line);
+        }
+        return value;
+    }
+
+    private static Rule rule(Map<String, String> row, int line) {
+        Severity severity;
+        try {
+            severity = Severity.valueOf(normalize(row.get("severity")));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid severity '" + row.get("severity") + "' on line " + line);
+        }
+        String description = row.get("description");
+        return new Rule(severity, description != null ? description.trim() : "");
+    }
+
+    private static Rule stronger(Rule a, Rule b) {
+        return b.severity().compareTo(a.severity()) > 0 ? b : a;
+    }
+
+    private static long pair(int a, int b) {
+        return a <= b ? ordered(a, b) : ordered(b, a);
+    }
+
+    private static long ordered(int a, int b) {
+        return ((long) a << 32) | (b & 0xffffffffL);
+    }
+}
@@ -1,5 +1,7 @@
 package com.medico.pharmacy.service;
 
+import com.medico.common.dto.Cursor;
+import com.medico.common.dto.CursorPage;
 import com.medico.common.dto.PageResponse;
 import com.medico.common.exception.BusinessException;
 import com.medico.common.exception.ResourceNotFoundException;
@@ -14,7 +16,6 @@ import com.medico.pharmacy.repository.MedicationRepository;
 import com.medico.pharmacy.repository.SupplierRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,27 +36,36 @@ public class InventoryService {
     private final SupplierRepository supplierRepository;
     private final PharmacyMapper pharmacyMapper;
 
-    private static final int EXPIRY_WARNING_DAYS = 30;
+    static final int EXPIRY_WARNING_DAYS = 30;
 
     public PageResponse<InventoryDto> getAllInventory(Pageable pageable) {
-        Page<Inventory> inventory = inventoryRepository.findAll(pageable);
-        return PageResponse.from(inventory, inventory.getContent().stream()
-            .map(pharmacyMapper::toDto)
-            .toList());
+        LocalDate today = LocalDate.now();
+        return PageResponse.from(inventoryRepository.findAllDtos(
+            today, today.plusDays(EXPIRY_WARNING_DAYS), pageable));
+    }
+
+    public CursorPage<InventoryDto> getAllInventoryByCursor(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        Cursor position = Cursor.decode(cursor);
+        LocalDate today = LocalDate.now();
+        LocalDate expiringBefore = today.plusDays(EXPIRY_WARNING_DAYS);
+        List<InventoryDto> inventory = position == null
+            ? inventoryRepository.findFirstDtos(today, expiringBefore, CursorPage.limitFor(pageSize))
+            : inventoryRepository.findDtosAfter(position.keyAsDate(), position.id(), today, expiringBefore,
+                CursorPage.limitFor(pageSize));
+        return CursorPage.of(inventory, pageSize, item -> Cursor.of(item.expiryDate(), item.id()));
     }
 
     public PageResponse<InventoryDto> getInventoryByMedication(UUID medicationId, Pageable pageable) {
-        Page<Inventory> inventory = inventoryRepository.findByMedicationId(medicationId, pageable);
-        return PageResponse.from(inventory, inventory.getContent().stream()
-            .map(pharmacyMapper::toDto)
-            .toList());
+        LocalDate today = LocalDate.now();
+        return PageResponse.from(inventoryRepository.findDtosByMedicationId(
+            medicationId, today, today.plusDays(EXPIRY_WARNING_DAYS), pageable));
     }
 
     public PageResponse<InventoryDto> getInventoryByStatus(InventoryStatus status, Pageable pageable) {
-        Page<Inventory> inventory = inventoryRepository.findByStatus(status, pageable);
-        return PageResponse.from(inventory, inventory.getContent().stream()
-            .map(pharmacyMapper::toDto)
-            .toList());
+        LocalDate today = LocalDate.now();
+        return PageResponse.from(inventoryRepository.findDtosByStatus(
+            status, today, today.plusDays(EXPIRY_WARNING_DAYS), pageable));
     }
 
     public InventoryDto getInventoryById(UUID id) {
@@ -190,4 +200,3 @@ public class InventoryService {
         }
     }
 }
-
@@ -0,0 +1,78 @@
+package com.medico.pharmacy.service;
+
+import com.medico.pharmacy.dto.InventoryDto;
+import com.medico.pharmacy.repository.InventoryRepository;
+import com.medico.report.domain.ReportJob.ReportPriority;
+import com.medico.report.service.ReportDefinition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Current stock of every inventory batch by medication, with expiry flags.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryStockReport implements ReportDefinition {
+
+    private final InventoryRepository inventoryRepository;
+
+    @Override
+    public String type() {
+        return "inventory-stock";
+    }
+
+    @Override
+    public String description() {
+        return "Stock on hand per batch with expiry status";
+    }
+
+    @Override
+    public Set<String> roles() {
+        return Set.of("ADMIN", "PHARMACIST");
+    }
+
+    @Override
+    public ReportPriority defaultPriority() {
+        return ReportPriority.NORMAL;
+    }
+
+    @Override
+    public List<String> parameters() {
+        return List.of();
+    }
+
+    @Override
+    public List<String> columns() {
+        return List.of("medication_code", "medication_name", "batch_number", "quantity", "reserved", "available",
+            "expiry_date", "status", "location", "supplier", "expired", "expiring_soon");
+    }
+
+    /**
+     * The run date is the only parameter, so a result is never reused on a later day.
+     */
+    @Override
+    public Map<String, String> normalize(Map<String, String> parameters) {
+        return Map.of("asOf", LocalDate.now().toString());
+    }
+
+    @Override
+    public void write(Map<String, String> parameters, Rows rows) throws IOException {
+        LocalDate today = LocalDate.now();
+        try (Stream<InventoryDto> batches = inventoryRepository.streamAllDtos(today, today.plusDays(InventoryService.EXPIRY_WARNING_DAYS))) {
+            for (Iterator<InventoryDto> it = batches.iterator(); it.hasNext(); ) {
+                InventoryDto batch = it.next();
+                rows.add(batch.medicationCode(), batch.medicationName(), batch.batchNumber(), batch.quantity(),
+                    batch.reservedQuantity(), batch.availableQuantity(), batch.expiryDate(), batch.status(),
+                    batch.location(), batch.supplierName(), batch.expired(), batch.expiringSoon());
+            }
+        }
+    }
+}
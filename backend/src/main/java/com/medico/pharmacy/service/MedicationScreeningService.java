@@ -0,0 +1,278 @@
+package com.medico.pharmacy.service;
+
+import com.medico.common.exception.BusinessException;
+import com.medico.patient.domain.Patient;
+import com.medico.patient.domain.Prescription;
+import com.medico.patient.domain.Prescription.PrescriptionStatus;
+import com.medico.patient.domain.PrescriptionItem;
+import com.medico.patient.dto.CreatePrescriptionItemRequest;
+import com.medico.patient.repository.PrescriptionRepository;
+import com.medico.pharmacy.dto.ScreeningAlertDto;
+import com.medico.pharmacy.dto.ScreeningAlertDto.AlertType;
+import com.medico.pharmacy.dto.ScreeningAlertDto.Severity;
+import com.medico.pharmacy.dto.ScreeningRulesDto;
+import com.medico.pharmacy.repository.MedicationRepository;
+import com.medico.pharmacy.service.InteractionKnowledgeBase.Rule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Drug interaction and allergy screening for prescribing. Medications being prescribed are
+ * checked against each other, against the patient's current prescriptions (active or partially
+ * dispensed) and against the patient's recorded allergies, using an in-memory
+ * {@link InteractionKnowledgeBase}. The rule
+ * file at {@code rules} is reloaded whenever it changes, without a restart; a file that fails to
+ * parse is rejected and the previous rules stay in use. While no valid rules have been loaded at
+ * all, screening fails closed: every prescription needs an explicit override.
+ * <p>
+ * Catalog medications are screened by code, generic name and the classes those belong to;
+ * free-text items only by their name.
+ */
+@Slf4j
+@Service
+public class MedicationScreeningService {
+
+    private static final Pattern ALLERGY_SEPARATOR = Pattern.compile("[,;\\n]+");
+    private static final Comparator<ScreeningAlertDto> MOST_SEVERE_FIRST =
+        Comparator.comparing(ScreeningAlertDto::severity).reversed();
+    private static final List<PrescriptionStatus> CURRENT_STATUSES =
+        List.of(PrescriptionStatus.ACTIVE, PrescriptionStatus.PARTIALLY_DISPENSED);
+
+    private final PrescriptionRepository prescriptionRepository;
+    private final MedicationRepository medicationRepository;
+    private final Resource rules;
+    private final Severity blockSeverity;
+
+    private volatile InteractionKnowledgeBase knowledgeBase = InteractionKnowledgeBase.EMPTY;
+    private volatile long rulesModified = Long.MIN_VALUE;
+
+    public MedicationScreeningService(PrescriptionRepository prescriptionRepository,
+                                      MedicationRepository medicationRepository, ResourceLoader resourceLoader,
+                                      @Value("${medico.pharmacy.screening.rules:classpath:screening/interaction-rules.csv}") String rulesLocation,
+                                      @Value("${medico.pharmacy.screening.block-severity:MAJOR}") Severity blockSeverity) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.medicationRepository = medicationRepository;
+        this.rules = resourceLoader.getResource(rulesLocation);
+        this.blockSeverity = blockSeverity;
+        reloadRules();
+    }
+
+    /**
+     * Screens the items of a new prescription for a patient. Alerts are ordered from the most
+     * severe; there is at most one alert per pair of medications and per medication and allergy.
+     */
+    @Transactional(readOnly = true)
+    public List<ScreeningAlertDto> screen(Patient patient, List<CreatePrescriptionItemRequest> items) {
+        InteractionKnowledgeBase kb = knowledgeBase;
+        List<Prescription> active = prescriptionRepository.findByPatientIdAndStatusIn(patient.getId(), CURRENT_STATUSES);
+
+        Set<UUID> medicationIds = new HashSet<>();
+        items.forEach(item -> addIfPresent(medicationIds, item.medicationId()));
+        active.forEach(prescription -> prescription.getItems().forEach(item -> addIfPresent(medicationIds, item.getMedicationId())));
+        Map<UUID, List<String>> termsById = new HashMap<>();
+        if (!medicationIds.isEmpty()) {
+            for (Object[] row : medicationRepository.findScreeningTermsByIds(medicationIds)) {
+                termsById.put((UUID) row[0], terms((String) row[1], (String) row[2]));
+            }
+        }
+
+        List<ScreenedItem> prescribed = new ArrayList<>(items.size());
+        for (CreatePrescriptionItemRequest item : items) {
+            prescribed.add(screened(kb, item.medicationName(), null, item.medicationId(), termsById));
+        }
+        List<ScreenedItem> current = new ArrayList<>();
+        for (Prescription prescription : active) {
+            for (PrescriptionItem item : prescription.getItems()) {
+                current.add(screened(kb, item.getMedicationName(), prescription.getPrescriptionNumber(),
+                    item.getMedicationId(), termsById));
+            }
+        }
+
+        List<ScreeningAlertDto> alerts = new ArrayList<>();
+        List<String> allergens = allergens(patient.getAllergies());
+        for (int i = 0; i < prescribed.size(); i++) {
+            ScreenedItem item = prescribed.get(i);
+            for (String allergen : allergens) {
+                checkAllergy(kb, item, allergen, alerts);
+            }
+            for (int j = i + 1; j < prescribed.size(); j++) {
+                checkInteraction(kb, item, prescribed.get(j), alerts);
+            }
+            for (ScreenedItem other : current) {
+                checkInteraction(kb, item, other, alerts);
+            }
+        }
+        alerts.sort(MOST_SEVERE_FIRST);
+        return alerts;
+    }
+
+    /**
+     * Rejects a prescription with alerts at or above {@code block-severity} unless the prescriber
+     * has reviewed and overridden them. Without loaded rules the absence of alerts means nothing,
+     * so every prescription is rejected until overridden.
+     */
+    public void checkPrescribable(List<ScreeningAlertDto> alerts, boolean overridden) {
+        if (overridden) {
+            return;
+        }
+        if (!hasRules()) {
+            throw new BusinessException("Prescriptions cannot be screened because no valid interaction rules are " +
+                "loaded; check interactions manually and override to prescribe");
+        }
+        List<ScreeningAlertDto> blocking = alerts.stream()
+            .filter(alert -> alert.severity().compareTo(blockSeverity) >= 0)
+            .toList();
+        if (!blocking.isEmpty()) {
+            throw new BusinessException("Prescription has " + blocking.size() + " unresolved screening alert(s): " +
+                String.join("; ", blocking.stream().map(ScreeningAlertDto::message).toList()));
+        }
+    }
+
+    /**
+     * Whether valid interaction rules are loaded; until then screening finds nothing.
+     */
+    public boolean hasRules() {
+        return knowledgeBase != InteractionKnowledgeBase.EMPTY;
+    }
+
+    public ScreeningRulesDto getRules() {
+        InteractionKnowledgeBase kb = knowledgeBase;
+        return new ScreeningRulesDto(kb.source(), kb.loadedAt(), kb.classMemberships(), kb.interactionRules(),
+            kb.allergyRules());
+    }
+
+    /**
+     * Loads the rule file and swaps it in. Screenings already running keep the rules they started with.
+     */
+    public synchronized ScreeningRulesDto reloadRules() {
+        long modified = lastModified();
+        try (Reader reader = new InputStreamReader(rules.getInputStream(), StandardCharsets.UTF_8)) {
+            InteractionKnowledgeBase loaded = InteractionKnowledgeBase.load(rules.getDescription(), reader);
+            knowledgeBase = loaded;
+            rulesModified = modified;
+            log.info("Loaded screening rules from {}: {} class memberships, {} interactions, {} allergy rules",
+                rules.getDescription(), loaded.classMemberships(), loaded.interactionRules(), loaded.allergyRules());
+        } catch (IOException | RuntimeException e) {
+            // Not retried until the file changes again
+            rulesModified = modified;
+            log.error("Could not load screening rules from {}, keeping the previous rules", rules.getDescription(), e);
+            if (knowledgeBase == InteractionKnowledgeBase.EMPTY) {
+                log.warn("Prescriptions are rejected unless overridden until valid rules are loaded");
+            }
+        }
+        return getRules();
+    }
+
+    @Scheduled(fixedDelayString = "${medico.pharmacy.screening.reload-interval:PT30S}")
+    public void reloadIfChanged() {
+        if (lastModified() != rulesModified) {
+            reloadRules();
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return rules.lastModified();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void checkAllergy(InteractionKnowledgeBase kb, ScreenedItem item, String allergen,
+                                     List<ScreeningAlertDto> alerts) {
+        if (item.terms().contains(allergen)) {
+            alerts.add(new ScreeningAlertDto(AlertType.ALLERGY, Severity.CONTRAINDICATED, item.name(), allergen, null,
+                item.name() + ": patient is allergic to " + allergen));
+            return;
+        }
+        int allergenId = kb.termId(allergen);
+        if (allergenId < 0) {
+            return;
+        }
+        Rule strongest = null;
+        for (int concept : item.concepts()) {
+            Rule rule = kb.allergy(allergenId, concept);
+            if (rule != null && (strongest == null || rule.severity().compareTo(strongest.severity()) > 0)) {
+                strongest = rule;
+            }
+        }
+        if (strongest != null) {
+            alerts.add(new ScreeningAlertDto(AlertType.ALLERGY, strongest.severity(), item.name(), allergen, null,
+                message(item.name() + " with allergy to " + allergen, strongest)));
+        }
+    }
+
+    private static void checkInteraction(InteractionKnowledgeBase kb, ScreenedItem item, ScreenedItem other,
+                                         List<ScreeningAlertDto> alerts) {
+        Rule strongest = null;
+        for (int concept : item.concepts()) {
+            for (int otherConcept : other.concepts()) {
+                Rule rule = kb.interaction(concept, otherConcept);
+                if (rule != null && (strongest == null || rule.severity().compareTo(strongest.severity()) > 0)) {
+                    strongest = rule;
+                }
+            }
+        }
+        if (strongest != null) {
+            alerts.add(new ScreeningAlertDto(AlertType.INTERACTION, strongest.severity(), item.name(), other.name(),
+                other.prescriptionNumber(), message(item.name() + " with " + other.name(), strongest)));
+        }
+    }
+
+    private static String message(String subject, Rule rule) {
+        return rule.description().isEmpty() ? subject : subject + ": " + rule.description();
+    }
+
+    private static ScreenedItem screened(InteractionKnowledgeBase kb, String name, String prescriptionNumber,
+                                         UUID medicationId, Map<UUID, List<String>> termsById) {
+        List<String> terms = medicationId != null && termsById.containsKey(medicationId)
+            ? termsById.get(medicationId)
+            : terms(name);
+        return new ScreenedItem(name, prescriptionNumber, terms, kb.concepts(terms));
+    }
+
+    private static List<String> terms(String... values) {
+        List<String> terms = new ArrayList<>(values.length);
+        for (String value : values) {
+            String term = InteractionKnowledgeBase.normalize(value);
+            if (!term.isEmpty() && !terms.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static List<String> allergens(String allergies) {
+        if (allergies == null || allergies.isBlank()) {
+            return List.of();
+        }
+        return terms(ALLERGY_SEPARATOR.split(allergies));
+    }
+
+    private static void addIfPresent(Set<UUID> ids, UUID id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private record ScreenedItem(String name, String prescriptionNumber, List<String> terms, int[] concepts) {}
+}
@@ -1,6 +1,8 @@
 package com.medico.pharmacy.service;
 
 import com.medico.common.dto.PageResponse;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.event.StateChangedEvent.State;
 import com.medico.common.exception.BusinessException;
 import com.medico.common.exception.ResourceNotFoundException;
 import com.medico.pharmacy.domain.Medication;
@@ -10,6 +12,7 @@ import com.medico.pharmacy.mapper.PharmacyMapper;
 import com.medico.pharmacy.repository.MedicationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,6 +28,7 @@ public class MedicationService {
 
     private final MedicationRepository medicationRepository;
     private final PharmacyMapper pharmacyMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PageResponse<MedicationDto> getAllMedications(Pageable pageable) {
         Page<Medication> medications = medicationRepository.findByActiveTrue(pageable);
@@ -66,6 +70,8 @@ public class MedicationService {
 
         Medication medication = pharmacyMapper.toEntity(request);
         Medication savedMedication = medicationRepository.save(medication);
+        eventPublisher.publishEvent(StateChangedEvent.created(Medication.class, savedMedication.getId(),
+            State.of(savedMedication.isActive(), null)));
         log.info("Created medication: {}", savedMedication.getCode());
 
         return pharmacyMapper.toDto(savedMedication);
@@ -84,8 +90,11 @@ public class MedicationService {
     @Transactional
     public void deactivateMedication(UUID id) {
         Medication medication = findMedicationById(id);
+        boolean wasActive = medication.isActive();
         medication.setActive(false);
         medicationRepository.save(medication);
+        eventPublisher.publishEvent(StateChangedEvent.changed(Medication.class, id,
+            State.of(wasActive, null), State.of(medication.isActive(), null)));
         log.info("Deactivated medication: {}", medication.getCode());
     }
 
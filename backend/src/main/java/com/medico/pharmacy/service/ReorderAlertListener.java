@@ -0,0 +1,36 @@
+package com.medico.pharmacy.service;
+
+import com.medico.common.outbox.OutboxEventListener;
+import com.medico.common.outbox.OutboxMessage;
+import com.medico.pharmacy.domain.Inventory.InventoryStatus;
+import com.medico.pharmacy.event.MedicationDispensed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Raises a reorder alert when a dispensing leaves an inventory batch low or out of stock,
+ * outside the dispensing transaction.
+ */
+@Slf4j
+@Component
+public class ReorderAlertListener implements OutboxEventListener {
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(MedicationDispensed.TYPE);
+    }
+
+    @Override
+    public void onEvent(OutboxMessage message) {
+        String status = message.payload().path("inventoryStatus").asText();
+        if (InventoryStatus.LOW_STOCK.name().equals(status) || InventoryStatus.OUT_OF_STOCK.name().equals(status)) {
+            log.warn("Reorder alert: medication {} inventory {} is {} with {} units available",
+                message.payload().path("medicationCode").asText(),
+                message.payload().path("inventoryId").asText(),
+                status,
+                message.payload().path("availableQuantity").asInt());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.medico.report.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+
+@Configuration
+public class ReportExecutorConfig {
+
+    /**
+     * Small fixed pool for background reports, so that however many reports are requested at
+     * most {@code workers} report queries hold a database connection and a core at any time.
+     * Waiting tasks are ordered by the queue rather than by arrival: tasks submitted by
+     * {@code ReportWorker} are comparable by priority and then submission order. The queue is
+     * unbounded here; the number of queued jobs is capped when they are submitted.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor(@Value("${medico.reports.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+                return new PriorityBlockingQueue<>();
+            }
+        };
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("report-");
+        // Yield CPU to request threads when the host is busy
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.initialize();
+        return executor;
+    }
+}
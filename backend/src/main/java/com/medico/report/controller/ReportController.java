@@ -0,0 +1,94 @@
+package com.medico.report.controller;
+
+import com.medico.common.dto.PageResponse;
+import com.medico.report.domain.ReportJob.ReportStatus;
+import com.medico.report.dto.ReportJobDto;
+import com.medico.report.dto.ReportTypeDto;
+import com.medico.report.dto.SubmitReportRequest;
+import com.medico.report.service.ReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/reports")
+@RequiredArgsConstructor
+@Tag(name = "Reports", description = "APIs for background report jobs")
+public class ReportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ReportJobService reportJobService;
+
+    @GetMapping("/types")
+    @Operation(summary = "List report types", description = "Reports the current user may run, with their parameters")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST', 'LAB_TECHNICIAN', 'BILLING_STAFF')")
+    public ResponseEntity<List<ReportTypeDto>> getReportTypes() {
+        return ResponseEntity.ok(reportJobService.getReportTypes());
+    }
+
+    @PostMapping("/jobs")
+    @Operation(summary = "Submit a report",
+        description = "Queue a report in the background; an identical recent or pending request returns the existing job")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST', 'LAB_TECHNICIAN', 'BILLING_STAFF')")
+    public ResponseEntity<ReportJobDto> submitReport(@Valid @RequestBody SubmitReportRequest request) {
+        ReportJobDto job = reportJobService.submit(request);
+        HttpStatus status = job.status() == ReportStatus.COMPLETED ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(job);
+    }
+
+    @GetMapping("/jobs")
+    @Operation(summary = "List report jobs", description = "The current user's report jobs, newest first")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST', 'LAB_TECHNICIAN', 'BILLING_STAFF')")
+    public ResponseEntity<PageResponse<ReportJobDto>> getJobs(@PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(reportJobService.getJobs(pageable));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Get a report job", description = "Poll the state of a report job")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST', 'LAB_TECHNICIAN', 'BILLING_STAFF')")
+    public ResponseEntity<ReportJobDto> getJob(@PathVariable UUID id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to a report job",
+        description = "Server-sent events: a 'status' event while pending, then a single 'completed' or 'failed' event")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST', 'LAB_TECHNICIAN', 'BILLING_STAFF')")
+    public SseEmitter subscribe(@PathVariable UUID id) {
+        return reportJobService.subscribe(id);
+    }
+
+    @GetMapping("/jobs/{id}/result")
+    @Operation(summary = "Download a report", description = "The CSV result of a completed report job")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'PHARMACIST', 'LAB_TECHNICIAN', 'BILLING_STAFF')")
+    public ResponseEntity<Resource> getResult(@PathVariable UUID id) {
+        FileSystemResource result = new FileSystemResource(reportJobService.getResultFile(id));
+        return ResponseEntity.ok()
+            .contentType(TEXT_CSV)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("report-" + id + ".csv").build().toString())
+            .body(result);
+    }
+}
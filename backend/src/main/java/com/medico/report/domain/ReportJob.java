@@ -0,0 +1,70 @@
+package com.medico.report.domain;
+
+import com.medico.common.domain.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "report_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class ReportJob extends BaseEntity {
+
+    @Column(name = "report_type", nullable = false, length = 50)
+    private String reportType;
+
+    // Normalized parameters as a JSON object
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String parameters;
+
+    @Column(name = "parameters_hash", nullable = false, length = 64)
+    private String parametersHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportPriority priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportStatus status;
+
+    @Column(name = "requested_by")
+    private String requestedBy;
+
+    @Column(name = "row_count")
+    private Long rowCount;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    /**
+     * Scheduling class on the report worker pool; queued jobs of a higher class run first.
+     */
+    public enum ReportPriority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    public enum ReportStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,23 @@
+package com.medico.report.dto;
+
+import com.medico.report.domain.ReportJob.ReportPriority;
+import com.medico.report.domain.ReportJob.ReportStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+public record ReportJobDto(
+    UUID id,
+    String reportType,
+    Map<String, String> parameters,
+    ReportPriority priority,
+    ReportStatus status,
+    String requestedBy,
+    Long rowCount,
+    Long sizeBytes,
+    String error,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    LocalDateTime createdAt
+) {}
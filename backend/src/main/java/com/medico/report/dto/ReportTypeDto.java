@@ -0,0 +1,13 @@
+package com.medico.report.dto;
+
+import com.medico.report.domain.ReportJob.ReportPriority;
+
+import java.util.List;
+
+public record ReportTypeDto(
+    String reportType,
+    String description,
+    List<String> parameters,
+    List<String> columns,
+    ReportPriority defaultPriority
+) {}
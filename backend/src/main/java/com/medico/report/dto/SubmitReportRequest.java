@@ -0,0 +1,16 @@
+package com.medico.report.dto;
+
+import com.medico.report.domain.ReportJob.ReportPriority;
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.Map;
+
+public record SubmitReportRequest(
+    @NotBlank(message = "Report type is required")
+    String reportType,
+
+    Map<String, String> parameters,
+
+    // Defaults to the report's own class
+    ReportPriority priority
+) {}
@@ -0,0 +1,57 @@
+package com.medico.report.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medico.report.domain.ReportJob;
+import com.medico.report.dto.ReportJobDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Maps report jobs by hand rather than with MapStruct: their parameters are stored as a JSON
+ * object and exposed as a map.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportJobMapper {
+
+    private static final TypeReference<Map<String, String>> PARAMETERS = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    public ReportJobDto toDto(ReportJob job) {
+        return new ReportJobDto(
+            job.getId(),
+            job.getReportType(),
+            parameters(job),
+            job.getPriority(),
+            job.getStatus(),
+            job.getRequestedBy(),
+            job.getRowCount(),
+            job.getSizeBytes(),
+            job.getError(),
+            job.getStartedAt(),
+            job.getFinishedAt(),
+            job.getCreatedAt()
+        );
+    }
+
+    public Map<String, String> parameters(ReportJob job) {
+        try {
+            return objectMapper.readValue(job.getParameters(), PARAMETERS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid parameters on report job " + job.getId(), e);
+        }
+    }
+
+    public String parametersJson(Map<String, String> parameters) {
+        try {
+            return objectMapper.writeValueAsString(parameters);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize report parameters", e);
+        }
+    }
+}
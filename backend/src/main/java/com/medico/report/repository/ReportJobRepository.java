@@ -0,0 +1,75 @@
+package com.medico.report.repository;
+
+import com.medico.report.domain.ReportJob;
+import com.medico.report.domain.ReportJob.ReportStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, UUID> {
+
+    Page<ReportJob> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    Page<ReportJob> findByRequestedByOrderByCreatedAtDesc(String requestedBy, Pageable pageable);
+
+    List<ReportJob> findByStatusOrderByCreatedAtAsc(ReportStatus status);
+
+    long countByStatus(ReportStatus status);
+
+    /**
+     * The newest job for the same request that is still queued or running, or that completed
+     * after {@code completedAfter}.
+     */
+    @Query("SELECT j FROM ReportJob j WHERE j.reportType = :reportType AND j.parametersHash = :hash " +
+           "AND (j.status IN ('QUEUED', 'RUNNING') OR (j.status = 'COMPLETED' AND j.finishedAt > :completedAfter)) " +
+           "ORDER BY j.createdAt DESC LIMIT 1")
+    Optional<ReportJob> findReusable(
+        @Param("reportType") String reportType,
+        @Param("hash") String hash,
+        @Param("completedAfter") LocalDateTime completedAfter
+    );
+
+    /**
+     * Moves a queued job to running; returns 0 when another worker or instance already has it.
+     */
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = 'RUNNING', j.startedAt = :startedAt WHERE j.id = :id AND j.status = 'QUEUED'")
+    int claim(@Param("id") UUID id, @Param("startedAt") LocalDateTime startedAt);
+
+    /**
+     * Completes a running job; returns 0 when it is no longer running, because {@link #failStale}
+     * gave up on it in the meantime.
+     */
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = 'COMPLETED', j.rowCount = :rowCount, j.sizeBytes = :sizeBytes, " +
+           "j.finishedAt = :finishedAt WHERE j.id = :id AND j.status = 'RUNNING'")
+    int markCompleted(@Param("id") UUID id, @Param("rowCount") long rowCount, @Param("sizeBytes") long sizeBytes,
+                      @Param("finishedAt") LocalDateTime finishedAt);
+
+    /**
+     * Fails a running job; returns 0 when it is no longer running.
+     */
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = 'FAILED', j.error = :error, j.finishedAt = :finishedAt " +
+           "WHERE j.id = :id AND j.status = 'RUNNING'")
+    int markFailed(@Param("id") UUID id, @Param("error") String error, @Param("finishedAt") LocalDateTime finishedAt);
+
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = 'FAILED', j.error = :error, j.finishedAt = :finishedAt " +
+           "WHERE j.status = 'RUNNING' AND j.startedAt < :startedBefore")
+    int failStale(@Param("startedBefore") LocalDateTime startedBefore, @Param("error") String error,
+                  @Param("finishedAt") LocalDateTime finishedAt);
+
+    @Query("SELECT j.id FROM ReportJob j WHERE j.createdAt < :cutoff AND j.status IN ('COMPLETED', 'FAILED')")
+    List<UUID> findFinishedIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
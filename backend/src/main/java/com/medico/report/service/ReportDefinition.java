@@ -0,0 +1,55 @@
+package com.medico.report.service;
+
+import com.medico.report.domain.ReportJob.ReportPriority;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A report that can be run as a background job. Implementations are Spring beans; they are
+ * discovered by {@link ReportDefinitions} and run by {@link ReportWorker} inside a read-only
+ * transaction, so repository methods returning a {@code Stream} can be used to write large
+ * outputs row by row.
+ */
+public interface ReportDefinition {
+
+    /**
+     * Identifier used in requests, e.g. {@code invoice-register}.
+     */
+    String type();
+
+    String description();
+
+    /**
+     * Roles (without the {@code ROLE_} prefix) allowed to run the report and read its results.
+     */
+    Set<String> roles();
+
+    ReportPriority defaultPriority();
+
+    /**
+     * Names of the accepted parameters, for clients.
+     */
+    List<String> parameters();
+
+    List<String> columns();
+
+    /**
+     * Validates the request parameters and returns them in canonical form: defaults filled in,
+     * values formatted consistently and unknown names dropped. Equal canonical parameters mean
+     * equal results, which is what the result cache keys on.
+     */
+    Map<String, String> normalize(Map<String, String> parameters);
+
+    void write(Map<String, String> parameters, Rows rows) throws IOException;
+
+    /**
+     * Output sink of a running report; values are written in {@link #columns()} order.
+     */
+    interface Rows {
+
+        void add(Object... values) throws IOException;
+    }
+}
@@ -0,0 +1,59 @@
+package com.medico.report.service;
+
+import com.medico.common.exception.BusinessException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the {@link ReportDefinition} beans, keyed by type.
+ */
+@Component
+public class ReportDefinitions {
+
+    private final Map<String, ReportDefinition> byType;
+
+    public ReportDefinitions(List<ReportDefinition> definitions) {
+        this.byType = definitions.stream()
+            .collect(Collectors.toUnmodifiableMap(ReportDefinition::type, Function.identity()));
+    }
+
+    public ReportDefinition get(String type) {
+        ReportDefinition definition = byType.get(type);
+        if (definition == null) {
+            throw new BusinessException("Unknown report type: " + type);
+        }
+        return definition;
+    }
+
+    public Collection<ReportDefinition> getAll() {
+        return byType.values();
+    }
+
+    /**
+     * Checks that the current user holds one of the report's roles.
+     */
+    public void checkAccess(ReportDefinition definition) {
+        if (!isAccessible(definition)) {
+            throw new AccessDeniedException("Not allowed to run report " + definition.type());
+        }
+    }
+
+    public boolean isAccessible(ReportDefinition definition) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .anyMatch(authority -> authority.startsWith("ROLE_") && definition.roles().contains(authority.substring(5)));
+    }
+}
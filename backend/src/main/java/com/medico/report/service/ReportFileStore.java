@@ -0,0 +1,56 @@
+package com.medico.report.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Report results on the local file system, one CSV file per job under {@code dir}. A report is
+ * written to a {@code .part} file and moved into place when complete, so a result file that
+ * exists is always whole.
+ */
+@Slf4j
+@Component
+public class ReportFileStore {
+
+    @Value("${medico.reports.dir:./reports}")
+    private Path dir;
+
+    public Path partFile(UUID jobId) throws IOException {
+        Files.createDirectories(dir);
+        return dir.resolve(jobId + ".csv.part");
+    }
+
+    /**
+     * Moves the finished part file into place and returns its size in bytes.
+     */
+    public long publish(UUID jobId) throws IOException {
+        Path file = file(jobId);
+        Files.move(dir.resolve(jobId + ".csv.part"), file,
+            StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return Files.size(file);
+    }
+
+    public Path file(UUID jobId) {
+        return dir.resolve(jobId + ".csv");
+    }
+
+    public boolean exists(UUID jobId) {
+        return Files.isRegularFile(file(jobId));
+    }
+
+    public void delete(UUID jobId) {
+        try {
+            Files.deleteIfExists(dir.resolve(jobId + ".csv.part"));
+            Files.deleteIfExists(file(jobId));
+        } catch (IOException e) {
+            log.warn("Could not delete result of report job {}: {}", jobId, e.getMessage());
+        }
+    }
+}
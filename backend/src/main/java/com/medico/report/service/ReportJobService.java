@@ -0,0 +1,202 @@
+package com.medico.report.service;
+
+import com.medico.common.dto.PageResponse;
+import com.medico.common.exception.BusinessException;
+import com.medico.common.exception.ResourceNotFoundException;
+import com.medico.report.domain.ReportJob;
+import com.medico.report.domain.ReportJob.ReportStatus;
+import com.medico.report.dto.ReportJobDto;
+import com.medico.report.dto.ReportTypeDto;
+import com.medico.report.dto.SubmitReportRequest;
+import com.medico.report.mapper.ReportJobMapper;
+import com.medico.report.repository.ReportJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Background reports. A submitted report is stored as a queued job and handed to
+ * {@link ReportWorker} once committed; clients poll the job or subscribe to its completion and
+ * then download the CSV result. Requests are keyed by report type and a hash of their
+ * normalized parameters: a request equal to one that is still pending, or that completed
+ * within {@code cache-ttl}, returns that job instead of running the report again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ReportJobService {
+
+    private final ReportJobRepository jobRepository;
+    private final ReportDefinitions definitions;
+    private final ReportWorker worker;
+    private final ReportFileStore fileStore;
+    private final ReportNotifier notifier;
+    private final ReportJobMapper mapper;
+
+    @Value("${medico.reports.cache-ttl:PT15M}")
+    private Duration cacheTtl;
+
+    @Value("${medico.reports.max-queued:100}")
+    private int maxQueued;
+
+    @Value("${medico.reports.retention:P7D}")
+    private Duration retention;
+
+    public List<ReportTypeDto> getReportTypes() {
+        return definitions.getAll().stream()
+            .filter(definitions::isAccessible)
+            .sorted(Comparator.comparing(ReportDefinition::type))
+            .map(definition -> new ReportTypeDto(definition.type(), definition.description(),
+                definition.parameters(), definition.columns(), definition.defaultPriority()))
+            .toList();
+    }
+
+    @Transactional
+    public ReportJobDto submit(SubmitReportRequest request) {
+        ReportDefinition definition = definitions.get(request.reportType());
+        definitions.checkAccess(definition);
+
+        Map<String, String> parameters = new TreeMap<>(
+            definition.normalize(request.parameters() != null ? request.parameters() : Map.of()));
+        String parametersJson = mapper.parametersJson(parameters);
+        String hash = hash(definition.type(), parametersJson);
+
+        Optional<ReportJob> reusable = jobRepository
+            .findReusable(definition.type(), hash, LocalDateTime.now().minus(cacheTtl))
+            .filter(job -> job.getStatus() != ReportStatus.COMPLETED || fileStore.exists(job.getId()));
+        if (reusable.isPresent()) {
+            log.debug("Report request {} {} served by job {}", definition.type(), parametersJson, reusable.get().getId());
+            return mapper.toDto(reusable.get());
+        }
+
+        if (jobRepository.countByStatus(ReportStatus.QUEUED) >= maxQueued) {
+            throw new BusinessException("Too many reports are queued, please try again later");
+        }
+
+        ReportJob job = jobRepository.save(ReportJob.builder()
+            .reportType(definition.type())
+            .parameters(parametersJson)
+            .parametersHash(hash)
+            .priority(request.priority() != null ? request.priority() : definition.defaultPriority())
+            .status(ReportStatus.QUEUED)
+            .requestedBy(currentUser())
+            .build());
+
+        UUID jobId = job.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                worker.enqueue(jobId, job.getPriority());
+            }
+        });
+        log.info("Queued report job {} ({}) with priority {}", jobId, definition.type(), job.getPriority());
+        return mapper.toDto(job);
+    }
+
+    public ReportJobDto getJob(UUID id) {
+        return mapper.toDto(findAccessibleJob(id));
+    }
+
+    /**
+     * The current user's jobs, newest first; administrators see all jobs.
+     */
+    public PageResponse<ReportJobDto> getJobs(Pageable pageable) {
+        Page<ReportJob> jobs = isAdmin()
+            ? jobRepository.findAllByOrderByCreatedAtDesc(pageable)
+            : jobRepository.findByRequestedByOrderByCreatedAtDesc(currentUser(), pageable);
+        return PageResponse.from(jobs, jobs.getContent().stream().map(mapper::toDto).toList());
+    }
+
+    public Path getResultFile(UUID id) {
+        ReportJob job = findAccessibleJob(id);
+        if (job.getStatus() != ReportStatus.COMPLETED || !fileStore.exists(id)) {
+            throw new BusinessException("Report result is not available");
+        }
+        return fileStore.file(id);
+    }
+
+    /**
+     * Subscribes to a job's completion. Runs in a read-write transaction so that the job's state
+     * is read from the primary: the worker notifies only after committing there, so a job read as
+     * unfinished here is guaranteed to notify the subscription registered just before.
+     */
+    @Transactional
+    public SseEmitter subscribe(UUID id) {
+        findAccessibleJob(id);
+        SseEmitter emitter = notifier.register(id);
+        ReportJobDto job = mapper.toDto(jobRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("ReportJob", "id", id)));
+        if (job.status() == ReportStatus.COMPLETED || job.status() == ReportStatus.FAILED) {
+            notifier.finished(job);
+        } else {
+            notifier.sendStatus(emitter, job);
+        }
+        return emitter;
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${medico.reports.cleanup-interval:PT1H}")
+    public void purgeExpiredJobs() {
+        int interrupted = worker.failStale();
+        List<UUID> expired = jobRepository.findFinishedIdsCreatedBefore(LocalDateTime.now().minus(retention));
+        expired.forEach(fileStore::delete);
+        jobRepository.deleteAllByIdInBatch(expired);
+        if (interrupted > 0 || !expired.isEmpty()) {
+            log.info("Purged {} expired report jobs, failed {} interrupted ones", expired.size(), interrupted);
+        }
+    }
+
+    private ReportJob findAccessibleJob(UUID id) {
+        ReportJob job = jobRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("ReportJob", "id", id));
+        definitions.checkAccess(definitions.get(job.getReportType()));
+        return job;
+    }
+
+    private static String hash(String reportType, String parametersJson) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(reportType.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(parametersJson.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+            .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
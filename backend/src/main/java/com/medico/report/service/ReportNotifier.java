@@ -0,0 +1,80 @@
+package com.medico.report.service;
+
+import com.medico.report.domain.ReportJob.ReportStatus;
+import com.medico.report.dto.ReportJobDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-sent event subscriptions to report jobs. Each subscriber gets a single
+ * {@code completed} or {@code failed} event carrying the job, after which its stream is closed.
+ */
+@Slf4j
+@Component
+public class ReportNotifier {
+
+    private final Map<UUID, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${medico.reports.subscribe-timeout:PT30M}")
+    private Duration timeout;
+
+    public SseEmitter register(UUID jobId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribers.computeIfAbsent(jobId, id -> ConcurrentHashMap.newKeySet()).add(emitter);
+        emitter.onCompletion(() -> remove(jobId, emitter));
+        emitter.onTimeout(() -> remove(jobId, emitter));
+        emitter.onError(error -> remove(jobId, emitter));
+        return emitter;
+    }
+
+    /**
+     * Sends the current state of a job that is still queued or running as a {@code status} event.
+     */
+    public void sendStatus(SseEmitter emitter, ReportJobDto job) {
+        send(emitter, "status", job);
+    }
+
+    /**
+     * Notifies and closes every subscription of a job that has completed or failed.
+     */
+    public void finished(ReportJobDto job) {
+        Set<SseEmitter> emitters = subscribers.remove(job.id());
+        if (emitters == null) {
+            return;
+        }
+        String event = job.status() == ReportStatus.COMPLETED ? "completed" : "failed";
+        for (SseEmitter emitter : emitters) {
+            if (send(emitter, event, job)) {
+                emitter.complete();
+            }
+        }
+        log.debug("Notified {} subscribers of report job {}", emitters.size(), job.id());
+    }
+
+    private void remove(UUID jobId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private boolean send(SseEmitter emitter, String name, ReportJobDto job) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(job, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
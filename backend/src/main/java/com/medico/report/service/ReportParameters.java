@@ -0,0 +1,52 @@
+package com.medico.report.service;
+
+import com.medico.common.exception.BusinessException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Parsing helpers for {@link ReportDefinition#normalize} implementations.
+ */
+public final class ReportParameters {
+
+    public static final String FROM = "from";
+    public static final String TO = "to";
+
+    private ReportParameters() {
+    }
+
+    public static LocalDate date(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isBlank()) {
+            throw new BusinessException("Report parameter '" + name + "' is required");
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new BusinessException("Report parameter '" + name + "' must be a date (yyyy-MM-dd)");
+        }
+    }
+
+    /**
+     * Reads an inclusive {@code from}/{@code to} date range of at most {@code maxDays} days.
+     */
+    public static LocalDate[] dateRange(Map<String, String> parameters, int maxDays) {
+        LocalDate from = date(parameters, FROM);
+        LocalDate to = date(parameters, TO);
+        if (to.isBefore(from)) {
+            throw new BusinessException("Report parameter 'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new BusinessException("Report range cannot exceed " + maxDays + " days");
+        }
+        return new LocalDate[] {from, to};
+    }
+
+    public static boolean flag(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        return value != null && Boolean.parseBoolean(value.trim());
+    }
+}
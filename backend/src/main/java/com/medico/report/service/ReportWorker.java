@@ -0,0 +1,220 @@
+package com.medico.report.service;
+
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.medico.report.domain.ReportJob;
+import com.medico.report.domain.ReportJob.ReportPriority;
+import com.medico.report.domain.ReportJob.ReportStatus;
+import com.medico.report.mapper.ReportJobMapper;
+import com.medico.report.repository.ReportJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs report jobs on the {@code reportExecutor} pool. A job is claimed in its own transaction,
+ * so that only one worker runs it; the report itself runs in a read-only transaction bounded by
+ * {@code timeout}, which goes to a read replica when replicas are enabled, and streams its rows
+ * straight into the CSV file. The job's final state is committed before subscribers are notified,
+ * and only while the job is still running, so a job failed as interrupted stays failed.
+ * <p>
+ * The engine is local to one application instance: the queue lives in this instance's executor,
+ * results are written to its {@code medico.reports.dir} and completion events reach only the
+ * subscribers connected to it. Reports are meant to be served by a single instance.
+ */
+@Slf4j
+@Component
+public class ReportWorker {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final Comparator<ReportTask> TASK_ORDER = Comparator
+        .comparing((ReportTask task) -> task.priority)
+        .thenComparingLong(task -> task.sequence);
+
+    private final ReportJobRepository jobRepository;
+    private final ReportDefinitions definitions;
+    private final ReportFileStore fileStore;
+    private final ReportNotifier notifier;
+    private final ReportJobMapper mapper;
+    private final ThreadPoolTaskExecutor reportExecutor;
+    private final TransactionTemplate stateTransaction;
+    private final TransactionTemplate reportTransaction;
+    private final Duration timeout;
+    private final AtomicLong sequence = new AtomicLong();
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    public ReportWorker(ReportJobRepository jobRepository, ReportDefinitions definitions, ReportFileStore fileStore,
+                        ReportNotifier notifier, ReportJobMapper mapper, ThreadPoolTaskExecutor reportExecutor,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${medico.reports.timeout:PT10M}") Duration timeout) {
+        this.jobRepository = jobRepository;
+        this.definitions = definitions;
+        this.fileStore = fileStore;
+        this.notifier = notifier;
+        this.mapper = mapper;
+        this.reportExecutor = reportExecutor;
+        this.timeout = timeout;
+        this.stateTransaction = new TransactionTemplate(transactionManager);
+        this.reportTransaction = new TransactionTemplate(transactionManager);
+        this.reportTransaction.setReadOnly(true);
+        this.reportTransaction.setTimeout((int) timeout.toSeconds());
+    }
+
+    public void enqueue(UUID jobId, ReportPriority priority) {
+        reportExecutor.execute(new ReportTask(jobId, priority, sequence.getAndIncrement()));
+    }
+
+    public int getQueuedCount() {
+        return reportExecutor.getThreadPoolExecutor().getQueue().size();
+    }
+
+    /**
+     * Fails jobs that have been running for longer than the report timeout; their worker is gone,
+     * typically because the instance running them stopped.
+     */
+    public int failStale() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer failed = stateTransaction.execute(status ->
+            jobRepository.failStale(now.minus(timeout), "Report was interrupted", now));
+        return failed != null ? failed : 0;
+    }
+
+    /**
+     * Queued jobs live only in the executor's memory, so after a restart they are queued again
+     * from the table. This assumes the single reporting instance: another instance would pick up
+     * jobs whose subscribers and result downloads go elsewhere.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeuePending() {
+        int failed = failStale();
+        List<ReportJob> queued = jobRepository.findByStatusOrderByCreatedAtAsc(ReportStatus.QUEUED);
+        queued.forEach(job -> enqueue(job.getId(), job.getPriority()));
+        if (failed > 0 || !queued.isEmpty()) {
+            log.info("Report jobs on startup: {} requeued, {} interrupted", queued.size(), failed);
+        }
+    }
+
+    private void run(UUID jobId) {
+        ReportJob job = stateTransaction.execute(status ->
+            jobRepository.claim(jobId, LocalDateTime.now()) == 1 ? jobRepository.findById(jobId).orElse(null) : null);
+        if (job == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            ReportDefinition definition = definitions.get(job.getReportType());
+            long rowCount = write(jobId, definition, mapper.parameters(job));
+            long sizeBytes = fileStore.publish(jobId);
+            Integer completed = stateTransaction.execute(status ->
+                jobRepository.markCompleted(jobId, rowCount, sizeBytes, LocalDateTime.now()));
+            if (completed != null && completed == 1) {
+                log.info("Report job {} ({}) completed: {} rows, {} bytes in {} ms", jobId, job.getReportType(),
+                    rowCount, sizeBytes, Duration.ofNanos(System.nanoTime() - started).toMillis());
+            } else {
+                log.warn("Report job {} ({}) finished after it had been failed as interrupted, discarding its result",
+                    jobId, job.getReportType());
+                fileStore.delete(jobId);
+            }
+        } catch (Exception e) {
+            log.error("Report job {} ({}) failed", jobId, job.getReportType(), e);
+            fileStore.delete(jobId);
+            String error = String.valueOf(e.getMessage());
+            stateTransaction.executeWithoutResult(status -> jobRepository.markFailed(jobId,
+                error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error, LocalDateTime.now()));
+        }
+
+        notifier.finished(stateTransaction.execute(status ->
+            mapper.toDto(jobRepository.findById(jobId).orElseThrow())));
+    }
+
+    private long write(UUID jobId, ReportDefinition definition, Map<String, String> parameters) throws IOException {
+        try (Writer out = Files.newBufferedWriter(fileStore.partFile(jobId), StandardCharsets.UTF_8);
+             SequenceWriter csv = csvMapper.writerFor(String[].class).with(CsvSchema.emptySchema()).writeValues(out)) {
+            csv.write(definition.columns().toArray(String[]::new));
+            CsvRows rows = new CsvRows(csv);
+            reportTransaction.executeWithoutResult(status -> {
+                try {
+                    definition.write(parameters, rows);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return rows.count;
+        }
+    }
+
+    private static final class CsvRows implements ReportDefinition.Rows {
+
+        private final SequenceWriter csv;
+        private long count;
+
+        private CsvRows(SequenceWriter csv) {
+            this.csv = csv;
+        }
+
+        @Override
+        public void add(Object... values) throws IOException {
+            String[] row = new String[values.length];
+            for (int i = 0; i < values.length; i++) {
+                row[i] = format(values[i]);
+            }
+            csv.write(row);
+            count++;
+        }
+
+        // Formatted here rather than by Jackson, which drops null columns and has no java.time support in CSV
+        private static String format(Object value) {
+            if (value == null) {
+                return "";
+            }
+            if (value instanceof BigDecimal decimal) {
+                return decimal.toPlainString();
+            }
+            return value.toString();
+        }
+    }
+
+    private final class ReportTask implements Runnable, Comparable<ReportTask> {
+
+        private final UUID jobId;
+        private final ReportPriority priority;
+        private final long sequence;
+
+        private ReportTask(UUID jobId, ReportPriority priority, long sequence) {
+            this.jobId = jobId;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            ReportWorker.this.run(jobId);
+        }
+
+        @Override
+        public int compareTo(ReportTask other) {
+            return TASK_ORDER.compare(this, other);
+        }
+    }
+}
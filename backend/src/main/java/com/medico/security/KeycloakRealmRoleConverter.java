@@ -0,0 +1,98 @@
+package com.medico.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps Keycloak realm and client roles to {@code ROLE_*} authorities. A bearer token is sent
+ * with every request of a session, so the resulting authority list is cached per token (keyed by
+ * {@code jti}) until the token expires; authority objects are interned per role name and the
+ * cached lists are immutable, so a repeated request reuses them instead of walking the claims.
+ * Once the cache is full the least recently used token is evicted, which keeps the tokens of
+ * active sessions cached under a burst of new ones.
+ */
+class KeycloakRealmRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+    // Access-ordered, so the eldest entry is the least recently used; guarded by its own monitor
+    private final Map<String, CachedAuthorities> cache;
+
+    KeycloakRealmRoleConverter(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAuthorities> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (maxEntries <= 0 || expiresAt == null) {
+            return extractAuthorities(jwt);
+        }
+
+        String key = jwt.getId() != null ? jwt.getId() : jwt.getTokenValue();
+        CachedAuthorities cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached.authorities();
+        }
+
+        List<GrantedAuthority> authorities = extractAuthorities(jwt);
+        synchronized (cache) {
+            cache.put(key, new CachedAuthorities(authorities, expiresAt));
+        }
+        return authorities;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<GrantedAuthority> extractAuthorities(Jwt jwt) {
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+
+        // Extract realm roles
+        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+        if (realmAccess != null && realmAccess.get("roles") instanceof Collection<?> roles) {
+            addRoles((Collection<String>) roles, authorities);
+        }
+
+        // Extract resource roles (client roles)
+        Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
+        if (resourceAccess != null) {
+            resourceAccess.values().forEach(clientRoles -> {
+                if (clientRoles instanceof Map<?, ?> clientRolesMap
+                        && clientRolesMap.get("roles") instanceof Collection<?> roles) {
+                    addRoles((Collection<String>) roles, authorities);
+                }
+            });
+        }
+
+        return List.copyOf(authorities);
+    }
+
+    private static void addRoles(Collection<String> roles, Set<GrantedAuthority> authorities) {
+        for (String role : roles) {
+            authorities.add(AUTHORITIES.computeIfAbsent(role, r -> new SimpleGrantedAuthority("ROLE_" + r.toUpperCase())));
+        }
+    }
+
+    private record CachedAuthorities(List<GrantedAuthority> authorities, Instant expiresAt) {
+    }
+}
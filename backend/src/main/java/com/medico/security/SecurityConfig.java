@@ -1,32 +1,48 @@
 package com.medico.security;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.DefaultJWKSetCache;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.RemoteJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+    @Value("${medico.security.authority-cache-size:10000}")
+    private int authorityCacheSize;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -34,6 +50,8 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches (SSE completion/timeout) were authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/actuator/health", "/actuator/info").permitAll()
                 .requestMatchers("/api/v1/**").authenticated()
@@ -63,43 +81,41 @@ public class SecurityConfig {
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter());
+        converter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter(authorityCacheSize));
         return converter;
     }
 
-    static class KeycloakRealmRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
-        @Override
-        @SuppressWarnings("unchecked")
-        public Collection<GrantedAuthority> convert(Jwt jwt) {
-            Collection<GrantedAuthority> authorities = new ArrayList<>();
-
-            // Extract realm roles
-            Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
-            if (realmAccess != null && realmAccess.containsKey("roles")) {
-                List<String> roles = (List<String>) realmAccess.get("roles");
-                authorities.addAll(roles.stream()
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                    .collect(Collectors.toList()));
-            }
+    /**
+     * Verifies tokens against a locally cached copy of the Keycloak JWKS. The key set is fetched
+     * lazily on the first token, refreshed in the background of requests every {@code refresh}
+     * and, if Keycloak is unreachable, the last fetched keys stay in use for up to
+     * {@code lifespan}. An optional {@code fallback-location} file supplies keys when nothing has
+     * been fetched yet, so the API can verify tokens while the issuer is down at startup.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") URL jwkSetUri,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+            @Value("${medico.security.jwks.lifespan:PT24H}") Duration lifespan,
+            @Value("${medico.security.jwks.refresh:PT5M}") Duration refresh,
+            @Value("${medico.security.jwks.timeout:PT2S}") Duration timeout,
+            @Value("${medico.security.jwks.fallback-location:}") String fallbackLocation) throws IOException, ParseException {
+        JWKSource<SecurityContext> fallback = null;
+        if (!fallbackLocation.isBlank()) {
+            fallback = new ImmutableJWKSet<>(JWKSet.load(new File(fallbackLocation)));
+        }
+        int timeoutMillis = (int) timeout.toMillis();
+        JWKSource<SecurityContext> keys = new RemoteJWKSet<>(jwkSetUri, fallback,
+            new DefaultResourceRetriever(timeoutMillis, timeoutMillis),
+            new DefaultJWKSetCache(lifespan.toMillis(), refresh.toMillis(), TimeUnit.MILLISECONDS));
 
-            // Extract resource roles (client roles)
-            Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
-            if (resourceAccess != null) {
-                resourceAccess.forEach((clientId, clientRoles) -> {
-                    if (clientRoles instanceof Map) {
-                        Map<String, Object> clientRolesMap = (Map<String, Object>) clientRoles;
-                        if (clientRolesMap.containsKey("roles")) {
-                            List<String> roles = (List<String>) clientRolesMap.get("roles");
-                            authorities.addAll(roles.stream()
-                                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                                .collect(Collectors.toList()));
-                        }
-                    }
-                });
-            }
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keys));
+        // Claims are validated by Spring below
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
 
-            return authorities;
-        }
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return decoder;
     }
 }
-
@@ -0,0 +1,28 @@
+-- Medico Hospital Management System - Bulk patient import
+-- Version: 1.9.0
+
+-- MRN numbers are allocated in blocks of 100 (hi/lo): each nextval reserves the next block, so
+-- the application needs one round trip per hundred patients and never probes for collisions.
+CREATE SEQUENCE patient_mrn_seq START WITH 100 INCREMENT BY 100;
+
+CREATE TABLE patient_import_jobs (
+    id UUID PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    format VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    processed_rows BIGINT NOT NULL DEFAULT 0,
+    imported_rows BIGINT NOT NULL DEFAULT 0,
+    duplicate_rows BIGINT NOT NULL DEFAULT 0,
+    invalid_rows BIGINT NOT NULL DEFAULT 0,
+    error_sample TEXT,
+    last_error TEXT,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+);
+
+CREATE INDEX idx_patient_import_jobs_created ON patient_import_jobs(created_at);
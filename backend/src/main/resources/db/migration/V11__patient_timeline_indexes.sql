@@ -0,0 +1,19 @@
+-- Medico Hospital Management System - Patient timeline indexes
+-- Version: 1.10.0
+
+-- The patient timeline reads each source as a keyset range over (patient, date, id). These
+-- composite indexes make every read a bounded backward index scan and supersede the
+-- patient-only indexes. Lab results are reached through lab_orders(patient_id) and the
+-- existing item indexes, which keep the per-patient fan-out small.
+
+DROP INDEX IF EXISTS idx_medical_records_patient;
+CREATE INDEX idx_medical_records_patient_date_id ON medical_records(patient_id, visit_date, id);
+
+DROP INDEX IF EXISTS idx_prescriptions_patient;
+CREATE INDEX idx_prescriptions_patient_date_id ON prescriptions(patient_id, prescription_date, id);
+
+DROP INDEX IF EXISTS idx_appointments_patient;
+CREATE INDEX idx_appointments_patient_date_id ON appointments(patient_id, appointment_date_time, id);
+
+DROP INDEX IF EXISTS idx_invoices_patient;
+CREATE INDEX idx_invoices_patient_date_id ON invoices(patient_id, invoice_date, id);
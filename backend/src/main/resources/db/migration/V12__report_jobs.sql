@@ -0,0 +1,29 @@
+-- Medico Hospital Management System - Asynchronous report jobs
+-- Version: 1.11.0
+
+-- One row per submitted report. The output is a CSV file in the report store named after the
+-- job id. parameters_hash identifies the normalized (report type, parameters) request so that
+-- an identical recent result, or a run already in progress, is reused instead of recomputed.
+CREATE TABLE report_jobs (
+    id UUID PRIMARY KEY,
+    report_type VARCHAR(50) NOT NULL,
+    parameters TEXT NOT NULL,
+    parameters_hash VARCHAR(64) NOT NULL,
+    priority VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    requested_by VARCHAR(255),
+    row_count BIGINT,
+    size_bytes BIGINT,
+    error TEXT,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+);
+
+CREATE INDEX idx_report_jobs_hash ON report_jobs(parameters_hash, created_at);
+CREATE INDEX idx_report_jobs_status ON report_jobs(status) WHERE status IN ('QUEUED', 'RUNNING');
+CREATE INDEX idx_report_jobs_created ON report_jobs(created_at);
@@ -0,0 +1,11 @@
+-- Medico Hospital Management System - Pharmacist dispensing queue
+-- Version: 1.12.0
+
+-- Urgency set by the prescriber; the dispensing queue orders waiting prescriptions by it and
+-- then by prescription date. Existing prescriptions are routine.
+ALTER TABLE prescriptions ADD COLUMN priority VARCHAR(20) NOT NULL DEFAULT 'ROUTINE';
+
+-- The queue is rebuilt from the prescriptions still waiting for dispensing on startup and on
+-- every reconciliation; a partial index keeps that read proportional to the queue, not the table.
+CREATE INDEX idx_prescriptions_dispensing_queue ON prescriptions(prescription_date, id)
+    WHERE status IN ('ACTIVE', 'PARTIALLY_DISPENSED');
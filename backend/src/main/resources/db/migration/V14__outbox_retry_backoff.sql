@@ -0,0 +1,11 @@
+-- Medico Hospital Management System - Outbox retry backoff
+-- Version: 1.13.0
+
+-- A failed event is not retried before next_attempt_at, which grows exponentially with its
+-- attempts. NULL means the event has never failed and is due immediately.
+ALTER TABLE outbox_events ADD COLUMN next_attempt_at TIMESTAMP;
+
+-- Pending events are only dispatched when no earlier event of the same aggregate is waiting for
+-- a retry or was given up on; this index answers that lookup per candidate event.
+CREATE INDEX idx_outbox_events_pending_aggregate ON outbox_events(aggregate_type, aggregate_id, id)
+    WHERE published_at IS NULL;
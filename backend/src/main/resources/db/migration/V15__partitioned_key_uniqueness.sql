@@ -0,0 +1,49 @@
+-- Medico Hospital Management System - Global keys for partitioned tables
+-- Version: 1.14.0
+
+-- A unique constraint on a partitioned table must include the partition key, so since V8 the
+-- database only guarantees a payment number or a lab order item's result to be unique within one
+-- month. These unpartitioned tables hold the keys themselves; the services insert into them in the
+-- same transaction as the partitioned row, so a second claim fails regardless of its month.
+-- They deliberately carry no foreign key to the partitioned tables, which would block detaching
+-- and archiving old partitions; archived keys stay reserved.
+
+DO $$
+DECLARE
+    duplicate_payments TEXT;
+    duplicate_results TEXT;
+BEGIN
+    SELECT string_agg(payment_number, ', ') INTO duplicate_payments
+    FROM (SELECT payment_number FROM payments GROUP BY payment_number HAVING count(*) > 1) d;
+
+    SELECT string_agg(lab_order_item_id::text, ', ') INTO duplicate_results
+    FROM (SELECT lab_order_item_id FROM lab_results GROUP BY lab_order_item_id HAVING count(*) > 1) d;
+
+    IF duplicate_payments IS NOT NULL OR duplicate_results IS NOT NULL THEN
+        RAISE EXCEPTION 'Cannot add global keys for partitioned tables: duplicate rows exist'
+            USING DETAIL = 'Payment numbers: ' || coalesce(left(duplicate_payments, 2000), 'none')
+                        || '; lab order items: ' || coalesce(left(duplicate_results, 2000), 'none'),
+                  HINT = 'Renumber the duplicate payments and remove the extra lab results, then re-run the migration.';
+    END IF;
+END $$;
+
+CREATE TABLE payment_numbers (
+    payment_number VARCHAR(50) PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO payment_numbers (payment_number, created_at)
+SELECT payment_number, payment_date FROM payments;
+
+CREATE TABLE lab_result_items (
+    lab_order_item_id UUID PRIMARY KEY REFERENCES lab_order_items(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO lab_result_items (lab_order_item_id, created_at)
+SELECT lab_order_item_id, performed_at FROM lab_results;
+
+-- V8 rebuilt lab_results without these V1 indexes; recreated on the parent they cascade to
+-- every existing and future partition.
+CREATE INDEX idx_lab_results_abnormal ON lab_results(is_abnormal);
+CREATE INDEX idx_lab_results_critical ON lab_results(is_critical);
@@ -0,0 +1,9 @@
+-- Medico Hospital Management System - Patient import leases
+-- Version: 1.15.0
+
+-- A job is run by whichever node claims it with a conditional update. The claiming run stores
+-- its id in lease_owner and refreshes heartbeat_at with every committed chunk; progress writes of
+-- a run that no longer owns the job are rejected. A RUNNING job whose heartbeat is older than
+-- the lease counts as interrupted and can be resumed from any node.
+ALTER TABLE patient_import_jobs ADD COLUMN lease_owner UUID;
+ALTER TABLE patient_import_jobs ADD COLUMN heartbeat_at TIMESTAMP;
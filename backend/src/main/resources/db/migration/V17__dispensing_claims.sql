@@ -0,0 +1,9 @@
+-- Medico Hospital Management System - Persistent dispensing queue claims
+-- Version: 1.16.0
+
+-- A pharmacist's claim on a waiting prescription. Claims are taken, renewed and released with
+-- conditional updates, so two pharmacists cannot hold the same prescription even when their
+-- terminals reach different instances. A claim whose lease has expired is free to take over.
+ALTER TABLE prescriptions ADD COLUMN claimed_by VARCHAR(255);
+ALTER TABLE prescriptions ADD COLUMN claimed_by_name VARCHAR(255);
+ALTER TABLE prescriptions ADD COLUMN lease_expires_at TIMESTAMP;
@@ -0,0 +1,6 @@
+-- Medico Hospital Management System - Patient match key length
+-- Version: 1.17.0
+
+-- Email keys are stored as 'EM:' followed by the email, which patients.email allows up to 255
+-- characters; the original 150 made long addresses fail patient creation and whole import chunks.
+ALTER TABLE patient_match_keys ALTER COLUMN key_value TYPE VARCHAR(300);
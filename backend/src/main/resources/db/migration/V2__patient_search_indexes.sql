@@ -0,0 +1,18 @@
+-- Medico Hospital Management System - Indexed patient search
+-- Version: 1.1.0
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring and fuzzy name matching (LIKE '%term%' and the % similarity operator)
+CREATE INDEX idx_patients_full_name_trgm
+    ON patients USING gin ((lower(first_name || ' ' || last_name)) gin_trgm_ops);
+
+-- Prefix matching on MRN, normalized phone digits and email
+CREATE INDEX idx_patients_mrn_prefix
+    ON patients (lower(medical_record_number) text_pattern_ops);
+
+CREATE INDEX idx_patients_phone_digits
+    ON patients (regexp_replace(phone_number, '[^0-9]', '', 'g') text_pattern_ops);
+
+CREATE INDEX idx_patients_email_prefix
+    ON patients (lower(email) text_pattern_ops);
@@ -0,0 +1,18 @@
+-- Medico Hospital Management System - Duplicate patient detection
+-- Version: 1.2.0
+
+CREATE TABLE patient_match_keys (
+    id UUID PRIMARY KEY,
+    patient_id UUID NOT NULL REFERENCES patients(id) ON DELETE CASCADE,
+    key_type VARCHAR(30) NOT NULL,
+    key_value VARCHAR(150) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+);
+
+CREATE INDEX idx_patient_match_keys_value ON patient_match_keys(key_value);
+CREATE INDEX idx_patient_match_keys_patient ON patient_match_keys(patient_id);
+CREATE INDEX idx_patient_match_keys_type_value ON patient_match_keys(key_type, key_value);
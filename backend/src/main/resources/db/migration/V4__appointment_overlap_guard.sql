@@ -0,0 +1,48 @@
+-- Medico Hospital Management System - Appointment overlap guard
+-- Version: 1.3.0
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+UPDATE appointments
+SET end_date_time = appointment_date_time + INTERVAL '30 minutes'
+WHERE end_date_time IS NULL;
+
+ALTER TABLE appointments ALTER COLUMN end_date_time SET NOT NULL;
+
+-- Existing double bookings would make the constraint below fail with a bare conflict error.
+-- Report them up front so they can be cancelled or rescheduled before re-running the migration.
+DO $$
+DECLARE
+    conflict_count BIGINT;
+    conflict_sample TEXT;
+BEGIN
+    SELECT count(*), string_agg(pair, ', ')
+    INTO conflict_count, conflict_sample
+    FROM (
+        SELECT a.id || ' / ' || b.id AS pair
+        FROM appointments a
+        JOIN appointments b
+            ON b.doctor_id = a.doctor_id
+            AND b.id > a.id
+            AND tsrange(b.appointment_date_time, b.end_date_time) && tsrange(a.appointment_date_time, a.end_date_time)
+        WHERE a.status NOT IN ('CANCELLED', 'NO_SHOW')
+            AND b.status NOT IN ('CANCELLED', 'NO_SHOW')
+        ORDER BY a.appointment_date_time
+    ) conflicts;
+
+    IF conflict_count > 0 THEN
+        RAISE EXCEPTION 'Cannot add appointments_no_doctor_overlap: % overlapping appointment pair(s) for the same doctor',
+            conflict_count
+            USING DETAIL = 'Overlapping appointment ids: ' || left(conflict_sample, 4000),
+                  HINT = 'Cancel, mark NO_SHOW or reschedule one appointment of each pair, then re-run the migration.';
+    END IF;
+END $$;
+
+-- Half-open ranges: back-to-back appointments are allowed, true overlaps are not
+ALTER TABLE appointments
+    ADD CONSTRAINT appointments_no_doctor_overlap
+    EXCLUDE USING gist (
+        doctor_id WITH =,
+        tsrange(appointment_date_time, end_date_time) WITH &&
+    )
+    WHERE (status NOT IN ('CANCELLED', 'NO_SHOW'));
@@ -0,0 +1,34 @@
+-- Medico Hospital Management System - Full-text search over medical record narratives
+-- Version: 1.4.0
+
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+ALTER TABLE medical_records ADD COLUMN search_vector tsvector;
+
+-- Diagnosis ranks highest, then presenting complaint and symptoms, then free-text narrative
+CREATE OR REPLACE FUNCTION medical_records_search_vector_update() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('english', coalesce(NEW.diagnosis, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(NEW.chief_complaint, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(NEW.symptoms, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(NEW.treatment_plan, '')), 'C') ||
+        setweight(to_tsvector('english', coalesce(NEW.physical_examination, '')), 'C') ||
+        setweight(to_tsvector('english', coalesce(NEW.notes, '')), 'D');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_medical_records_search_vector
+    BEFORE INSERT OR UPDATE OF diagnosis, chief_complaint, symptoms, treatment_plan, physical_examination, notes
+    ON medical_records
+    FOR EACH ROW EXECUTE FUNCTION medical_records_search_vector_update();
+
+-- Backfill existing rows through the trigger
+UPDATE medical_records SET diagnosis = diagnosis;
+
+-- Cohort-wide search
+CREATE INDEX idx_medical_records_search ON medical_records USING gin (search_vector);
+
+-- Per-patient search without scanning every match across the cohort
+CREATE INDEX idx_medical_records_patient_search ON medical_records USING gin (patient_id, search_vector);
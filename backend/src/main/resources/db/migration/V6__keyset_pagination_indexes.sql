@@ -0,0 +1,21 @@
+-- Medico Hospital Management System - Seek indexes for keyset pagination
+-- Version: 1.5.0
+
+-- Each index matches a cursor listing's (sort key, id) order so that a page is a bounded
+-- index range scan regardless of depth. The single-column indexes they supersede are dropped.
+
+DROP INDEX IF EXISTS idx_appointments_date;
+CREATE INDEX idx_appointments_date_id ON appointments(appointment_date_time, id);
+
+DROP INDEX IF EXISTS idx_invoices_date;
+CREATE INDEX idx_invoices_date_id ON invoices(invoice_date, id);
+
+DROP INDEX IF EXISTS idx_lab_orders_date;
+CREATE INDEX idx_lab_orders_date_id ON lab_orders(order_date, id);
+
+DROP INDEX IF EXISTS idx_inventory_expiry;
+CREATE INDEX idx_inventory_expiry_id ON inventory(expiry_date, id);
+
+CREATE INDEX idx_dispensing_pharmacist_date_id ON prescription_dispensing(dispensed_by, dispensed_at, id);
+
+CREATE INDEX idx_patients_active_name_id ON patients(last_name, id) WHERE active = true;
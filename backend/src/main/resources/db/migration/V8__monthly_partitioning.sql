@@ -0,0 +1,160 @@
+-- Medico Hospital Management System - Monthly range partitioning
+-- Version: 1.7.0
+
+-- The append-only, date-driven leaf tables are range partitioned by month so that date-range
+-- queries only scan the partitions they cover, and closed months can be detached and archived.
+--   prescription_dispensing  by dispensed_at
+--   lab_results              by performed_at (always set on creation; backfilled from created_at)
+--   payments                 by payment_date
+-- PostgreSQL requires every primary key and unique constraint of a partitioned table to include
+-- the partition key, so ids and the former single-column unique keys are now unique per
+-- (key, partition key); the services already check lab result and payment number uniqueness.
+-- appointments and invoices are referenced by foreign keys from other tables and stay unpartitioned.
+-- Each table keeps a DEFAULT partition as a safety net; the application creates monthly partitions
+-- ahead of time (medico_create_monthly_partition) so it stays empty.
+
+CREATE OR REPLACE FUNCTION medico_create_monthly_partition(parent TEXT, month DATE) RETURNS TEXT AS $$
+DECLARE
+    month_start DATE := date_trunc('month', month)::DATE;
+    partition_name TEXT := format('%s_%s', parent, to_char(month_start, 'YYYY_MM'));
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent, month_start, (month_start + INTERVAL '1 month')::DATE);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creates monthly partitions covering the existing rows of a table and the next three months
+CREATE OR REPLACE FUNCTION medico_create_partitions_for(parent TEXT, first_value TIMESTAMP) RETURNS VOID AS $$
+DECLARE
+    month DATE;
+BEGIN
+    FOR month IN
+        SELECT generate_series(date_trunc('month', COALESCE(first_value, CURRENT_TIMESTAMP)),
+                               date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '3 months',
+                               INTERVAL '1 month')::DATE
+    LOOP
+        PERFORM medico_create_monthly_partition(parent, month);
+    END LOOP;
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', parent || '_default', parent);
+END;
+$$ LANGUAGE plpgsql;
+
+-- =====================================================
+-- PRESCRIPTION DISPENSING
+-- =====================================================
+
+ALTER TABLE prescription_dispensing RENAME TO prescription_dispensing_unpartitioned;
+
+CREATE TABLE prescription_dispensing (
+    id UUID NOT NULL,
+    prescription_id UUID NOT NULL REFERENCES prescriptions(id),
+    prescription_item_id UUID NOT NULL REFERENCES prescription_items(id),
+    inventory_id UUID NOT NULL REFERENCES inventory(id),
+    dispensed_quantity INTEGER NOT NULL,
+    dispensed_at TIMESTAMP NOT NULL,
+    dispensed_by UUID NOT NULL,
+    pharmacist_name VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    notes TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+) PARTITION BY RANGE (dispensed_at);
+
+SELECT medico_create_partitions_for('prescription_dispensing',
+                                    (SELECT MIN(dispensed_at) FROM prescription_dispensing_unpartitioned));
+
+INSERT INTO prescription_dispensing SELECT * FROM prescription_dispensing_unpartitioned;
+DROP TABLE prescription_dispensing_unpartitioned;
+
+ALTER TABLE prescription_dispensing ADD PRIMARY KEY (id, dispensed_at);
+CREATE INDEX idx_dispensing_prescription ON prescription_dispensing(prescription_id);
+CREATE INDEX idx_dispensing_item ON prescription_dispensing(prescription_item_id);
+CREATE INDEX idx_dispensing_date ON prescription_dispensing(dispensed_at);
+CREATE INDEX idx_dispensing_pharmacist_date_id ON prescription_dispensing(dispensed_by, dispensed_at, id);
+
+-- =====================================================
+-- LAB RESULTS
+-- =====================================================
+
+UPDATE lab_results SET performed_at = created_at WHERE performed_at IS NULL;
+ALTER TABLE lab_results RENAME TO lab_results_unpartitioned;
+
+CREATE TABLE lab_results (
+    id UUID NOT NULL,
+    lab_order_item_id UUID NOT NULL REFERENCES lab_order_items(id),
+    result_value TEXT,
+    unit VARCHAR(50),
+    reference_range VARCHAR(255),
+    flag VARCHAR(50),
+    interpretation TEXT,
+    performed_at TIMESTAMP NOT NULL,
+    performed_by UUID,
+    technician_name VARCHAR(255),
+    verified_at TIMESTAMP,
+    verified_by UUID,
+    verifier_name VARCHAR(255),
+    notes TEXT,
+    is_abnormal BOOLEAN DEFAULT FALSE,
+    is_critical BOOLEAN DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+) PARTITION BY RANGE (performed_at);
+
+SELECT medico_create_partitions_for('lab_results', (SELECT MIN(performed_at) FROM lab_results_unpartitioned));
+
+INSERT INTO lab_results SELECT * FROM lab_results_unpartitioned;
+DROP TABLE lab_results_unpartitioned;
+
+ALTER TABLE lab_results ADD PRIMARY KEY (id, performed_at);
+ALTER TABLE lab_results ADD CONSTRAINT uk_lab_results_item UNIQUE (lab_order_item_id, performed_at);
+CREATE INDEX idx_lab_results_item ON lab_results(lab_order_item_id);
+CREATE INDEX idx_lab_results_performed ON lab_results(performed_at);
+
+-- =====================================================
+-- PAYMENTS
+-- =====================================================
+
+ALTER TABLE payments RENAME TO payments_unpartitioned;
+
+CREATE TABLE payments (
+    id UUID NOT NULL,
+    payment_number VARCHAR(50) NOT NULL,
+    invoice_id UUID NOT NULL REFERENCES invoices(id),
+    amount DECIMAL(12, 2) NOT NULL,
+    payment_date TIMESTAMP NOT NULL,
+    payment_method VARCHAR(50) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    transaction_reference VARCHAR(200),
+    received_by_id UUID,
+    received_by_name VARCHAR(255),
+    notes TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT DEFAULT 0
+) PARTITION BY RANGE (payment_date);
+
+SELECT medico_create_partitions_for('payments', (SELECT MIN(payment_date) FROM payments_unpartitioned));
+
+INSERT INTO payments SELECT * FROM payments_unpartitioned;
+DROP TABLE payments_unpartitioned;
+
+ALTER TABLE payments ADD PRIMARY KEY (id, payment_date);
+ALTER TABLE payments ADD CONSTRAINT uk_payments_number UNIQUE (payment_number, payment_date);
+CREATE INDEX idx_payments_number ON payments(payment_number);
+CREATE INDEX idx_payments_invoice ON payments(invoice_id);
+CREATE INDEX idx_payments_date ON payments(payment_date);
+CREATE INDEX idx_payments_status ON payments(status);
+CREATE INDEX idx_payments_method ON payments(payment_method);
+
+DROP FUNCTION medico_create_partitions_for(TEXT, TIMESTAMP);
@@ -0,0 +1,21 @@
+-- Medico Hospital Management System - Append-only audit trail
+-- Version: 1.8.0
+
+-- audit_logs is written in batches by the application's audit trail and is never modified:
+-- updates, deletes and truncation are rejected.
+
+CREATE OR REPLACE FUNCTION medico_reject_audit_log_change() RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'audit_logs is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_audit_logs_append_only
+    BEFORE UPDATE OR DELETE ON audit_logs
+    FOR EACH ROW EXECUTE FUNCTION medico_reject_audit_log_change();
+
+CREATE TRIGGER trg_audit_logs_no_truncate
+    BEFORE TRUNCATE ON audit_logs
+    FOR EACH STATEMENT EXECUTE FUNCTION medico_reject_audit_log_change();
+
+CREATE INDEX idx_audit_logs_created ON audit_logs(created_at);
@@ -0,0 +1,110 @@
+package com.medico.admin.service;
+
+import com.medico.admin.dto.DashboardStatsDto;
+import com.medico.billing.service.InvoiceService;
+import com.medico.billing.service.PaymentService;
+import com.medico.laboratory.service.LabOrderService;
+import com.medico.laboratory.service.LabResultService;
+import com.medico.patient.service.AppointmentService;
+import com.medico.patient.service.PatientService;
+import com.medico.patient.service.PrescriptionService;
+import com.medico.pharmacy.service.DispensingService;
+import com.medico.pharmacy.service.InventoryService;
+import com.medico.pharmacy.service.MedicationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DashboardServiceTest {
+
+    @Mock
+    private PatientService patientService;
+    @Mock
+    private AppointmentService appointmentService;
+    @Mock
+    private PrescriptionService prescriptionService;
+    @Mock
+    private MedicationService medicationService;
+    @Mock
+    private InventoryService inventoryService;
+    @Mock
+    private DispensingService dispensingService;
+    @Mock
+    private LabOrderService labOrderService;
+    @Mock
+    private LabResultService labResultService;
+    @Mock
+    private InvoiceService invoiceService;
+    @Mock
+    private PaymentService paymentService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolTaskExecutor executor;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(paymentService.getTodayTotalPayments()).thenReturn(BigDecimal.ZERO);
+        dashboardService = new DashboardService(patientService, appointmentService, prescriptionService,
+            medicationService, inventoryService, dispensingService, labOrderService, labResultService,
+            invoiceService, paymentService, executor, new DashboardCounters(), transactionManager,
+            Duration.ofMillis(1500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void metricQueriesRunInReadOnlyTransactionsWithStatementTimeout() {
+        when(patientService.getActivePatientCount()).thenReturn(42L);
+
+        DashboardStatsDto stats = dashboardService.getDashboardStats();
+
+        assertThat(stats.totalPatients()).isEqualTo(42L);
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(13)).getTransaction(definitions.capture());
+        assertThat(definitions.getAllValues()).allSatisfy(definition -> {
+            assertThat(definition.isReadOnly()).isTrue();
+            assertThat(definition.getTimeout()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void slowMetricFallsBackAndIsReportedUnavailable() {
+        when(appointmentService.getTodayAppointmentCount()).thenAnswer(invocation -> {
+            Thread.sleep(3000);
+            return 7L;
+        });
+
+        DashboardStatsDto stats = dashboardService.getDashboardStats();
+
+        assertThat(stats.todayAppointments()).isZero();
+        assertThat(stats.unavailableMetrics()).containsExactly("todayAppointments");
+    }
+}
@@ -0,0 +1,128 @@
+package com.medico.common.audit;
+
+import com.medico.common.exception.AuditUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditTrailTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final BlockingSink sink = new BlockingSink();
+    private AuditTrail trail;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        sink.release();
+        if (trail != null) {
+            trail.destroy();
+        }
+    }
+
+    @Test
+    void bestEffortDropsEntriesBeyondCapacity() throws Exception {
+        trail = trail(AuditDurability.BEST_EFFORT, 2, Duration.ofSeconds(5));
+
+        trail.record("READ", "Patient", UUID.randomUUID());
+        trail.record("READ", "Patient", UUID.randomUUID());
+        trail.record("READ", "Patient", UUID.randomUUID());
+
+        assertThat(registry.counter("medico.audit.dropped").count()).isEqualTo(1);
+        sink.release();
+        trail.destroy();
+        trail = null;
+        assertThat(sink.written).hasSize(2);
+    }
+
+    @Test
+    void guaranteedRejectsOnceTheQueueStaysFull() throws Exception {
+        trail = trail(AuditDurability.GUARANTEED, 1, Duration.ofMillis(50));
+
+        trail.record("READ", "Patient", UUID.randomUUID());
+
+        assertThatThrownBy(() -> trail.record("READ", "Patient", UUID.randomUUID()))
+            .isInstanceOf(AuditUnavailableException.class);
+        assertThat(registry.counter("medico.audit.rejected").count()).isEqualTo(1);
+        assertThat(registry.counter("medico.audit.dropped").count()).isZero();
+        sink.release();
+        trail.destroy();
+        trail = null;
+        assertThat(sink.written).hasSize(1);
+    }
+
+    @Test
+    void guaranteedWaitsForTheFlusherToFreeASlot() throws Exception {
+        trail = trail(AuditDurability.GUARANTEED, 1, Duration.ofSeconds(5));
+        trail.record("READ", "Patient", UUID.randomUUID());
+
+        Thread releaser = new Thread(() -> {
+            sleep(100);
+            sink.release();
+        });
+        releaser.start();
+        trail.record("READ", "Patient", UUID.randomUUID());
+        releaser.join();
+
+        trail.destroy();
+        trail = null;
+        assertThat(sink.written).hasSize(2);
+        assertThat(registry.counter("medico.audit.rejected").count()).isZero();
+    }
+
+    @Test
+    void reservedSlotsCountAgainstCapacityUntilCancelled() throws Exception {
+        trail = trail(AuditDurability.GUARANTEED, 1, Duration.ofMillis(50));
+
+        AuditTrail.Reservation reservation = trail.reserve("CREATE", "Patient", UUID.randomUUID(), null, null);
+
+        assertThatThrownBy(() -> trail.reserve("CREATE", "Patient", UUID.randomUUID(), null, null))
+            .isInstanceOf(AuditUnavailableException.class);
+        reservation.cancel();
+        trail.reserve("CREATE", "Patient", UUID.randomUUID(), null, null).enqueue();
+
+        sink.release();
+        trail.destroy();
+        trail = null;
+        assertThat(sink.written).hasSize(1);
+    }
+
+    private AuditTrail trail(AuditDurability durability, int capacity, Duration maxBlock) {
+        // Batches of one hand every entry to the sink at once, which then holds it until released
+        return new AuditTrail(sink, durability, capacity, 1, Duration.ofHours(1), maxBlock, registry);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class BlockingSink implements AuditSink {
+
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final List<AuditEvent> written = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void write(List<AuditEvent> batch) throws Exception {
+            released.await(10, TimeUnit.SECONDS);
+            written.addAll(batch);
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
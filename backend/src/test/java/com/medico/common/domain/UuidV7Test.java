@@ -0,0 +1,68 @@
+package com.medico.common.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    // Postgres compares uuid values as unsigned bytes, unlike UUID.compareTo on signed longs
+    private static final Comparator<UUID> UNSIGNED = Comparator
+        .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+        .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    @Test
+    void setsVersionAndVariantBits() {
+        for (int i = 0; i < 1_000; i++) {
+            UUID id = UuidV7.next();
+            assertThat(id.version()).isEqualTo(7);
+            assertThat(id.variant()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void carriesTheCurrentMillisecond() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        // A burst that overflowed the sequence may run slightly ahead of the clock
+        assertThat(timestamp).isBetween(before, after + 1_000);
+    }
+
+    @Test
+    void staysStrictlyIncreasingWithinOneMillisecond() {
+        // Far more identifiers than fit in a millisecond, so many share one and some overflow the sequence
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            ids.add(UuidV7.next());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(UNSIGNED.compare(ids.get(i - 1), ids.get(i))).isNegative();
+        }
+        long distinctMilliseconds = ids.stream().map(id -> id.getMostSignificantBits() >>> 16).distinct().count();
+        assertThat(distinctMilliseconds).isLessThan(ids.size());
+    }
+
+    @Test
+    void sortsByCreationOrderAsUnsignedBytes() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(UuidV7.next());
+        }
+        List<UUID> shuffled = new ArrayList<>(ids);
+        Collections.shuffle(shuffled);
+
+        shuffled.sort(UNSIGNED);
+
+        assertThat(shuffled).containsExactlyElementsOf(ids);
+    }
+}
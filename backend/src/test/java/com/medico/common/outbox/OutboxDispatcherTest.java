@@ -0,0 +1,126 @@
+package com.medico.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    private static final String TYPE = "Tested";
+
+    @Mock
+    private OutboxEventRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> delivered = new ArrayList<>();
+    private final Set<UUID> failing = new HashSet<>();
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        OutboxEventListener listener = new OutboxEventListener() {
+            @Override
+            public Set<String> eventTypes() {
+                return Set.of(TYPE);
+            }
+
+            @Override
+            public void onEvent(OutboxMessage message) {
+                if (failing.contains(message.id())) {
+                    throw new IllegalStateException("listener failed");
+                }
+                delivered.add(message.id());
+            }
+        };
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        dispatcher = new OutboxDispatcher(repository, new ObjectMapper(), List.of(listener), transactionManager);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 5);
+        ReflectionTestUtils.setField(dispatcher, "retryBackoff", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void failedEventHoldsBackTheRestOfItsAggregateOnly() {
+        UUID blocked = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        OutboxEvent first = event(blocked, 0);
+        OutboxEvent second = event(blocked, 0);
+        OutboxEvent unrelated = event(other, 0);
+        failing.add(first.getId());
+        when(repository.tryLockDispatcher(anyLong())).thenReturn(true);
+        when(repository.findPending(eq(5), any(), eq(100))).thenReturn(List.of(first, second, unrelated));
+
+        dispatcher.dispatch();
+
+        assertThat(delivered).containsExactly(unrelated.getId());
+        verify(repository).markPublished(eq(List.of(unrelated.getId())), any());
+        verify(repository).markFailed(eq(first.getId()), contains("listener failed"), any());
+        verify(repository, never()).markFailed(eq(second.getId()), any(), any());
+    }
+
+    @Test
+    void failedEventIsScheduledWithExponentialBackoff() {
+        OutboxEvent event = event(UUID.randomUUID(), 2);
+        failing.add(event.getId());
+        when(repository.tryLockDispatcher(anyLong())).thenReturn(true);
+        when(repository.findPending(anyInt(), any(), anyInt())).thenReturn(List.of(event));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).markFailed(eq(event.getId()), any(), nextAttempt.capture());
+        // Third attempt: 2s doubled twice
+        assertThat(Duration.between(before, nextAttempt.getValue()).toMillis()).isCloseTo(8000L, within(1000L));
+        verify(repository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    void backoffDoublesAndIsCapped() {
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(dispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(16));
+        assertThat(dispatcher.backoff(5)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.backoff(64)).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void nothingIsDispatchedWithoutTheLock() {
+        when(repository.tryLockDispatcher(anyLong())).thenReturn(false);
+
+        dispatcher.dispatch();
+
+        verify(repository, never()).findPending(anyInt(), any(), anyInt());
+    }
+
+    private static OutboxEvent event(UUID aggregateId, int attempts) {
+        return OutboxEvent.builder()
+            .id(UUID.randomUUID())
+            .aggregateType("Test")
+            .aggregateId(aggregateId)
+            .eventType(TYPE)
+            .payload("{}")
+            .attempts(attempts)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+}
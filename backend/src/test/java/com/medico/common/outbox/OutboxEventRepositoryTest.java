@@ -0,0 +1,80 @@
+package com.medico.common.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class OutboxEventRepositoryTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private OutboxEventRepository repository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void dueEventsOfAnAggregateAreReturnedInAppendOrder() {
+        UUID aggregate = UUID.randomUUID();
+        OutboxEvent first = save(aggregate, 0, null);
+        OutboxEvent second = save(aggregate, 0, null);
+        OutboxEvent third = save(aggregate, 1, now.minusSeconds(1));
+
+        assertThat(findPending()).containsExactly(first.getId(), second.getId(), third.getId());
+    }
+
+    @Test
+    void eventBackingOffHoldsBackLaterEventsOfItsAggregate() {
+        UUID blocked = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        save(blocked, 1, now.plusMinutes(1));
+        save(blocked, 0, null);
+        OutboxEvent unrelated = save(other, 0, null);
+
+        assertThat(findPending()).containsExactly(unrelated.getId());
+    }
+
+    @Test
+    void deadLetteredEventHoldsBackLaterEventsOfItsAggregate() {
+        UUID aggregate = UUID.randomUUID();
+        save(aggregate, MAX_ATTEMPTS, now.minusMinutes(1));
+        save(aggregate, 0, null);
+
+        assertThat(findPending()).isEmpty();
+    }
+
+    @Test
+    void publishedEarlierEventsDoNotHoldBackLaterOnes() {
+        UUID aggregate = UUID.randomUUID();
+        OutboxEvent published = save(aggregate, MAX_ATTEMPTS, null);
+        published.setPublishedAt(now);
+        repository.saveAndFlush(published);
+        OutboxEvent pending = save(aggregate, 0, null);
+
+        assertThat(findPending()).containsExactly(pending.getId());
+    }
+
+    private List<UUID> findPending() {
+        return repository.findPending(MAX_ATTEMPTS, now, 100).stream().map(OutboxEvent::getId).toList();
+    }
+
+    private OutboxEvent save(UUID aggregateId, int attempts, LocalDateTime nextAttemptAt) {
+        return repository.saveAndFlush(OutboxEvent.builder()
+            .aggregateType("Test")
+            .aggregateId(aggregateId)
+            .eventType("Tested")
+            .payload("{}")
+            .attempts(attempts)
+            .nextAttemptAt(nextAttemptAt)
+            .build());
+    }
+}
@@ -0,0 +1,62 @@
+package com.medico.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medico.common.event.StateChangedEvent;
+import com.medico.common.event.StateChangedEvent.State;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxTest {
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    @Test
+    void eventTypesWithoutSubscriberAreNotWritten() {
+        Outbox outbox = new Outbox(repository, new ObjectMapper(), List.of(listener("Subscribed")));
+
+        outbox.append("Test", UUID.randomUUID(), "Unsubscribed", "payload");
+        outbox.onStateChanged(StateChangedEvent.changed(Object.class, UUID.randomUUID(),
+            State.of(true, null), State.of(false, null)));
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void subscribedEventTypesAreWritten() {
+        Outbox outbox = new Outbox(repository, new ObjectMapper(), List.of(listener("Subscribed")));
+        UUID aggregateId = UUID.randomUUID();
+
+        outbox.append("Test", aggregateId, "Subscribed", "payload");
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getAggregateId()).isEqualTo(aggregateId);
+        assertThat(saved.getValue().getPayload()).isEqualTo("\"payload\"");
+    }
+
+    private static OutboxEventListener listener(String type) {
+        return new OutboxEventListener() {
+            @Override
+            public Set<String> eventTypes() {
+                return Set.of(type);
+            }
+
+            @Override
+            public void onEvent(OutboxMessage message) {
+            }
+        };
+    }
+}
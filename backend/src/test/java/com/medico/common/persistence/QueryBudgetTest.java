@@ -0,0 +1,359 @@
+package com.medico.common.persistence;
+
+import com.medico.admin.service.PartitionMaintenanceService;
+import com.medico.billing.domain.BillingItem;
+import com.medico.billing.domain.BillingItem.BillingItemType;
+import com.medico.billing.domain.Invoice;
+import com.medico.billing.domain.Invoice.InvoiceStatus;
+import com.medico.billing.domain.Payment;
+import com.medico.billing.domain.Payment.PaymentMethod;
+import com.medico.billing.domain.Payment.PaymentStatus;
+import com.medico.billing.repository.InvoiceRepository;
+import com.medico.billing.repository.PaymentRepository;
+import com.medico.laboratory.domain.LabOrder;
+import com.medico.laboratory.domain.LabOrder.OrderPriority;
+import com.medico.laboratory.domain.LabOrder.OrderStatus;
+import com.medico.laboratory.domain.LabOrderItem;
+import com.medico.laboratory.domain.LabOrderItem.ItemStatus;
+import com.medico.laboratory.domain.LabResult;
+import com.medico.laboratory.domain.LabResult.ResultFlag;
+import com.medico.laboratory.domain.LabTest;
+import com.medico.laboratory.domain.LabTest.LabTestCategory;
+import com.medico.laboratory.repository.LabOrderRepository;
+import com.medico.laboratory.repository.LabResultRepository;
+import com.medico.laboratory.repository.LabTestRepository;
+import com.medico.patient.domain.*;
+import com.medico.patient.domain.Appointment.AppointmentStatus;
+import com.medico.patient.domain.Appointment.AppointmentType;
+import com.medico.patient.domain.MedicalRecord.RecordType;
+import com.medico.patient.domain.Patient.Gender;
+import com.medico.patient.domain.Prescription.PrescriptionStatus;
+import com.medico.patient.repository.AppointmentRepository;
+import com.medico.patient.repository.MedicalRecordRepository;
+import com.medico.patient.repository.PatientRepository;
+import com.medico.patient.repository.PrescriptionRepository;
+import com.medico.pharmacy.domain.Inventory;
+import com.medico.pharmacy.domain.Inventory.InventoryStatus;
+import com.medico.pharmacy.domain.Medication;
+import com.medico.pharmacy.domain.Medication.MedicationCategory;
+import com.medico.pharmacy.domain.Medication.MedicationForm;
+import com.medico.pharmacy.domain.PrescriptionDispensing;
+import com.medico.pharmacy.domain.PrescriptionDispensing.DispensingStatus;
+import com.medico.pharmacy.domain.Supplier;
+import com.medico.pharmacy.repository.InventoryRepository;
+import com.medico.pharmacy.repository.MedicationRepository;
+import com.medico.pharmacy.repository.PrescriptionDispensingRepository;
+import com.medico.pharmacy.repository.SupplierRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.method.HandlerMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs {@link QueryBudget}-annotated endpoints against a data set large enough to expose
+ * per-row lazy loading, and fails when an endpoint issues more statements than it declares.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+    private static final int PATIENTS = 5;
+    private static final int ROWS_PER_PATIENT = 4;
+    private static final int CATALOG_SIZE = 3;
+    private static final UUID DOCTOR_ID = UUID.randomUUID();
+    private static final UUID PHARMACIST_ID = UUID.randomUUID();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private LabTestRepository labTestRepository;
+    @Autowired
+    private LabOrderRepository labOrderRepository;
+    @Autowired
+    private LabResultRepository labResultRepository;
+    @Autowired
+    private SupplierRepository supplierRepository;
+    @Autowired
+    private MedicationRepository medicationRepository;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private PrescriptionDispensingRepository dispensingRepository;
+
+    // Creates PostgreSQL partitions on startup, which the in-memory database cannot do
+    @MockBean
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    private UUID patientId;
+    private UUID medicationId;
+
+    @BeforeAll
+    void seed() {
+        List<LabTest> labTests = new ArrayList<>();
+        List<Inventory> inventory = new ArrayList<>();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            labTests.add(labTestRepository.save(LabTest.builder()
+                .code("LT-BUDGET-" + i)
+                .name("Budget test " + i)
+                .category(LabTestCategory.CHEMISTRY)
+                .price(BigDecimal.TEN)
+                .build()));
+            Supplier supplier = supplierRepository.save(Supplier.builder()
+                .code("SUP-BUDGET-" + i)
+                .name("Budget supplier " + i)
+                .build());
+            Medication medication = medicationRepository.save(Medication.builder()
+                .code("MED-BUDGET-" + i)
+                .name("Budget medication " + i)
+                .category(MedicationCategory.ANALGESIC)
+                .form(MedicationForm.TABLET)
+                .unitPrice(BigDecimal.ONE)
+                .build());
+            medicationId = medication.getId();
+            for (int batch = 0; batch < 2; batch++) {
+                inventory.add(inventoryRepository.save(Inventory.builder()
+                    .medication(medication)
+                    .supplier(supplier)
+                    .batchNumber("BATCH-" + i + "-" + batch)
+                    .quantity(100)
+                    .expiryDate(LocalDate.now().plusYears(1))
+                    .status(InventoryStatus.AVAILABLE)
+                    .build()));
+            }
+        }
+
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(patientRepository.save(Patient.builder()
+                .medicalRecordNumber("MRN-BUDGET-" + i)
+                .firstName("Patient" + i)
+                .lastName("Budget")
+                .dateOfBirth(LocalDate.of(1970 + i, 1, 1))
+                .gender(Gender.OTHER)
+                .build()));
+        }
+        patientId = patients.get(0).getId();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        int slot = 0;
+        for (Patient patient : patients) {
+            for (int i = 0; i < ROWS_PER_PATIENT; i++, slot++) {
+                appointmentRepository.save(Appointment.builder()
+                    .patient(patient)
+                    .doctorId(DOCTOR_ID)
+                    .doctorName("Dr Budget")
+                    .appointmentDateTime(start.plusMinutes(30L * slot))
+                    .endDateTime(start.plusMinutes(30L * slot + 30))
+                    .status(AppointmentStatus.SCHEDULED)
+                    .type(AppointmentType.CONSULTATION)
+                    .build());
+                medicalRecordRepository.save(MedicalRecord.builder()
+                    .patient(patient)
+                    .doctorId(DOCTOR_ID)
+                    .doctorName("Dr Budget")
+                    .visitDate(start.minusDays(slot + 1L))
+                    .recordType(RecordType.CONSULTATION)
+                    .diagnosis("Diagnosis " + slot)
+                    .build());
+
+                Prescription prescription = Prescription.builder()
+                    .prescriptionNumber("RX-BUDGET-" + slot)
+                    .patient(patient)
+                    .doctorId(DOCTOR_ID)
+                    .doctorName("Dr Budget")
+                    .prescriptionDate(start.minusDays(slot + 1L))
+                    .status(PrescriptionStatus.ACTIVE)
+                    .build();
+                for (int item = 0; item < 2; item++) {
+                    prescription.addItem(PrescriptionItem.builder()
+                        .medicationName("Medication " + item)
+                        .dosage("10 mg")
+                        .frequency("daily")
+                        .quantity(30)
+                        .build());
+                }
+                prescription = prescriptionRepository.save(prescription);
+                for (PrescriptionItem item : prescription.getItems()) {
+                    dispensingRepository.save(PrescriptionDispensing.builder()
+                        .prescription(prescription)
+                        .prescriptionItem(item)
+                        .inventory(inventory.get(slot % inventory.size()))
+                        .dispensedQuantity(10)
+                        .dispensedAt(start.minusDays(slot))
+                        .dispensedBy(PHARMACIST_ID)
+                        .pharmacistName("Budget Pharmacist")
+                        .status(DispensingStatus.PARTIALLY_DISPENSED)
+                        .build());
+                }
+
+                Invoice invoice = Invoice.builder()
+                    .invoiceNumber("INV-BUDGET-" + slot)
+                    .patient(patient)
+                    .invoiceDate(start.minusDays(slot + 1L))
+                    .dueDate(start.toLocalDate().plusDays(30))
+                    .status(InvoiceStatus.PARTIALLY_PAID)
+                    .paidAmount(BigDecimal.TEN)
+                    .build();
+                for (int item = 0; item < 2; item++) {
+                    BillingItem billingItem = BillingItem.builder()
+                        .itemType(BillingItemType.CONSULTATION)
+                        .description("Service " + item)
+                        .quantity(1)
+                        .unitPrice(BigDecimal.valueOf(50))
+                        .build();
+                    billingItem.calculateTotal();
+                    invoice.addItem(billingItem);
+                }
+                invoice.calculateTotals();
+                invoice = invoiceRepository.save(invoice);
+                paymentRepository.save(Payment.builder()
+                    .paymentNumber("PAY-BUDGET-" + slot)
+                    .invoice(invoice)
+                    .amount(BigDecimal.TEN)
+                    .paymentDate(start.minusDays(slot))
+                    .paymentMethod(PaymentMethod.CASH)
+                    .status(PaymentStatus.COMPLETED)
+                    .build());
+
+                LabOrder labOrder = LabOrder.builder()
+                    .orderNumber("LAB-BUDGET-" + slot)
+                    .patient(patient)
+                    .orderingDoctorId(DOCTOR_ID)
+                    .orderingDoctorName("Dr Budget")
+                    .orderDate(start.minusDays(slot + 1L))
+                    .priority(OrderPriority.ROUTINE)
+                    .status(OrderStatus.IN_PROGRESS)
+                    .build();
+                for (LabTest labTest : labTests.subList(0, 2)) {
+                    labOrder.addItem(LabOrderItem.builder()
+                        .labTest(labTest)
+                        .status(ItemStatus.COMPLETED)
+                        .build());
+                }
+                labOrder = labOrderRepository.save(labOrder);
+                for (LabOrderItem item : labOrder.getItems()) {
+                    labResultRepository.save(LabResult.builder()
+                        .labOrderItem(item)
+                        .resultValue("12.5")
+                        .flag(ResultFlag.HIGH)
+                        .abnormal(true)
+                        .performedAt(start.minusDays(slot))
+                        .build());
+                }
+            }
+        }
+    }
+
+    @Test
+    void patientListsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/patients");
+        assertWithinBudget("/api/v1/patients/cursor");
+    }
+
+    @Test
+    void appointmentListsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/appointments");
+        assertWithinBudget("/api/v1/appointments/cursor");
+        assertWithinBudget("/api/v1/appointments/patient/" + patientId);
+        assertWithinBudget("/api/v1/appointments/doctor/" + DOCTOR_ID);
+    }
+
+    @Test
+    void medicalRecordListsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/medical-records/patient/" + patientId);
+    }
+
+    @Test
+    void prescriptionListsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/prescriptions/patient/" + patientId);
+        assertWithinBudget("/api/v1/prescriptions/status/ACTIVE");
+    }
+
+    @Test
+    void invoiceAndPaymentListsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/invoices");
+        assertWithinBudget("/api/v1/invoices/cursor");
+        assertWithinBudget("/api/v1/invoices/patient/" + patientId);
+        assertWithinBudget("/api/v1/invoices/status/PARTIALLY_PAID");
+        assertWithinBudget("/api/v1/payments/status/COMPLETED");
+    }
+
+    @Test
+    void labListsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/lab-orders");
+        assertWithinBudget("/api/v1/lab-orders/cursor");
+        assertWithinBudget("/api/v1/lab-orders/patient/" + patientId);
+        assertWithinBudget("/api/v1/lab-orders/status/IN_PROGRESS");
+        assertWithinBudget("/api/v1/lab-results/patient/" + patientId);
+        assertWithinBudget("/api/v1/lab-results/patient/" + patientId + "/abnormal");
+        assertWithinBudget("/api/v1/lab-tests");
+        assertWithinBudget("/api/v1/lab-tests/category/CHEMISTRY");
+        assertWithinBudget("/api/v1/lab-tests/search?query=budget");
+    }
+
+    @Test
+    void pharmacyListsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/v1/medications");
+        assertWithinBudget("/api/v1/medications/category/ANALGESIC");
+        assertWithinBudget("/api/v1/medications/search?query=budget");
+        assertWithinBudget("/api/v1/suppliers");
+        assertWithinBudget("/api/v1/suppliers/search?query=budget");
+        assertWithinBudget("/api/v1/inventory");
+        assertWithinBudget("/api/v1/inventory/cursor");
+        assertWithinBudget("/api/v1/inventory/medication/" + medicationId);
+        assertWithinBudget("/api/v1/inventory/status/AVAILABLE");
+        assertWithinBudget("/api/v1/dispensing/pharmacist/" + PHARMACIST_ID);
+        assertWithinBudget("/api/v1/dispensing/pharmacist/" + PHARMACIST_ID + "/cursor");
+    }
+
+    private void assertWithinBudget(String path) throws Exception {
+        QueryCounter.open();
+        MvcResult result;
+        int executed;
+        try {
+            result = mockMvc.perform(get(path).with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        } finally {
+            executed = QueryCounter.close();
+        }
+
+        QueryBudget budget = ((HandlerMethod) result.getHandler()).getMethodAnnotation(QueryBudget.class);
+        assertThat(budget).as("%s declares a query budget", path).isNotNull();
+        assertThat(executed).as("SQL statements issued by %s", path).isLessThanOrEqualTo(budget.value());
+    }
+}
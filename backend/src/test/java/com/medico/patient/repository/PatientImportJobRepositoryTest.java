@@ -0,0 +1,93 @@
+package com.medico.patient.repository;
+
+import com.medico.patient.domain.PatientImportJob;
+import com.medico.patient.domain.PatientImportJob.ImportFormat;
+import com.medico.patient.domain.PatientImportJob.ImportStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class PatientImportJobRepositoryTest {
+
+    @Autowired
+    private PatientImportJobRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final LocalDateTime staleBefore = now.minusMinutes(5);
+
+    @Test
+    void onlyOneRunClaimsAPendingJob() {
+        PatientImportJob job = save(ImportStatus.PENDING, now);
+        UUID first = UUID.randomUUID();
+
+        assertThat(repository.claim(job.getId(), first, now)).isEqualTo(1);
+        assertThat(repository.claim(job.getId(), UUID.randomUUID(), now)).isZero();
+        assertThat(reload(job).getLeaseOwner()).isEqualTo(first);
+    }
+
+    @Test
+    void runningJobWithAFreshHeartbeatIsNotRequeued() {
+        PatientImportJob job = save(ImportStatus.RUNNING, now.minusMinutes(1));
+
+        assertThat(repository.requeue(job.getId(), now, staleBefore)).isZero();
+    }
+
+    @Test
+    void runningJobWithAStaleHeartbeatIsRequeued() {
+        PatientImportJob job = save(ImportStatus.RUNNING, now.minusMinutes(10));
+
+        assertThat(repository.requeue(job.getId(), now, staleBefore)).isEqualTo(1);
+        assertThat(repository.requeue(job.getId(), now, staleBefore)).isZero();
+        assertThat(reload(job).getStatus()).isEqualTo(ImportStatus.PENDING);
+    }
+
+    @Test
+    void failedJobIsRequeuedButCompletedJobIsNot() {
+        PatientImportJob failed = save(ImportStatus.FAILED, now);
+        PatientImportJob completed = save(ImportStatus.COMPLETED, now.minusDays(1));
+
+        assertThat(repository.requeue(failed.getId(), now, staleBefore)).isEqualTo(1);
+        assertThat(repository.requeue(completed.getId(), now, staleBefore)).isZero();
+    }
+
+    @Test
+    void progressOfARunThatLostTheJobIsRejected() {
+        PatientImportJob job = save(ImportStatus.PENDING, now);
+        UUID stale = UUID.randomUUID();
+        UUID current = UUID.randomUUID();
+        repository.claim(job.getId(), stale, now);
+        repository.requeue(job.getId(), now, now.plusSeconds(1));
+        repository.claim(job.getId(), current, now);
+
+        assertThat(repository.updateProgress(job.getId(), stale, 10, 10, 0, 0, null, now)).isZero();
+        assertThat(repository.markFinished(job.getId(), stale, ImportStatus.FAILED, now, "lost")).isZero();
+        assertThat(repository.updateProgress(job.getId(), current, 10, 10, 0, 0, null, now)).isEqualTo(1);
+        assertThat(reload(job).getStatus()).isEqualTo(ImportStatus.RUNNING);
+    }
+
+    private PatientImportJob save(ImportStatus status, LocalDateTime heartbeatAt) {
+        return repository.saveAndFlush(PatientImportJob.builder()
+            .fileName("patients.csv")
+            .format(ImportFormat.CSV)
+            .status(status)
+            .heartbeatAt(heartbeatAt)
+            .build());
+    }
+
+    private PatientImportJob reload(PatientImportJob job) {
+        entityManager.clear();
+        return repository.findById(job.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,129 @@
+package com.medico.patient.repository;
+
+import com.medico.patient.domain.Patient;
+import com.medico.patient.domain.Patient.Gender;
+import com.medico.patient.domain.Prescription;
+import com.medico.patient.domain.Prescription.PrescriptionStatus;
+import com.medico.pharmacy.dto.DispensingQueueEntryDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class PrescriptionRepositoryTest {
+
+    @Autowired
+    private PrescriptionRepository repository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private final LocalDateTime leaseEnd = now.plusMinutes(5);
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = patientRepository.save(Patient.builder()
+            .medicalRecordNumber("MRN-CLAIM-" + UUID.randomUUID())
+            .firstName("Jane")
+            .lastName("Doe")
+            .dateOfBirth(LocalDate.of(1980, 1, 1))
+            .gender(Gender.FEMALE)
+            .build());
+    }
+
+    @Test
+    void heldPrescriptionCannotBeClaimedByAnotherPharmacist() {
+        UUID id = save(PrescriptionStatus.ACTIVE);
+
+        assertThat(repository.claimForDispensing(id, "alice", "Alice", now, leaseEnd)).isEqualTo(1);
+        assertThat(repository.claimForDispensing(id, "bob", "Bob", now, leaseEnd)).isZero();
+        assertThat(repository.claimForDispensing(id, "alice", "Alice", now, leaseEnd.plusMinutes(1))).isEqualTo(1);
+
+        DispensingQueueEntryDto entry = entry(id);
+        assertThat(entry.claimedBy()).isEqualTo("alice");
+        assertThat(entry.leaseExpiresAt()).isEqualTo(leaseEnd.plusMinutes(1));
+    }
+
+    @Test
+    void expiredClaimCanBeTakenOver() {
+        UUID id = save(PrescriptionStatus.PARTIALLY_DISPENSED);
+        repository.claimForDispensing(id, "alice", "Alice", now.minusMinutes(10), now.minusMinutes(5));
+
+        assertThat(repository.claimForDispensing(id, "bob", "Bob", now, leaseEnd)).isEqualTo(1);
+        assertThat(entry(id).claimedBy()).isEqualTo("bob");
+    }
+
+    @Test
+    void prescriptionThatIsNotWaitingCannotBeClaimed() {
+        UUID id = save(PrescriptionStatus.DISPENSED);
+
+        assertThat(repository.claimForDispensing(id, "alice", "Alice", now, leaseEnd)).isZero();
+    }
+
+    @Test
+    void onlyTheHolderRenewsOrReleasesACurrentClaim() {
+        UUID id = save(PrescriptionStatus.ACTIVE);
+        repository.claimForDispensing(id, "alice", "Alice", now, leaseEnd);
+
+        assertThat(repository.renewDispensingClaim(id, "bob", leaseEnd.plusMinutes(5))).isZero();
+        assertThat(repository.releaseDispensingClaim(id, "bob", now)).isZero();
+        assertThat(repository.renewDispensingClaim(id, "alice", leaseEnd.plusMinutes(5))).isEqualTo(1);
+        assertThat(repository.releaseDispensingClaim(id, "alice", now)).isEqualTo(1);
+
+        assertThat(entry(id).claimedBy()).isNull();
+        assertThat(repository.claimForDispensing(id, "bob", "Bob", now, leaseEnd)).isEqualTo(1);
+    }
+
+    @Test
+    void expiredClaimCanBeReleasedByAnyone() {
+        UUID id = save(PrescriptionStatus.ACTIVE);
+        repository.claimForDispensing(id, "alice", "Alice", now.minusMinutes(10), now.minusMinutes(5));
+
+        assertThat(repository.releaseDispensingClaim(id, "bob", now)).isEqualTo(1);
+    }
+
+    @Test
+    void findsThePatientsPrescriptionsInAnyOfTheStatuses() {
+        UUID active = save(PrescriptionStatus.ACTIVE);
+        UUID partial = save(PrescriptionStatus.PARTIALLY_DISPENSED);
+        save(PrescriptionStatus.DISPENSED);
+
+        assertThat(repository.findByPatientIdAndStatusIn(patient.getId(),
+                List.of(PrescriptionStatus.ACTIVE, PrescriptionStatus.PARTIALLY_DISPENSED)))
+            .extracting(Prescription::getId)
+            .containsExactlyInAnyOrder(active, partial);
+    }
+
+    private UUID save(PrescriptionStatus status) {
+        return repository.saveAndFlush(Prescription.builder()
+            .prescriptionNumber("RX-CLAIM-" + UUID.randomUUID())
+            .patient(patient)
+            .doctorId(UUID.randomUUID())
+            .doctorName("Dr Claim")
+            .prescriptionDate(now.minusHours(1))
+            .status(status)
+            .build()).getId();
+    }
+
+    private DispensingQueueEntryDto entry(UUID id) {
+        entityManager.clear();
+        return repository.findDispensingQueueEntry(id, LocalDate.now()).orElseThrow();
+    }
+}
@@ -0,0 +1,221 @@
+package com.medico.patient.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medico.common.audit.AuditTrail;
+import com.medico.patient.domain.PatientImportJob;
+import com.medico.patient.domain.PatientImportJob.ImportFormat;
+import com.medico.patient.domain.PatientImportJob.ImportStatus;
+import com.medico.patient.repository.PatientImportJobRepository;
+import com.medico.patient.repository.PatientRepository;
+import com.medico.patient.service.PatientImportWriter.NewPatient;
+import com.medico.patient.service.PatientImportWriter.Progress;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientImportServiceTest {
+
+    // Chunks of two: [1, 2] [3, 4] [5, 6] [7]
+    private static final String FILE = String.join("\n",
+        patient("ann@example.org", "Ann", "Able"),
+        // Invalid, so its email must not hide the valid record on line 6
+        patient("dup@example.org", "Dan", null),
+        patient("cid@example.org", "Cid", "Cole"),
+        patient("taken@example.org", "Tom", "Taken"),
+        patient("ann@example.org", "Annie", "Other"),
+        patient("dup@example.org", "Dan", "Dupont"),
+        patient(null, "Eve", "Evans"));
+
+    @Mock
+    private PatientImportJobRepository jobRepository;
+    @Mock
+    private PatientRepository patientRepository;
+    @Mock
+    private PatientImportWriter writer;
+    @Mock
+    private PatientMatchService patientMatchService;
+    @Mock
+    private MrnAllocator mrnAllocator;
+    @Mock
+    private ThreadPoolTaskExecutor patientImportExecutor;
+    @Mock
+    private ObjectProvider<AuditTrail> auditTrail;
+    @Captor
+    private ArgumentCaptor<List<NewPatient>> patients;
+    @Captor
+    private ArgumentCaptor<Progress> progress;
+
+    @TempDir
+    private Path importDir;
+
+    private final ThreadPoolTaskExecutor validationExecutor = new ThreadPoolTaskExecutor();
+    private PatientImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        validationExecutor.initialize();
+        importService = new PatientImportService(jobRepository, patientRepository, writer, patientMatchService,
+            mrnAllocator, new ObjectMapper().findAndRegisterModules(),
+            Validation.buildDefaultValidatorFactory().getValidator(), patientImportExecutor, validationExecutor,
+            auditTrail);
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        ReflectionTestUtils.setField(importService, "parallelism", 1);
+        ReflectionTestUtils.setField(importService, "importDir", importDir);
+        ReflectionTestUtils.setField(importService, "lease", Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        validationExecutor.shutdown();
+    }
+
+    private void stubPipeline() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(patientImportExecutor).execute(any(Runnable.class));
+        when(writer.claim(any(), any())).thenReturn(true);
+        lenient().when(patientMatchService.matchKeys(any())).thenReturn(Map.of());
+        when(mrnAllocator.allocate(anyInt())).thenAnswer(invocation -> IntStream
+            .range(0, invocation.<Integer>getArgument(0)).mapToObj(i -> "MRN-" + i).toList());
+        when(patientRepository.findExistingEmails(anyCollection())).thenAnswer(invocation -> invocation
+            .<Collection<String>>getArgument(0).stream()
+            .filter("taken@example.org"::equals)
+            .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void commitsEveryChunkInFileOrderSkippingDuplicates() {
+        stubPipeline();
+        UUID jobId = UUID.randomUUID();
+        when(jobRepository.save(any())).thenAnswer(invocation -> {
+            PatientImportJob job = invocation.getArgument(0);
+            job.setId(jobId);
+            when(jobRepository.findById(jobId)).thenReturn(Optional.of(job));
+            return job;
+        });
+
+        inTransaction(() -> importService.startImport(
+            new MockMultipartFile("file", "patients.ndjson", null, FILE.getBytes(StandardCharsets.UTF_8)), null));
+
+        verify(writer, times(4)).writeChunk(eq(jobId), any(), any(), patients.capture(), progress.capture());
+        assertThat(patients.getAllValues()).extracting(PatientImportServiceTest::emails)
+            .containsExactly(List.of("ann@example.org"), List.of("cid@example.org"), List.of("dup@example.org"),
+                Collections.singletonList(null));
+        assertThat(progress.getValue()).isEqualTo(new Progress(7, 4, 2, 1, progress.getValue().errorSample()));
+        assertThat(progress.getValue().errorSample()).startsWith("Record 2: lastName");
+        verify(writer).markFinished(eq(jobId), any(), eq(ImportStatus.COMPLETED), eq(null));
+    }
+
+    @Test
+    void resumeRebuildsTheDuplicateCheckFromValidCommittedRecords() throws Exception {
+        stubPipeline();
+        // An earlier run committed the first two chunks before failing
+        PatientImportJob job = PatientImportJob.builder()
+            .id(UUID.randomUUID())
+            .fileName("patients.ndjson")
+            .format(ImportFormat.NDJSON)
+            .status(ImportStatus.FAILED)
+            .processedRows(4)
+            .importedRows(2)
+            .duplicateRows(1)
+            .invalidRows(1)
+            .errorSample("Record 2: lastName Last name is required")
+            .build();
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(jobRepository.requeue(eq(job.getId()), any(), any())).thenReturn(1);
+        Files.writeString(importDir.resolve(job.getId() + ".import"), FILE);
+
+        inTransaction(() -> importService.resumeImport(job.getId()));
+
+        verify(writer, times(2)).writeChunk(eq(job.getId()), any(), any(), patients.capture(), progress.capture());
+        // Line 5 repeats line 1; line 6 only shares its email with the invalid line 2
+        assertThat(patients.getAllValues()).extracting(PatientImportServiceTest::emails)
+            .containsExactly(List.of("dup@example.org"), Collections.singletonList(null));
+        assertThat(progress.getAllValues()).extracting(Progress::processed, Progress::imported, Progress::duplicates,
+                Progress::invalid)
+            .containsExactly(tuple(6L, 3L, 2L, 1L), tuple(7L, 4L, 2L, 1L));
+    }
+
+    @Test
+    void identityPrefersTheNormalizedEmail() {
+        assertThat(PatientImportService.identity(record(" Jane.Doe@Example.org ", "Jane", "Doe", "1980-01-01")))
+            .isEqualTo(PatientImportService.identity(record("jane.doe@example.org", "Janet", "Smith", "1990-02-02")));
+    }
+
+    @Test
+    void identityFallsBackToNameAndDateOfBirth() {
+        assertThat(PatientImportService.identity(record(null, " JANE ", "doe", "1980-01-01")))
+            .isEqualTo(PatientImportService.identity(record("", "jane", "Doe", "1980-01-01")));
+        assertThat(PatientImportService.identity(record(null, "Jane", "Doe", "1980-01-01")))
+            .isNotEqualTo(PatientImportService.identity(record(null, "Jane", "Doe", "1980-01-02")));
+    }
+
+    private static void inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static List<String> emails(List<NewPatient> chunk) {
+        return chunk.stream().map(patient -> patient.request().email()).toList();
+    }
+
+    private static String patient(String email, String firstName, String lastName) {
+        return "{\"email\": " + json(email) + ", \"firstName\": " + json(firstName) + ", \"lastName\": "
+            + json(lastName) + ", \"dateOfBirth\": \"1980-01-01\", \"gender\": \"FEMALE\"}";
+    }
+
+    private static String json(String value) {
+        return value != null ? "\"" + value + "\"" : "null";
+    }
+
+    private static Map<String, Object> record(String email, String firstName, String lastName, String dateOfBirth) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("email", email);
+        values.put("firstName", firstName);
+        values.put("lastName", lastName);
+        values.put("dateOfBirth", dateOfBirth);
+        return values;
+    }
+}
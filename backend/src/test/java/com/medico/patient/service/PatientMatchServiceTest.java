@@ -0,0 +1,54 @@
+package com.medico.patient.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PatientMatchServiceTest {
+
+    @Test
+    void soundexEncodesStandardExamples() {
+        assertThat(PatientMatchService.soundex("robert")).isEqualTo("R163");
+        assertThat(PatientMatchService.soundex("rupert")).isEqualTo("R163");
+        assertThat(PatientMatchService.soundex("tymczak")).isEqualTo("T522");
+        assertThat(PatientMatchService.soundex("lee")).isEqualTo("L000");
+    }
+
+    @Test
+    void soundexSkipsFirstLetterCodeAndHwSeparators() {
+        assertThat(PatientMatchService.soundex("pfister")).isEqualTo("P236");
+        assertThat(PatientMatchService.soundex("ashcraft")).isEqualTo("A261");
+    }
+
+    @Test
+    void soundexOfEmptyNameIsEmpty() {
+        assertThat(PatientMatchService.soundex("")).isEmpty();
+    }
+
+    @Test
+    void normalizeNameStripsDiacriticsAndNonLetters() {
+        assertThat(PatientMatchService.normalizeName("  José-María O'Neil ")).isEqualTo("josemariaoneil");
+        assertThat(PatientMatchService.normalizeName(null)).isEmpty();
+    }
+
+    @Test
+    void jaroWinklerMatchesReferenceValues() {
+        assertThat(PatientMatchService.jaroWinkler("martha", "marhta")).isCloseTo(0.961, within(0.001));
+        assertThat(PatientMatchService.jaroWinkler("dwayne", "duane")).isCloseTo(0.840, within(0.001));
+        assertThat(PatientMatchService.jaroWinkler("dixon", "dicksonx")).isCloseTo(0.813, within(0.001));
+    }
+
+    @Test
+    void jaroWinklerHandlesIdenticalEmptyAndDisjointStrings() {
+        assertThat(PatientMatchService.jaroWinkler("smith", "smith")).isEqualTo(1.0);
+        assertThat(PatientMatchService.jaroWinkler("", "smith")).isZero();
+        assertThat(PatientMatchService.jaroWinkler("abc", "xyz")).isZero();
+    }
+
+    @Test
+    void jaroWinklerIsSymmetric() {
+        assertThat(PatientMatchService.jaroWinkler("jonathan", "johnathan"))
+            .isEqualTo(PatientMatchService.jaroWinkler("johnathan", "jonathan"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.medico.patient.service;
+
+import com.medico.common.exception.DuplicateRecordException;
+import com.medico.patient.domain.Patient;
+import com.medico.patient.domain.Patient.Gender;
+import com.medico.patient.dto.CreatePatientRequest;
+import com.medico.patient.dto.DuplicateCandidateDto;
+import com.medico.patient.mapper.PatientMapper;
+import com.medico.patient.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientServiceTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+    @Mock
+    private PatientMapper patientMapper;
+    @Mock
+    private PatientMatchService patientMatchService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private MrnAllocator mrnAllocator;
+
+    @InjectMocks
+    private PatientService patientService;
+
+    private static final DuplicateCandidateDto CANDIDATE = new DuplicateCandidateDto(
+        UUID.randomUUID(), "MRN-0000001", "Jane Doe", LocalDate.of(1980, 3, 4), null, null, 0.95,
+        List.of("dateOfBirth", "lastName", "firstName"));
+
+    @Test
+    void createPatientRejectsProbableDuplicateWithCandidates() {
+        CreatePatientRequest request = request(false);
+        when(patientMatchService.findProbableDuplicates(request)).thenReturn(List.of(CANDIDATE));
+
+        assertThatThrownBy(() -> patientService.createPatient(request))
+            .isInstanceOfSatisfying(DuplicateRecordException.class, ex ->
+                assertThat(ex.getCandidates()).isEqualTo(List.of(CANDIDATE)));
+        verify(patientRepository, never()).save(any());
+    }
+
+    @Test
+    void createPatientWithOverrideSkipsDuplicateCheck() {
+        CreatePatientRequest request = request(true);
+        Patient patient = Patient.builder().id(UUID.randomUUID()).firstName("Jane").lastName("Doe").build();
+        when(patientMapper.toEntity(request)).thenReturn(patient);
+        when(mrnAllocator.allocate()).thenReturn("MRN-0000002");
+        when(patientRepository.save(patient)).thenReturn(patient);
+
+        patientService.createPatient(request);
+
+        verify(patientMatchService, never()).findProbableDuplicates(any());
+        verify(patientRepository).save(patient);
+        verify(patientMatchService).indexPatient(patient);
+    }
+
+    private static CreatePatientRequest request(boolean overrideDuplicates) {
+        return new CreatePatientRequest("Jane", "Doe", LocalDate.of(1980, 3, 4), Gender.FEMALE,
+            null, null, null, null, null, null, null, null, null, null, null, null, overrideDuplicates);
+    }
+}
@@ -0,0 +1,104 @@
+package com.medico.pharmacy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medico.common.exception.BusinessException;
+import com.medico.patient.domain.Prescription.PrescriptionPriority;
+import com.medico.patient.domain.Prescription.PrescriptionStatus;
+import com.medico.patient.repository.PrescriptionRepository;
+import com.medico.pharmacy.dto.DispensingQueueEntryDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DispensingQueueServiceTest {
+
+    private final UUID prescriptionId = UUID.randomUUID();
+    private final DispensingQueueEntryDto waiting = new DispensingQueueEntryDto(prescriptionId, "RX-1",
+        UUID.randomUUID(), "Jane Doe", "Dr Queue", PrescriptionPriority.ROUTINE, PrescriptionStatus.ACTIVE,
+        LocalDateTime.now().minusHours(1), 1, null, null, null);
+
+    @Mock
+    private PrescriptionRepository prescriptionRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DispensingQueueService queueService;
+
+    @BeforeEach
+    void setUp() {
+        queueService = new DispensingQueueService(prescriptionRepository, new ObjectMapper(), transactionManager);
+        ReflectionTestUtils.setField(queueService, "lease", Duration.ofMinutes(5));
+        when(prescriptionRepository.findDispensingQueueEntries(any())).thenReturn(List.of());
+        queueService.reconcile();
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void claimFailsWhenTheUpdateKeepsMissing() {
+        // The holder released between the update and the read, twice over
+        when(prescriptionRepository.claimForDispensing(eq(prescriptionId), eq("alice"), any(), any(), any()))
+            .thenReturn(0);
+        when(prescriptionRepository.findDispensingQueueEntry(eq(prescriptionId), any())).thenReturn(Optional.of(waiting));
+
+        assertThatThrownBy(() -> queueService.claim(prescriptionId))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("could not be claimed");
+        verify(prescriptionRepository, times(2)).claimForDispensing(eq(prescriptionId), eq("alice"), any(), any(), any());
+    }
+
+    @Test
+    void claimSucceedsOnceTheRetriedUpdateMatches() {
+        LocalDateTime leaseEnd = LocalDateTime.now().plusMinutes(5);
+        when(prescriptionRepository.claimForDispensing(eq(prescriptionId), eq("alice"), any(), any(), any()))
+            .thenReturn(0, 1);
+        when(prescriptionRepository.findDispensingQueueEntry(eq(prescriptionId), any()))
+            .thenReturn(Optional.of(waiting), Optional.of(waiting.withClaim("alice", "alice", leaseEnd)));
+
+        assertThat(queueService.claim(prescriptionId).claimedBy()).isEqualTo("alice");
+    }
+
+    @Test
+    void claimReachesTheQueueOnlyAfterCommit() {
+        LocalDateTime leaseEnd = LocalDateTime.now().plusMinutes(5);
+        when(prescriptionRepository.claimForDispensing(eq(prescriptionId), eq("alice"), any(), any(), any()))
+            .thenReturn(1);
+        when(prescriptionRepository.findDispensingQueueEntry(eq(prescriptionId), any()))
+            .thenReturn(Optional.of(waiting.withClaim("alice", "alice", leaseEnd)));
+
+        queueService.claim(prescriptionId);
+
+        assertThat(queueService.getQueue(10)).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(queueService.getQueue(10)).singleElement()
+            .extracting(DispensingQueueEntryDto::claimedBy).isEqualTo("alice");
+    }
+}
@@ -0,0 +1,102 @@
+package com.medico.pharmacy.service;
+
+import com.medico.common.exception.BusinessException;
+import com.medico.patient.domain.Prescription.PrescriptionPriority;
+import com.medico.patient.domain.Prescription.PrescriptionStatus;
+import com.medico.pharmacy.dto.DispensingQueueEntryDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DispensingQueueTest {
+
+    private final DispensingQueue queue = new DispensingQueue();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void refreshReadBeforeARemovalDoesNotBringTheEntryBack() {
+        DispensingQueueEntryDto dispensed = entry(PrescriptionPriority.ROUTINE, 1);
+        DispensingQueueEntryDto waiting = entry(PrescriptionPriority.ROUTINE, 2);
+        queue.replaceAll(List.of(dispensed, waiting), queue.sequence());
+
+        long readFrom = queue.sequence();
+        // Dispensed while the refresh was reading
+        queue.remove(dispensed.prescriptionId());
+        queue.replaceAll(List.of(dispensed, waiting), readFrom);
+
+        assertThat(queue.snapshot(10)).containsExactly(waiting);
+    }
+
+    @Test
+    void refreshReadBeforeAClaimDoesNotUndoIt() {
+        DispensingQueueEntryDto entry = entry(PrescriptionPriority.ROUTINE, 1);
+        queue.replaceAll(List.of(entry), queue.sequence());
+
+        long readFrom = queue.sequence();
+        DispensingQueueEntryDto claimed = entry.withClaim("alice", "Alice", now.plusMinutes(5));
+        queue.put(claimed);
+        queue.replaceAll(List.of(entry), readFrom);
+        assertThat(queue.snapshot(10)).containsExactly(claimed);
+
+        // A later refresh applies again
+        queue.replaceAll(List.of(entry), queue.sequence());
+        assertThat(queue.snapshot(10)).containsExactly(entry);
+    }
+
+    @Test
+    void refreshAddsAndRemovesEntriesNotUpdatedSinceTheRead() {
+        DispensingQueueEntryDto expired = entry(PrescriptionPriority.ROUTINE, 1);
+        DispensingQueueEntryDto created = entry(PrescriptionPriority.STAT, 2);
+        queue.put(expired);
+
+        queue.replaceAll(List.of(created), queue.sequence());
+
+        assertThat(queue.snapshot(10)).containsExactly(created);
+        assertThat(queue.drainChanges().removed()).containsExactly(expired.prescriptionId());
+    }
+
+    @Test
+    void expiredClaimsReadFromTheDatabaseAreShownUnclaimed() {
+        DispensingQueueEntryDto entry = entry(PrescriptionPriority.ROUTINE, 1);
+
+        queue.put(entry.withClaim("alice", "Alice", now.minusMinutes(1)));
+
+        assertThat(queue.snapshot(10)).containsExactly(entry);
+    }
+
+    @Test
+    void unclaimedSkipsHeldEntriesInQueueOrder() {
+        DispensingQueueEntryDto stat = entry(PrescriptionPriority.STAT, 3);
+        DispensingQueueEntryDto urgent = entry(PrescriptionPriority.URGENT, 2);
+        DispensingQueueEntryDto routine = entry(PrescriptionPriority.ROUTINE, 1);
+        queue.replaceAll(List.of(routine, urgent, stat.withClaim("alice", "Alice", now.plusMinutes(5))),
+            queue.sequence());
+
+        assertThat(queue.unclaimed(now, 10)).containsExactly(urgent, routine);
+        assertThat(queue.unclaimed(now, 1)).containsExactly(urgent);
+    }
+
+    @Test
+    void onlyACurrentClaimOfAnotherPharmacistConflicts() {
+        DispensingQueueEntryDto held = entry(PrescriptionPriority.ROUTINE, 1).withClaim("alice", "Alice", now.plusMinutes(5));
+        DispensingQueueEntryDto expired = held.withClaim("alice", "Alice", now.minusMinutes(1));
+
+        assertThatThrownBy(() -> DispensingQueue.checkNotHeldByOther(held, "bob", now))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("is being dispensed by Alice");
+        assertThatCode(() -> DispensingQueue.checkNotHeldByOther(held, "alice", now)).doesNotThrowAnyException();
+        assertThatCode(() -> DispensingQueue.checkNotHeldByOther(expired, "bob", now)).doesNotThrowAnyException();
+    }
+
+    private DispensingQueueEntryDto entry(PrescriptionPriority priority, int hoursWaiting) {
+        UUID id = UUID.randomUUID();
+        return new DispensingQueueEntryDto(id, "RX-" + id, UUID.randomUUID(), "Jane Doe", "Dr Queue", priority,
+            PrescriptionStatus.ACTIVE, now.minusHours(hoursWaiting), 1, null, null, null);
+    }
+}
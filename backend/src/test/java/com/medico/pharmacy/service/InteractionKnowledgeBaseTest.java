@@ -0,0 +1,95 @@
+package com.medico.pharmacy.service;
+
+import com.medico.pharmacy.dto.ScreeningAlertDto.Severity;
+import com.medico.pharmacy.service.InteractionKnowledgeBase.Rule;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InteractionKnowledgeBaseTest {
+
+    private static final String HEADER = "kind,term,related,severity,description\n";
+
+    @Test
+    void commentsAreIgnored() throws IOException {
+        InteractionKnowledgeBase kb = load("""
+            # starter rules
+            kind,term,related,severity,description
+            # anticoagulants
+            class,warfarin,anticoagulant,,
+            """);
+
+        assertThat(kb.classMemberships()).isEqualTo(1);
+        assertThat(kb.interactionRules()).isZero();
+    }
+
+    @Test
+    void invalidSeverityFailsTheWholeLoad() {
+        assertThatThrownBy(() -> load(HEADER + """
+            interaction,warfarin,aspirin,MAJOR,bleeding
+            interaction,warfarin,ibuprofen,SEVERE,bleeding
+            """))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid severity 'SEVERE'");
+    }
+
+    @Test
+    void unknownKindFailsTheWholeLoad() {
+        assertThatThrownBy(() -> load(HEADER + "contraindication,warfarin,pregnancy,MAJOR,\n"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unknown rule kind 'contraindication'");
+    }
+
+    @Test
+    void conceptsIncludeTheClassesOfATerm() throws IOException {
+        InteractionKnowledgeBase kb = load(HEADER + """
+            class,Warfarin,anticoagulant,,
+            class, warfarin ,vitamin k antagonist,,
+            """);
+
+        int[] concepts = kb.concepts(List.of("WARFARIN", "UNKNOWN"));
+
+        assertThat(concepts).containsExactlyInAnyOrder(
+            kb.termId("WARFARIN"), kb.termId("ANTICOAGULANT"), kb.termId("VITAMIN K ANTAGONIST"));
+        assertThat(kb.termId("UNKNOWN")).isEqualTo(-1);
+    }
+
+    @Test
+    void interactionsAreFoundInEitherOrderAndTheStrongestRuleWins() throws IOException {
+        InteractionKnowledgeBase kb = load(HEADER + """
+            interaction,anticoagulant,nsaid,MODERATE,bleeding
+            interaction,nsaid,anticoagulant,MAJOR,serious bleeding
+            """);
+        int anticoagulant = kb.termId("ANTICOAGULANT");
+        int nsaid = kb.termId("NSAID");
+
+        Rule rule = kb.interaction(nsaid, anticoagulant);
+
+        assertThat(rule).isEqualTo(new Rule(Severity.MAJOR, "serious bleeding"));
+        assertThat(kb.interaction(anticoagulant, nsaid)).isSameAs(rule);
+        assertThat(kb.interactionRules()).isEqualTo(1);
+    }
+
+    @Test
+    void allergyRulesApplyToTheClassAndOnlyInOneDirection() throws IOException {
+        InteractionKnowledgeBase kb = load(HEADER + """
+            class,amoxicillin,penicillin,,
+            allergy,penicillin allergy,penicillin,CONTRAINDICATED,cross-reactivity
+            """);
+        int allergen = kb.termId("PENICILLIN ALLERGY");
+        int penicillin = kb.termId("PENICILLIN");
+
+        assertThat(kb.concepts(List.of("AMOXICILLIN"))).contains(penicillin);
+        assertThat(kb.allergy(allergen, penicillin)).isEqualTo(new Rule(Severity.CONTRAINDICATED, "cross-reactivity"));
+        assertThat(kb.allergy(penicillin, allergen)).isNull();
+    }
+
+    private static InteractionKnowledgeBase load(String rules) throws IOException {
+        return InteractionKnowledgeBase.load("test", new StringReader(rules));
+    }
+}
@@ -0,0 +1,133 @@
+package com.medico.pharmacy.service;
+
+import com.medico.common.exception.BusinessException;
+import com.medico.patient.domain.Patient;
+import com.medico.patient.domain.Prescription;
+import com.medico.patient.domain.Prescription.PrescriptionStatus;
+import com.medico.patient.domain.PrescriptionItem;
+import com.medico.patient.dto.CreatePrescriptionItemRequest;
+import com.medico.patient.repository.PrescriptionRepository;
+import com.medico.pharmacy.dto.ScreeningAlertDto;
+import com.medico.pharmacy.dto.ScreeningAlertDto.AlertType;
+import com.medico.pharmacy.dto.ScreeningAlertDto.Severity;
+import com.medico.pharmacy.repository.MedicationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MedicationScreeningServiceTest {
+
+    private static final String RULES = """
+        kind,term,related,severity,description
+        class,warfarin,anticoagulant,,
+        class,ibuprofen,nsaid,,
+        class,paracetamol,analgesic,,
+        interaction,anticoagulant,nsaid,MAJOR,increased bleeding risk
+        interaction,paracetamol,warfarin,MINOR,may raise INR
+        allergy,aspirin,nsaid,MODERATE,cross-sensitivity
+        """;
+
+    @Mock
+    private PrescriptionRepository prescriptionRepository;
+    @Mock
+    private MedicationRepository medicationRepository;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void interactionAtBlockSeverityIsRejectedUnlessOverridden() throws IOException {
+        MedicationScreeningService service = service(RULES);
+        Patient patient = patient(null);
+
+        List<ScreeningAlertDto> alerts = service.screen(patient, List.of(item("Warfarin"), item("ibuprofen")));
+
+        assertThat(alerts).singleElement().satisfies(alert -> {
+            assertThat(alert.alertType()).isEqualTo(AlertType.INTERACTION);
+            assertThat(alert.severity()).isEqualTo(Severity.MAJOR);
+            assertThat(alert.message()).contains("increased bleeding risk");
+        });
+        assertThatThrownBy(() -> service.checkPrescribable(alerts, false))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("1 unresolved screening alert");
+        assertThatCode(() -> service.checkPrescribable(alerts, true)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void partiallyDispensedPrescriptionsAreScreenedAgainst() throws IOException {
+        MedicationScreeningService service = service(RULES);
+        Patient patient = Patient.builder().build();
+        patient.setId(UUID.randomUUID());
+        Prescription current = Prescription.builder().prescriptionNumber("RX-1").build();
+        current.addItem(PrescriptionItem.builder().medicationName("Warfarin").build());
+        when(prescriptionRepository.findByPatientIdAndStatusIn(eq(patient.getId()),
+            argThat(statuses -> statuses.contains(PrescriptionStatus.PARTIALLY_DISPENSED)))).thenReturn(List.of(current));
+
+        List<ScreeningAlertDto> alerts = service.screen(patient, List.of(item("ibuprofen")));
+
+        assertThat(alerts).singleElement().satisfies(alert -> {
+            assertThat(alert.severity()).isEqualTo(Severity.MAJOR);
+            assertThat(alert.prescriptionNumber()).isEqualTo("RX-1");
+        });
+    }
+
+    @Test
+    void alertsBelowBlockSeverityDoNotBlock() throws IOException {
+        MedicationScreeningService service = service(RULES);
+
+        List<ScreeningAlertDto> alerts = service.screen(patient("Aspirin"), List.of(item("paracetamol"), item("ibuprofen")));
+
+        assertThat(alerts).extracting(ScreeningAlertDto::severity).containsExactly(Severity.MODERATE);
+        assertThatCode(() -> service.checkPrescribable(alerts, false)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void withoutValidRulesEveryPrescriptionNeedsAnOverride() throws IOException {
+        MedicationScreeningService service = service("kind,term,related,severity,description\n" +
+            "interaction,warfarin,aspirin,FATAL,\n");
+        Patient patient = patient(null);
+
+        List<ScreeningAlertDto> alerts = service.screen(patient, List.of(item("warfarin"), item("aspirin")));
+
+        assertThat(alerts).isEmpty();
+        assertThatThrownBy(() -> service.checkPrescribable(alerts, false))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("no valid interaction rules");
+        assertThatCode(() -> service.checkPrescribable(alerts, true)).doesNotThrowAnyException();
+    }
+
+    private MedicationScreeningService service(String rules) throws IOException {
+        Path file = Files.writeString(dir.resolve("rules.csv"), rules);
+        return new MedicationScreeningService(prescriptionRepository, medicationRepository, new DefaultResourceLoader(),
+            file.toUri().toString(), Severity.MAJOR);
+    }
+
+    private Patient patient(String allergies) {
+        Patient patient = Patient.builder().allergies(allergies).build();
+        patient.setId(UUID.randomUUID());
+        when(prescriptionRepository.findByPatientIdAndStatusIn(any(), any())).thenReturn(List.of());
+        return patient;
+    }
+
+    private static CreatePrescriptionItemRequest item(String name) {
+        return new CreatePrescriptionItemRequest(null, name, "1 tablet", "daily", null, 1, null, 0);
+    }
+}
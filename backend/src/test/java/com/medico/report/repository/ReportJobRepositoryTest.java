@@ -0,0 +1,113 @@
+package com.medico.report.repository;
+
+import com.medico.report.domain.ReportJob;
+import com.medico.report.domain.ReportJob.ReportPriority;
+import com.medico.report.domain.ReportJob.ReportStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ReportJobRepositoryTest {
+
+    private static final String TYPE = "REVENUE";
+    private static final String HASH = "a".repeat(64);
+
+    @Autowired
+    private ReportJobRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private final LocalDateTime completedAfter = now.minusMinutes(15);
+
+    @Test
+    void pendingJobIsReused() {
+        ReportJob queued = save(ReportStatus.QUEUED, null);
+
+        assertThat(repository.findReusable(TYPE, HASH, completedAfter)).contains(queued);
+        assertThat(repository.findReusable(TYPE, "b".repeat(64), completedAfter)).isEmpty();
+    }
+
+    @Test
+    void completedJobIsReusedOnlyWithinTheCacheTtl() {
+        ReportJob recent = save(ReportStatus.COMPLETED, now.minusMinutes(5));
+
+        assertThat(repository.findReusable(TYPE, HASH, completedAfter)).contains(recent);
+        assertThat(repository.findReusable(TYPE, HASH, now.minusMinutes(1))).isEmpty();
+    }
+
+    @Test
+    void failedJobIsNotReused() {
+        save(ReportStatus.FAILED, now.minusMinutes(1));
+
+        assertThat(repository.findReusable(TYPE, HASH, completedAfter)).isEmpty();
+    }
+
+    @Test
+    void onlyOneWorkerClaimsAQueuedJob() {
+        ReportJob job = save(ReportStatus.QUEUED, null);
+
+        assertThat(repository.claim(job.getId(), now)).isEqualTo(1);
+        assertThat(repository.claim(job.getId(), now)).isZero();
+        assertThat(reload(job).getStatus()).isEqualTo(ReportStatus.RUNNING);
+    }
+
+    @Test
+    void staleJobStaysFailedWhenItsWorkerFinishesLate() {
+        ReportJob stale = save(ReportStatus.QUEUED, null);
+        ReportJob fresh = save(ReportStatus.QUEUED, null);
+        repository.claim(stale.getId(), now.minusMinutes(20));
+        repository.claim(fresh.getId(), now.minusMinutes(1));
+
+        assertThat(repository.failStale(now.minusMinutes(10), "Report was interrupted", now)).isEqualTo(1);
+        assertThat(repository.markCompleted(stale.getId(), 10, 100, now)).isZero();
+        assertThat(repository.markFailed(stale.getId(), "late", now)).isZero();
+        assertThat(repository.markCompleted(fresh.getId(), 10, 100, now)).isEqualTo(1);
+
+        assertThat(reload(stale).getStatus()).isEqualTo(ReportStatus.FAILED);
+        assertThat(reload(stale).getError()).isEqualTo("Report was interrupted");
+        assertThat(reload(fresh).getStatus()).isEqualTo(ReportStatus.COMPLETED);
+    }
+
+    @Test
+    void purgeSelectsOnlyOldFinishedJobs() {
+        ReportJob oldCompleted = save(ReportStatus.COMPLETED, now.minusDays(10));
+        ReportJob oldFailed = save(ReportStatus.FAILED, now.minusDays(10));
+        ReportJob oldQueued = save(ReportStatus.QUEUED, null);
+        save(ReportStatus.COMPLETED, now);
+        entityManager.createQuery("UPDATE ReportJob j SET j.createdAt = :createdAt WHERE j.id IN :ids")
+            .setParameter("createdAt", now.minusDays(10))
+            .setParameter("ids", List.of(oldCompleted.getId(), oldFailed.getId(), oldQueued.getId()))
+            .executeUpdate();
+
+        assertThat(repository.findFinishedIdsCreatedBefore(now.minusDays(7)))
+            .containsExactlyInAnyOrder(oldCompleted.getId(), oldFailed.getId());
+    }
+
+    private ReportJob save(ReportStatus status, LocalDateTime finishedAt) {
+        return repository.saveAndFlush(ReportJob.builder()
+            .reportType(TYPE)
+            .parameters("{}")
+            .parametersHash(HASH)
+            .priority(ReportPriority.NORMAL)
+            .status(status)
+            .finishedAt(finishedAt)
+            .build());
+    }
+
+    private ReportJob reload(ReportJob job) {
+        entityManager.clear();
+        return repository.findById(job.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,121 @@
+package com.medico.report.service;
+
+import com.medico.report.domain.ReportJob;
+import com.medico.report.domain.ReportJob.ReportPriority;
+import com.medico.report.domain.ReportJob.ReportStatus;
+import com.medico.report.dto.SubmitReportRequest;
+import com.medico.report.mapper.ReportJobMapper;
+import com.medico.report.repository.ReportJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    @Mock
+    private ReportJobRepository jobRepository;
+    @Mock
+    private ReportDefinitions definitions;
+    @Mock
+    private ReportWorker worker;
+    @Mock
+    private ReportFileStore fileStore;
+    @Mock
+    private ReportNotifier notifier;
+    @Mock
+    private ReportJobMapper mapper;
+
+    @InjectMocks
+    private ReportJobService reportJobService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reportJobService, "cacheTtl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(reportJobService, "maxQueued", 100);
+        ReflectionTestUtils.setField(reportJobService, "retention", Duration.ofDays(7));
+    }
+
+    @Test
+    void completedJobWithItsResultIsReused() {
+        ReportJob completed = job(ReportStatus.COMPLETED);
+        stubDefinition();
+        when(jobRepository.findReusable(eq("REVENUE"), anyString(), any())).thenReturn(Optional.of(completed));
+        when(fileStore.exists(completed.getId())).thenReturn(true);
+
+        reportJobService.submit(new SubmitReportRequest("REVENUE", Map.of(), null));
+
+        verify(mapper).toDto(completed);
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void completedJobWhoseResultIsGoneRunsAgain() {
+        ReportJob completed = job(ReportStatus.COMPLETED);
+        stubDefinition();
+        when(jobRepository.findReusable(eq("REVENUE"), anyString(), any())).thenReturn(Optional.of(completed));
+        when(fileStore.exists(completed.getId())).thenReturn(false);
+        when(jobRepository.save(any())).thenAnswer(invocation -> {
+            ReportJob job = invocation.getArgument(0);
+            job.setId(UUID.randomUUID());
+            return job;
+        });
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            reportJobService.submit(new SubmitReportRequest("REVENUE", Map.of(), null));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(jobRepository).save(argThat(job -> job.getStatus() == ReportStatus.QUEUED
+            && job.getPriority() == ReportPriority.LOW));
+    }
+
+    @Test
+    void purgeDeletesResultsAndRowsOfExpiredJobs() {
+        List<UUID> expired = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(jobRepository.findFinishedIdsCreatedBefore(any())).thenReturn(expired);
+
+        reportJobService.purgeExpiredJobs();
+
+        verify(worker).failStale();
+        expired.forEach(id -> verify(fileStore).delete(id));
+        verify(jobRepository).deleteAllByIdInBatch(expired);
+    }
+
+    private void stubDefinition() {
+        ReportDefinition definition = mock(ReportDefinition.class);
+        when(definitions.get("REVENUE")).thenReturn(definition);
+        when(definition.type()).thenReturn("REVENUE");
+        when(definition.normalize(any())).thenReturn(Map.of());
+        lenient().when(definition.defaultPriority()).thenReturn(ReportPriority.LOW);
+        when(mapper.parametersJson(any())).thenReturn("{}");
+    }
+
+    private static ReportJob job(ReportStatus status) {
+        return ReportJob.builder()
+            .id(UUID.randomUUID())
+            .reportType("REVENUE")
+            .parameters("{}")
+            .priority(ReportPriority.NORMAL)
+            .status(status)
+            .build();
+    }
+}
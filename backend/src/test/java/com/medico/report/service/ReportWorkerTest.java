@@ -0,0 +1,132 @@
+package com.medico.report.service;
+
+import com.medico.report.config.ReportExecutorConfig;
+import com.medico.report.domain.ReportJob;
+import com.medico.report.domain.ReportJob.ReportPriority;
+import com.medico.report.domain.ReportJob.ReportStatus;
+import com.medico.report.mapper.ReportJobMapper;
+import com.medico.report.repository.ReportJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportWorkerTest {
+
+    @Mock
+    private ReportJobRepository jobRepository;
+    @Mock
+    private ReportDefinitions definitions;
+    @Mock
+    private ReportNotifier notifier;
+    @Mock
+    private ReportJobMapper mapper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path reportDir;
+
+    private final ReportFileStore fileStore = new ReportFileStore();
+    private ThreadPoolTaskExecutor executor;
+    private ReportWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fileStore, "dir", reportDir);
+        // A single worker, so the queue order decides which job runs next
+        executor = new ReportExecutorConfig().reportExecutor(1);
+        worker = new ReportWorker(jobRepository, definitions, fileStore, notifier, mapper, executor,
+            transactionManager, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void queuedJobsRunByPriorityThenSubmissionOrder() throws Exception {
+        UUID busy = UUID.randomUUID();
+        UUID low = UUID.randomUUID();
+        UUID firstHigh = UUID.randomUUID();
+        UUID normal = UUID.randomUUID();
+        UUID secondHigh = UUID.randomUUID();
+        List<UUID> claimed = new CopyOnWriteArrayList<>();
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch allClaimed = new CountDownLatch(5);
+        when(jobRepository.claim(any(), any())).thenAnswer(invocation -> {
+            UUID id = invocation.getArgument(0);
+            if (id.equals(busy)) {
+                workerBusy.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            claimed.add(id);
+            allClaimed.countDown();
+            // Claimed elsewhere, so the worker moves straight on
+            return 0;
+        });
+
+        worker.enqueue(busy, ReportPriority.LOW);
+        assertThat(workerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+        worker.enqueue(low, ReportPriority.LOW);
+        worker.enqueue(firstHigh, ReportPriority.HIGH);
+        worker.enqueue(normal, ReportPriority.NORMAL);
+        worker.enqueue(secondHigh, ReportPriority.HIGH);
+        assertThat(worker.getQueuedCount()).isEqualTo(4);
+        release.countDown();
+
+        assertThat(allClaimed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(claimed).containsExactly(busy, firstHigh, secondHigh, normal, low);
+    }
+
+    @Test
+    void resultOfAJobFailedAsInterruptedIsDiscarded() {
+        UUID jobId = UUID.randomUUID();
+        ReportJob job = ReportJob.builder()
+            .id(jobId)
+            .reportType("REVENUE")
+            .parameters("{}")
+            .priority(ReportPriority.NORMAL)
+            .status(ReportStatus.RUNNING)
+            .build();
+        ReportDefinition definition = mock(ReportDefinition.class);
+        when(jobRepository.claim(eq(jobId), any())).thenReturn(1);
+        when(jobRepository.findById(jobId)).thenReturn(Optional.of(job));
+        when(definitions.get("REVENUE")).thenReturn(definition);
+        when(definition.columns()).thenReturn(List.of("total"));
+        when(mapper.parameters(job)).thenReturn(Map.of());
+        // failStale gave up on the job while it was running
+        when(jobRepository.markCompleted(eq(jobId), anyLong(), anyLong(), any())).thenReturn(0);
+
+        worker.enqueue(jobId, ReportPriority.NORMAL);
+
+        verify(notifier, timeout(5000)).finished(any());
+        assertThat(fileStore.exists(jobId)).isFalse();
+        verify(jobRepository, never()).markFailed(any(), any(), any());
+    }
+}
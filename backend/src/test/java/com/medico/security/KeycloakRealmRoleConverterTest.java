@@ -0,0 +1,71 @@
+package com.medico.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeycloakRealmRoleConverterTest {
+
+    @Test
+    void mapsRealmAndClientRoles() {
+        KeycloakRealmRoleConverter converter = new KeycloakRealmRoleConverter(10);
+
+        Collection<GrantedAuthority> authorities = converter.convert(token("a", Instant.now().plusSeconds(300)));
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority)
+            .containsExactly("ROLE_DOCTOR", "ROLE_NURSE", "ROLE_LAB_VIEWER");
+    }
+
+    @Test
+    void reusesTheAuthoritiesOfARepeatedToken() {
+        KeycloakRealmRoleConverter converter = new KeycloakRealmRoleConverter(10);
+        Instant expiresAt = Instant.now().plusSeconds(300);
+
+        Collection<GrantedAuthority> first = converter.convert(token("a", expiresAt));
+
+        assertThat(converter.convert(token("a", expiresAt))).isSameAs(first);
+    }
+
+    @Test
+    void convertsAnExpiredTokenAgain() {
+        KeycloakRealmRoleConverter converter = new KeycloakRealmRoleConverter(10);
+        Instant expiresAt = Instant.now().minusSeconds(1);
+
+        Collection<GrantedAuthority> first = converter.convert(token("a", expiresAt));
+
+        assertThat(converter.convert(token("a", expiresAt))).isNotSameAs(first).isEqualTo(first);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedTokenWhenFull() {
+        KeycloakRealmRoleConverter converter = new KeycloakRealmRoleConverter(2);
+        Instant expiresAt = Instant.now().plusSeconds(300);
+        Collection<GrantedAuthority> a = converter.convert(token("a", expiresAt));
+        Collection<GrantedAuthority> b = converter.convert(token("b", expiresAt));
+
+        // Touching "a" leaves "b" as the eldest entry when "c" arrives
+        converter.convert(token("a", expiresAt));
+        converter.convert(token("c", expiresAt));
+
+        assertThat(converter.convert(token("a", expiresAt))).isSameAs(a);
+        assertThat(converter.convert(token("b", expiresAt))).isNotSameAs(b);
+    }
+
+    private static Jwt token(String id, Instant expiresAt) {
+        return Jwt.withTokenValue("token-" + id)
+            .header("alg", "none")
+            .jti(id)
+            .issuedAt(expiresAt.minusSeconds(600))
+            .expiresAt(expiresAt)
+            .claim("realm_access", Map.of("roles", List.of("doctor", "nurse")))
+            .claim("resource_access", Map.of("medico-frontend", Map.of("roles", List.of("lab_viewer", "doctor"))))
+            .build();
+    }
+}
@@ -29,6 +29,7 @@ interface DashboardStats {
   pendingInvoices: number;
   overdueInvoices: number;
   activePrescriptions: number;
+  unavailableMetrics: string[];
 }
 
 export function DashboardPage() {